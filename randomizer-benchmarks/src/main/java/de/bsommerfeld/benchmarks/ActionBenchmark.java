@@ -0,0 +1,60 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionExecution;
+import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.impl.BaseAction;
+import de.bsommerfeld.model.action.value.Interval;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the press and release path of a single action through {@link
+ * Action#execute(ActionExecution)} and {@link Action#executeWithDelay(ActionExecution, long)}
+ * without any hold time. The execution is reused across calls, so only the action path is
+ * measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class ActionBenchmark {
+
+  @Param({"W", "MOUSE1", "MWHEELUP"})
+  private String key;
+
+  private Action action;
+  private ActionExecution execution;
+
+  @Setup
+  public void setup() {
+    BenchmarkFixtures.installHeadlessDependencies();
+    action = new BaseAction("Benchmark " + key, ActionKey.of(key));
+    action.setInterval(Interval.of(0, 0));
+    execution = new ActionExecution(action);
+  }
+
+  @Benchmark
+  public ActionExecution execute() {
+    action.execute(execution);
+    return execution;
+  }
+
+  @Benchmark
+  public ActionExecution executeWithDelay() {
+    action.executeWithDelay(execution, 0);
+    return execution;
+  }
+}
@@ -0,0 +1,70 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionType;
+import de.bsommerfeld.model.action.repository.DefaultActionRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures the lookups on {@link DefaultActionRepository} that deserialization and the UI use. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class ActionRepositoryBenchmark {
+
+  /** Whether the looked up action was registered first or last. */
+  @Param({"first", "last"})
+  private String position;
+
+  private DefaultActionRepository actionRepository;
+  private String actionName;
+
+  @Setup
+  public void setup() {
+    BenchmarkFixtures.installHeadlessDependencies();
+    actionRepository = new DefaultActionRepository();
+    List<Action> actions = BenchmarkFixtures.templateActions();
+    actions.forEach(actionRepository::register);
+    actionName =
+        "first".equals(position) ? actions.getFirst().getName() : actions.getLast().getName();
+  }
+
+  @Benchmark
+  public Action getByName() {
+    return actionRepository.getByName(actionName);
+  }
+
+  @Benchmark
+  public boolean hasActionWithName() {
+    return actionRepository.hasActionWithName(actionName);
+  }
+
+  @Benchmark
+  public Map<Action, Boolean> getActions() {
+    return actionRepository.getActions();
+  }
+
+  @Benchmark
+  public int iterateSnapshot() {
+    int keyboardActions = 0;
+    for (Action action : actionRepository.snapshot().getActions()) {
+      if (action.getActionType() == ActionType.KEYBOARD) keyboardActions++;
+    }
+    return keyboardActions;
+  }
+}
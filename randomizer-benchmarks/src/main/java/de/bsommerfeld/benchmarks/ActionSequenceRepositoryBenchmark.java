@@ -0,0 +1,76 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.action.config.ActionConfig;
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import de.bsommerfeld.model.action.repository.DefaultActionRepository;
+import de.bsommerfeld.model.action.repository.DefaultActionSequenceRepository;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
+import de.bsommerfeld.model.persistence.store.BinaryActionSequenceStore;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DefaultActionSequenceRepository#getActionSequences()}, which the UI calls on every
+ * refresh, and picking an active sequence from the snapshot, which the executor does every cycle.
+ * The sequences are added to the cache directly, nothing is read from disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class ActionSequenceRepositoryBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int sequenceCount;
+
+  private DefaultActionSequenceRepository actionSequenceRepository;
+  private String sequenceName;
+
+  @Setup
+  public void setup() {
+    BenchmarkFixtures.installHeadlessDependencies();
+    ActionSequenceDao actionSequenceDao = new ActionSequenceDao();
+    actionSequenceRepository =
+        new DefaultActionSequenceRepository(
+            actionSequenceDao,
+            new BinaryActionSequenceStore(new DefaultActionRepository(), actionSequenceDao),
+            new ActionConfig(),
+            new MetricsRegistry());
+    for (int i = 0; i < sequenceCount; i++) {
+      actionSequenceRepository.addActionSequence(BenchmarkFixtures.sequenceOf("Sequence " + i, 5));
+    }
+    sequenceName = "Sequence " + (sequenceCount - 1);
+  }
+
+  @Benchmark
+  public List<ActionSequence> getActionSequences() {
+    return actionSequenceRepository.getActionSequences();
+  }
+
+  @Benchmark
+  public Object getActionSequence() {
+    return actionSequenceRepository.getActionSequence(sequenceName);
+  }
+
+  @Benchmark
+  public ActionSequence pickActiveSequence() {
+    ActionSequenceSnapshot snapshot = actionSequenceRepository.snapshot();
+    return snapshot.activeAt(ThreadLocalRandom.current().nextInt(snapshot.activeCount()));
+  }
+}
@@ -0,0 +1,84 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.ApplicationContext;
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.config.ActionConfig;
+import de.bsommerfeld.model.action.impl.BaseAction;
+import de.bsommerfeld.model.action.impl.PauseAction;
+import de.bsommerfeld.model.action.impl.SystemClock;
+import de.bsommerfeld.model.action.impl.SystemSleeper;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.action.value.Interval;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Shared setup for the benchmarks, wiring the engine against the no-op stand-ins. */
+final class BenchmarkFixtures {
+
+  /** Keys the generated actions are bound to, the same mix a CS2 config usually has. */
+  static final String[] KEYS = {
+    "W", "A", "S", "D", "SPACE", "CTRL", "SHIFT", "R", "G", "E", "Q", "F", "1", "2", "3", "4",
+    "MOUSE1", "MOUSE2", "MWHEELUP", "MWHEELDOWN", "TAB", "ALT", "C", "V", "B", "X", "Z"
+  };
+
+  private BenchmarkFixtures() {}
+
+  /**
+   * Creates an ApplicationContext that does not require CS2 to be focused and injects the no-op
+   * stand-ins into {@link Action}.
+   *
+   * @return the ApplicationContext the engine was wired with
+   */
+  static ApplicationContext installHeadlessDependencies() {
+    ApplicationContext applicationContext = new ApplicationContext();
+    applicationContext.setCheckForCS2Focus(false);
+    Action.setDependencies(
+        applicationContext,
+        new NoOpActionExecutor(),
+        new NoOpFocusManager(),
+        new ActionConfig(),
+        new SystemClock(),
+        new SystemSleeper());
+    return applicationContext;
+  }
+
+  /**
+   * Creates one keyboard or mouse action per entry of {@link #KEYS} plus a pause.
+   *
+   * @return the template actions
+   */
+  static List<Action> templateActions() {
+    List<Action> actions = new ArrayList<>();
+    actions.add(new PauseAction());
+    for (String key : KEYS) {
+      actions.add(new BaseAction("Action " + key, ActionKey.of(key)));
+    }
+    return actions;
+  }
+
+  /**
+   * Creates a sequence of the given length cycling through {@link #templateActions()}. All
+   * intervals are empty, so dispatching it never waits.
+   *
+   * @param name the name of the sequence
+   * @param length the number of actions in the sequence
+   * @return the sequence
+   */
+  static ActionSequence sequenceOf(String name, int length) {
+    List<Action> templates = templateActions();
+    List<Action> actions = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      try {
+        Action action = templates.get(i % templates.size()).clone();
+        action.setInterval(Interval.of(0, 0));
+        actions.add(action);
+      } catch (CloneNotSupportedException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    ActionSequence sequence = new ActionSequence(name);
+    sequence.setActions(actions);
+    return sequence;
+  }
+}
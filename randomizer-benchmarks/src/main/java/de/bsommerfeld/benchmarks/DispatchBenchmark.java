@@ -0,0 +1,70 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.ApplicationContext;
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.impl.SystemClock;
+import de.bsommerfeld.model.action.repository.DefaultActionRepository;
+import de.bsommerfeld.model.action.sequence.ActionDispatchEvent;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.action.sequence.DefaultActionSequenceDispatcher;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DefaultActionSequenceDispatcher#dispatchSequence} for sequences of different
+ * length. All intervals are empty, so the score is the pure engine overhead of a dispatch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class DispatchBenchmark {
+
+  @Param({"1", "10", "50"})
+  private int sequenceLength;
+
+  private DefaultActionSequenceDispatcher dispatcher;
+  private ActionSequence sequence;
+
+  @Setup
+  public void setup() {
+    ApplicationContext applicationContext = BenchmarkFixtures.installHeadlessDependencies();
+    DefaultActionRepository actionRepository = new DefaultActionRepository();
+    BenchmarkFixtures.templateActions().forEach(actionRepository::register);
+
+    dispatcher =
+        new DefaultActionSequenceDispatcher(
+            actionRepository,
+            new NoOpFocusManager(),
+            applicationContext,
+            new SystemClock(),
+            new MetricsRegistry());
+    sequence = BenchmarkFixtures.sequenceOf("Benchmark", sequenceLength);
+  }
+
+  @Benchmark
+  public ActionSequence dispatchSequence() {
+    dispatcher.dispatchSequence(sequence);
+    return sequence;
+  }
+
+  @Benchmark
+  public Action redispatch() {
+    Action action = sequence.getActions().getFirst();
+    dispatcher.redispatch(action, ActionDispatchEvent.NO_INDEX, 0);
+    return action;
+  }
+}
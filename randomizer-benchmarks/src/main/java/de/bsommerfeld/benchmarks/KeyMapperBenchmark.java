@@ -0,0 +1,56 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.action.ResolvedActionKey;
+import de.bsommerfeld.model.action.mapper.KeyMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the key lookup. Actions resolve their key once when they are created, so this is no
+ * longer paid on every press and release, {@link #resolvedKeyCode()} shows what is left there.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class KeyMapperBenchmark {
+
+  @Param({"W", "mouse1", "PAGE_DOWN", "<unbound>"})
+  private String key;
+
+  private KeyMapper keyMapper;
+  private ResolvedActionKey resolvedKey;
+
+  @Setup
+  public void setup() {
+    keyMapper = new KeyMapper();
+    resolvedKey = keyMapper.resolve(key);
+  }
+
+  @Benchmark
+  public int getKeyCodeForKey() {
+    return keyMapper.getKeyCodeForKey(key);
+  }
+
+  @Benchmark
+  public ResolvedActionKey resolve() {
+    return keyMapper.resolve(key);
+  }
+
+  @Benchmark
+  public int resolvedKeyCode() {
+    return resolvedKey.keyCode();
+  }
+}
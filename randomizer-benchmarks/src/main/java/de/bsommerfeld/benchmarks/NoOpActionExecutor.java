@@ -0,0 +1,23 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.action.ResolvedActionKey;
+import de.bsommerfeld.model.action.spi.ActionExecutor;
+
+/** An ActionExecutor that injects nothing, so benchmarks measure the engine alone. */
+public class NoOpActionExecutor implements ActionExecutor {
+
+  @Override
+  public void executeActionStart(ResolvedActionKey key) {
+    // Nothing to inject
+  }
+
+  @Override
+  public void executeActionEnd(ResolvedActionKey key) {
+    // Nothing to inject
+  }
+
+  @Override
+  public void moveMouse(int x, int y) {
+    // Nothing to inject
+  }
+}
@@ -0,0 +1,18 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.action.spi.FocusManager;
+import java.util.function.Consumer;
+
+/** A FocusManager that always reports the game window as focused and never changes. */
+public class NoOpFocusManager implements FocusManager {
+
+  @Override
+  public boolean isApplicationWindowInFocus() {
+    return true;
+  }
+
+  @Override
+  public void registerFocusChangeListener(Consumer<Boolean> listener) {
+    // The focus never changes
+  }
+}
@@ -0,0 +1,74 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.action.config.ActionConfig;
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import de.bsommerfeld.model.action.repository.DefaultActionRepository;
+import de.bsommerfeld.model.action.repository.DefaultActionSequenceRepository;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.action.sequence.DefaultSequenceSelector;
+import de.bsommerfeld.model.action.sequence.SequenceSelectionStrategy;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
+import de.bsommerfeld.model.persistence.store.BinaryActionSequenceStore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures choosing the next sequence with every {@link SequenceSelectionStrategy}. The snapshot
+ * does not change between calls, so this is the cost of a selection after the structures are built.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class SequenceSelectorBenchmark {
+
+  @Param({"10", "1000"})
+  private int sequenceCount;
+
+  @Param({"UNIFORM", "WEIGHTED", "NO_REPEAT", "LEAST_RECENTLY_PLAYED"})
+  private SequenceSelectionStrategy strategy;
+
+  private DefaultSequenceSelector sequenceSelector;
+  private ActionSequenceSnapshot snapshot;
+
+  @Setup
+  public void setup() {
+    BenchmarkFixtures.installHeadlessDependencies();
+    ActionConfig actionConfig = new ActionConfig();
+    actionConfig.setSequenceSelectionStrategy(strategy);
+
+    ActionSequenceDao actionSequenceDao = new ActionSequenceDao();
+    DefaultActionSequenceRepository actionSequenceRepository =
+        new DefaultActionSequenceRepository(
+            actionSequenceDao,
+            new BinaryActionSequenceStore(new DefaultActionRepository(), actionSequenceDao),
+            actionConfig,
+            new MetricsRegistry());
+    for (int i = 0; i < sequenceCount; i++) {
+      ActionSequence sequence = BenchmarkFixtures.sequenceOf("Sequence " + i, 5);
+      sequence.setWeight(1 + i % 4);
+      actionSequenceRepository.addActionSequence(sequence);
+    }
+
+    snapshot = actionSequenceRepository.snapshot();
+    sequenceSelector = new DefaultSequenceSelector(actionConfig);
+  }
+
+  @Benchmark
+  public ActionSequence select() {
+    return sequenceSelector.select(snapshot);
+  }
+}
@@ -0,0 +1,72 @@
+package de.bsommerfeld.benchmarks;
+
+import de.bsommerfeld.model.action.impl.SpeedProfile;
+import de.bsommerfeld.model.action.impl.TrajectoryGenerator;
+import de.bsommerfeld.model.action.impl.TrajectoryType;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time the {@link TrajectoryGenerator} needs per path point. Scores are reported per
+ * point, the budget is one microsecond.
+ *
+ * <p>{@code cached} measures the regular case of a move whose normalized path is already cached,
+ * {@code uncached} computes every path from scratch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class TrajectoryGeneratorBenchmark {
+
+  private static final int STEPS = 50;
+
+  @Param({"LINEAR", "BEZIER", "MINIMUM_JERK", "PERLIN_NOISE"})
+  private TrajectoryType trajectoryType;
+
+  @Param({"CONSTANT", "MINIMUM_JERK"})
+  private SpeedProfile speedProfile;
+
+  private TrajectoryGenerator cachingGenerator;
+  private TrajectoryGenerator uncachedGenerator;
+  private int[] buffer;
+  private int endX;
+  private int endY;
+
+  @Setup
+  public void setup() {
+    cachingGenerator = new TrajectoryGenerator();
+    uncachedGenerator = new TrajectoryGenerator(0);
+    buffer = new int[STEPS * 2];
+    endX = ThreadLocalRandom.current().nextInt(0, 1920);
+    endY = ThreadLocalRandom.current().nextInt(0, 1080);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public int[] cached() {
+    return cachingGenerator.generate(
+        960, 540, endX, endY, STEPS, trajectoryType, speedProfile, buffer);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public int[] uncached() {
+    return uncachedGenerator.generate(
+        960, 540, endX, endY, STEPS, trajectoryType, speedProfile, buffer);
+  }
+}
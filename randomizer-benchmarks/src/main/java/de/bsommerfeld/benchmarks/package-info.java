@@ -0,0 +1,19 @@
+/**
+ * JMH benchmarks for the randomizer engine.
+ *
+ * <p>The benchmarks run headless: actions are executed against a {@link
+ * de.bsommerfeld.benchmarks.NoOpActionExecutor} and focus is answered by a {@link
+ * de.bsommerfeld.benchmarks.NoOpFocusManager}, so neither a display nor a running game is needed.
+ * Engine logging is reduced to warnings through {@code logback-benchmarks.xml}.
+ *
+ * <p>Build the module and run the self-contained jar:
+ *
+ * <pre>
+ * mvn -B package -pl randomizer-benchmarks -am
+ * java -jar randomizer-benchmarks/target/benchmarks.jar
+ * </pre>
+ *
+ * <p>Append {@code -prof gc} to report the allocation rate next to the throughput, or pass a
+ * benchmark name pattern such as {@code Dispatch} to run a subset.
+ */
+package de.bsommerfeld.benchmarks;
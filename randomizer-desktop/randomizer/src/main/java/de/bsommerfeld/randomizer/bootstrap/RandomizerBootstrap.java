@@ -6,6 +6,7 @@ import com.google.inject.Inject;
 import de.bsommerfeld.model.ApplicationContext;
 import de.bsommerfeld.model.action.Action;
 import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.NativeInputHook;
 import de.bsommerfeld.model.action.config.ActionConfig;
 import de.bsommerfeld.model.action.impl.BaseAction;
 import de.bsommerfeld.model.action.impl.MouseMoveAction;
@@ -14,10 +15,14 @@ import de.bsommerfeld.model.action.spi.ActionExecutor;
 import de.bsommerfeld.model.action.spi.ActionRepository;
 import de.bsommerfeld.model.action.spi.ActionSequenceExecutor;
 import de.bsommerfeld.model.action.spi.ActionSequenceRepository;
+import de.bsommerfeld.model.action.spi.Clock;
 import de.bsommerfeld.model.action.spi.FocusManager;
+import de.bsommerfeld.model.action.spi.Sleeper;
 import de.bsommerfeld.model.config.keybind.KeyBindRepository;
 import de.bsommerfeld.model.exception.UncaughtExceptionLogger;
 import de.bsommerfeld.model.messages.Messages;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
 import de.bsommerfeld.model.watcher.FileSystemWatcher;
 import de.bsommerfeld.randomizer.config.RandomizerConfig;
 import lombok.Getter;
@@ -34,36 +39,51 @@ public class RandomizerBootstrap {
   @Getter private final ActionSequenceRepository actionSequenceRepository;
   @Getter private final ActionRepository actionRepository;
   private final KeyBindRepository keyBindRepository;
+  private final ActionSequenceDao actionSequenceDao;
   private final ActionSequenceExecutor actionSequenceExecutor;
+  private final NativeInputHook nativeInputHook;
   private final ActionExecutor actionExecutor;
   private final FocusManager focusManager;
   private final ActionConfig actionConfig;
+  private final Clock clock;
+  private final Sleeper sleeper;
   private final ApplicationContext applicationContext;
   private final RandomizerConfig randomizerConfig;
   private final CS2ConfigLoader CS2ConfigLoader;
+  private final MetricsRegistry metricsRegistry;
 
   @Inject
   public RandomizerBootstrap(
       ActionSequenceRepository actionSequenceRepository,
       ActionRepository actionRepository,
       KeyBindRepository keyBindRepository,
+      ActionSequenceDao actionSequenceDao,
       ActionSequenceExecutor actionSequenceExecutor,
+      NativeInputHook nativeInputHook,
       ActionExecutor actionExecutor,
       FocusManager focusManager,
       ActionConfig actionConfig,
+      Clock clock,
+      Sleeper sleeper,
       ApplicationContext applicationContext,
       RandomizerConfig randomizerConfig,
-      CS2ConfigLoader CS2ConfigLoader) {
+      CS2ConfigLoader CS2ConfigLoader,
+      MetricsRegistry metricsRegistry) {
     this.actionSequenceRepository = actionSequenceRepository;
     this.actionRepository = actionRepository;
     this.keyBindRepository = keyBindRepository;
+    this.actionSequenceDao = actionSequenceDao;
     this.actionSequenceExecutor = actionSequenceExecutor;
+    this.nativeInputHook = nativeInputHook;
     this.actionExecutor = actionExecutor;
     this.focusManager = focusManager;
     this.actionConfig = actionConfig;
+    this.clock = clock;
+    this.sleeper = sleeper;
     this.applicationContext = applicationContext;
     this.randomizerConfig = randomizerConfig;
     this.CS2ConfigLoader = CS2ConfigLoader;
+    this.metricsRegistry = metricsRegistry;
   }
 
   public void initializeApplication() {
@@ -82,7 +102,8 @@ public class RandomizerBootstrap {
 
   private void initializeActionDependencies() {
     log.info("Initializing action dependencies...");
-    Action.setDependencies(applicationContext, actionExecutor, focusManager, actionConfig);
+    Action.setDependencies(
+        applicationContext, actionExecutor, focusManager, actionConfig, clock, sleeper);
   }
 
   private void loadUserKeyBindsByConfig() {
@@ -105,8 +126,9 @@ public class RandomizerBootstrap {
 
   private void setupFileWatcher() {
     log.info("Starting FileWatcher");
-    FileSystemWatcher fileSystemWatcher = new FileSystemWatcher();
-    fileSystemWatcher.addFileChangeListener(_ -> cacheActionSequences());
+    FileSystemWatcher fileSystemWatcher = new FileSystemWatcher(metricsRegistry);
+    fileSystemWatcher.addIgnoreRule(actionSequenceDao::isOwnChange);
+    fileSystemWatcher.addFileChangeListener(actionSequenceRepository::reloadActionSequenceFile);
     startThread(new Thread(fileSystemWatcher));
   }
 
@@ -141,7 +163,7 @@ public class RandomizerBootstrap {
     actionRepository.register(new MouseMoveAction());
     // actionRepository.register(new BaseAction("Escape", ActionKey.of("ESCAPE")));
     registerKeyBindActions();
-    log.info("{} Actions registered", actionRepository.getActions().size());
+    log.info("{} Actions registered", actionRepository.size());
   }
 
   private void registerKeyBindActions() {
@@ -162,6 +184,7 @@ public class RandomizerBootstrap {
     try {
       log.info("Registering Native Key Hook...");
       GlobalScreen.registerNativeHook();
+      nativeInputHook.register();
     } catch (NativeHookException e) {
       log.error("Error registering Native Hook", e);
     }
@@ -7,6 +7,9 @@ import de.bsommerfeld.github.config.GitHubConfig;
 import de.bsommerfeld.github.service.GitHubService;
 import de.bsommerfeld.jshepherd.core.ConfigurationLoader;
 import de.bsommerfeld.model.ApplicationContext;
+import de.bsommerfeld.model.history.SessionLog;
+import de.bsommerfeld.model.history.TelemetryLog;
+import de.bsommerfeld.model.history.TelemetryRecorder;
 import de.bsommerfeld.randomizer.config.RandomizerConfig;
 import de.bsommerfeld.randomizer.ui.view.ViewProvider;
 import de.bsommerfeld.randomizer.ui.view.viewmodel.HomeViewModel;
@@ -16,7 +19,9 @@ import de.bsommerfeld.randomizer.ui.view.viewmodel.builder.BuilderActionsViewMod
 import de.bsommerfeld.randomizer.ui.view.viewmodel.builder.BuilderEditorViewModel;
 import de.bsommerfeld.randomizer.ui.view.viewmodel.builder.BuilderViewModel;
 import de.bsommerfeld.randomizer.ui.view.viewmodel.settings.ActionSettingsViewModel;
+import de.bsommerfeld.randomizer.ui.view.viewmodel.settings.DebugSettingsViewModel;
 import de.bsommerfeld.randomizer.ui.view.viewmodel.settings.GeneralSettingsViewModel;
+import de.bsommerfeld.randomizer.ui.view.viewmodel.settings.TimingSettingsViewModel;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,6 +38,9 @@ public class RandomizerModule extends AbstractModule {
     bind(RandomizerViewModel.class).asEagerSingleton();
     bind(ActionSettingsViewModel.class).asEagerSingleton();
     bind(GeneralSettingsViewModel.class).asEagerSingleton();
+    bind(TimingSettingsViewModel.class).asEagerSingleton();
+    bind(DebugSettingsViewModel.class).asEagerSingleton();
+    bind(TelemetryRecorder.class).asEagerSingleton();
     bind(HomeViewModel.class).asEagerSingleton();
     bind(ViewProvider.class).asEagerSingleton();
     bind(CS2ConfigLoader.class).asEagerSingleton();
@@ -57,4 +65,32 @@ public class RandomizerModule extends AbstractModule {
 
     return ConfigurationLoader.load(configFile, RandomizerConfig::new);
   }
+
+  @Provides
+  @Singleton
+  SessionLog provideSessionLog() {
+    Path historyFolder = Paths.get(ApplicationContext.getAppdataFolder().getPath(), "history");
+
+    try {
+      return SessionLog.open(historyFolder);
+    } catch (IOException e) {
+      // The history then stays in memory only
+      System.err.println("Could not open session log: " + e.getMessage());
+      return SessionLog.disabled();
+    }
+  }
+
+  @Provides
+  @Singleton
+  TelemetryLog provideTelemetryLog() {
+    Path telemetryFolder = Paths.get(ApplicationContext.getAppdataFolder().getPath(), "telemetry");
+
+    try {
+      return TelemetryLog.open(telemetryFolder);
+    } catch (IOException e) {
+      // The timings are then only summarized in memory
+      System.err.println("Could not open telemetry log: " + e.getMessage());
+      return TelemetryLog.disabled();
+    }
+  }
 }
@@ -46,6 +46,14 @@ public class RandomizerConfig extends ConfigurablePojo<RandomizerConfig> {
   @Key("builder.filters.activated")
   private List<String> builderFiltersActivated = new ArrayList<>(KeyBindType.values().length);
 
+  @CommentSection({"Logbook Settings", "------"})
+  @Comment({
+    "How many finished sequences the history keeps in memory.",
+    "Older ones are written to the session log and can be loaded again."
+  })
+  @Key("history.retention")
+  private int historyRetention = 100;
+
   @CommentSection({"Debug Settings", "------"})
   @Comment({"Whether or not CS2 needs to be focused."})
   @Key("cs2.focus")
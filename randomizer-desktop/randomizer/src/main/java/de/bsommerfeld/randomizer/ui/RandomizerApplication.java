@@ -4,9 +4,14 @@ import com.github.kwhat.jnativehook.GlobalScreen;
 import com.github.kwhat.jnativehook.NativeHookException;
 import de.bsommerfeld.model.action.spi.ActionSequenceDispatcher;
 import de.bsommerfeld.model.action.spi.ActionSequenceExecutor;
+import de.bsommerfeld.model.action.spi.ActionSequenceRepository;
+import de.bsommerfeld.model.history.SessionLog;
+import de.bsommerfeld.model.history.TelemetryLog;
 import de.bsommerfeld.randomizer.Main;
 import de.bsommerfeld.randomizer.ui.view.ViewProvider;
 import de.bsommerfeld.randomizer.ui.view.controller.RandomizerWindowController;
+import java.io.Closeable;
+import java.io.IOException;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.scene.Parent;
@@ -41,15 +46,29 @@ public class RandomizerApplication extends Application {
         Main.getInjector().getInstance(ActionSequenceDispatcher.class);
     ActionSequenceExecutor actionSequenceExecutor =
         Main.getInjector().getInstance(ActionSequenceExecutor.class);
+    ActionSequenceRepository actionSequenceRepository =
+        Main.getInjector().getInstance(ActionSequenceRepository.class);
+    SessionLog sessionLog = Main.getInjector().getInstance(SessionLog.class);
+    TelemetryLog telemetryLog = Main.getInjector().getInstance(TelemetryLog.class);
     log.debug("Loading main window...");
-    buildApplication(stage, viewProvider, actionSequenceDispatcher, actionSequenceExecutor);
+    buildApplication(
+        stage,
+        viewProvider,
+        actionSequenceDispatcher,
+        actionSequenceExecutor,
+        actionSequenceRepository,
+        sessionLog,
+        telemetryLog);
   }
 
   private void buildApplication(
       Stage stage,
       ViewProvider viewProvider,
       ActionSequenceDispatcher actionSequenceDispatcher,
-      ActionSequenceExecutor actionSequenceExecutor) {
+      ActionSequenceExecutor actionSequenceExecutor,
+      ActionSequenceRepository actionSequenceRepository,
+      SessionLog sessionLog,
+      TelemetryLog telemetryLog) {
     Parent root = viewProvider.requestView(RandomizerWindowController.class).parent();
     Scene scene = new Scene(root);
     setupStage(stage, scene);
@@ -65,12 +84,25 @@ public class RandomizerApplication extends Application {
             log.info("Closing application, stopping executor and discarding running actions...");
             actionSequenceDispatcher.discardAllRunningActions();
             actionSequenceExecutor.stop();
+            log.info("Writing pending sequence saves...");
+            actionSequenceRepository.flushPendingWrites();
+            closeLog("session log", sessionLog);
+            closeLog("telemetry log", telemetryLog);
             Platform.exit();
           }
         });
     stage.show();
   }
 
+  private void closeLog(String name, Closeable closeable) {
+    try {
+      log.info("Closing {}...", name);
+      closeable.close();
+    } catch (IOException e) {
+      log.error("Failed to close {}", name, e);
+    }
+  }
+
   private void setupStage(Stage stage, Scene scene) {
     stage.setTitle("Randomizer " + Main.getRandomizerVersion());
     stage.getIcons().add(new Image("de/bsommerfeld/randomizer/images/randomizer.png"));
@@ -0,0 +1,164 @@
+package de.bsommerfeld.randomizer.ui.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import javafx.collections.ObservableListBase;
+
+/**
+ * An observable list with a fixed capacity, backed by a ring buffer. New elements are pushed to the
+ * front; once the list is full every push evicts the last element, so the list never grows beyond
+ * its capacity no matter how long it lives.
+ *
+ * <p>Pushing and evicting do not move any elements. The list does not support the modifying
+ * methods of {@link List} besides {@link #clear()}.
+ *
+ * @param <E> the type of the elements
+ */
+public final class BoundedObservableList<E> extends ObservableListBase<E> {
+
+  private Object[] elements;
+  private int head;
+  private int size;
+
+  /**
+   * Creates an empty list.
+   *
+   * @param capacity the maximum number of elements
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public BoundedObservableList(int capacity) {
+    this.elements = new Object[checkCapacity(capacity)];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    Objects.checkIndex(index, size);
+    return (E) elements[physicalIndex(index)];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the maximum number of elements.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return elements.length;
+  }
+
+  /**
+   * Changes the maximum number of elements. Elements beyond the new capacity are removed from the
+   * end of the list.
+   *
+   * @param capacity the new capacity
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public void setCapacity(int capacity) {
+    checkCapacity(capacity);
+    if (capacity == elements.length) return;
+
+    List<E> removed = capacity < size ? new ArrayList<>(subList(capacity, size)) : List.of();
+    int kept = size - removed.size();
+    Object[] resized = new Object[capacity];
+    for (int i = 0; i < kept; i++) {
+      resized[i] = elements[physicalIndex(i)];
+    }
+
+    beginChange();
+    try {
+      elements = resized;
+      head = 0;
+      size = kept;
+      if (!removed.isEmpty()) {
+        nextRemove(kept, removed);
+      }
+    } finally {
+      endChange();
+    }
+  }
+
+  /**
+   * Adds an element to the front of the list. If the list is full, its last element is evicted.
+   *
+   * @param element the element to add
+   * @return the evicted element, or {@code null} if the list had room
+   */
+  public E push(E element) {
+    E evicted = null;
+    beginChange();
+    try {
+      if (size == elements.length) {
+        evicted = get(size - 1);
+        elements[physicalIndex(size - 1)] = null;
+        size--;
+        nextRemove(size, evicted);
+      }
+      head = Math.floorMod(head - 1, elements.length);
+      elements[head] = element;
+      size++;
+      nextAdd(0, 1);
+    } finally {
+      endChange();
+    }
+    return evicted;
+  }
+
+  /**
+   * Adds elements to the end of the list, as long as there is room for them.
+   *
+   * @param additions the elements to add, in order
+   * @return the number of elements that were added
+   */
+  public int appendAll(Collection<? extends E> additions) {
+    int from = size;
+    beginChange();
+    try {
+      for (E element : additions) {
+        if (size == elements.length) break;
+        elements[physicalIndex(size)] = element;
+        size++;
+      }
+      if (size > from) {
+        nextAdd(from, size);
+      }
+    } finally {
+      endChange();
+    }
+    return size - from;
+  }
+
+  @Override
+  public void clear() {
+    if (size == 0) return;
+
+    List<E> removed = new ArrayList<>(this);
+    beginChange();
+    try {
+      Arrays.fill(elements, null);
+      head = 0;
+      size = 0;
+      nextRemove(0, removed);
+    } finally {
+      endChange();
+    }
+  }
+
+  private int physicalIndex(int index) {
+    return (head + index) % elements.length;
+  }
+
+  private static int checkCapacity(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    return capacity;
+  }
+}
@@ -3,24 +3,29 @@ package de.bsommerfeld.randomizer.ui.view.controller;
 import com.google.inject.Inject;
 import de.bsommerfeld.model.ApplicationState;
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.sequence.ActionDispatchEvent;
 import de.bsommerfeld.model.action.sequence.ActionSequence;
 import de.bsommerfeld.model.action.spi.ActionSequenceExecutor;
+import de.bsommerfeld.model.history.HistoryEntry;
 import de.bsommerfeld.randomizer.ui.view.View;
 import de.bsommerfeld.randomizer.ui.view.viewmodel.RandomizerViewModel;
-import java.time.LocalTime;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
-import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.Tooltip;
 import javafx.scene.image.ImageView;
@@ -41,15 +46,27 @@ public class RandomizerViewController {
       "logbook-sequence-actions-icon-middle-active";
   private static final String END_ACTIVE_ACTION_ICON_STYLING =
       "logbook-sequence-actions-icon-end-active";
+  private static final DateTimeFormatter EXECUTED_AT_FORMATTER =
+      DateTimeFormatter.ofPattern("HH:mm").withZone(ZoneId.systemDefault());
 
   private final RandomizerViewModel randomizerViewModel;
   private final ActionSequenceExecutor actionSequenceExecutor;
-  private final Map<HBox, Timer> actionTimers = new HashMap<>();
-  private final Map<HBox, Long> actionStartTimes = new HashMap<>();
+  // Only touched on the FX thread: the rows of the shown sequence by the position of their action,
+  // and the rows whose timer the ticker updates in one pass per frame
+  private final List<ActionRow> actionRows = new ArrayList<>();
+  private final Set<ActionRow> runningActionRows = new LinkedHashSet<>();
+  private final AnimationTimer elapsedTimeTicker =
+      new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+          updateRunningActionTimers();
+        }
+      };
 
   @FXML private Label sequenceNameLabel;
   @FXML private VBox actionsVBox;
-  @FXML private VBox historyVBox;
+  @FXML private ListView<HistoryEntry> historyListView;
+  @FXML private Button loadOlderHistoryButton;
   @FXML private Label historyCountLabel;
   @FXML private ToggleButton randomizerToggleButton;
   @FXML private ImageView cs2FocusImage;
@@ -75,38 +92,46 @@ public class RandomizerViewController {
     }
   }
 
+  @FXML
+  void onLoadOlderHistory(ActionEvent event) {
+    randomizerViewModel.loadOlderHistory();
+  }
+
   @FXML
   private void initialize() {
     setupBindings();
     setupListener();
     setupStateListener();
     setupCS2FocusImage();
-    setupHistoryCountLabelBindings();
+    setupHistory();
   }
 
   private void setupCS2FocusImage() {
     Tooltip.install(cs2FocusImage, new Tooltip("CS2 has to be in focus!"));
   }
 
-  private void setupHistoryCountLabelBindings() {
-    historyVBox
-        .getChildren()
-        .addListener(
-            (ListChangeListener<Node>)
-                _ -> historyCountLabel.setText(String.valueOf(historyVBox.getChildren().size())));
+  private void setupHistory() {
+    // Only the visible entries get cells, which are reused while scrolling
+    historyListView.setItems(randomizerViewModel.getHistory());
+    historyListView.setCellFactory(_ -> new HistoryEntryCell());
+    historyCountLabel
+        .textProperty()
+        .bind(randomizerViewModel.getFinishedSequenceCountProperty().asString());
+    loadOlderHistoryButton
+        .visibleProperty()
+        .bind(randomizerViewModel.getOlderHistoryAvailableProperty());
+    loadOlderHistoryButton.managedProperty().bind(loadOlderHistoryButton.visibleProperty());
   }
 
   private void clearCurrentSequenceView() {
     randomizerViewModel.getCurrentActionSequenceProperty().set(null);
     actionsVBox.getChildren().clear();
+    actionRows.clear();
     sequenceNameLabel.setText("");
 
     // Stop all timers
-    for (Timer timer : actionTimers.values()) {
-      timer.cancel();
-    }
-    actionTimers.clear();
-    actionStartTimes.clear();
+    runningActionRows.clear();
+    elapsedTimeTicker.stop();
   }
 
   /**
@@ -121,66 +146,55 @@ public class RandomizerViewController {
   }
 
   /**
-   * Starts a timer for the given action that updates the timeElapsed label periodically.
+   * Starts the timer of the given row. Its timeElapsed label is updated by the shared ticker, which
+   * runs as long as any action timer does.
    *
-   * @param actionContainer the HBox containing the action
-   * @param timeElapsedLabel the label to update
+   * @param row the row of the started action
    */
-  private void startActionTimer(HBox actionContainer, Label timeElapsedLabel) {
-    // Cancel any existing timer for this action
-    if (actionTimers.containsKey(actionContainer)) {
-      actionTimers.get(actionContainer).cancel();
+  private void startActionTimer(ActionRow row) {
+    // Restarts any existing timer for this action
+    row.startTime = System.currentTimeMillis();
+    row.shownCentis = -1;
+    runningActionRows.add(row);
+    elapsedTimeTicker.start();
+  }
+
+  /** Updates the timeElapsed labels of all running actions, called once per frame. */
+  private void updateRunningActionTimers() {
+    if (runningActionRows.isEmpty()) {
+      elapsedTimeTicker.stop();
+      return;
     }
 
-    // Record the start time
-    actionStartTimes.put(actionContainer, System.currentTimeMillis());
-
-    // Create a new timer
-    Timer timer = new Timer(true);
-    actionTimers.put(actionContainer, timer);
-
-    // Schedule a task to update the label every 100ms
-    timer.scheduleAtFixedRate(
-        new TimerTask() {
-          @Override
-          public void run() {
-            long currentTime = System.currentTimeMillis();
-            long startTime = actionStartTimes.getOrDefault(actionContainer, currentTime);
-            long elapsedTime = currentTime - startTime;
-
-            Platform.runLater(() -> timeElapsedLabel.setText(formatElapsedTime(elapsedTime)));
-          }
-        },
-        0,
-        100);
+    long currentTime = System.currentTimeMillis();
+    for (ActionRow row : runningActionRows) {
+      row.updateElapsedTime(currentTime);
+    }
   }
 
   /**
-   * Stops the timer for the given action container and updates the timeElapsed label with the final
-   * time.
+   * Stops the timer of the given row and updates its timeElapsed label with the final time. The
+   * start time is kept, so an action that finishes after it was interrupted and continued shows its
+   * whole duration.
    *
-   * @param actionContainer the HBox containing the action
+   * @param row the row of the action
    */
-  private void stopActionTimerForHBox(HBox actionContainer) {
-    // Get the timeElapsed label
-    Label timeElapsedLabel = (Label) actionContainer.getChildren().get(3);
+  private void stopActionTimer(ActionRow row) {
+    runningActionRows.remove(row);
 
     // Calculate the final elapsed time
     long currentTime = System.currentTimeMillis();
-    long startTime = actionStartTimes.getOrDefault(actionContainer, currentTime);
-    long elapsedTime = currentTime - startTime;
+    long elapsedTime = row.startTime >= 0 ? currentTime - row.startTime : 0;
 
     // Update the label with the final time
+    Label timeElapsedLabel = row.timeElapsedLabel;
     timeElapsedLabel.setText(formatElapsedTime(elapsedTime));
 
-    // Apply the finished styling
-    timeElapsedLabel.getStyleClass().remove("logbook-sequence-actions-time-elapsed");
-    timeElapsedLabel.getStyleClass().add("logbook-sequence-actions-time-elapsed-finished");
-
-    // Cancel the timer
-    if (actionTimers.containsKey(actionContainer)) {
-      actionTimers.get(actionContainer).cancel();
-      actionTimers.remove(actionContainer);
+    // Apply the finished styling, an interrupted action that finishes later already has it
+    ObservableList<String> styleClasses = timeElapsedLabel.getStyleClass();
+    styleClasses.remove("logbook-sequence-actions-time-elapsed");
+    if (!styleClasses.contains("logbook-sequence-actions-time-elapsed-finished")) {
+      styleClasses.add("logbook-sequence-actions-time-elapsed-finished");
     }
   }
 
@@ -188,54 +202,18 @@ public class RandomizerViewController {
     sequenceNameLabel.visibleProperty().bind(sequenceNameLabel.textProperty().isNotEmpty());
   }
 
-  /** Creates the history container for the ActionSequence */
-  private void createHistoryContainer(ActionSequence actionSequence) {
-    if (actionSequence == null) return;
-
-    HBox container = new HBox();
-    container.getStyleClass().add("logbook-history-entry-container");
-
-    Label actionSequenceNameLabel = new Label(actionSequence.getName());
-    actionSequenceNameLabel.getStyleClass().add("logbook-history-entry-name");
-
-    HBox centerBox = new HBox();
-    HBox.setHgrow(centerBox, Priority.ALWAYS);
-    centerBox.getStyleClass().add("logbook-history-entry-rightbox");
-    Label actionSequenceActionCount = new Label(actionSequence.getActions().size() + " Actions");
-    actionSequenceActionCount.getStyleClass().add("logbook-history-entry-action-count");
-
-    HBox rightFiller = new HBox();
-    HBox.setHgrow(rightFiller, Priority.ALWAYS);
-
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-    Label actionSequenceActionExecutedAt = new Label(LocalTime.now().format(formatter));
-    actionSequenceActionExecutedAt.getStyleClass().add("logbook-history-entry-executed-at");
-    centerBox
-        .getChildren()
-        .addAll(actionSequenceActionCount, rightFiller, actionSequenceActionExecutedAt);
-
-    HBox leftFiller = new HBox();
-    HBox.setHgrow(leftFiller, Priority.ALWAYS);
-
-    container.getChildren().addAll(actionSequenceNameLabel, leftFiller, centerBox);
-    historyVBox.getChildren().addFirst(container);
-  }
-
   private void setupListener() {
     setupActionSequenceFinishedListener();
     setupCurrentActionSequenceListener();
     setupActionStartListener();
     setupActionFinishedListener();
+    setupActionInterruptedListener();
   }
 
   private void setupActionSequenceFinishedListener() {
+    // The view model records the sequence in the history
     randomizerViewModel.onActionSequenceFinished(
-        actionSequence -> Platform.runLater(() -> handleActionSequenceFinished(actionSequence)));
-  }
-
-  private void handleActionSequenceFinished(ActionSequence actionSequence) {
-    createHistoryContainer(actionSequence);
-    clearCurrentSequenceView();
+        _ -> Platform.runLater(this::clearCurrentSequenceView));
   }
 
   private void setupCurrentActionSequenceListener() {
@@ -243,8 +221,9 @@ public class RandomizerViewController {
         .getCurrentActionSequenceProperty()
         .addListener(
             (_, _, newSequence) -> {
+              // Set by the dispatching thread, the view and the timers belong to the FX thread
               if (newSequence == null) {
-                clearCurrentSequenceView();
+                Platform.runLater(this::clearCurrentSequenceView);
                 return;
               }
               Platform.runLater(() -> updateCurrentSequenceView(newSequence));
@@ -254,103 +233,77 @@ public class RandomizerViewController {
   private void updateCurrentSequenceView(ActionSequence sequence) {
     sequenceNameLabel.setText(sequence.getName());
     actionsVBox.getChildren().clear();
-    sequence
-        .getActions()
-        .forEach(
-            action -> {
-              if (action != null) {
-                actionsVBox.getChildren().add(createActionRowHBox(action));
-              }
-            });
-    applyInitialStylingToActionsInVBox();
-  }
-
-  private HBox createActionRowHBox(Action action) {
-    HBox sequenceActionHBox = new HBox();
-    sequenceActionHBox.getStyleClass().add("logbook-sequence-actions-container");
-
-    ImageView positionalIcon = new ImageView();
-    positionalIcon.getStyleClass().add(ACTION_ICON_STYLING);
-
-    Label actionLabel = new Label(action.getName());
-    actionLabel.getStyleClass().add("logbook-sequence-actions-name");
-
-    HBox filler = new HBox();
-    HBox.setHgrow(filler, Priority.ALWAYS);
-
-    Label timeElapsedLabel = new Label("00.00s"); // Initialer Zeitwert
-    timeElapsedLabel.getStyleClass().add("logbook-sequence-actions-time-elapsed");
+    actionRows.clear();
+    runningActionRows.clear();
+
+    // One entry per action, so the index of a dispatch event addresses its row directly
+    for (Action action : sequence.getActions()) {
+      if (action == null) {
+        actionRows.add(null);
+        continue;
+      }
+      ActionRow row = new ActionRow(action, actionsVBox.getChildren().size());
+      actionRows.add(row);
+      actionsVBox.getChildren().add(row.container);
+    }
 
-    sequenceActionHBox.getChildren().addAll(positionalIcon, actionLabel, filler, timeElapsedLabel);
-    return sequenceActionHBox;
+    for (ActionRow row : actionRows) {
+      if (row != null) {
+        setPositionalStyling(row, false);
+      }
+    }
   }
 
-  private void applyInitialStylingToActionsInVBox() {
-    actionsVBox.getChildren().stream()
-        .filter(HBox.class::isInstance)
-        .map(HBox.class::cast)
-        .forEach(
-            hbox -> {
-              if (!hbox.getChildren().isEmpty()
-                  && hbox.getChildren().getFirst() instanceof ImageView imageView) {
-                setPositionalStyling(imageView, false);
-              }
-            });
+  /**
+   * Returns the row of the action an event refers to.
+   *
+   * @param event the dispatch event
+   * @return the row, or {@code null} if the event does not belong to the shown sequence
+   */
+  private ActionRow findActionRow(ActionDispatchEvent event) {
+    int index = event.index();
+    if (index < 0 || index >= actionRows.size()) return null;
+
+    ActionRow row = actionRows.get(index);
+    // Events of a previous sequence may still be queued
+    return row != null && row.action == event.action() ? row : null;
   }
 
   private void setupActionStartListener() {
-    randomizerViewModel.onActionStart(action -> Platform.runLater(() -> handleActionStart(action)));
+    randomizerViewModel.onActionStart(event -> Platform.runLater(() -> handleActionStart(event)));
   }
 
-  private void handleActionStart(Action action) {
-    findMatchingActionHBox(action.getName(), iv -> !isActive(iv))
-        .ifPresent(
-            hbox -> {
-              if (hbox.getChildren().size() > 3
-                  && hbox.getChildren().get(3) instanceof Label timeElapsedLabel) {
-                startActionTimer(hbox, timeElapsedLabel);
-              }
-            });
+  private void handleActionStart(ActionDispatchEvent event) {
+    ActionRow row = findActionRow(event);
+    if (row != null) {
+      startActionTimer(row);
+    }
   }
 
   private void setupActionFinishedListener() {
     randomizerViewModel.onActionFinished(
-        action -> Platform.runLater(() -> handleActionFinished(action)));
+        event -> Platform.runLater(() -> handleActionFinished(event)));
   }
 
-  private void handleActionFinished(Action action) {
-    findMatchingActionHBox(action.getName(), iv -> !isActive(iv))
-        .ifPresent(
-            hbox -> {
-              stopActionTimerForHBox(hbox);
-              if (!hbox.getChildren().isEmpty()
-                  && hbox.getChildren().getFirst() instanceof ImageView imageView) {
-                setPositionalStyling(imageView, true);
-              }
-            });
+  private void handleActionFinished(ActionDispatchEvent event) {
+    ActionRow row = findActionRow(event);
+    if (row != null) {
+      stopActionTimer(row);
+      setPositionalStyling(row, true);
+    }
   }
 
-  /**
-   * Sucht eine HBox in actionsVBox, die zu einem Aktionsnamen passt und deren ImageView einem
-   * gegebenen Prädikat entspricht. Annahme: Die HBox-Struktur ist: ImageView, Label (Aktionsname),
-   * Filler, Label (Zeit).
-   */
-  private Optional<HBox> findMatchingActionHBox(
-      String actionName, java.util.function.Predicate<ImageView> imageViewPredicate) {
-    return actionsVBox.getChildren().stream()
-        .filter(HBox.class::isInstance)
-        .map(HBox.class::cast)
-        .filter(
-            hbox ->
-                hbox.getChildren().size() > 1
-                    && hbox.getChildren().get(1) instanceof Label
-                    && actionName.equals(((Label) hbox.getChildren().get(1)).getText()))
-        .filter(
-            hbox ->
-                !hbox.getChildren().isEmpty()
-                    && hbox.getChildren().get(0) instanceof ImageView
-                    && imageViewPredicate.test((ImageView) hbox.getChildren().get(0)))
-        .findFirst();
+  private void setupActionInterruptedListener() {
+    randomizerViewModel.onActionInterrupted(
+        event -> Platform.runLater(() -> handleActionInterrupted(event)));
+  }
+
+  private void handleActionInterrupted(ActionDispatchEvent event) {
+    ActionRow row = findActionRow(event);
+    if (row != null) {
+      // The icon stays inactive, the action did not complete
+      stopActionTimer(row);
+    }
   }
 
   private void setupStateListener() {
@@ -369,15 +322,10 @@ public class RandomizerViewController {
         });
   }
 
-  private boolean isActive(ImageView imageView) {
-    return imageView.getStyleClass().stream().anyMatch(style -> style.endsWith("-active"));
-  }
-
-  private void setPositionalStyling(ImageView imageView, boolean active) {
-    HBox parentHBox = (HBox) imageView.getParent();
-    int index = actionsVBox.getChildren().indexOf(parentHBox);
+  private void setPositionalStyling(ActionRow row, boolean active) {
+    int index = row.position;
     ObservableList<Node> children = actionsVBox.getChildren();
-    ObservableList<String> styleClasses = imageView.getStyleClass();
+    ObservableList<String> styleClasses = row.positionalIcon.getStyleClass();
 
     if (index == 0) {
       styleClasses.setAll(
@@ -398,4 +346,98 @@ public class RandomizerViewController {
               + children.size());
     }
   }
+
+  /**
+   * A cell of the history list. Its nodes are created once and refilled whenever the cell shows
+   * another entry.
+   */
+  private static final class HistoryEntryCell extends ListCell<HistoryEntry> {
+
+    private final HBox container = new HBox();
+    private final Label sequenceNameLabel = new Label();
+    private final Label actionCountLabel = new Label();
+    private final Label executedAtLabel = new Label();
+
+    private HistoryEntryCell() {
+      getStyleClass().add("logbook-history-cell");
+      container.getStyleClass().add("logbook-history-entry-container");
+      sequenceNameLabel.getStyleClass().add("logbook-history-entry-name");
+
+      HBox centerBox = new HBox();
+      HBox.setHgrow(centerBox, Priority.ALWAYS);
+      centerBox.getStyleClass().add("logbook-history-entry-rightbox");
+      actionCountLabel.getStyleClass().add("logbook-history-entry-action-count");
+
+      HBox rightFiller = new HBox();
+      HBox.setHgrow(rightFiller, Priority.ALWAYS);
+
+      executedAtLabel.getStyleClass().add("logbook-history-entry-executed-at");
+      centerBox.getChildren().addAll(actionCountLabel, rightFiller, executedAtLabel);
+
+      HBox leftFiller = new HBox();
+      HBox.setHgrow(leftFiller, Priority.ALWAYS);
+
+      container.getChildren().addAll(sequenceNameLabel, leftFiller, centerBox);
+    }
+
+    @Override
+    protected void updateItem(HistoryEntry entry, boolean empty) {
+      super.updateItem(entry, empty);
+      setText(null);
+      if (empty || entry == null) {
+        setGraphic(null);
+        return;
+      }
+
+      sequenceNameLabel.setText(entry.sequenceName());
+      actionCountLabel.setText(entry.actionCount() + " Actions");
+      Instant finishedAt = Instant.ofEpochMilli(entry.finishedAt());
+      executedAtLabel.setText(EXECUTED_AT_FORMATTER.format(finishedAt));
+      setGraphic(container);
+    }
+  }
+
+  /**
+   * The row of one action of the shown sequence: an icon showing its position, the name and the
+   * elapsed time. The row keeps its nodes and the timer of its action, so updates never have to
+   * look through the view.
+   */
+  private final class ActionRow {
+
+    private final Action action;
+    private final int position;
+    private final HBox container = new HBox();
+    private final ImageView positionalIcon = new ImageView();
+    private final Label timeElapsedLabel = new Label("00.00s"); // Initialer Zeitwert
+    private long startTime = -1;
+    private long shownCentis = -1;
+
+    private ActionRow(Action action, int position) {
+      this.action = action;
+      this.position = position;
+
+      container.getStyleClass().add("logbook-sequence-actions-container");
+      positionalIcon.getStyleClass().add(ACTION_ICON_STYLING);
+
+      Label actionLabel = new Label(action.getName());
+      actionLabel.getStyleClass().add("logbook-sequence-actions-name");
+
+      HBox filler = new HBox();
+      HBox.setHgrow(filler, Priority.ALWAYS);
+
+      timeElapsedLabel.getStyleClass().add("logbook-sequence-actions-time-elapsed");
+
+      container.getChildren().addAll(positionalIcon, actionLabel, filler, timeElapsedLabel);
+    }
+
+    /** Updates the label, but only if the shown value changes. */
+    private void updateElapsedTime(long currentTime) {
+      long elapsedTime = currentTime - startTime;
+      long centis = elapsedTime / 10;
+      if (centis != shownCentis) {
+        shownCentis = centis;
+        timeElapsedLabel.setText(formatElapsedTime(elapsedTime));
+      }
+    }
+  }
 }
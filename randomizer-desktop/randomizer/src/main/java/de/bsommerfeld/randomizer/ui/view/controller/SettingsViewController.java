@@ -3,8 +3,12 @@ package de.bsommerfeld.randomizer.ui.view.controller;
 import com.google.inject.Inject;
 import de.bsommerfeld.randomizer.ui.view.View;
 import de.bsommerfeld.randomizer.ui.view.ViewProvider;
+import de.bsommerfeld.randomizer.ui.view.ViewWrapper;
+import de.bsommerfeld.randomizer.ui.view.controller.settings.DebugSettingsController;
 import de.bsommerfeld.randomizer.ui.view.controller.settings.GeneralSettingsController;
 import de.bsommerfeld.randomizer.ui.view.controller.settings.MachineLearningSettingsController;
+import de.bsommerfeld.randomizer.ui.view.controller.settings.TimingSettingsController;
+import java.util.List;
 import javafx.fxml.FXML;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.GridPane;
@@ -17,6 +21,8 @@ public class SettingsViewController {
 
   @FXML private ToggleButton generalToggleButton;
   @FXML private ToggleButton machineLearningToggleButton;
+  @FXML private ToggleButton timingToggleButton;
+  @FXML private ToggleButton debugToggleButton;
   @FXML private GridPane contentPane;
 
   @Inject
@@ -28,6 +34,8 @@ public class SettingsViewController {
   private void initialize() {
     generalToggleButton.setOnAction(this::onGeneralToggleButtonAction);
     machineLearningToggleButton.setOnAction(this::onMachineLearningToggleButtonAction);
+    timingToggleButton.setOnAction(this::onTimingToggleButtonAction);
+    debugToggleButton.setOnAction(this::onDebugToggleButtonAction);
 
     generalToggleButton.setSelected(true);
     loadGeneralSettingsView();
@@ -35,26 +43,44 @@ public class SettingsViewController {
 
   @FXML
   private void onGeneralToggleButtonAction(ActionEvent event) {
-    if (generalToggleButton.isSelected()) {
-      machineLearningToggleButton.setSelected(false);
-      loadGeneralSettingsView();
-    } else {
-      if (!machineLearningToggleButton.isSelected()) {
-        generalToggleButton.setSelected(true);
-      }
-    }
+    selectPage(generalToggleButton, this::loadGeneralSettingsView);
   }
 
   @FXML
   private void onMachineLearningToggleButtonAction(ActionEvent event) {
-    if (machineLearningToggleButton.isSelected()) {
-      generalToggleButton.setSelected(false);
-      loadMachineLearningView();
-    } else {
-      if (!generalToggleButton.isSelected()) {
-        machineLearningToggleButton.setSelected(true);
+    selectPage(machineLearningToggleButton, this::loadMachineLearningView);
+  }
+
+  @FXML
+  private void onTimingToggleButtonAction(ActionEvent event) {
+    selectPage(timingToggleButton, this::loadTimingSettingsView);
+  }
+
+  @FXML
+  private void onDebugToggleButtonAction(ActionEvent event) {
+    selectPage(debugToggleButton, this::loadDebugSettingsView);
+  }
+
+  /**
+   * Shows the page of the given button and deselects the others. Clicking the button of the page
+   * that is already shown keeps it selected.
+   */
+  private void selectPage(ToggleButton pageButton, Runnable loadPage) {
+    if (!pageButton.isSelected()) {
+      pageButton.setSelected(true);
+      return;
+    }
+    for (ToggleButton button :
+        List.of(
+            generalToggleButton,
+            machineLearningToggleButton,
+            timingToggleButton,
+            debugToggleButton)) {
+      if (button != pageButton) {
+        button.setSelected(false);
       }
     }
+    loadPage.run();
   }
 
   private void loadGeneralSettingsView() {
@@ -68,4 +94,18 @@ public class SettingsViewController {
         .getChildren()
         .setAll(viewProvider.requestView(MachineLearningSettingsController.class).parent());
   }
+
+  private void loadTimingSettingsView() {
+    ViewWrapper<TimingSettingsController> timingView =
+        viewProvider.requestView(TimingSettingsController.class);
+    timingView.controller().refresh();
+    contentPane.getChildren().setAll(timingView.parent());
+  }
+
+  private void loadDebugSettingsView() {
+    ViewWrapper<DebugSettingsController> debugView =
+        viewProvider.requestView(DebugSettingsController.class);
+    debugView.controller().refresh();
+    contentPane.getChildren().setAll(debugView.parent());
+  }
 }
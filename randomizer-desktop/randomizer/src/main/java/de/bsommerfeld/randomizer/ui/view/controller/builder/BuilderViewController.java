@@ -115,8 +115,10 @@ public class BuilderViewController {
 
   public void fillActionSequences() {
     actionSequencesVBox.getChildren().clear();
-    List<ActionSequence> actionSequences = builderViewModel.getActionSequences();
-    actionSequences.sort(Comparator.comparing(ActionSequence::getName));
+    List<ActionSequence> actionSequences =
+        builderViewModel.getActionSequences().stream()
+            .sorted(Comparator.comparing(ActionSequence::getName))
+            .toList();
 
     actionSequences.forEach(
         actionSequence -> {
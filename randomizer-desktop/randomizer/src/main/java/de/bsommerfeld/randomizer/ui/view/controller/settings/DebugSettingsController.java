@@ -0,0 +1,96 @@
+package de.bsommerfeld.randomizer.ui.view.controller.settings;
+
+import com.google.inject.Inject;
+import de.bsommerfeld.model.metrics.MetricSample;
+import de.bsommerfeld.model.metrics.MetricsExporter;
+import de.bsommerfeld.randomizer.ui.view.View;
+import de.bsommerfeld.randomizer.ui.view.viewmodel.settings.DebugSettingsViewModel;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+
+@View
+public class DebugSettingsController {
+
+  private final DebugSettingsViewModel debugSettingsViewModel;
+
+  @FXML private TableView<MetricSample> metricsTableView;
+  @FXML private TableColumn<MetricSample, String> nameColumn;
+  @FXML private TableColumn<MetricSample, String> valueColumn;
+  @FXML private Label exportStatusLabel;
+
+  @Inject
+  public DebugSettingsController(DebugSettingsViewModel debugSettingsViewModel) {
+    this.debugSettingsViewModel = debugSettingsViewModel;
+  }
+
+  @FXML
+  private void initialize() {
+    nameColumn.setCellValueFactory(
+        features -> new ReadOnlyObjectWrapper<>(features.getValue().name()));
+    valueColumn.setCellValueFactory(
+        features -> new ReadOnlyObjectWrapper<>(formatValue(features.getValue())));
+    metricsTableView.setRowFactory(_ -> createRow());
+    metricsTableView.setItems(debugSettingsViewModel.getMetrics());
+  }
+
+  private TableRow<MetricSample> createRow() {
+    return new TableRow<>() {
+      @Override
+      protected void updateItem(MetricSample sample, boolean empty) {
+        super.updateItem(sample, empty);
+        setTooltip(empty || sample == null ? null : new Tooltip(sample.help()));
+      }
+    };
+  }
+
+  private static String formatValue(MetricSample sample) {
+    return switch (sample.type()) {
+      case COUNTER -> String.valueOf(sample.count());
+      case GAUGE -> String.format("%.2f", sample.value());
+      case TIMER ->
+          String.format(
+              "%d times, mean %.2f ms, max %.2f ms",
+              sample.count(), sample.mean() * 1000, sample.max() * 1000);
+    };
+  }
+
+  /** Shows the current values of the metrics, called whenever the page is opened. */
+  public void refresh() {
+    debugSettingsViewModel.refresh();
+  }
+
+  @FXML
+  private void onRefresh(ActionEvent event) {
+    refresh();
+  }
+
+  @FXML
+  private void onExportJson(ActionEvent event) {
+    export(MetricsExporter.Format.JSON);
+  }
+
+  @FXML
+  private void onExportPrometheus(ActionEvent event) {
+    export(MetricsExporter.Format.PROMETHEUS);
+  }
+
+  private void export(MetricsExporter.Format format) {
+    debugSettingsViewModel
+        .export(format)
+        .whenComplete(
+            (file, throwable) ->
+                Platform.runLater(
+                    () ->
+                        exportStatusLabel.setText(
+                            throwable == null
+                                ? "Exported to " + file.getFileName()
+                                : "Export failed")));
+  }
+}
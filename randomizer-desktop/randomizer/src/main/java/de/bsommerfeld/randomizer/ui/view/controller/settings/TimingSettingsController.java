@@ -0,0 +1,84 @@
+package de.bsommerfeld.randomizer.ui.view.controller.settings;
+
+import com.google.inject.Inject;
+import de.bsommerfeld.model.history.ActionTimingSummary;
+import de.bsommerfeld.randomizer.ui.view.View;
+import de.bsommerfeld.randomizer.ui.view.viewmodel.settings.TimingSettingsViewModel;
+import java.util.function.Function;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+
+@View
+public class TimingSettingsController {
+
+  private final TimingSettingsViewModel timingSettingsViewModel;
+
+  @FXML private TableView<ActionTimingSummary> timingTableView;
+  @FXML private TableColumn<ActionTimingSummary, String> actionColumn;
+  @FXML private TableColumn<ActionTimingSummary, String> runsColumn;
+  @FXML private TableColumn<ActionTimingSummary, String> interruptionsColumn;
+  @FXML private TableColumn<ActionTimingSummary, String> plannedColumn;
+  @FXML private TableColumn<ActionTimingSummary, String> actualColumn;
+  @FXML private TableColumn<ActionTimingSummary, String> medianDriftColumn;
+  @FXML private TableColumn<ActionTimingSummary, String> p99DriftColumn;
+  @FXML private TableColumn<ActionTimingSummary, String> maxDriftColumn;
+  @FXML private Label focusLossLabel;
+
+  @Inject
+  public TimingSettingsController(TimingSettingsViewModel timingSettingsViewModel) {
+    this.timingSettingsViewModel = timingSettingsViewModel;
+  }
+
+  @FXML
+  private void initialize() {
+    setupColumns();
+    timingTableView.setItems(timingSettingsViewModel.getActionTimings());
+    focusLossLabel
+        .textProperty()
+        .bind(timingSettingsViewModel.getFocusLossCountProperty().asString("Focus lost %d times"));
+    String logFile = timingSettingsViewModel.getLogFile();
+    focusLossLabel.setTooltip(
+        new Tooltip(logFile != null ? "Logged to " + logFile : "Telemetry log not available"));
+  }
+
+  private void setupColumns() {
+    bindColumn(actionColumn, ActionTimingSummary::actionName);
+    bindColumn(runsColumn, summary -> String.valueOf(summary.runs()));
+    bindColumn(interruptionsColumn, summary -> String.valueOf(summary.interruptions()));
+    bindColumn(plannedColumn, summary -> formatMillis(summary.meanPlannedMillis()));
+    bindColumn(actualColumn, summary -> formatMillis(summary.meanActualMillis()));
+    bindColumn(medianDriftColumn, summary -> formatMicros(summary.medianDriftMicros()));
+    bindColumn(p99DriftColumn, summary -> formatMicros(summary.p99DriftMicros()));
+    bindColumn(maxDriftColumn, summary -> formatMicros(summary.maxDriftMicros()));
+  }
+
+  private void bindColumn(
+      TableColumn<ActionTimingSummary, String> column,
+      Function<ActionTimingSummary, String> value) {
+    column.setCellValueFactory(
+        features -> new ReadOnlyObjectWrapper<>(value.apply(features.getValue())));
+  }
+
+  private static String formatMillis(double millis) {
+    return String.format("%.0f ms", millis);
+  }
+
+  private static String formatMicros(long micros) {
+    return String.format("%.2f ms", micros / 1000.0);
+  }
+
+  /** Shows the timings recorded up to now, called whenever the page is opened. */
+  public void refresh() {
+    timingSettingsViewModel.refresh();
+  }
+
+  @FXML
+  private void onRefresh(ActionEvent event) {
+    refresh();
+  }
+}
@@ -4,19 +4,37 @@ import com.google.inject.Inject;
 import de.bsommerfeld.model.ApplicationContext;
 import de.bsommerfeld.model.ApplicationState;
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.sequence.ActionDispatchEvent;
 import de.bsommerfeld.model.action.sequence.ActionSequence;
 import de.bsommerfeld.model.action.spi.ActionSequenceDispatcher;
+import de.bsommerfeld.model.history.HistoryEntry;
+import de.bsommerfeld.model.history.SessionLog;
+import de.bsommerfeld.randomizer.config.RandomizerConfig;
+import de.bsommerfeld.randomizer.ui.util.BoundedObservableList;
+import java.io.IOException;
+import java.util.List;
 import java.util.function.Consumer;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ObservableList;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class RandomizerViewModel {
 
+  private static final int HISTORY_PAGE_SIZE = 50;
+
   private final ActionSequenceDispatcher actionSequenceDispatcher;
   private final ApplicationContext applicationContext;
+  private final SessionLog sessionLog;
+  private final BoundedObservableList<HistoryEntry> history;
+  private final int historyRetention;
 
   @Getter
   private final ObjectProperty<ActionSequence> currentActionSequenceProperty =
@@ -24,14 +42,62 @@ public class RandomizerViewModel {
 
   @Getter private final ObjectProperty<Action> currentActionProperty = new SimpleObjectProperty<>();
 
+  @Getter
+  private final IntegerProperty finishedSequenceCountProperty = new SimpleIntegerProperty();
+
+  @Getter
+  private final BooleanProperty olderHistoryAvailableProperty = new SimpleBooleanProperty();
+
+  // Entries of the session log that are older than the oldest one in the history, FX thread only
+  private int olderHistoryEntries = 0;
+  private volatile boolean sessionLogWritable;
+
   @Inject
   public RandomizerViewModel(
-      ActionSequenceDispatcher actionSequenceDispatcher, ApplicationContext applicationContext) {
+      ActionSequenceDispatcher actionSequenceDispatcher,
+      ApplicationContext applicationContext,
+      SessionLog sessionLog,
+      RandomizerConfig randomizerConfig) {
     this.actionSequenceDispatcher = actionSequenceDispatcher;
     this.applicationContext = applicationContext;
+    this.sessionLog = sessionLog;
+    this.sessionLogWritable = sessionLog.isEnabled();
+    this.historyRetention = Math.max(1, randomizerConfig.getHistoryRetention());
+    this.history = new BoundedObservableList<>(historyRetention);
     setupInternalHandler();
   }
 
+  /**
+   * Returns the most recently finished sequences, newest first. Only the configured number of
+   * entries is kept, older ones stay in the session log until {@link #loadOlderHistory()} loads
+   * them.
+   *
+   * @return the history, to be used on the FX thread only
+   */
+  public ObservableList<HistoryEntry> getHistory() {
+    return history;
+  }
+
+  /**
+   * Loads the next page of older entries from the session log and appends them to the history. The
+   * history grows by the loaded entries and shrinks back to the configured retention as new
+   * sequences finish, each one taking the room of two of the oldest entries.
+   */
+  public void loadOlderHistory() {
+    if (!sessionLogWritable || olderHistoryEntries == 0) return;
+
+    int fromIndex = Math.max(0, olderHistoryEntries - HISTORY_PAGE_SIZE);
+    try {
+      List<HistoryEntry> page = sessionLog.read(fromIndex, olderHistoryEntries);
+      history.setCapacity(history.getCapacity() + page.size());
+      history.appendAll(page.reversed());
+      olderHistoryEntries = fromIndex;
+    } catch (IOException e) {
+      log.error("Could not read older history from the session log", e);
+    }
+    updateOlderHistoryAvailable();
+  }
+
   public void setApplicationStateToRunning() {
     applicationContext.setApplicationState(ApplicationState.RUNNING);
   }
@@ -48,16 +114,58 @@ public class RandomizerViewModel {
     actionSequenceDispatcher.registerSequenceFinishHandler(consumer);
   }
 
-  public void onActionFinished(Consumer<Action> consumer) {
+  public void onActionFinished(Consumer<ActionDispatchEvent> consumer) {
     actionSequenceDispatcher.registerActionFinishHandler(consumer);
   }
 
-  public void onActionStart(Consumer<Action> consumer) {
+  public void onActionInterrupted(Consumer<ActionDispatchEvent> consumer) {
+    actionSequenceDispatcher.registerActionInterruptHandler(consumer);
+  }
+
+  public void onActionStart(Consumer<ActionDispatchEvent> consumer) {
     actionSequenceDispatcher.registerActionHandler(consumer);
   }
 
+  private void recordFinishedSequence(ActionSequence actionSequence) {
+    HistoryEntry entry = HistoryEntry.of(actionSequence, System.currentTimeMillis());
+    appendToSessionLog(entry);
+    Platform.runLater(() -> addToHistory(entry));
+  }
+
+  private void appendToSessionLog(HistoryEntry entry) {
+    if (!sessionLogWritable) return;
+
+    try {
+      sessionLog.append(entry);
+    } catch (IOException e) {
+      // Without every entry in the log, its positions no longer match the history
+      log.error("Could not write to the session log, older history will not be available", e);
+      sessionLogWritable = false;
+    }
+  }
+
+  private void addToHistory(HistoryEntry entry) {
+    finishedSequenceCountProperty.set(finishedSequenceCountProperty.get() + 1);
+    // Loaded older entries give their room back, one slot per finished sequence
+    if (history.getCapacity() > historyRetention) {
+      int capacity = history.getCapacity() - 1;
+      olderHistoryEntries += Math.max(0, history.size() - capacity);
+      history.setCapacity(capacity);
+    }
+    if (history.push(entry) != null) {
+      olderHistoryEntries++;
+    }
+    updateOlderHistoryAvailable();
+  }
+
+  private void updateOlderHistoryAvailable() {
+    olderHistoryAvailableProperty.set(sessionLogWritable && olderHistoryEntries > 0);
+  }
+
   private void setupInternalHandler() {
     actionSequenceDispatcher.registerSequenceHandler(currentActionSequenceProperty::set);
-    actionSequenceDispatcher.registerActionHandler(currentActionProperty::set);
+    actionSequenceDispatcher.registerSequenceFinishHandler(this::recordFinishedSequence);
+    actionSequenceDispatcher.registerActionHandler(
+        event -> currentActionProperty.set(event.action()));
   }
 }
@@ -56,11 +56,11 @@ public class BuilderEditorViewModel {
   }
 
   public void addRandomActions(int count) {
-    List<Action> allActions = new ArrayList<>(actionRepository.getActions().keySet());
+    List<String> actionNames = new ArrayList<>(actionRepository.names());
     int randomCount = ThreadLocalRandom.current().nextInt(1, count);
     for (int i = 0; i < randomCount; i++) {
-      int randomIndex = (int) (Math.random() * allActions.size());
-      Action randomAction = allActions.get(randomIndex);
+      int randomIndex = (int) (Math.random() * actionNames.size());
+      Action randomAction = actionRepository.getByName(actionNames.get(randomIndex));
       currentActionsProperty.add(randomAction);
     }
   }
@@ -121,11 +121,11 @@ public class BuilderViewModel {
     }
 
     public void addRandomActions(int count) {
-        List<Action> allActions = new ArrayList<>(actionRepository.getActions().keySet());
+        List<String> actionNames = new ArrayList<>(actionRepository.names());
         int randomCount = ThreadLocalRandom.current().nextInt(1, count);
         for (int i = 0; i < randomCount; i++) {
-            int randomIndex = (int) (Math.random() * allActions.size());
-            Action randomAction = allActions.get(randomIndex);
+            int randomIndex = (int) (Math.random() * actionNames.size());
+            Action randomAction = actionRepository.getByName(actionNames.get(randomIndex));
             currentActionsProperty.add(randomAction);
         }
     }
@@ -154,15 +154,12 @@ public class BuilderViewModel {
 
     public Map<KeyBindType, List<Action>> getActionToTypeMap() {
         Map<KeyBindType, List<Action>> actionMap = new HashMap<>();
-        actionRepository
-                .getActions()
-                .forEach(
-                        (action, _) -> {
-                            KeyBindType type = keyBindNameTypeMapper.getTypeByName(action.getName());
-                            if (type != null) {
-                                actionMap.computeIfAbsent(type, _ -> new ArrayList<>()).add(action);
-                            }
-                        });
+        for (Action action : actionRepository.snapshot().getActions()) {
+            KeyBindType type = keyBindNameTypeMapper.getTypeByName(action.getName());
+            if (type != null) {
+                actionMap.computeIfAbsent(type, _ -> new ArrayList<>()).add(action);
+            }
+        }
         return actionMap;
     }
 
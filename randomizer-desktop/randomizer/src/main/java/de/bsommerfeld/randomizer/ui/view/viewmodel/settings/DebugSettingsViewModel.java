@@ -0,0 +1,56 @@
+package de.bsommerfeld.randomizer.ui.view.viewmodel.settings;
+
+import com.google.inject.Inject;
+import de.bsommerfeld.model.ApplicationContext;
+import de.bsommerfeld.model.metrics.MetricSample;
+import de.bsommerfeld.model.metrics.MetricsExporter;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class DebugSettingsViewModel {
+
+  @Getter
+  private final ObservableList<MetricSample> metrics = FXCollections.observableArrayList();
+
+  private final MetricsRegistry metricsRegistry;
+
+  @Inject
+  public DebugSettingsViewModel(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  /** Takes a new snapshot of the metrics, must be called on the FX thread. */
+  public void refresh() {
+    metrics.setAll(metricsRegistry.snapshot());
+  }
+
+  /**
+   * Writes a snapshot of the metrics to a new file in the metrics folder of the appdata folder.
+   *
+   * @param format the format of the file
+   * @return the written file, completed exceptionally if it could not be written
+   */
+  public CompletionStage<Path> export(MetricsExporter.Format format) {
+    List<MetricSample> snapshot = metricsRegistry.snapshot();
+    Path metricsFolder = Paths.get(ApplicationContext.getAppdataFolder().getPath(), "metrics");
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            Path file = MetricsExporter.export(snapshot, format, metricsFolder);
+            log.info("Metrics exported to {}", file);
+            return file;
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+}
@@ -0,0 +1,38 @@
+package de.bsommerfeld.randomizer.ui.view.viewmodel.settings;
+
+import com.google.inject.Inject;
+import de.bsommerfeld.model.history.ActionTimingSummary;
+import de.bsommerfeld.model.history.TelemetryRecorder;
+import java.nio.file.Path;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import lombok.Getter;
+
+public class TimingSettingsViewModel {
+
+  @Getter
+  private final ObservableList<ActionTimingSummary> actionTimings =
+      FXCollections.observableArrayList();
+
+  @Getter private final LongProperty focusLossCountProperty = new SimpleLongProperty();
+
+  private final TelemetryRecorder telemetryRecorder;
+
+  @Inject
+  public TimingSettingsViewModel(TelemetryRecorder telemetryRecorder) {
+    this.telemetryRecorder = telemetryRecorder;
+  }
+
+  /** Takes a new snapshot of the timings recorded so far, must be called on the FX thread. */
+  public void refresh() {
+    actionTimings.setAll(telemetryRecorder.getActionTimings());
+    focusLossCountProperty.set(telemetryRecorder.getFocusLossCount());
+  }
+
+  public String getLogFile() {
+    Path logFile = telemetryRecorder.getLogFile();
+    return logFile != null ? logFile.toString() : null;
+  }
+}
@@ -0,0 +1,154 @@
+package de.bsommerfeld.randomizer.ui.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Every change event is replayed on a plain list, which has to end up equal to the observed list
+ * after every operation.
+ */
+class BoundedObservableListTest {
+
+  private final List<String> mirror = new ArrayList<>();
+  private final List<String> added = new ArrayList<>();
+  private final List<String> removed = new ArrayList<>();
+  private int changes;
+
+  @Test
+  void pushesToFrontAndEvictsFromEnd() {
+    BoundedObservableList<String> list = observe(new BoundedObservableList<>(3));
+    Deque<String> expected = new ArrayDeque<>();
+
+    // Ten pushes move the head around the ring more than three times
+    for (int i = 0; i < 10; i++) {
+      String element = "e" + i;
+      String evicted = list.push(element);
+      expected.addFirst(element);
+      assertEquals(expected.size() > 3 ? expected.removeLast() : null, evicted, element);
+
+      assertEquals(List.copyOf(expected), list);
+      assertEquals(List.copyOf(expected), mirror);
+      assertEquals(List.of(element), added);
+      assertEquals(evicted == null ? List.of() : List.of(evicted), removed);
+      assertEquals(1, changes, "one change per push");
+      clearChanges();
+    }
+  }
+
+  @Test
+  void appendsOnlyWhileThereIsRoom() {
+    BoundedObservableList<String> list = observe(new BoundedObservableList<>(4));
+    list.push("b");
+    list.push("a");
+    clearChanges();
+
+    // The head is off the start of the array, the appended elements wrap around its end
+    assertEquals(2, list.appendAll(List.of("c", "d", "e")));
+    assertEquals(List.of("a", "b", "c", "d"), list);
+    assertEquals(list, mirror);
+    assertEquals(List.of("c", "d"), added);
+    assertEquals(1, changes);
+
+    assertEquals(0, list.appendAll(List.of("f")));
+    assertEquals(1, changes, "a full list appends nothing and fires no change");
+  }
+
+  @Test
+  void shrinksFromTheEnd() {
+    BoundedObservableList<String> list = observe(new BoundedObservableList<>(5));
+    for (int i = 1; i <= 7; i++) {
+      list.push(String.valueOf(i));
+    }
+    clearChanges();
+
+    list.setCapacity(2);
+    assertEquals(2, list.getCapacity());
+    assertEquals(List.of("7", "6"), list);
+    assertEquals(list, mirror);
+    assertEquals(List.of("5", "4", "3"), removed);
+    assertEquals(1, changes);
+
+    assertEquals("6", list.push("8"));
+    assertEquals(List.of("8", "7"), list);
+    assertEquals(list, mirror);
+  }
+
+  @Test
+  void growsWithoutChange() {
+    BoundedObservableList<String> list = observe(new BoundedObservableList<>(3));
+    for (int i = 1; i <= 5; i++) {
+      list.push(String.valueOf(i));
+    }
+    clearChanges();
+
+    list.setCapacity(6);
+    assertEquals(6, list.getCapacity());
+    assertEquals(List.of("5", "4", "3"), list);
+    assertEquals(0, changes);
+
+    for (int i = 6; i <= 8; i++) {
+      assertNull(list.push(String.valueOf(i)));
+    }
+    assertEquals("3", list.push("9"));
+    assertEquals(List.of("9", "8", "7", "6", "5", "4"), list);
+    assertEquals(list, mirror);
+  }
+
+  @Test
+  void clearsAllElements() {
+    BoundedObservableList<String> list = observe(new BoundedObservableList<>(3));
+    list.push("b");
+    list.push("a");
+    clearChanges();
+
+    list.clear();
+    assertEquals(List.of(), list);
+    assertEquals(List.of(), mirror);
+    assertEquals(List.of("a", "b"), removed);
+    assertEquals(1, changes);
+
+    list.clear();
+    assertEquals(1, changes, "an empty list fires no change");
+  }
+
+  @Test
+  void rejectsInvalidCapacityAndIndex() {
+    assertThrows(IllegalArgumentException.class, () -> new BoundedObservableList<String>(0));
+
+    BoundedObservableList<String> list = new BoundedObservableList<>(2);
+    assertThrows(IllegalArgumentException.class, () -> list.setCapacity(-1));
+    list.push("a");
+    assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+  }
+
+  private BoundedObservableList<String> observe(BoundedObservableList<String> list) {
+    mirror.addAll(list);
+    list.addListener(
+        (ListChangeListener<String>)
+            change -> {
+              changes++;
+              while (change.next()) {
+                int from = change.getFrom();
+                mirror.subList(from, from + change.getRemovedSize()).clear();
+                mirror.addAll(from, change.getAddedSubList());
+                removed.addAll(change.getRemoved());
+                added.addAll(change.getAddedSubList());
+              }
+            });
+    return list;
+  }
+
+  private void clearChanges() {
+    changes = 0;
+    added.clear();
+    removed.clear();
+  }
+}
@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 import lombok.Getter;
-import lombok.Setter;
 
 /**
  * The {@code ApplicationContext} class manages and notifies state changes within an application,
@@ -21,9 +20,10 @@ public class ApplicationContext {
   private static final File APPDATA_LOGS_FOLDER = new File(APPDATA_FOLDER, "logs");
 
   private final List<Consumer<ApplicationState>> changeListener = new ArrayList<>();
+  private final List<Consumer<Boolean>> checkForCS2FocusListener = new ArrayList<>();
 
   private volatile ApplicationState applicationState = ApplicationState.IDLING;
-  @Setter private volatile boolean checkForCS2Focus = true;
+  private volatile boolean checkForCS2Focus = true;
 
   public static File getAppdataFolder() {
     return APPDATA_FOLDER;
@@ -49,10 +49,40 @@ public class ApplicationContext {
   /**
    * Sets the current state of the application and notifies all registered listeners of the change.
    *
+   * <p>A listener may change the state again. The listeners after it are then only notified of the
+   * newer state, so the last state every listener sees is the current one.
+   *
    * @param applicationState the new state of the application to be set
    */
   public void setApplicationState(ApplicationState applicationState) {
     this.applicationState = applicationState;
-    changeListener.forEach(changeListener -> changeListener.accept(applicationState));
+    for (Consumer<ApplicationState> listener : changeListener) {
+      if (this.applicationState != applicationState) {
+        return;
+      }
+      listener.accept(applicationState);
+    }
+  }
+
+  /**
+   * Registers a listener to be invoked whenever the check for the focus of CS2 is switched on or
+   * off.
+   *
+   * @param listener A consumer that processes the new value of the setting when it changes.
+   */
+  public void registerCheckForCS2FocusChangeListener(Consumer<Boolean> listener) {
+    checkForCS2FocusListener.add(listener);
+  }
+
+  /**
+   * Sets whether the application only runs while CS2 is in focus and notifies all registered
+   * listeners if the setting changed.
+   *
+   * @param checkForCS2Focus true if CS2 has to be in focus, false otherwise
+   */
+  public void setCheckForCS2Focus(boolean checkForCS2Focus) {
+    if (this.checkForCS2Focus == checkForCS2Focus) return;
+    this.checkForCS2Focus = checkForCS2Focus;
+    checkForCS2FocusListener.forEach(listener -> listener.accept(checkForCS2Focus));
   }
 }
@@ -2,26 +2,37 @@ package de.bsommerfeld.model;
 
 import com.google.gson.Gson;
 import com.google.inject.AbstractModule;
+import de.bsommerfeld.model.action.NativeInputHook;
+import de.bsommerfeld.model.action.PressedKeyTable;
 import de.bsommerfeld.model.action.config.ActionConfig;
 import de.bsommerfeld.model.action.impl.DefaultActionExecutor;
 import de.bsommerfeld.model.action.impl.DefaultFocusManager;
+import de.bsommerfeld.model.action.impl.SystemClock;
+import de.bsommerfeld.model.action.impl.SystemSleeper;
 import de.bsommerfeld.model.action.repository.DefaultActionRepository;
 import de.bsommerfeld.model.action.repository.DefaultActionSequenceRepository;
 import de.bsommerfeld.model.action.sequence.DefaultActionSequenceDispatcher;
 import de.bsommerfeld.model.action.sequence.DefaultActionSequenceExecutor;
+import de.bsommerfeld.model.action.sequence.DefaultSequenceSelector;
 import de.bsommerfeld.model.action.spi.ActionExecutor;
 import de.bsommerfeld.model.action.spi.ActionRepository;
 import de.bsommerfeld.model.action.spi.ActionSequenceDispatcher;
 import de.bsommerfeld.model.action.spi.ActionSequenceExecutor;
 import de.bsommerfeld.model.action.spi.ActionSequenceRepository;
+import de.bsommerfeld.model.action.spi.Clock;
 import de.bsommerfeld.model.action.spi.FocusManager;
+import de.bsommerfeld.model.action.spi.SequenceSelector;
+import de.bsommerfeld.model.action.spi.Sleeper;
 import de.bsommerfeld.model.config.keybind.KeyBindNameTypeMapper;
 import de.bsommerfeld.model.config.keybind.KeyBindRepository;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
 import de.bsommerfeld.model.persistence.GsonProvider;
 import de.bsommerfeld.model.persistence.JsonUtil;
 import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
 import de.bsommerfeld.model.persistence.de_serializer.ActionJsonDeSerializer;
 import de.bsommerfeld.model.persistence.de_serializer.ActionSequenceJsonDeSerializer;
+import de.bsommerfeld.model.persistence.de_serializer.ActionSequenceStreamReader;
+import de.bsommerfeld.model.persistence.store.BinaryActionSequenceStore;
 
 public class ModelModule extends AbstractModule {
 
@@ -30,6 +41,13 @@ public class ModelModule extends AbstractModule {
         // Configuration
         bind(ActionConfig.class).asEagerSingleton();
 
+        // Time source
+        bind(Clock.class).to(SystemClock.class).asEagerSingleton();
+        bind(Sleeper.class).to(SystemSleeper.class).asEagerSingleton();
+
+        // Metrics
+        bind(MetricsRegistry.class).asEagerSingleton();
+
         // Core application components
         bind(ApplicationContext.class).asEagerSingleton();
         bind(JsonUtil.class).asEagerSingleton();
@@ -38,9 +56,12 @@ public class ModelModule extends AbstractModule {
         bind(ActionRepository.class).to(DefaultActionRepository.class).asEagerSingleton();
         bind(ActionSequenceRepository.class).to(DefaultActionSequenceRepository.class).asEagerSingleton();
         bind(ActionSequenceDispatcher.class).to(DefaultActionSequenceDispatcher.class).asEagerSingleton();
-        bind(ActionSequenceExecutor.class).to(DefaultActionSequenceExecutor.class);
+        bind(ActionSequenceExecutor.class).to(DefaultActionSequenceExecutor.class).asEagerSingleton();
+        bind(SequenceSelector.class).to(DefaultSequenceSelector.class).asEagerSingleton();
         bind(ActionExecutor.class).to(DefaultActionExecutor.class).asEagerSingleton();
         bind(FocusManager.class).to(DefaultFocusManager.class).asEagerSingleton();
+        bind(PressedKeyTable.class).asEagerSingleton();
+        bind(NativeInputHook.class).asEagerSingleton();
 
         // KeyBind components
         bind(KeyBindRepository.class).asEagerSingleton();
@@ -48,8 +69,10 @@ public class ModelModule extends AbstractModule {
 
         // Persistence components
         bind(ActionSequenceDao.class).asEagerSingleton();
+        bind(BinaryActionSequenceStore.class).asEagerSingleton();
         bind(ActionJsonDeSerializer.class);
         bind(ActionSequenceJsonDeSerializer.class);
+        bind(ActionSequenceStreamReader.class);
 
         // Gson provider
         bind(Gson.class).toProvider(GsonProvider.class);
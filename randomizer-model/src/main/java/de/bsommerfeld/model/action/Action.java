@@ -5,12 +5,12 @@ import de.bsommerfeld.model.ApplicationContext;
 import de.bsommerfeld.model.action.config.ActionConfig;
 import de.bsommerfeld.model.action.mapper.KeyMapper;
 import de.bsommerfeld.model.action.spi.ActionExecutor;
+import de.bsommerfeld.model.action.spi.Clock;
 import de.bsommerfeld.model.action.spi.FocusManager;
+import de.bsommerfeld.model.action.spi.Sleeper;
 import de.bsommerfeld.model.action.value.Interval;
-import de.bsommerfeld.model.config.keybind.KeyBind;
-import java.time.Instant;
 import java.util.concurrent.ThreadLocalRandom;
-import lombok.AccessLevel;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -19,6 +19,11 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Represents an abstract action that can be performed. The action can have a specified interval,
  * and supports interruptions.
+ *
+ * <p>An Action only holds its definition. Everything that belongs to a single run, whether it is
+ * executing, interrupted or when it is expected to end, lives in the {@link ActionExecution} passed
+ * to {@link #execute(ActionExecution)}. The same action can therefore be executed from several
+ * threads at once, each with its own execution.
  */
 @Getter
 @Slf4j
@@ -31,7 +36,10 @@ public abstract class Action implements Cloneable {
   protected static ActionExecutor actionExecutor;
   protected static FocusManager focusManager;
   protected static ActionConfig actionConfig;
+  protected static Clock clock;
+  protected static Sleeper sleeper;
   private final transient ActionKey actionKey;
+  private final transient ResolvedActionKey resolvedKey;
   private final transient ActionType actionType;
 
   /** The name representing a unique identifier. */
@@ -44,29 +52,20 @@ public abstract class Action implements Cloneable {
    */
   @Setter private Interval interval = Interval.of(0, 1);
 
-  @Setter(AccessLevel.PROTECTED)
-  @ToString.Exclude
-  private transient volatile boolean interrupted = false;
-
-  @Setter(AccessLevel.PROTECTED)
-  @ToString.Exclude
-  private transient volatile boolean executing = false;
-
-  @Setter(AccessLevel.PROTECTED)
-  @ToString.Exclude
-  private transient volatile Instant expectedEnding = null;
-
-  private transient volatile long delay = -1L;
+  /**
+   * The track of the action within its sequence. Actions on the same track run one after another,
+   * actions on different tracks run at the same time.
+   *
+   * <p>Default value is 0
+   */
+  @Setter private int track = 0;
 
   public Action(String name, ActionKey actionKey) {
     this.name = name;
     this.actionKey = actionKey;
-    this.actionType =
-        isMouseEvent()
-            ? ActionType.MOUSE
-            : isMouseWheelEvent()
-                ? ActionType.MOUSE_WHEEL
-                : hasKey() ? ActionType.KEYBOARD : ActionType.CUSTOM;
+    // Resolve once, pressing and releasing the key only reads the resolved values
+    this.resolvedKey = KEY_MAPPER.resolve(actionKey);
+    this.actionType = resolvedKey.actionType();
   }
 
   @Inject
@@ -74,164 +73,190 @@ public abstract class Action implements Cloneable {
       ApplicationContext context,
       ActionExecutor executor,
       FocusManager manager,
-      ActionConfig config) {
+      ActionConfig config,
+      Clock timeClock,
+      Sleeper timeSleeper) {
     applicationContext = context;
     actionExecutor = executor;
     focusManager = manager;
     actionConfig = config;
+    clock = timeClock;
+    sleeper = timeSleeper;
   }
 
   /**
    * Executes an action with a certain delay. If no interval is specified, the action is executed
    * immediately. When an interval is specified, a random delay within the interval is chosen.
+   *
+   * @param execution the state of this run of the action
    */
-  public void execute() {
-    if (getInterval().isEmpty()) {
-      executeWithDelay(0);
+  public void execute(ActionExecution execution) {
+    Interval interval = getInterval();
+    if (interval.isEmpty()) {
+      executeWithDelay(execution, 0);
     } else {
-      if (getInterval().getMin() >= getInterval().getMax()) {
-        // Add a small buffer to ensure max is greater than min
-        getInterval().setMax(getInterval().getMin() + 1);
-      }
-      delay = ThreadLocalRandom.current().nextInt(getInterval().getMin(), getInterval().getMax());
-      executeWithDelay(delay);
+      int min = interval.getMin();
+      // Add a small buffer to ensure the bound is greater than min, the interval itself is shared
+      // by every run of the action and stays untouched
+      int max = Math.max(interval.getMax(), min + 1);
+      long delay = ThreadLocalRandom.current().nextInt(min, max);
+      execution.setDelay(delay);
+      executeWithDelay(execution, delay);
     }
   }
 
-  /**
-   * Determines if the action has ended based on the expected ending time.
-   *
-   * @return {@code true} if the expected ending time is set and is before the current time,
-   *     otherwise {@code false}.
-   */
-  public boolean hasEnded() {
-    return expectedEnding != null && expectedEnding.isBefore(Instant.now());
-  }
-
   /**
    * Executes an action with a specified delay. It begins by performing an action start using a key
    * code, waits for the specified delay allowing for interruption, and then, if not interrupted,
    * performs the action end.
    *
+   * @param execution the state of this run of the action
    * @param delay the time period (in milliseconds) to wait between performing the start and end of
    *     the action
    */
-  public void executeWithDelay(long delay) {
+  public void executeWithDelay(ActionExecution execution, long delay) {
     log.debug("DEBUGGING: Starting executeWithDelay for {} with delay {}", getName(), delay);
-    int keyCode = KEY_MAPPER.getKeyCodeForKey(getActionKey().getKey());
-    setExecuting(true);
-    setInterrupted(false);
+    execution.setExecuting(true);
+    execution.setInterrupted(false);
+    execution.setInterruptReason(null);
 
     try {
-      performActionStart(keyCode);
-      log.debug("DEBUGGING: About to start delay for {}", getName());
-      performInterruptibleDelay(delay);
-      log.debug("DEBUGGING: Delay finished for {}, interrupted: {}", getName(), isInterrupted());
+      if (getInterval().isEmpty()) {
+        // Nothing to wait for in between, so press and release can go out together
+        performActionTap(execution, resolvedKey);
+        return;
+      }
 
-      if (!isInterrupted()) {
-        performActionEnd(keyCode);
+      performActionStart(execution, resolvedKey);
+      log.debug("DEBUGGING: About to start delay for {}", getName());
+      performInterruptibleDelay(execution, delay);
+      log.debug(
+          "DEBUGGING: Delay finished for {}, interrupted: {}",
+          getName(),
+          execution.isInterrupted());
+
+      if (!execution.isInterrupted()) {
+        performActionEnd(resolvedKey);
         log.debug("DEBUGGING: Action end performed for {}", getName());
       } else {
         log.info("Action interrupted, skipping action end for: {}", getActionKey().getKey());
       }
     } finally {
-      setExecuting(false);
+      execution.setExecuting(false);
       log.debug("DEBUGGING: Set executing=false for {}", getName());
     }
   }
 
   /**
-   * Interrupts the current process.
+   * Interrupting the keypress and doesn't wait for the current cycle to end.
    *
-   * <p>This method sets the interrupted flag to true, indicating that the process should be
-   * terminated as soon as possible.
+   * @param execution the run of this action to interrupt
    */
-  public void interrupt() {
-    interrupted = true;
-    executing = false;
+  public void instantInterrupt(ActionExecution execution) {
+    execution.interrupt();
+    performActionEnd(resolvedKey);
   }
 
   /**
-   * Resets the state of the action to its initial state.
+   * Interrupts the run like {@link #instantInterrupt(ActionExecution)}, but adds the release to the
+   * given batch instead of executing it. The batch is submitted with {@link #submit(InputBatch)}.
    *
-   * <p>This method sets the flags `interrupted` and `executing` to `false`, effectively normalizing
-   * the state of the action. It is used to revert the action to a non-interrupted and non-executing
-   * state.
+   * @param execution the run of this action to interrupt
+   * @param batch the batch collecting the releases
    */
-  public void normalize() {
-    interrupted = false;
-    executing = false;
+  public void instantInterrupt(ActionExecution execution, InputBatch batch) {
+    execution.interrupt();
+    appendActionEnd(batch, resolvedKey);
   }
 
-  /** Interrupting the keypress and doesn't wait for the current cycle to end. */
-  public void instantInterrupt() {
-    interrupt();
-    int keyCode = KEY_MAPPER.getKeyCodeForKey(getActionKey().getKey());
-    performActionEnd(keyCode);
+  /**
+   * Executes the given batch through the {@link ActionExecutor} all actions use.
+   *
+   * @param batch the inputs to execute
+   */
+  public static void submit(InputBatch batch) {
+    if (!batch.isEmpty() && actionExecutor != null) {
+      actionExecutor.execute(batch);
+    }
   }
 
   /**
    * Performs a delay that can be interrupted. If the interval is not empty, it calculates the
    * expected end time and calls the interruptible delay method.
    *
+   * @param execution the state of this run of the action
    * @param delay the delay duration in milliseconds
    */
-  protected void performInterruptibleDelay(long delay) {
+  protected void performInterruptibleDelay(ActionExecution execution, long delay) {
     if (!getInterval().isEmpty()) {
-      expectedEnding = Instant.now().plusMillis(delay);
-      interruptibleDelay(delay);
+      execution.setExpectedEnding(clock.currentTimeMillis() + delay);
+      interruptibleDelay(execution, delay);
     }
   }
 
-  private void interruptibleDelay(long delayInMillis) {
-    int waitedTime = 0;
-    int checkInterval = actionConfig != null ? actionConfig.getInterruptCheckInterval() : 50;
-
+  private void interruptibleDelay(ActionExecution execution, long delayInMillis) {
     if (delayInMillis <= 0) return;
 
-    long start = System.currentTimeMillis();
-
-    while (waitedTime < delayInMillis) {
-      if (interrupted) {
-        log.info("Delay interrupted!");
-        return;
-      }
+    long start = clock.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(delayInMillis);
 
-      if (applicationContext.isCheckForCS2Focus()
-          && focusManager != null
-          && !focusManager.isApplicationWindowInFocus()) {
-        log.info("Focus lost, interrupting action: {}", getName());
-        interrupt();
-        return;
-      }
-
-      /*
-       * Due to this, we have a slight off-time of a few milliseconds.
-       * Makes 2385 ms to 2572 ms and 6664 ms to 7166 ms
-       */
-      try {
-        Thread.sleep(checkInterval);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        return;
-      }
-
-      waitedTime += checkInterval;
+    if (!awaitDeadline(execution, deadline)) {
+      log.info("Delay interrupted!");
+      return;
     }
 
-    log.info("{} ran for {} ms", this.getName(), System.currentTimeMillis() - start);
-  }
-
-  private boolean isMouseWheelEvent() {
-    return actionKey.getKey().toUpperCase().startsWith("MWHEEL");
+    log.info(
+        "{} ran for {} ms",
+        this.getName(),
+        TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - start));
   }
 
-  private boolean isMouseEvent() {
-    return actionKey.getKey().toUpperCase().startsWith("MOUSE");
+  /**
+   * Blocks the calling thread until the given deadline on the {@link Clock} is reached. The thread
+   * is parked through the {@link Sleeper} instead of polling, {@link ActionExecution#interrupt()}
+   * and {@link #instantInterrupt(ActionExecution)} wake it up immediately. Focus loss is delivered
+   * the same way, the dispatcher interrupts its running executions once the {@link FocusManager}
+   * reports it.
+   *
+   * @param execution the state of this run of the action
+   * @param deadlineNanos the deadline as a {@link Clock#nanoTime()} value
+   * @return {@code true} if the deadline was reached, {@code false} if the wait was interrupted
+   */
+  protected boolean awaitDeadline(ActionExecution execution, long deadlineNanos) {
+    execution.setWaitingThread(Thread.currentThread());
+    try {
+      while (true) {
+        if (execution.isInterrupted()) {
+          return false;
+        }
+
+        if (isFocusLost()) {
+          log.info("Focus lost, interrupting action: {}", getName());
+          execution.interrupt(InterruptReason.FOCUS_LOST);
+          return false;
+        }
+
+        long remaining = deadlineNanos - clock.nanoTime();
+        if (remaining <= 0) {
+          return true;
+        }
+
+        sleeper.parkNanos(execution, remaining);
+
+        if (Thread.currentThread().isInterrupted()) {
+          return false;
+        }
+      }
+    } finally {
+      execution.setWaitingThread(null);
+    }
   }
 
-  private boolean hasKey() {
-    return !actionKey.getKey().equals(KeyBind.EMPTY_KEY_BIND.getKey());
+  private boolean isFocusLost() {
+    return applicationContext != null
+        && applicationContext.isCheckForCS2Focus()
+        && focusManager != null
+        && !focusManager.isApplicationWindowInFocus();
   }
 
   @Override
@@ -246,16 +271,43 @@ public abstract class Action implements Cloneable {
   }
 
   /**
-   * Triggers the start of a specific action based on the provided key code.
+   * Triggers the start of a specific action based on the provided key.
+   *
+   * @param execution the state of this run of the action, for actions that wait while starting
+   * @param key the resolved key that is pressed to initiate the action
+   */
+  protected abstract void performActionStart(ActionExecution execution, ResolvedActionKey key);
+
+  /**
+   * Executes the final action corresponding to the specified key.
+   *
+   * @param key the resolved key representing a specific action to end
+   */
+  protected abstract void performActionEnd(ResolvedActionKey key);
+
+  /**
+   * Starts and immediately ends the action, used when there is no delay in between. Actions that
+   * can submit both as one {@link InputBatch} override this; by default it performs the start and,
+   * unless the run was interrupted meanwhile, the end.
    *
-   * @param keyCode the code of the key that was pressed to initiate the action
+   * @param execution the state of this run of the action
+   * @param key the resolved key of the action
    */
-  protected abstract void performActionStart(int keyCode);
+  protected void performActionTap(ActionExecution execution, ResolvedActionKey key) {
+    performActionStart(execution, key);
+    if (!execution.isInterrupted()) {
+      performActionEnd(key);
+    }
+  }
 
   /**
-   * Executes the final action corresponding to the specified key code.
+   * Adds the end of the action to the given batch instead of executing it right away. By default the
+   * end is performed directly, which suits actions whose end is no input.
    *
-   * @param keyCode the key code representing a specific action to end
+   * @param batch the batch to add the end to
+   * @param key the resolved key of the action
    */
-  protected abstract void performActionEnd(int keyCode);
+  protected void appendActionEnd(InputBatch batch, ResolvedActionKey key) {
+    performActionEnd(key);
+  }
 }
@@ -0,0 +1,112 @@
+package de.bsommerfeld.model.action;
+
+import java.util.concurrent.locks.LockSupport;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The state of a single run of an {@link Action}: whether it is executing or was interrupted, the
+ * delay that was chosen and when it is expected to end. The action itself stays untouched, so one
+ * action can be executed by several runs at once.
+ *
+ * <p>The dispatcher creates a new execution for every dispatched action and never reuses it. An
+ * execution is handed out through {@link
+ * de.bsommerfeld.model.action.spi.ActionSequenceDispatcher#getRunningExecutions()} and may still be
+ * held by another thread after its run ended, interrupting it then must not affect a later run.
+ */
+@Getter
+@Setter(AccessLevel.PACKAGE)
+@ToString
+public final class ActionExecution {
+
+  /** The action this execution runs. */
+  private final Action action;
+
+  private volatile boolean interrupted = false;
+
+  /** Why the run was interrupted first, or {@code null} while it was not. */
+  private volatile InterruptReason interruptReason;
+
+  private volatile boolean executing = false;
+
+  /** The time on the action clock in epoch milliseconds at which the delay ends, or -1. */
+  private volatile long expectedEnding = -1L;
+
+  /** The delay in milliseconds that was chosen from the interval, or -1. */
+  private volatile long delay = -1L;
+
+  /** The position of the action in its sequence, or -1 if it runs outside one. */
+  private final int sequenceIndex;
+
+  /** The thread currently parked in {@link Action#awaitDeadline}, woken on interruption. */
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private volatile Thread waitingThread;
+
+  /**
+   * Creates a new execution for the given action.
+   *
+   * @param action the action to run
+   */
+  public ActionExecution(Action action) {
+    this(action, -1);
+  }
+
+  /**
+   * Creates a new execution for an action of a sequence.
+   *
+   * @param action the action to run
+   * @param sequenceIndex the position of the action in its sequence, or -1
+   */
+  public ActionExecution(Action action, int sequenceIndex) {
+    this.action = action;
+    this.sequenceIndex = sequenceIndex;
+  }
+
+  /**
+   * Interrupts this run because it is discarded. The flag is set and a thread waiting for the
+   * action's delay is woken up immediately.
+   */
+  public void interrupt() {
+    interrupt(InterruptReason.DISCARDED);
+  }
+
+  /**
+   * Interrupts this run. The flag is set and a thread waiting for the action's delay is woken up
+   * immediately. Only the first reason is kept if the run is interrupted several times.
+   *
+   * @param reason why the run is interrupted
+   */
+  public void interrupt(InterruptReason reason) {
+    if (interruptReason == null) {
+      interruptReason = reason;
+    }
+    interrupted = true;
+    executing = false;
+    Thread thread = waitingThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Checks whether the run has an expected ending time.
+   *
+   * @return {@code true} if a delay was started for this run
+   */
+  public boolean hasExpectedEnding() {
+    return expectedEnding >= 0;
+  }
+
+  /**
+   * Determines if the run has ended based on the expected ending time.
+   *
+   * @return {@code true} if the expected ending time is set and is before the current time,
+   *     otherwise {@code false}.
+   */
+  public boolean hasEnded() {
+    return hasExpectedEnding() && expectedEnding < Action.clock.currentTimeMillis();
+  }
+}
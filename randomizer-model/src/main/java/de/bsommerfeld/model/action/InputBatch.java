@@ -0,0 +1,166 @@
+package de.bsommerfeld.model.action;
+
+import java.util.Arrays;
+
+/**
+ * A list of inputs that are handed to the {@link de.bsommerfeld.model.action.spi.ActionExecutor}
+ * together, so they reach the operating system back to back, for example the press and release of
+ * a tap or the releases of every key that is still held when a sequence is discarded.
+ *
+ * <p>The batch only stores references and primitives and can be {@link #clear() cleared} and
+ * reused, so building one on the hot path does not allocate once it has grown to its working size.
+ * It is not thread-safe.
+ */
+public final class InputBatch {
+
+  private static final int DEFAULT_CAPACITY = 4;
+
+  private InputKind[] kinds;
+  private ResolvedActionKey[] keys;
+  private int[] coordinates;
+  private int size;
+
+  /** Creates an empty batch. */
+  public InputBatch() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty batch with room for the given number of inputs before it has to grow.
+   *
+   * @param initialCapacity the initial capacity
+   */
+  public InputBatch(int initialCapacity) {
+    int capacity = Math.max(1, initialCapacity);
+    this.kinds = new InputKind[capacity];
+    this.keys = new ResolvedActionKey[capacity];
+    this.coordinates = new int[capacity * 2];
+  }
+
+  /**
+   * Adds the press of a key.
+   *
+   * @param key the key to press
+   * @return this batch
+   */
+  public InputBatch press(ResolvedActionKey key) {
+    return add(InputKind.PRESS, key, 0, 0);
+  }
+
+  /**
+   * Adds the release of a key.
+   *
+   * @param key the key to release
+   * @return this batch
+   */
+  public InputBatch release(ResolvedActionKey key) {
+    return add(InputKind.RELEASE, key, 0, 0);
+  }
+
+  /**
+   * Adds a mouse move to the given screen coordinates.
+   *
+   * @param x the x coordinate on the screen
+   * @param y the y coordinate on the screen
+   * @return this batch
+   */
+  public InputBatch moveMouse(int x, int y) {
+    return add(InputKind.MOVE, null, x, y);
+  }
+
+  /**
+   * Returns the number of inputs in the batch.
+   *
+   * @return the number of inputs
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks if the batch holds no input.
+   *
+   * @return true if the batch is empty, false otherwise
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the kind of the input at the given position.
+   *
+   * @param index the position, between 0 (inclusive) and {@link #size()} (exclusive)
+   * @return the kind of the input
+   */
+  public InputKind kindAt(int index) {
+    checkIndex(index);
+    return kinds[index];
+  }
+
+  /**
+   * Returns the key of the input at the given position.
+   *
+   * @param index the position, between 0 (inclusive) and {@link #size()} (exclusive)
+   * @return the key, or {@code null} for mouse moves
+   */
+  public ResolvedActionKey keyAt(int index) {
+    checkIndex(index);
+    return keys[index];
+  }
+
+  /**
+   * Returns the target x coordinate of the input at the given position.
+   *
+   * @param index the position, between 0 (inclusive) and {@link #size()} (exclusive)
+   * @return the x coordinate of a mouse move, otherwise {@code 0}
+   */
+  public int xAt(int index) {
+    checkIndex(index);
+    return coordinates[index * 2];
+  }
+
+  /**
+   * Returns the target y coordinate of the input at the given position.
+   *
+   * @param index the position, between 0 (inclusive) and {@link #size()} (exclusive)
+   * @return the y coordinate of a mouse move, otherwise {@code 0}
+   */
+  public int yAt(int index) {
+    checkIndex(index);
+    return coordinates[index * 2 + 1];
+  }
+
+  /** Removes all inputs, keeping the capacity for reuse. */
+  public void clear() {
+    Arrays.fill(keys, 0, size, null);
+    size = 0;
+  }
+
+  private InputBatch add(InputKind kind, ResolvedActionKey key, int x, int y) {
+    if (size == kinds.length) {
+      int capacity = kinds.length * 2;
+      kinds = Arrays.copyOf(kinds, capacity);
+      keys = Arrays.copyOf(keys, capacity);
+      coordinates = Arrays.copyOf(coordinates, capacity * 2);
+    }
+    kinds[size] = kind;
+    keys[size] = key;
+    coordinates[size * 2] = x;
+    coordinates[size * 2 + 1] = y;
+    size++;
+    return this;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+  }
+
+  /** The kind of a single input. */
+  public enum InputKind {
+    PRESS,
+    RELEASE,
+    MOVE
+  }
+}
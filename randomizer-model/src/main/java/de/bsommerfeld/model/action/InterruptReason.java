@@ -0,0 +1,17 @@
+package de.bsommerfeld.model.action;
+
+/** Why a run of an action was interrupted before it finished. */
+public enum InterruptReason {
+
+  /** The user pressed or released the key the action holds. */
+  USER_INPUT,
+
+  /** The application window lost focus. */
+  FOCUS_LOST,
+
+  /** The sequence was discarded or stopped, for example because the randomizer was stopped. */
+  DISCARDED,
+
+  /** Executing the action failed with an exception. */
+  FAILED
+}
@@ -0,0 +1,151 @@
+package de.bsommerfeld.model.action;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Bounded single-producer/single-consumer queue for native input events, encoded as primitive
+ * {@code long}s.
+ *
+ * <p>The native hook thread is the only producer. Offering an event writes one array element and
+ * publishes the new tail, it never blocks, allocates or takes a lock, so the hook returns to the
+ * operating system right away. If the queue is full the event is dropped and counted instead.
+ *
+ * <p>One consumer thread drains the queue and parks while it is empty. The producer only unparks it
+ * when it announced that it is about to park.
+ */
+public final class NativeEventRingBuffer {
+
+  /** The kind of a pressed key or mouse button. */
+  public static final int PRESSED = 0;
+
+  /** The kind of a released key or mouse button. */
+  public static final int RELEASED = 1;
+
+  private final long[] events;
+  private final int mask;
+
+  // Written by the producer only
+  private volatile long tail;
+  private long cachedHead;
+  private volatile long droppedEvents;
+
+  // Written by the consumer only
+  private volatile long head;
+  private volatile Thread parkedConsumer;
+
+  /**
+   * Creates a ring buffer with the given capacity.
+   *
+   * @param capacity the number of events the buffer can hold, must be a power of two
+   * @throws IllegalArgumentException if the capacity is not a positive power of two
+   */
+  public NativeEventRingBuffer(int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.events = new long[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Encodes an event.
+   *
+   * @param kind {@link #PRESSED} or {@link #RELEASED}
+   * @param slot the {@link PressedKeyTable} slot of the key or mouse button
+   * @return the encoded event
+   */
+  public static long encode(int kind, int slot) {
+    return ((long) kind << 32) | (slot & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the kind of an encoded event.
+   *
+   * @param event the encoded event
+   * @return {@link #PRESSED} or {@link #RELEASED}
+   */
+  public static int kind(long event) {
+    return (int) (event >>> 32);
+  }
+
+  /**
+   * Returns the slot of an encoded event.
+   *
+   * @param event the encoded event
+   * @return the {@link PressedKeyTable} slot
+   */
+  public static int slot(long event) {
+    return (int) event;
+  }
+
+  /**
+   * Appends an event. Must only be called from the producer thread.
+   *
+   * @param event the encoded event
+   * @return {@code true} if the event was queued, {@code false} if the buffer was full
+   */
+  public boolean offer(long event) {
+    long currentTail = tail;
+    if (currentTail - cachedHead >= events.length) {
+      cachedHead = head;
+      if (currentTail - cachedHead >= events.length) {
+        droppedEvents++;
+        return false;
+      }
+    }
+    events[(int) currentTail & mask] = event;
+    tail = currentTail + 1;
+
+    Thread consumer = parkedConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+    return true;
+  }
+
+  /**
+   * Hands all queued events to the given consumer, oldest first. Must only be called from the
+   * consumer thread.
+   *
+   * @param consumer receives the encoded events
+   * @return the number of events drained
+   */
+  public int drain(LongConsumer consumer) {
+    long currentHead = head;
+    long currentTail = tail;
+    if (currentHead == currentTail) {
+      return 0;
+    }
+    for (long i = currentHead; i < currentTail; i++) {
+      consumer.accept(events[(int) i & mask]);
+    }
+    head = currentTail;
+    return (int) (currentTail - currentHead);
+  }
+
+  /**
+   * Parks the consumer thread until an event is queued or the thread is interrupted. Returns right
+   * away if there already are queued events. Must only be called from the consumer thread.
+   */
+  public void awaitEvents() {
+    parkedConsumer = Thread.currentThread();
+    try {
+      // Check again after announcing ourselves, the producer may have published in between
+      if (head == tail) {
+        LockSupport.park(this);
+      }
+    } finally {
+      parkedConsumer = null;
+    }
+  }
+
+  /**
+   * Returns the number of events that were dropped because the buffer was full.
+   *
+   * @return the number of dropped events
+   */
+  public long getDroppedEvents() {
+    return droppedEvents;
+  }
+}
@@ -0,0 +1,164 @@
+package de.bsommerfeld.model.action;
+
+import com.github.kwhat.jnativehook.GlobalScreen;
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.github.kwhat.jnativehook.keyboard.NativeKeyListener;
+import com.github.kwhat.jnativehook.mouse.NativeMouseEvent;
+import com.github.kwhat.jnativehook.mouse.NativeMouseListener;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import de.bsommerfeld.model.metrics.Counter;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The one listener of the native hook. It keeps the {@link PressedKeyTable} up to date and tells
+ * its listeners when the user releases a key that our own input holds.
+ *
+ * <p>The listener methods only encode each event into a {@link NativeEventRingBuffer} and return,
+ * so input in the game is never held up. A dedicated consumer thread drains the buffer and updates
+ * the table. There must only be one hook per table: the marks of our injected input are consumed
+ * by the first one that sees the event, so a second hook would treat our own input as the user's.
+ * The hook therefore also owns the metrics of the native events.
+ */
+@Slf4j
+@Singleton
+public class NativeInputHook implements NativeKeyListener, NativeMouseListener {
+
+  private static final int NATIVE_EVENT_BUFFER_CAPACITY = 1024;
+
+  private final PressedKeyTable pressedKeyTable;
+  private final NativeEventRingBuffer nativeEvents =
+      new NativeEventRingBuffer(NATIVE_EVENT_BUFFER_CAPACITY);
+  private final List<IntConsumer> userReleaseListeners = new CopyOnWriteArrayList<>();
+  private final Counter nativeHookEvents;
+
+  @Inject
+  public NativeInputHook(PressedKeyTable pressedKeyTable, MetricsRegistry metricsRegistry) {
+    this.pressedKeyTable = pressedKeyTable;
+    this.nativeHookEvents =
+        metricsRegistry.counter(
+            "native_hook_events_total", "Key and mouse events of the native hook");
+    metricsRegistry.rate(
+        "native_hook_events_per_second",
+        "Key and mouse events of the native hook per second",
+        nativeHookEvents);
+    metricsRegistry.gauge(
+        "native_hook_events_dropped",
+        "Native hook events dropped because the buffer was full",
+        nativeEvents::getDroppedEvents);
+    startNativeEventConsumer();
+  }
+
+  /**
+   * Adds this hook as key and mouse listener to the {@link GlobalScreen}. Called once, when the
+   * native hook is registered.
+   */
+  public void register() {
+    log.info("Registering native key and mouse listener");
+    GlobalScreen.addNativeMouseListener(this);
+    GlobalScreen.addNativeKeyListener(this);
+  }
+
+  /**
+   * Registers a listener that is notified whenever the user releases a key or mouse button that is
+   * held by our own input.
+   *
+   * <p>Listeners are invoked on the consumer thread of the hook, so they should return quickly.
+   *
+   * @param listener the IntConsumer receiving the slot of the released key
+   */
+  public void registerUserReleaseListener(IntConsumer listener) {
+    userReleaseListeners.add(listener);
+  }
+
+  // GlobalScreen delivers all events on its one dispatch thread, the only producer of the buffer.
+  // Encode, publish and return, everything else is up to the consumer.
+
+  @Override
+  public void nativeMousePressed(NativeMouseEvent nativeEvent) {
+    publishNativeEvent(
+        NativeEventRingBuffer.PRESSED, PressedKeyTable.mouseSlot(nativeEvent.getButton()));
+  }
+
+  @Override
+  public void nativeMouseReleased(NativeMouseEvent nativeEvent) {
+    publishNativeEvent(
+        NativeEventRingBuffer.RELEASED, PressedKeyTable.mouseSlot(nativeEvent.getButton()));
+  }
+
+  @Override
+  public void nativeKeyPressed(NativeKeyEvent nativeEvent) {
+    publishNativeEvent(
+        NativeEventRingBuffer.PRESSED, PressedKeyTable.keySlot(nativeEvent.getKeyCode()));
+  }
+
+  @Override
+  public void nativeKeyReleased(NativeKeyEvent nativeEvent) {
+    publishNativeEvent(
+        NativeEventRingBuffer.RELEASED, PressedKeyTable.keySlot(nativeEvent.getKeyCode()));
+  }
+
+  private void publishNativeEvent(int kind, int slot) {
+    nativeHookEvents.increment();
+    if (slot != PressedKeyTable.NO_SLOT) {
+      nativeEvents.offer(NativeEventRingBuffer.encode(kind, slot));
+    }
+  }
+
+  private void startNativeEventConsumer() {
+    Thread consumer = new Thread(this::consumeNativeEvents, "native-event-consumer");
+    consumer.setDaemon(true);
+    consumer.start();
+  }
+
+  private void consumeNativeEvents() {
+    LongConsumer handler = this::processNativeEvent;
+    long reportedDroppedEvents = 0;
+    while (!Thread.currentThread().isInterrupted()) {
+      if (nativeEvents.drain(handler) == 0) {
+        nativeEvents.awaitEvents();
+      }
+
+      long droppedEvents = nativeEvents.getDroppedEvents();
+      if (droppedEvents != reportedDroppedEvents) {
+        log.warn("Native event buffer overflowed, {} events dropped so far", droppedEvents);
+        reportedDroppedEvents = droppedEvents;
+      }
+    }
+  }
+
+  private void processNativeEvent(long event) {
+    int slot = NativeEventRingBuffer.slot(event);
+    try {
+      if (NativeEventRingBuffer.kind(event) == NativeEventRingBuffer.PRESSED) {
+        pressedKeyTable.nativePressed(slot);
+      } else {
+        processNativeRelease(slot);
+      }
+    } catch (RuntimeException e) {
+      // Keep the consumer alive, a lost event must not stop interruption handling for good
+      log.error("Error processing native event for slot {}", slot, e);
+    }
+  }
+
+  private void processNativeRelease(int slot) {
+    // Our own releases only update the table
+    if (!pressedKeyTable.nativeReleased(slot)) {
+      return;
+    }
+
+    // The user released a key we don't hold, nothing of ours was affected
+    if (!pressedKeyTable.isHeldByExecutor(slot)) {
+      return;
+    }
+
+    for (IntConsumer listener : userReleaseListeners) {
+      listener.accept(slot);
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package de.bsommerfeld.model.action;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free table of the keys and mouse buttons that are currently held down.
+ *
+ * <p>Every key and button owns one slot: keyboard keys use their native key code as reported by the
+ * native hook, mouse buttons follow after the keyboard range. For each slot the table keeps the
+ * following, updated with single atomic operations from the thread processing the native events and
+ * from the thread injecting input:
+ *
+ * <ul>
+ *   <li>whether the user holds the key,
+ *   <li>how many of our actions hold the key through the {@link
+ *       de.bsommerfeld.model.action.spi.ActionExecutor},
+ *   <li>whether an injected press or release is still on its way through the native hook.
+ * </ul>
+ *
+ * <p>The last two let the hook tell our own input apart from the user's: an event that arrives
+ * while an injected event of the same kind is pending is consumed as ours, everything else is user
+ * input. Checking whether a released key interrupts a running action is then a single test.
+ *
+ * <p>The tracks of a sequence can hold the same key at once. Only the first of them presses it and
+ * only the last one releases it, so a track that is done does not lift the key under another.
+ */
+public final class PressedKeyTable {
+
+  /** Returned for keys that have no slot, for example the mouse wheel. */
+  public static final int NO_SLOT = -1;
+
+  private static final int KEYBOARD_SLOTS = 0x10000;
+  private static final int MOUSE_SLOTS = 64;
+  private static final int SLOT_COUNT = KEYBOARD_SLOTS + MOUSE_SLOTS;
+
+  private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final VarHandle HOLDS = MethodHandles.arrayElementVarHandle(int[].class);
+
+  private final long[] pressedByUser = newBitset();
+  private final int[] executorHolds = new int[SLOT_COUNT];
+  private final long[] pendingInjectedPresses = newBitset();
+  private final long[] pendingInjectedReleases = newBitset();
+
+  /**
+   * Returns the slot of a keyboard key.
+   *
+   * @param nativeKeyCode the native key code of the key, as reported by the native hook
+   * @return the slot, or {@link #NO_SLOT} if the key code is out of range
+   */
+  public static int keySlot(int nativeKeyCode) {
+    return nativeKeyCode > 0 && nativeKeyCode < KEYBOARD_SLOTS ? nativeKeyCode : NO_SLOT;
+  }
+
+  /**
+   * Returns the slot of a mouse button.
+   *
+   * @param button the number of the button, starting with 1
+   * @return the slot, or {@link #NO_SLOT} if the button is out of range
+   */
+  public static int mouseSlot(int button) {
+    return button > 0 && button < MOUSE_SLOTS ? KEYBOARD_SLOTS + button : NO_SLOT;
+  }
+
+  /**
+   * Checks if the given slot belongs to a mouse button.
+   *
+   * @param slot the slot
+   * @return true if the slot is the one of a mouse button, false otherwise
+   */
+  public static boolean isMouseSlot(int slot) {
+    return slot >= KEYBOARD_SLOTS && slot < SLOT_COUNT;
+  }
+
+  /**
+   * Records that one of our actions is about to press the key in the given slot. Must be called
+   * before the press is injected, so the native hook can recognize it.
+   *
+   * @param slot the slot of the key
+   * @return {@code true} if the press has to be injected, {@code false} if another action of ours
+   *     already holds the key down
+   */
+  public boolean injectPress(int slot) {
+    if (!isValid(slot)) return true;
+    if ((int) HOLDS.getAndAdd(executorHolds, slot, 1) > 0) {
+      return false;
+    }
+    set(pendingInjectedPresses, slot);
+    return true;
+  }
+
+  /**
+   * Records that one of our actions is about to release the key in the given slot. Must be called
+   * before the release is injected, so the native hook can recognize it.
+   *
+   * @param slot the slot of the key
+   * @return {@code true} if the release has to be injected, {@code false} if another action of ours
+   *     still holds the key down
+   */
+  public boolean injectRelease(int slot) {
+    if (!isValid(slot)) return true;
+    while (true) {
+      int holds = (int) HOLDS.getVolatile(executorHolds, slot);
+      if (holds > 1) {
+        if (HOLDS.compareAndSet(executorHolds, slot, holds, holds - 1)) {
+          return false;
+        }
+      } else if (holds == 0 || HOLDS.compareAndSet(executorHolds, slot, holds, 0)) {
+        // The last hold, or a release without one, the key has to end up released either way
+        set(pendingInjectedReleases, slot);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Records a press reported by the native hook.
+   *
+   * @param slot the slot of the key
+   * @return {@code true} if the press came from the user, {@code false} if it was injected by us
+   */
+  public boolean nativePressed(int slot) {
+    if (!isValid(slot)) return false;
+    if (clear(pendingInjectedPresses, slot)) {
+      return false;
+    }
+    set(pressedByUser, slot);
+    return true;
+  }
+
+  /**
+   * Records a release reported by the native hook.
+   *
+   * @param slot the slot of the key
+   * @return {@code true} if the release came from the user, {@code false} if it was injected by us
+   */
+  public boolean nativeReleased(int slot) {
+    if (!isValid(slot)) return false;
+    if (clear(pendingInjectedReleases, slot)) {
+      return false;
+    }
+    clear(pressedByUser, slot);
+    return true;
+  }
+
+  /**
+   * Checks if the user currently holds the key in the given slot.
+   *
+   * @param slot the slot of the key
+   * @return true if the user holds the key, false otherwise
+   */
+  public boolean isPressedByUser(int slot) {
+    return isValid(slot) && test(pressedByUser, slot);
+  }
+
+  /**
+   * Checks if our own input currently holds the key in the given slot.
+   *
+   * @param slot the slot of the key
+   * @return true if the key was pressed by us and not released yet, false otherwise
+   */
+  public boolean isHeldByExecutor(int slot) {
+    return isValid(slot) && (int) HOLDS.getVolatile(executorHolds, slot) > 0;
+  }
+
+  private static boolean isValid(int slot) {
+    return slot >= 0 && slot < SLOT_COUNT;
+  }
+
+  private static long[] newBitset() {
+    return new long[SLOT_COUNT >>> 6];
+  }
+
+  private static void set(long[] bitset, int slot) {
+    BITS.getAndBitwiseOr(bitset, slot >>> 6, 1L << slot);
+  }
+
+  /** Clears the bit and returns whether it was set before. */
+  private static boolean clear(long[] bitset, int slot) {
+    long mask = 1L << slot;
+    return ((long) BITS.getAndBitwiseAnd(bitset, slot >>> 6, ~mask) & mask) != 0;
+  }
+
+  private static boolean test(long[] bitset, int slot) {
+    return ((long) BITS.getVolatile(bitset, slot >>> 6) & (1L << slot)) != 0;
+  }
+}
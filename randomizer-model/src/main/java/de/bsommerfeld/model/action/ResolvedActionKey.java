@@ -0,0 +1,14 @@
+package de.bsommerfeld.model.action;
+
+/**
+ * An {@link ActionKey} resolved by the {@link de.bsommerfeld.model.action.mapper.KeyMapper}. Every
+ * action resolves its key once when it is created, so pressing and releasing it only reads these
+ * values.
+ *
+ * @param keyCode the code that is injected: a virtual key code for keyboard keys, a button mask
+ *     for mouse buttons or the scroll amount for the mouse wheel, {@code -1} if the key is unknown
+ * @param actionType the type of the action the key leads to
+ * @param keySlot the slot of the key in the {@link PressedKeyTable}, or {@link
+ *     PressedKeyTable#NO_SLOT} if it has none
+ */
+public record ResolvedActionKey(int keyCode, ActionType actionType, int keySlot) {}
@@ -1,6 +1,9 @@
 package de.bsommerfeld.model.action.config;
 
 import com.google.inject.Singleton;
+import de.bsommerfeld.model.action.impl.SpeedProfile;
+import de.bsommerfeld.model.action.impl.TrajectoryType;
+import de.bsommerfeld.model.action.sequence.SequenceSelectionStrategy;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -14,11 +17,6 @@ import lombok.Setter;
 @Singleton
 public class ActionConfig {
 
-    /**
-     * The interval in milliseconds for checking if an action should be interrupted.
-     */
-    private int interruptCheckInterval = 50;
-
     /**
      * The number of steps to use when performing a smooth mouse movement.
      */
@@ -30,9 +28,10 @@ public class ActionConfig {
     private int maxMouseMoveDistance = 5000;
 
     /**
-     * The interval in milliseconds for checking if the application window is in focus.
+     * The interval in milliseconds for polling the foreground window, if focus changes cannot be
+     * received as events.
      */
-    private int focusCheckInterval = 500;
+    private int focusPollInterval = 100;
 
     /**
      * The minimum wait time in milliseconds between action sequence executions.
@@ -48,4 +47,31 @@ public class ActionConfig {
      * The delay in milliseconds between mouse move steps.
      */
     private int mouseMoveSmoothDelay = 10;
+
+    /**
+     * The shape of the path a smooth mouse movement follows.
+     */
+    private TrajectoryType mouseMoveTrajectory = TrajectoryType.BEZIER;
+
+    /**
+     * The distribution of a smooth mouse movement's steps over its path.
+     */
+    private SpeedProfile mouseMoveSpeedProfile = SpeedProfile.MINIMUM_JERK;
+
+    /**
+     * Whether the sequence library is mirrored into the packed binary store, so unchanged sequences
+     * are read from it instead of being parsed from their JSON files.
+     */
+    private boolean binarySequenceStore = false;
+
+    /**
+     * How the executor chooses the next sequence among the active ones.
+     */
+    private SequenceSelectionStrategy sequenceSelectionStrategy = SequenceSelectionStrategy.WEIGHTED;
+
+    /**
+     * The number of most recent sequences the {@link SequenceSelectionStrategy#NO_REPEAT} strategy
+     * does not choose again.
+     */
+    private int sequenceNoRepeatWindow = 2;
 }
\ No newline at end of file
@@ -1,32 +1,57 @@
 package de.bsommerfeld.model.action.impl;
 
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionExecution;
 import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.InputBatch;
+import de.bsommerfeld.model.action.ResolvedActionKey;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * BaseAction is a specific implementation of the Action class designed to handle different types of
  * user actions. Depending on the action type, it can simulate mouse presses, mouse wheel movements,
  * and key presses.
+ *
+ * <p>A press without delay is submitted together with its release as one {@link InputBatch}.
  */
 @Slf4j
 public class BaseAction extends Action {
 
+  /** Reused for taps, the executor doesn't keep the batch once it has executed it. */
+  private static final ThreadLocal<InputBatch> TAP_BATCH = ThreadLocal.withInitial(InputBatch::new);
+
   public BaseAction(String name, ActionKey actionKey) {
     super(name, actionKey);
   }
 
   @Override
-  protected void performActionStart(int keyCode) {
+  protected void performActionStart(ActionExecution execution, ResolvedActionKey key) {
     if (actionExecutor != null) {
-      actionExecutor.executeActionStart(keyCode, getActionType());
+      actionExecutor.executeActionStart(key);
     }
   }
 
   @Override
-  protected void performActionEnd(int keyCode) {
+  protected void performActionEnd(ResolvedActionKey key) {
     if (actionExecutor != null) {
-      actionExecutor.executeActionEnd(keyCode, getActionType());
+      actionExecutor.executeActionEnd(key);
     }
   }
+
+  @Override
+  protected void performActionTap(ActionExecution execution, ResolvedActionKey key) {
+    if (actionExecutor != null) {
+      InputBatch batch = TAP_BATCH.get();
+      try {
+        actionExecutor.execute(batch.press(key).release(key));
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  @Override
+  protected void appendActionEnd(InputBatch batch, ResolvedActionKey key) {
+    batch.release(key);
+  }
 }
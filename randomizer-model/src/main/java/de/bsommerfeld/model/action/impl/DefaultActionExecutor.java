@@ -1,29 +1,46 @@
 package de.bsommerfeld.model.action.impl;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import de.bsommerfeld.model.action.ActionType;
+import de.bsommerfeld.model.action.InputBatch;
+import de.bsommerfeld.model.action.PressedKeyTable;
+import de.bsommerfeld.model.action.ResolvedActionKey;
 import de.bsommerfeld.model.action.spi.ActionExecutor;
 import java.awt.*;
+import java.util.Arrays;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Default implementation of the ActionExecutor interface. This class uses a Robot to execute
  * keyboard and mouse actions.
+ *
+ * <p>Every press and release is announced to the {@link PressedKeyTable} before it is injected, so
+ * the native hook does not mistake our own input for input of the user. The table also tells when
+ * an input has to be left out: a key that another action of ours holds is neither pressed again nor
+ * released until its last holder releases it. A tap of such a key is therefore left out entirely.
  */
 @Slf4j
 @Singleton
 public class DefaultActionExecutor implements ActionExecutor {
 
   private final Robot robot;
+  private final PressedKeyTable pressedKeyTable;
+  private boolean[] injected = new boolean[16];
 
   /**
    * Creates a new DefaultActionExecutor with a Robot instance.
    *
+   * @param pressedKeyTable the table the injected presses and releases are tagged in
    * @throws RuntimeException if the Robot cannot be created
    */
-  public DefaultActionExecutor() {
+  @Inject
+  public DefaultActionExecutor(PressedKeyTable pressedKeyTable) {
+    this.pressedKeyTable = pressedKeyTable;
     try {
       this.robot = new Robot();
+      // Inputs go out back to back, the engine does its own pacing
+      robot.setAutoDelay(0);
+      robot.setAutoWaitForIdle(false);
     } catch (AWTException e) {
       log.error("Failed to create Robot instance", e);
       throw new RuntimeException("Failed to create Robot instance", e);
@@ -31,8 +48,56 @@ public class DefaultActionExecutor implements ActionExecutor {
   }
 
   @Override
-  public void executeActionStart(int keyCode, ActionType actionType) {
-    switch (actionType) {
+  public synchronized void executeActionStart(ResolvedActionKey key) {
+    if (pressedKeyTable.injectPress(key.keySlot())) {
+      press(key);
+    }
+  }
+
+  @Override
+  public synchronized void executeActionEnd(ResolvedActionKey key) {
+    if (pressedKeyTable.injectRelease(key.keySlot())) {
+      release(key);
+    }
+  }
+
+  @Override
+  public synchronized void moveMouse(int x, int y) {
+    robot.mouseMove(x, y);
+  }
+
+  /**
+   * Executes the batch while holding the executor's lock, so no other input of ours can get in
+   * between. The Robot offers no call for several events, it sends them back to back without any
+   * delay instead. All inputs are announced to the {@link PressedKeyTable} before the first one is
+   * injected.
+   */
+  @Override
+  public synchronized void execute(InputBatch batch) {
+    if (injected.length < batch.size()) {
+      injected = Arrays.copyOf(injected, Math.max(batch.size(), injected.length * 2));
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      injected[i] =
+          switch (batch.kindAt(i)) {
+            case PRESS -> pressedKeyTable.injectPress(batch.keyAt(i).keySlot());
+            case RELEASE -> pressedKeyTable.injectRelease(batch.keyAt(i).keySlot());
+            case MOVE -> true;
+          };
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      if (!injected[i]) continue;
+      switch (batch.kindAt(i)) {
+        case PRESS -> press(batch.keyAt(i));
+        case RELEASE -> release(batch.keyAt(i));
+        case MOVE -> robot.mouseMove(batch.xAt(i), batch.yAt(i));
+      }
+    }
+  }
+
+  private void press(ResolvedActionKey key) {
+    int keyCode = key.keyCode();
+    switch (key.actionType()) {
       case MOUSE -> robot.mousePress(keyCode);
       case MOUSE_WHEEL -> robot.mouseWheel(keyCode);
       case KEYBOARD -> robot.keyPress(keyCode);
@@ -40,9 +105,9 @@ public class DefaultActionExecutor implements ActionExecutor {
     }
   }
 
-  @Override
-  public void executeActionEnd(int keyCode, ActionType actionType) {
-    switch (actionType) {
+  private void release(ResolvedActionKey key) {
+    int keyCode = key.keyCode();
+    switch (key.actionType()) {
       case MOUSE -> robot.mouseRelease(keyCode);
       case KEYBOARD -> robot.keyRelease(keyCode);
       default -> log.debug("No action to end for key code: {}", keyCode);
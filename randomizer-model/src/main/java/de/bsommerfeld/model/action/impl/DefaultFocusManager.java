@@ -1,20 +1,67 @@
 package de.bsommerfeld.model.action.impl;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.platform.win32.Kernel32;
 import com.sun.jna.platform.win32.User32;
 import com.sun.jna.platform.win32.WinDef.HWND;
+import com.sun.jna.platform.win32.WinNT.HANDLE;
+import com.sun.jna.platform.win32.WinUser;
+import de.bsommerfeld.model.action.config.ActionConfig;
 import de.bsommerfeld.model.action.spi.FocusManager;
+import de.bsommerfeld.model.metrics.Counter;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Default implementation of the FocusManager interface.
  * This class checks if the Counter-Strike 2 window is currently in focus.
+ *
+ * <p>The focus state is cached and kept up to date by a single background watcher, so querying it
+ * is a plain volatile read. On Windows the watcher listens for foreground changes through a
+ * WinEvent hook, everywhere else (or if the hook cannot be installed) it falls back to polling at
+ * the configured {@link ActionConfig#getFocusPollInterval() focus poll interval}.
  */
 @Slf4j
 @Singleton
 public class DefaultFocusManager implements FocusManager {
 
+    private static final String APPLICATION_WINDOW_TITLE = "Counter-Strike 2";
+
+    private static final int EVENT_SYSTEM_FOREGROUND = 0x0003;
+    private static final int WINEVENT_OUTOFCONTEXT = 0x0000;
+
+    private final List<Consumer<Boolean>> focusChangeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean watcherStarted = new AtomicBoolean(false);
+    private final ActionConfig actionConfig;
+    private final Counter focusChecks;
+    private final Counter focusChanges;
+
+    private volatile boolean applicationWindowInFocus = false;
+    private volatile boolean nativeAccessAvailable = true;
+
+    /** Strong reference to the hook callback, so it is not collected while the hook is active. */
+    private WinUser.WinEventProc foregroundCallback;
+
+    @Inject
+    public DefaultFocusManager(ActionConfig actionConfig, MetricsRegistry metricsRegistry) {
+        this.actionConfig = actionConfig;
+        this.focusChecks =
+                metricsRegistry.counter("focus_checks_total", "Queries of the CS2 focus");
+        this.focusChanges = metricsRegistry.counter(
+                "focus_changes_total", "Times the CS2 window gained or lost focus");
+        metricsRegistry.gauge(
+                "cs2_in_focus",
+                "1 if the CS2 window is in focus, 0 otherwise",
+                () -> applicationWindowInFocus ? 1 : 0);
+    }
+
     /**
      * Checks if the window currently in focus belongs to the "Counter-Strike 2" game.
      *
@@ -22,20 +69,146 @@ public class DefaultFocusManager implements FocusManager {
      */
     @Override
     public boolean isApplicationWindowInFocus() {
+        focusChecks.increment();
+        ensureWatcherStarted();
+        return applicationWindowInFocus;
+    }
+
+    /**
+     * Registers a listener that is notified whenever the "Counter-Strike 2" window gains or loses
+     * focus.
+     *
+     * @param listener the Consumer receiving the new focus state
+     */
+    @Override
+    public void registerFocusChangeListener(Consumer<Boolean> listener) {
+        focusChangeListeners.add(listener);
+        ensureWatcherStarted();
+    }
+
+    private void ensureWatcherStarted() {
+        if (!watcherStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        applicationWindowInFocus = isApplicationWindow(queryForegroundWindow());
+
+        Thread watcherThread = new Thread(this::watchFocus, "FocusWatcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void watchFocus() {
+        if (Platform.isWindows() && runForegroundHook()) {
+            return;
+        }
+        pollForegroundWindow();
+    }
+
+    /**
+     * Installs a WinEvent hook for foreground changes and pumps the message loop of the current
+     * thread, which is required for out-of-context hooks to be delivered.
+     *
+     * @return true if the hook ran until the message loop ended, false if it could not be installed
+     */
+    private boolean runForegroundHook() {
         try {
             User32 user32 = User32.INSTANCE;
-            HWND hwnd = user32.GetForegroundWindow();
+            foregroundCallback =
+                    (hook, event, hwnd, idObject, idChild, eventThread, eventTime) ->
+                            updateFocus(isApplicationWindow(hwnd));
+
+            HANDLE hook =
+                    user32.SetWinEventHook(
+                            EVENT_SYSTEM_FOREGROUND,
+                            EVENT_SYSTEM_FOREGROUND,
+                            null,
+                            foregroundCallback,
+                            0,
+                            0,
+                            WINEVENT_OUTOFCONTEXT);
 
-            if (hwnd == null) {
+            if (hook == null) {
+                log.warn("Could not install foreground hook (error {}), polling instead",
+                        Kernel32.INSTANCE.GetLastError());
                 return false;
             }
 
+            log.info("Foreground hook installed, tracking focus by events");
+            try {
+                WinUser.MSG msg = new WinUser.MSG();
+                while (user32.GetMessage(msg, null, 0, 0) > 0) {
+                    user32.TranslateMessage(msg);
+                    user32.DispatchMessage(msg);
+                }
+            } finally {
+                user32.UnhookWinEvent(hook);
+            }
+            return true;
+        } catch (LinkageError e) {
+            log.error("JNA is not properly set up", e);
+            return false;
+        } catch (Exception e) {
+            log.error("Error while tracking CS2 focus by events, polling instead", e);
+            return false;
+        }
+    }
+
+    private void pollForegroundWindow() {
+        log.info("Polling CS2 focus every {} ms", actionConfig.getFocusPollInterval());
+        while (nativeAccessAvailable && !Thread.currentThread().isInterrupted()) {
+            updateFocus(isApplicationWindow(queryForegroundWindow()));
+            try {
+                Thread.sleep(actionConfig.getFocusPollInterval());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void updateFocus(boolean focused) {
+        if (applicationWindowInFocus == focused) {
+            return;
+        }
+        applicationWindowInFocus = focused;
+        focusChanges.increment();
+        log.debug("CS2 focus changed to: {}", focused);
+
+        for (Consumer<Boolean> listener : focusChangeListeners) {
+            try {
+                listener.accept(focused);
+            } catch (Exception e) {
+                log.error("Error executing focus change listener", e);
+            }
+        }
+    }
+
+    private HWND queryForegroundWindow() {
+        try {
+            return User32.INSTANCE.GetForegroundWindow();
+        } catch (LinkageError e) {
+            log.error("JNA is not properly set up, CS2 focus cannot be tracked", e);
+            nativeAccessAvailable = false;
+            return null;
+        } catch (Exception e) {
+            log.error("Error while checking for CS2 focus", e);
+            return null;
+        }
+    }
+
+    private boolean isApplicationWindow(HWND hwnd) {
+        if (hwnd == null) {
+            return false;
+        }
+
+        try {
             char[] windowText = new char[512];
-            user32.GetWindowText(hwnd, windowText, 512);
+            User32.INSTANCE.GetWindowText(hwnd, windowText, 512);
             String wText = Native.toString(windowText);
 
-            return wText.contains("Counter-Strike 2");
-        } catch (UnsatisfiedLinkError e) {
+            return wText.contains(APPLICATION_WINDOW_TITLE);
+        } catch (LinkageError e) {
             log.error("JNA is not properly set up", e);
             return false;
         } catch (Exception e) {
@@ -43,4 +216,4 @@ public class DefaultFocusManager implements FocusManager {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,33 @@
 package de.bsommerfeld.model.action.impl;
 
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionExecution;
 import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.ResolvedActionKey;
 import de.bsommerfeld.model.config.keybind.KeyBind;
 import java.awt.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class MouseMoveAction extends Action {
 
+  private static final TrajectoryGenerator TRAJECTORY_GENERATOR = new TrajectoryGenerator();
+
+  /**
+   * The precomputed motion path, holding the x and y coordinate of every step interleaved. It is
+   * kept per thread, since the same action may be executed by several runs at once, and is only
+   * reallocated if the configured number of steps grows.
+   */
+  private static final ThreadLocal<int[]> PATH_BUFFER = ThreadLocal.withInitial(() -> new int[0]);
+
   public MouseMoveAction() {
     super("Mouse move", ActionKey.of(KeyBind.EMPTY_KEY_BIND.getKey()));
   }
 
   @Override
-  protected void performActionStart(int keycode) {
+  protected void performActionStart(ActionExecution execution, ResolvedActionKey key) {
     try {
       Point startPosition = MouseInfo.getPointerInfo().getLocation();
       int startX = startPosition.x;
@@ -33,7 +45,7 @@ public class MouseMoveAction extends Action {
       endY = Math.max(0, Math.min(endY, screenSize.height - 1));
 
       log.debug("Moving mouse smoothly from ({}, {}) to ({}, {})", startX, startY, endX, endY);
-      smoothMove(startX, startY, endX, endY);
+      smoothMove(execution, startX, startY, endX, endY);
 
     } catch (Exception e) {
       log.error("Error during smooth mouse move", e);
@@ -41,35 +53,42 @@ public class MouseMoveAction extends Action {
   }
 
   @Override
-  protected void performActionEnd(int keycode) {
+  protected void performActionEnd(ResolvedActionKey key) {
     // No action required
   }
 
-  private void smoothMove(int startX, int startY, int endX, int endY) {
-    int steps = actionConfig != null ? actionConfig.getMouseMoveSteps() : 50;
-    int delay = actionConfig != null ? actionConfig.getMouseMoveSmoothDelay() : 10;
+  /**
+   * Moves the mouse along a trajectory generated up front by the {@link TrajectoryGenerator}, so no
+   * path math happens while the move is in flight. Each step is sent through the {@link
+   * de.bsommerfeld.model.action.spi.ActionExecutor} and paced against a fixed deadline, so the
+   * whole move takes exactly {@code steps * mouseMoveSmoothDelay} milliseconds regardless of how
+   * long a single step needs.
+   */
+  private void smoothMove(
+      ActionExecution execution, int startX, int startY, int endX, int endY) {
+    if (actionExecutor == null) return;
 
-    double dx = (endX - startX) / (double) steps;
-    double dy = (endY - startY) / (double) steps;
+    int steps = Math.max(1, actionConfig != null ? actionConfig.getMouseMoveSteps() : 50);
+    int delay = actionConfig != null ? actionConfig.getMouseMoveSmoothDelay() : 10;
+    TrajectoryType trajectoryType =
+        actionConfig != null ? actionConfig.getMouseMoveTrajectory() : TrajectoryType.BEZIER;
+    SpeedProfile speedProfile =
+        actionConfig != null ? actionConfig.getMouseMoveSpeedProfile() : SpeedProfile.MINIMUM_JERK;
 
-    for (int step = 1; step <= steps; step++) {
-      int x = (int) Math.round(startX + dx * step);
-      int y = (int) Math.round(startY + dy * step);
+    int[] path =
+        TRAJECTORY_GENERATOR.generate(
+            startX, startY, endX, endY, steps, trajectoryType, speedProfile, PATH_BUFFER.get());
+    PATH_BUFFER.set(path);
+    long stepNanos = TimeUnit.MILLISECONDS.toNanos(delay);
+    long deadline = clock.nanoTime();
 
-      try {
-        java.awt.Robot robot = new java.awt.Robot();
-        robot.mouseMove(x, y);
-        robot.delay(delay);
-      } catch (Exception e) {
-        log.error("Error during mouse move", e);
+    for (int i = 0; i < steps * 2; i += 2) {
+      actionExecutor.moveMouse(path[i], path[i + 1]);
+      deadline += stepNanos;
+      if (!awaitDeadline(execution, deadline)) {
+        log.debug("Mouse move interrupted at step {} of {}", i / 2 + 1, steps);
+        return;
       }
     }
-
-    try {
-      java.awt.Robot robot = new java.awt.Robot();
-      robot.mouseMove(endX, endY);
-    } catch (Exception e) {
-      log.error("Error during final mouse move", e);
-    }
   }
 }
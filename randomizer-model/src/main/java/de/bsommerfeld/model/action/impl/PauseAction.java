@@ -1,7 +1,9 @@
 package de.bsommerfeld.model.action.impl;
 
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionExecution;
 import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.ResolvedActionKey;
 import de.bsommerfeld.model.config.keybind.KeyBind;
 
 /**
@@ -18,13 +20,13 @@ public class PauseAction extends Action {
   }
 
   @Override
-  protected void performActionStart(int keycode) {
+  protected void performActionStart(ActionExecution execution, ResolvedActionKey key) {
     // No action needed at start - the delay is handled by executeWithDelay()
     // Removing the duplicate performInterruptibleDelay call here
   }
 
   @Override
-  protected void performActionEnd(int keycode) {
+  protected void performActionEnd(ResolvedActionKey key) {
     // Since no specific action needs to be executed at the end of a pause,
     // this method remains empty.
   }
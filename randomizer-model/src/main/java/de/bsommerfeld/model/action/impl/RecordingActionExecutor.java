@@ -0,0 +1,108 @@
+package de.bsommerfeld.model.action.impl;
+
+import de.bsommerfeld.model.action.ActionType;
+import de.bsommerfeld.model.action.InputBatch;
+import de.bsommerfeld.model.action.InputBatch.InputKind;
+import de.bsommerfeld.model.action.ResolvedActionKey;
+import de.bsommerfeld.model.action.spi.ActionExecutor;
+import de.bsommerfeld.model.action.spi.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ActionExecutor that injects nothing and records every input it is asked for instead, stamped
+ * with the time of the given {@link Clock}. Combined with a {@link VirtualClock} the recording
+ * shows when the engine would have pressed, released and moved, which allows measuring scheduling
+ * jitter, throughput and fairness without a keyboard or a display.
+ *
+ * <p>Every call is recorded as one batch: the inputs of an {@link InputBatch} share their batch
+ * number and timestamp, so tests can check that they were submitted together.
+ */
+public class RecordingActionExecutor implements ActionExecutor {
+
+  private final Clock clock;
+  private final List<RecordedInput> recordedInputs = new ArrayList<>();
+  private long batchCount;
+
+  /**
+   * Creates a new RecordingActionExecutor.
+   *
+   * @param clock the clock the recorded inputs are stamped with
+   */
+  public RecordingActionExecutor(Clock clock) {
+    this.clock = clock;
+  }
+
+  @Override
+  public synchronized void executeActionStart(ResolvedActionKey key) {
+    record(batchCount++, clock.nanoTime(), InputKind.PRESS, key, 0, 0);
+  }
+
+  @Override
+  public synchronized void executeActionEnd(ResolvedActionKey key) {
+    record(batchCount++, clock.nanoTime(), InputKind.RELEASE, key, 0, 0);
+  }
+
+  @Override
+  public synchronized void moveMouse(int x, int y) {
+    record(batchCount++, clock.nanoTime(), InputKind.MOVE, null, x, y);
+  }
+
+  @Override
+  public synchronized void execute(InputBatch batch) {
+    if (batch.isEmpty()) return;
+    long batchNumber = batchCount++;
+    long timestampNanos = clock.nanoTime();
+    for (int i = 0; i < batch.size(); i++) {
+      record(
+          batchNumber,
+          timestampNanos,
+          batch.kindAt(i),
+          batch.keyAt(i),
+          batch.xAt(i),
+          batch.yAt(i));
+    }
+  }
+
+  /**
+   * Returns a snapshot of all inputs recorded so far, in the order they were executed.
+   *
+   * @return the recorded inputs
+   */
+  public synchronized List<RecordedInput> getRecordedInputs() {
+    return List.copyOf(recordedInputs);
+  }
+
+  /** Discards all recorded inputs. */
+  public synchronized void clear() {
+    recordedInputs.clear();
+  }
+
+  private void record(
+      long batch, long timestampNanos, InputKind kind, ResolvedActionKey key, int x, int y) {
+    int keyCode = key != null ? key.keyCode() : -1;
+    ActionType actionType = key != null ? key.actionType() : ActionType.CUSTOM;
+    recordedInputs.add(
+        new RecordedInput(batch, timestampNanos, kind, keyCode, actionType, x, y));
+  }
+
+  /**
+   * A single recorded input.
+   *
+   * @param batch the number of the call that executed the input, shared by the inputs of a batch
+   * @param timestampNanos the {@link Clock#nanoTime()} at which the input was executed
+   * @param kind the kind of input
+   * @param keyCode the key code, {@code -1} for mouse moves
+   * @param actionType the type of the action that caused the input
+   * @param x the target x coordinate of a mouse move, otherwise {@code 0}
+   * @param y the target y coordinate of a mouse move, otherwise {@code 0}
+   */
+  public record RecordedInput(
+      long batch,
+      long timestampNanos,
+      InputKind kind,
+      int keyCode,
+      ActionType actionType,
+      int x,
+      int y) {}
+}
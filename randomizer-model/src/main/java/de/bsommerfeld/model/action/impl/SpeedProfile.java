@@ -0,0 +1,43 @@
+package de.bsommerfeld.model.action.impl;
+
+/**
+ * SpeedProfile is an enumeration of the ways a mouse move can be distributed over time. It maps the
+ * elapsed fraction of the move duration to the fraction of the path that has been covered.
+ */
+public enum SpeedProfile {
+
+  /** Constant speed over the whole move. */
+  CONSTANT {
+    @Override
+    public double progress(double t) {
+      return t;
+    }
+  },
+
+  /** Smoothstep acceleration and deceleration. */
+  EASE_IN_OUT {
+    @Override
+    public double progress(double t) {
+      return t * t * (3 - 2 * t);
+    }
+  },
+
+  /**
+   * The minimum-jerk profile of Flash and Hogan, which closely matches the bell shaped velocity of
+   * human reaching movements.
+   */
+  MINIMUM_JERK {
+    @Override
+    public double progress(double t) {
+      return t * t * t * (10 + t * (-15 + 6 * t));
+    }
+  };
+
+  /**
+   * Maps the elapsed fraction of the move duration to the covered fraction of the path.
+   *
+   * @param t the elapsed fraction of the move duration, between 0 and 1
+   * @return the covered fraction of the path, between 0 and 1
+   */
+  public abstract double progress(double t);
+}
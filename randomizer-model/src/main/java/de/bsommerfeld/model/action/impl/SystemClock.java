@@ -0,0 +1,19 @@
+package de.bsommerfeld.model.action.impl;
+
+import com.google.inject.Singleton;
+import de.bsommerfeld.model.action.spi.Clock;
+
+/** Clock backed by {@link System#nanoTime()} and {@link System#currentTimeMillis()}. */
+@Singleton
+public class SystemClock implements Clock {
+
+  @Override
+  public long nanoTime() {
+    return System.nanoTime();
+  }
+
+  @Override
+  public long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+}
@@ -0,0 +1,32 @@
+package de.bsommerfeld.model.action.impl;
+
+import com.google.inject.Singleton;
+import de.bsommerfeld.model.action.spi.Sleeper;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/** Sleeper that really blocks the calling thread. */
+@Singleton
+public class SystemSleeper implements Sleeper {
+
+  /**
+   * The window before a deadline in which the waiting thread stops parking and spins instead.
+   * Parking is only as precise as the OS timer, so the last stretch is covered by spinning to land
+   * within about a millisecond of the planned delay.
+   */
+  private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+  @Override
+  public void sleep(long millis) throws InterruptedException {
+    Thread.sleep(millis);
+  }
+
+  @Override
+  public void parkNanos(Object blocker, long nanos) {
+    if (nanos > SPIN_THRESHOLD_NANOS) {
+      LockSupport.parkNanos(blocker, nanos - SPIN_THRESHOLD_NANOS);
+    } else {
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package de.bsommerfeld.model.action.impl;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates human-like mouse trajectories.
+ *
+ * <p>Every path is first computed in a normalized frame, where {@code u} runs along the line from
+ * start to end and {@code v} is the perpendicular offset, both as fractions of the move distance.
+ * Normalized paths are cached per {@link TrajectoryType}, {@link SpeedProfile}, step count,
+ * distance bucket and variant, so a move only needs to map the cached path onto its actual start
+ * and end point. That mapping writes into a caller supplied int buffer and does not allocate.
+ */
+@Slf4j
+public class TrajectoryGenerator {
+
+  /** The default upper bound of cached normalized paths. */
+  public static final int DEFAULT_MAX_CACHED_PATHS = 4096;
+
+  /** The width in pixels of a distance bucket. */
+  private static final int DISTANCE_BUCKET_SIZE = 64;
+
+  /** The number of precomputed variants per bucket, picked at random for each move. */
+  private static final int VARIANTS = 8;
+
+  /** The lateral amplitude of short moves, as a fraction of the distance. */
+  private static final double MAX_AMPLITUDE = 0.15;
+
+  /** The lateral amplitude long moves converge to, as a fraction of the distance. */
+  private static final double MIN_AMPLITUDE = 0.04;
+
+  /** The distance in pixels at which the amplitude is halfway between max and min. */
+  private static final double AMPLITUDE_FALLOFF_DISTANCE = 400;
+
+  private static final int NOISE_GRADIENTS = 256;
+
+  private final Map<Long, float[]> pathCache = new ConcurrentHashMap<>();
+  private final int maxCachedPaths;
+
+  public TrajectoryGenerator() {
+    this(DEFAULT_MAX_CACHED_PATHS);
+  }
+
+  /**
+   * Creates a new TrajectoryGenerator.
+   *
+   * @param maxCachedPaths the upper bound of cached normalized paths, {@code 0} disables caching
+   */
+  public TrajectoryGenerator(int maxCachedPaths) {
+    this.maxCachedPaths = maxCachedPaths;
+  }
+
+  /**
+   * Generates a trajectory from the start to the end point and writes the x and y coordinate of
+   * every step interleaved into the given buffer. The last step always lands exactly on the end
+   * point.
+   *
+   * @param startX the x coordinate to start at
+   * @param startY the y coordinate to start at
+   * @param endX the x coordinate to end at
+   * @param endY the y coordinate to end at
+   * @param steps the number of steps the move is divided into
+   * @param type the shape of the path
+   * @param speedProfile the distribution of the steps over the path
+   * @param buffer the buffer to write into, may be {@code null} or too small
+   * @return the given buffer, or a new one if it was not large enough for {@code steps * 2} values
+   */
+  public int[] generate(
+      int startX,
+      int startY,
+      int endX,
+      int endY,
+      int steps,
+      TrajectoryType type,
+      SpeedProfile speedProfile,
+      int[] buffer) {
+    if (buffer == null || buffer.length < steps * 2) {
+      buffer = new int[steps * 2];
+    }
+
+    int dx = endX - startX;
+    int dy = endY - startY;
+    int distanceBucket = (int) Math.hypot(dx, dy) / DISTANCE_BUCKET_SIZE;
+    int variant = ThreadLocalRandom.current().nextInt(VARIANTS);
+    // Mirroring the lateral offset doubles the variety without growing the cache
+    float mirror = ThreadLocalRandom.current().nextBoolean() ? 1f : -1f;
+
+    float[] path = normalizedPath(type, speedProfile, steps, distanceBucket, variant);
+
+    for (int step = 0; step < steps - 1; step++) {
+      float u = path[step * 2];
+      float v = path[step * 2 + 1] * mirror;
+      buffer[step * 2] = (int) Math.round(startX + u * dx - v * dy);
+      buffer[step * 2 + 1] = (int) Math.round(startY + u * dy + v * dx);
+    }
+    buffer[(steps - 1) * 2] = endX;
+    buffer[(steps - 1) * 2 + 1] = endY;
+    return buffer;
+  }
+
+  private float[] normalizedPath(
+      TrajectoryType type, SpeedProfile speedProfile, int steps, int distanceBucket, int variant) {
+    if (maxCachedPaths <= 0) {
+      return computeNormalizedPath(type, speedProfile, steps, distanceBucket, variant);
+    }
+
+    long key = cacheKey(type, speedProfile, steps, distanceBucket, variant);
+    float[] path = pathCache.get(key);
+    if (path != null) {
+      return path;
+    }
+
+    if (pathCache.size() >= maxCachedPaths) {
+      log.debug("Trajectory cache reached {} paths, clearing it", maxCachedPaths);
+      pathCache.clear();
+    }
+    path = computeNormalizedPath(type, speedProfile, steps, distanceBucket, variant);
+    pathCache.putIfAbsent(key, path);
+    return path;
+  }
+
+  private static long cacheKey(
+      TrajectoryType type, SpeedProfile speedProfile, int steps, int distanceBucket, int variant) {
+    return ((long) type.ordinal() << 56)
+        | ((long) speedProfile.ordinal() << 48)
+        | ((long) (steps & 0xFFFFFF) << 24)
+        | ((long) (distanceBucket & 0xFFFF) << 8)
+        | (variant & 0xFF);
+  }
+
+  private float[] computeNormalizedPath(
+      TrajectoryType type, SpeedProfile speedProfile, int steps, int distanceBucket, int variant) {
+    // Seeded by the cache key, so every variant is reproducible
+    Random random = new Random(cacheKey(type, speedProfile, steps, distanceBucket, variant));
+    double distance = (distanceBucket + 0.5) * DISTANCE_BUCKET_SIZE;
+    double amplitude =
+        MIN_AMPLITUDE
+            + (MAX_AMPLITUDE - MIN_AMPLITUDE)
+                * (AMPLITUDE_FALLOFF_DISTANCE / (AMPLITUDE_FALLOFF_DISTANCE + distance));
+
+    float[] path = new float[steps * 2];
+    switch (type) {
+      case LINEAR -> fillLinear(path, steps, speedProfile);
+      case BEZIER -> fillBezier(path, steps, speedProfile, random, amplitude);
+      case MINIMUM_JERK -> fillMinimumJerk(path, steps, speedProfile, random, amplitude);
+      case PERLIN_NOISE -> fillPerlinNoise(path, steps, speedProfile, random, amplitude, distance);
+    }
+    return path;
+  }
+
+  private static void fillLinear(float[] path, int steps, SpeedProfile speedProfile) {
+    for (int step = 1; step <= steps; step++) {
+      path[(step - 1) * 2] = (float) speedProfile.progress(step / (double) steps);
+    }
+  }
+
+  private static void fillBezier(
+      float[] path, int steps, SpeedProfile speedProfile, Random random, double amplitude) {
+    double u1 = 1 / 3.0 + (random.nextDouble() - 0.5) * 0.2;
+    double v1 = (random.nextDouble() * 2 - 1) * amplitude * 2;
+    double u2 = 2 / 3.0 + (random.nextDouble() - 0.5) * 0.2;
+    double v2 = (random.nextDouble() * 2 - 1) * amplitude * 2;
+
+    for (int step = 1; step <= steps; step++) {
+      double s = speedProfile.progress(step / (double) steps);
+      double r = 1 - s;
+      double b1 = 3 * r * r * s;
+      double b2 = 3 * r * s * s;
+      double b3 = s * s * s;
+      path[(step - 1) * 2] = (float) (b1 * u1 + b2 * u2 + b3);
+      path[(step - 1) * 2 + 1] = (float) (b1 * v1 + b2 * v2);
+    }
+  }
+
+  private static void fillMinimumJerk(
+      float[] path, int steps, SpeedProfile speedProfile, Random random, double amplitude) {
+    double peak = (0.5 + random.nextDouble() * 0.5) * amplitude;
+
+    for (int step = 1; step <= steps; step++) {
+      double s = speedProfile.progress(step / (double) steps);
+      path[(step - 1) * 2] = (float) s;
+      // Out to the peak and back again, each half a minimum-jerk move of its own
+      double half = s <= 0.5 ? 2 * s : 2 - 2 * s;
+      path[(step - 1) * 2 + 1] = (float) (peak * minimumJerk(half));
+    }
+  }
+
+  /**
+   * The minimum-jerk position profile {@code 10x^3 - 15x^4 + 6x^5}, rising from 0 to 1 with zero
+   * velocity and acceleration at both ends.
+   */
+  private static double minimumJerk(double x) {
+    return x * x * x * (10 + x * (-15 + 6 * x));
+  }
+
+  private static void fillPerlinNoise(
+      float[] path,
+      int steps,
+      SpeedProfile speedProfile,
+      Random random,
+      double amplitude,
+      double distance) {
+    double[] gradients = new double[NOISE_GRADIENTS];
+    for (int i = 0; i < NOISE_GRADIENTS; i++) {
+      gradients[i] = random.nextDouble() * 2 - 1;
+    }
+    // Longer moves get more wiggles, roughly one every 150 pixels
+    double frequency = Math.max(1, distance / 150);
+    double offset = random.nextDouble() * NOISE_GRADIENTS;
+
+    for (int step = 1; step <= steps; step++) {
+      double s = speedProfile.progress(step / (double) steps);
+      double envelope = Math.sin(Math.PI * s);
+      path[(step - 1) * 2] = (float) s;
+      path[(step - 1) * 2 + 1] =
+          (float) (amplitude * envelope * perlin(gradients, offset + s * frequency));
+    }
+  }
+
+  /** One dimensional gradient noise in the range of roughly -1 to 1. */
+  private static double perlin(double[] gradients, double x) {
+    int i = (int) Math.floor(x);
+    double f = x - i;
+    double g0 = gradients[i & (NOISE_GRADIENTS - 1)] * f;
+    double g1 = gradients[(i + 1) & (NOISE_GRADIENTS - 1)] * (f - 1);
+    double fade = f * f * f * (f * (f * 6 - 15) + 10);
+    return 2 * (g0 + fade * (g1 - g0));
+  }
+}
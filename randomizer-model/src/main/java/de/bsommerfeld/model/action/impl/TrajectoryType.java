@@ -0,0 +1,23 @@
+package de.bsommerfeld.model.action.impl;
+
+/**
+ * TrajectoryType is an enumeration of the path shapes the {@link TrajectoryGenerator} can produce
+ * for a mouse move.
+ */
+public enum TrajectoryType {
+
+  /** A straight line from start to end. */
+  LINEAR,
+
+  /** A cubic Bezier curve with two randomly displaced control points. */
+  BEZIER,
+
+  /**
+   * A single smooth arc whose lateral offset rises to its peak and falls back along two
+   * minimum-jerk profiles, so it leaves and reaches the line with zero velocity and acceleration.
+   */
+  MINIMUM_JERK,
+
+  /** A straight line overlaid with Perlin-noise jitter that fades out towards both ends. */
+  PERLIN_NOISE
+}
@@ -0,0 +1,85 @@
+package de.bsommerfeld.model.action.impl;
+
+import de.bsommerfeld.model.action.spi.Clock;
+import de.bsommerfeld.model.action.spi.Sleeper;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock and Sleeper running on virtual time. Sleeping and parking never block, they advance the
+ * clock by the requested time and return immediately. Injected into the actions with {@link
+ * de.bsommerfeld.model.action.Action#setDependencies} and handed to the sequence executor, hours
+ * of randomized play run in a fraction of a second.
+ *
+ * <p>The engine runs a sequence on the executor thread, so all waits of a simulation happen on one
+ * thread and virtual time advances in the order the real engine would have waited. The tracks of a
+ * sequence would each wait on their own thread and add up their waits instead of overlapping, so
+ * the dispatcher refuses to run sequences with several tracks on virtual time.
+ */
+public class VirtualClock implements Clock, Sleeper {
+
+  private final long epochMillisAtStart;
+  private final AtomicLong elapsedNanos = new AtomicLong();
+
+  /** Creates a VirtualClock starting at the current wall clock time. */
+  public VirtualClock() {
+    this(System.currentTimeMillis());
+  }
+
+  /**
+   * Creates a VirtualClock starting at the given time.
+   *
+   * @param epochMillisAtStart the value of {@link #currentTimeMillis()} before any time elapsed
+   */
+  public VirtualClock(long epochMillisAtStart) {
+    this.epochMillisAtStart = epochMillisAtStart;
+  }
+
+  @Override
+  public long nanoTime() {
+    return elapsedNanos.get();
+  }
+
+  @Override
+  public long currentTimeMillis() {
+    return epochMillisAtStart + TimeUnit.NANOSECONDS.toMillis(elapsedNanos.get());
+  }
+
+  @Override
+  public boolean isVirtual() {
+    return true;
+  }
+
+  @Override
+  public void sleep(long millis) throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    advance(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  @Override
+  public void parkNanos(Object blocker, long nanos) {
+    advance(nanos);
+  }
+
+  /**
+   * Advances the virtual time.
+   *
+   * @param nanos the time to advance in nanoseconds, negative values are ignored
+   */
+  public void advance(long nanos) {
+    if (nanos > 0) {
+      elapsedNanos.addAndGet(nanos);
+    }
+  }
+
+  /**
+   * Returns the virtual time elapsed since this clock was created.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos.get();
+  }
+}
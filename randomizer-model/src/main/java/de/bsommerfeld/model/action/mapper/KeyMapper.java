@@ -1,116 +1,138 @@
 package de.bsommerfeld.model.action.mapper;
 
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.ActionType;
+import de.bsommerfeld.model.action.PressedKeyTable;
+import de.bsommerfeld.model.action.ResolvedActionKey;
+import de.bsommerfeld.model.config.keybind.KeyBind;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * The KeyMapper class provides a mapping between key strings and their corresponding key codes. It supports common
  * keyboard keys, function keys, modifier keys, navigation keys, control keys, and mouse buttons and scroll wheel
  * events.
+ *
+ * <p>Keys are resolved to a {@link ResolvedActionKey}, which holds the key code used to inject the key, the type of
+ * action it leads to and its slot in the {@link PressedKeyTable}. The mappings live in a perfect hash table: its size
+ * and hash multiplier are searched once so that no two keys share a bucket, a lookup therefore hashes the key
+ * case-insensitively and compares it with at most one entry, without allocating.
  */
 public class KeyMapper {
 
     private static final int MWHEELDOWN_KEYCODE = -1;
     private static final int MWHEELUP_KEYCODE = 1;
+    private static final int MAX_TABLE_BITS = 16;
+    private static final int MAX_MULTIPLIER_ATTEMPTS = 1 << 16;
+    private static final int GOLDEN_RATIO_MULTIPLIER = 0x9E3779B9;
 
-    private final Map<String, Integer> stringToKeyCodeMap = new HashMap<>();
+    private final Map<String, ResolvedActionKey> mappings = new LinkedHashMap<>();
+
+    private String[] tableKeys;
+    private ResolvedActionKey[] tableValues;
+    private int tableMultiplier;
+    private int tableShift;
 
     {
         // Letters
-        addMapping("A", KeyEvent.VK_A);
-        addMapping("B", KeyEvent.VK_B);
-        addMapping("C", KeyEvent.VK_C);
-        addMapping("D", KeyEvent.VK_D);
-        addMapping("E", KeyEvent.VK_E);
-        addMapping("F", KeyEvent.VK_F);
-        addMapping("G", KeyEvent.VK_G);
-        addMapping("H", KeyEvent.VK_H);
-        addMapping("I", KeyEvent.VK_I);
-        addMapping("J", KeyEvent.VK_J);
-        addMapping("K", KeyEvent.VK_K);
-        addMapping("L", KeyEvent.VK_L);
-        addMapping("M", KeyEvent.VK_M);
-        addMapping("N", KeyEvent.VK_N);
-        addMapping("O", KeyEvent.VK_O);
-        addMapping("P", KeyEvent.VK_P);
-        addMapping("Q", KeyEvent.VK_Q);
-        addMapping("R", KeyEvent.VK_R);
-        addMapping("S", KeyEvent.VK_S);
-        addMapping("T", KeyEvent.VK_T);
-        addMapping("U", KeyEvent.VK_U);
-        addMapping("V", KeyEvent.VK_V);
-        addMapping("W", KeyEvent.VK_W);
-        addMapping("X", KeyEvent.VK_X);
-        addMapping("Y", KeyEvent.VK_Y);
-        addMapping("Z", KeyEvent.VK_Z);
+        addMapping("A", KeyEvent.VK_A, NativeKeyEvent.VC_A);
+        addMapping("B", KeyEvent.VK_B, NativeKeyEvent.VC_B);
+        addMapping("C", KeyEvent.VK_C, NativeKeyEvent.VC_C);
+        addMapping("D", KeyEvent.VK_D, NativeKeyEvent.VC_D);
+        addMapping("E", KeyEvent.VK_E, NativeKeyEvent.VC_E);
+        addMapping("F", KeyEvent.VK_F, NativeKeyEvent.VC_F);
+        addMapping("G", KeyEvent.VK_G, NativeKeyEvent.VC_G);
+        addMapping("H", KeyEvent.VK_H, NativeKeyEvent.VC_H);
+        addMapping("I", KeyEvent.VK_I, NativeKeyEvent.VC_I);
+        addMapping("J", KeyEvent.VK_J, NativeKeyEvent.VC_J);
+        addMapping("K", KeyEvent.VK_K, NativeKeyEvent.VC_K);
+        addMapping("L", KeyEvent.VK_L, NativeKeyEvent.VC_L);
+        addMapping("M", KeyEvent.VK_M, NativeKeyEvent.VC_M);
+        addMapping("N", KeyEvent.VK_N, NativeKeyEvent.VC_N);
+        addMapping("O", KeyEvent.VK_O, NativeKeyEvent.VC_O);
+        addMapping("P", KeyEvent.VK_P, NativeKeyEvent.VC_P);
+        addMapping("Q", KeyEvent.VK_Q, NativeKeyEvent.VC_Q);
+        addMapping("R", KeyEvent.VK_R, NativeKeyEvent.VC_R);
+        addMapping("S", KeyEvent.VK_S, NativeKeyEvent.VC_S);
+        addMapping("T", KeyEvent.VK_T, NativeKeyEvent.VC_T);
+        addMapping("U", KeyEvent.VK_U, NativeKeyEvent.VC_U);
+        addMapping("V", KeyEvent.VK_V, NativeKeyEvent.VC_V);
+        addMapping("W", KeyEvent.VK_W, NativeKeyEvent.VC_W);
+        addMapping("X", KeyEvent.VK_X, NativeKeyEvent.VC_X);
+        addMapping("Y", KeyEvent.VK_Y, NativeKeyEvent.VC_Y);
+        addMapping("Z", KeyEvent.VK_Z, NativeKeyEvent.VC_Z);
 
         // Numbers
-        addMapping("0", KeyEvent.VK_0);
-        addMapping("1", KeyEvent.VK_1);
-        addMapping("2", KeyEvent.VK_2);
-        addMapping("3", KeyEvent.VK_3);
-        addMapping("4", KeyEvent.VK_4);
-        addMapping("5", KeyEvent.VK_5);
-        addMapping("6", KeyEvent.VK_6);
-        addMapping("7", KeyEvent.VK_7);
-        addMapping("8", KeyEvent.VK_8);
-        addMapping("9", KeyEvent.VK_9);
+        addMapping("0", KeyEvent.VK_0, NativeKeyEvent.VC_0);
+        addMapping("1", KeyEvent.VK_1, NativeKeyEvent.VC_1);
+        addMapping("2", KeyEvent.VK_2, NativeKeyEvent.VC_2);
+        addMapping("3", KeyEvent.VK_3, NativeKeyEvent.VC_3);
+        addMapping("4", KeyEvent.VK_4, NativeKeyEvent.VC_4);
+        addMapping("5", KeyEvent.VK_5, NativeKeyEvent.VC_5);
+        addMapping("6", KeyEvent.VK_6, NativeKeyEvent.VC_6);
+        addMapping("7", KeyEvent.VK_7, NativeKeyEvent.VC_7);
+        addMapping("8", KeyEvent.VK_8, NativeKeyEvent.VC_8);
+        addMapping("9", KeyEvent.VK_9, NativeKeyEvent.VC_9);
 
         // Function keys
-        addMapping("F1", KeyEvent.VK_F1);
-        addMapping("F2", KeyEvent.VK_F2);
-        addMapping("F3", KeyEvent.VK_F3);
-        addMapping("F4", KeyEvent.VK_F4);
-        addMapping("F5", KeyEvent.VK_F5);
-        addMapping("F6", KeyEvent.VK_F6);
-        addMapping("F7", KeyEvent.VK_F7);
-        addMapping("F8", KeyEvent.VK_F8);
-        addMapping("F9", KeyEvent.VK_F9);
-        addMapping("F10", KeyEvent.VK_F10);
-        addMapping("F11", KeyEvent.VK_F11);
-        addMapping("F12", KeyEvent.VK_F12);
+        addMapping("F1", KeyEvent.VK_F1, NativeKeyEvent.VC_F1);
+        addMapping("F2", KeyEvent.VK_F2, NativeKeyEvent.VC_F2);
+        addMapping("F3", KeyEvent.VK_F3, NativeKeyEvent.VC_F3);
+        addMapping("F4", KeyEvent.VK_F4, NativeKeyEvent.VC_F4);
+        addMapping("F5", KeyEvent.VK_F5, NativeKeyEvent.VC_F5);
+        addMapping("F6", KeyEvent.VK_F6, NativeKeyEvent.VC_F6);
+        addMapping("F7", KeyEvent.VK_F7, NativeKeyEvent.VC_F7);
+        addMapping("F8", KeyEvent.VK_F8, NativeKeyEvent.VC_F8);
+        addMapping("F9", KeyEvent.VK_F9, NativeKeyEvent.VC_F9);
+        addMapping("F10", KeyEvent.VK_F10, NativeKeyEvent.VC_F10);
+        addMapping("F11", KeyEvent.VK_F11, NativeKeyEvent.VC_F11);
+        addMapping("F12", KeyEvent.VK_F12, NativeKeyEvent.VC_F12);
 
         // Modifier keys
-        addMapping("CTRL", KeyEvent.VK_CONTROL);
-        addMapping("SHIFT", KeyEvent.VK_SHIFT);
-        addMapping("ALT", KeyEvent.VK_ALT);
-        addMapping("ALTGR", KeyEvent.VK_ALT_GRAPH);
+        addMapping("CTRL", KeyEvent.VK_CONTROL, NativeKeyEvent.VC_CONTROL);
+        addMapping("SHIFT", KeyEvent.VK_SHIFT, NativeKeyEvent.VC_SHIFT);
+        addMapping("ALT", KeyEvent.VK_ALT, NativeKeyEvent.VC_ALT);
+        addMapping("ALTGR", KeyEvent.VK_ALT_GRAPH, NativeKeyEvent.VC_ALT);
 
         // Navigation keys
-        addMapping("UP", KeyEvent.VK_UP);
-        addMapping("DOWN", KeyEvent.VK_DOWN);
-        addMapping("LEFT", KeyEvent.VK_LEFT);
-        addMapping("RIGHT", KeyEvent.VK_RIGHT);
-        addMapping("PAGE_UP", KeyEvent.VK_PAGE_UP);
-        addMapping("PAGE_DOWN", KeyEvent.VK_PAGE_DOWN);
-        addMapping("HOME", KeyEvent.VK_HOME);
-        addMapping("END", KeyEvent.VK_END);
-        addMapping("INSERT", KeyEvent.VK_INSERT);
-        addMapping("DELETE", KeyEvent.VK_DELETE);
+        addMapping("UP", KeyEvent.VK_UP, NativeKeyEvent.VC_UP);
+        addMapping("DOWN", KeyEvent.VK_DOWN, NativeKeyEvent.VC_DOWN);
+        addMapping("LEFT", KeyEvent.VK_LEFT, NativeKeyEvent.VC_LEFT);
+        addMapping("RIGHT", KeyEvent.VK_RIGHT, NativeKeyEvent.VC_RIGHT);
+        addMapping("PAGE_UP", KeyEvent.VK_PAGE_UP, NativeKeyEvent.VC_PAGE_UP);
+        addMapping("PAGE_DOWN", KeyEvent.VK_PAGE_DOWN, NativeKeyEvent.VC_PAGE_DOWN);
+        addMapping("HOME", KeyEvent.VK_HOME, NativeKeyEvent.VC_HOME);
+        addMapping("END", KeyEvent.VK_END, NativeKeyEvent.VC_END);
+        addMapping("INSERT", KeyEvent.VK_INSERT, NativeKeyEvent.VC_INSERT);
+        addMapping("DELETE", KeyEvent.VK_DELETE, NativeKeyEvent.VC_DELETE);
 
         // Control keys
-        addMapping("ENTER", KeyEvent.VK_ENTER);
-        addMapping("ESCAPE", KeyEvent.VK_ESCAPE);
-        addMapping("TAB", KeyEvent.VK_TAB);
-        addMapping("BACKSPACE", KeyEvent.VK_BACK_SPACE);
-        addMapping("SPACE", KeyEvent.VK_SPACE);
-        addMapping("CAPSLOCK", KeyEvent.VK_CAPS_LOCK);
-        addMapping("PRINTSCREEN", KeyEvent.VK_PRINTSCREEN);
-        addMapping("SCROLL_LOCK", KeyEvent.VK_SCROLL_LOCK);
-        addMapping("PAUSE", KeyEvent.VK_PAUSE);
+        addMapping("ENTER", KeyEvent.VK_ENTER, NativeKeyEvent.VC_ENTER);
+        addMapping("ESCAPE", KeyEvent.VK_ESCAPE, NativeKeyEvent.VC_ESCAPE);
+        addMapping("TAB", KeyEvent.VK_TAB, NativeKeyEvent.VC_TAB);
+        addMapping("BACKSPACE", KeyEvent.VK_BACK_SPACE, NativeKeyEvent.VC_BACKSPACE);
+        addMapping("SPACE", KeyEvent.VK_SPACE, NativeKeyEvent.VC_SPACE);
+        addMapping("CAPSLOCK", KeyEvent.VK_CAPS_LOCK, NativeKeyEvent.VC_CAPS_LOCK);
+        addMapping("PRINTSCREEN", KeyEvent.VK_PRINTSCREEN, NativeKeyEvent.VC_PRINTSCREEN);
+        addMapping("SCROLL_LOCK", KeyEvent.VK_SCROLL_LOCK, NativeKeyEvent.VC_SCROLL_LOCK);
+        addMapping("PAUSE", KeyEvent.VK_PAUSE, NativeKeyEvent.VC_PAUSE);
 
         // Mouse keys
-        addMapping("MOUSE1", InputEvent.getMaskForButton(1));
-        addMapping("MOUSE2", InputEvent.getMaskForButton(2));
-        addMapping("MOUSE3", InputEvent.getMaskForButton(3));
-        addMapping("MOUSE4", InputEvent.getMaskForButton(4));
-        addMapping("MOUSE5", InputEvent.getMaskForButton(5));
+        addMouseMapping("MOUSE1", 1);
+        addMouseMapping("MOUSE2", 2);
+        addMouseMapping("MOUSE3", 3);
+        addMouseMapping("MOUSE4", 4);
+        addMouseMapping("MOUSE5", 5);
 
         // Mouse scroll wheel
-        addMapping("MWHEELDOWN", MWHEELDOWN_KEYCODE);
-        addMapping("MWHEELUP", MWHEELUP_KEYCODE);
+        addWheelMapping("MWHEELDOWN", MWHEELDOWN_KEYCODE);
+        addWheelMapping("MWHEELUP", MWHEELUP_KEYCODE);
+
+        buildTable();
     }
 
     /**
@@ -121,10 +143,104 @@ public class KeyMapper {
      * @return the key code corresponding to the key string, or -1 if the key string is not found in the mapping.
      */
     public int getKeyCodeForKey(String key) {
-        return stringToKeyCodeMap.getOrDefault(key.toUpperCase(), -1);
+        return resolve(key).keyCode();
+    }
+
+    /**
+     * Resolves the given action key.
+     *
+     * @param actionKey the action key to resolve.
+     *
+     * @return the resolved key, never null.
+     */
+    public ResolvedActionKey resolve(ActionKey actionKey) {
+        return resolve(actionKey.getKey());
+    }
+
+    /**
+     * Resolves the given key string. Keys without a mapping keep the type their name suggests, with a key code of -1
+     * and no slot.
+     *
+     * @param key the key string to resolve, case-insensitive.
+     *
+     * @return the resolved key, never null.
+     */
+    public ResolvedActionKey resolve(String key) {
+        int index = (hash(key) * tableMultiplier) >>> tableShift;
+        String candidate = tableKeys[index];
+        if (candidate != null && candidate.equalsIgnoreCase(key)) {
+            return tableValues[index];
+        }
+        return new ResolvedActionKey(-1, typeOfUnmappedKey(key), PressedKeyTable.NO_SLOT);
+    }
+
+    private static ActionType typeOfUnmappedKey(String key) {
+        if (key.regionMatches(true, 0, "MOUSE", 0, 5)) {
+            return ActionType.MOUSE;
+        }
+        if (key.regionMatches(true, 0, "MWHEEL", 0, 6)) {
+            return ActionType.MOUSE_WHEEL;
+        }
+        return key.equals(KeyBind.EMPTY_KEY_BIND.getKey()) ? ActionType.CUSTOM : ActionType.KEYBOARD;
+    }
+
+    private void addMapping(String key, int keyCode, int nativeKeyCode) {
+        mappings.put(key.toUpperCase(), new ResolvedActionKey(keyCode, ActionType.KEYBOARD,
+                PressedKeyTable.keySlot(nativeKeyCode)));
+    }
+
+    private void addMouseMapping(String key, int button) {
+        mappings.put(key.toUpperCase(), new ResolvedActionKey(InputEvent.getMaskForButton(button), ActionType.MOUSE,
+                PressedKeyTable.mouseSlot(button)));
+    }
+
+    private void addWheelMapping(String key, int scrollAmount) {
+        mappings.put(key.toUpperCase(), new ResolvedActionKey(scrollAmount, ActionType.MOUSE_WHEEL,
+                PressedKeyTable.NO_SLOT));
+    }
+
+    /**
+     * Builds the smallest power-of-two table in which every mapped key gets a bucket of its own, trying different hash
+     * multipliers for each size.
+     */
+    private void buildTable() {
+        int minBits = 32 - Integer.numberOfLeadingZeros(mappings.size() * 2 - 1);
+        for (int bits = minBits; bits <= MAX_TABLE_BITS; bits++) {
+            String[] keys = new String[1 << bits];
+            ResolvedActionKey[] values = new ResolvedActionKey[1 << bits];
+            for (int attempt = 0; attempt < MAX_MULTIPLIER_ATTEMPTS; attempt++) {
+                if (tryBuildTable(keys, values, GOLDEN_RATIO_MULTIPLIER + 2 * attempt)) {
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("No collision-free table found for " + mappings.size() + " keys");
+    }
+
+    private boolean tryBuildTable(String[] keys, ResolvedActionKey[] values, int multiplier) {
+        Arrays.fill(keys, null);
+        int shift = Integer.numberOfLeadingZeros(keys.length - 1);
+        for (Map.Entry<String, ResolvedActionKey> mapping : mappings.entrySet()) {
+            int index = (hash(mapping.getKey()) * multiplier) >>> shift;
+            if (keys[index] != null) {
+                return false;
+            }
+            keys[index] = mapping.getKey();
+            values[index] = mapping.getValue();
+        }
+        tableKeys = keys;
+        tableValues = values;
+        tableMultiplier = multiplier;
+        tableShift = shift;
+        return true;
     }
 
-    private void addMapping(String key, int keyCode) {
-        stringToKeyCodeMap.put(key.toUpperCase(), keyCode);
+    /** Case-insensitive string hash, equal to {@link String#hashCode()} of the upper-case key. */
+    private static int hash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            h = 31 * h + Character.toUpperCase(key.charAt(i));
+        }
+        return h;
     }
 }
@@ -0,0 +1,133 @@
+package de.bsommerfeld.model.action.repository;
+
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable view of the cached action sequences at one point in time.
+ *
+ * <p>The snapshot holds the cached sequence objects themselves, so reading it never copies or
+ * allocates. Besides the full list it keeps the active sequences in a precomputed array, which is
+ * what the executor picks from on every cycle.
+ *
+ * <p>Every change to the repository publishes a new snapshot with a higher {@link #getVersion()
+ * version}, so readers can cheaply tell whether anything changed since they last looked.
+ */
+public final class ActionSequenceSnapshot {
+
+    /** The snapshot of an empty repository. */
+    public static final ActionSequenceSnapshot EMPTY = new ActionSequenceSnapshot(0, new LinkedHashMap<>());
+
+    private final long version;
+    private final Map<String, ActionSequence> sequencesByName;
+    private final List<ActionSequence> sequences;
+    private final ActionSequence[] activeSequences;
+    private final List<ActionSequence> activeSequencesView;
+
+    private ActionSequenceSnapshot(long version, LinkedHashMap<String, ActionSequence> sequencesByName) {
+        this.version = version;
+        this.sequencesByName = Collections.unmodifiableMap(sequencesByName);
+        this.sequences = List.copyOf(sequencesByName.values());
+        this.activeSequences = sequences.stream()
+                .filter(ActionSequence::isActive)
+                .toArray(ActionSequence[]::new);
+        this.activeSequencesView = List.of(activeSequences);
+    }
+
+    /**
+     * Creates the next snapshot from the given state. The map is taken over and must not be touched
+     * by the caller afterwards.
+     */
+    ActionSequenceSnapshot next(LinkedHashMap<String, ActionSequence> sequencesByName) {
+        return new ActionSequenceSnapshot(version + 1, sequencesByName);
+    }
+
+    /**
+     * Returns the version of this snapshot. It increases with every change to the repository.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if there are no cached sequences at all.
+     *
+     * @return true if the snapshot holds no sequence, false otherwise
+     */
+    public boolean isEmpty() {
+        return sequences.isEmpty();
+    }
+
+    /**
+     * Returns the number of cached sequences.
+     *
+     * @return the number of sequences
+     */
+    public int size() {
+        return sequences.size();
+    }
+
+    /**
+     * Returns all cached sequences.
+     *
+     * @return an unmodifiable list of the sequences
+     */
+    public List<ActionSequence> getSequences() {
+        return sequences;
+    }
+
+    /**
+     * Returns the names of the cached sequences.
+     *
+     * @return an unmodifiable set of names
+     */
+    public Set<String> names() {
+        return sequencesByName.keySet();
+    }
+
+    /**
+     * Returns the sequence with the given name.
+     *
+     * @param name the name of the sequence
+     * @return the sequence, or {@code null} if there is none with that name
+     */
+    public ActionSequence get(String name) {
+        return sequencesByName.get(name);
+    }
+
+    /**
+     * Returns the sequences that were active when the snapshot was published.
+     *
+     * @return an unmodifiable list of the active sequences
+     */
+    public List<ActionSequence> getActiveSequences() {
+        return activeSequencesView;
+    }
+
+    /**
+     * Returns the number of active sequences.
+     *
+     * @return the number of active sequences
+     */
+    public int activeCount() {
+        return activeSequences.length;
+    }
+
+    /**
+     * Returns the active sequence at the given position.
+     *
+     * @param index the position, between 0 (inclusive) and {@link #activeCount()} (exclusive)
+     * @return the active sequence
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     */
+    public ActionSequence activeAt(int index) {
+        return activeSequences[index];
+    }
+}
@@ -0,0 +1,142 @@
+package de.bsommerfeld.model.action.repository;
+
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable view of the registered actions at one point in time.
+ *
+ * <p>The actions held by a snapshot are the registered templates, not copies. They can be iterated
+ * and inspected from any thread without cloning, but must not be modified. Use
+ * {@link de.bsommerfeld.model.action.spi.ActionRepository#getByName(String)} to obtain a copy that
+ * can be placed into a sequence.
+ *
+ * <p>Every change to the repository publishes a new snapshot with a higher {@link #getVersion()
+ * version}, so readers can cheaply tell whether anything changed since they last looked.
+ */
+public final class ActionSnapshot {
+
+    /** The snapshot of an empty repository. */
+    public static final ActionSnapshot EMPTY = new ActionSnapshot(0, new LinkedHashMap<>(), Set.of());
+
+    private final long version;
+    private final Map<String, Action> actionsByName;
+    private final Set<String> disabledNames;
+    private final List<Action> actions;
+    private final Map<ActionType, List<Action>> actionsByType;
+
+    private ActionSnapshot(long version, LinkedHashMap<String, Action> actionsByName, Set<String> disabledNames) {
+        this.version = version;
+        this.actionsByName = Collections.unmodifiableMap(actionsByName);
+        this.disabledNames = Set.copyOf(disabledNames);
+        this.actions = List.copyOf(actionsByName.values());
+
+        Map<ActionType, List<Action>> byType = new EnumMap<>(ActionType.class);
+        for (Action action : this.actions) {
+            byType.computeIfAbsent(action.getActionType(), _ -> new ArrayList<>()).add(action);
+        }
+        byType.replaceAll((_, list) -> List.copyOf(list));
+        this.actionsByType = Collections.unmodifiableMap(byType);
+    }
+
+    /**
+     * Creates the next snapshot from the given state. The map is taken over and must not be touched
+     * by the caller afterwards.
+     */
+    ActionSnapshot next(LinkedHashMap<String, Action> actionsByName, Set<String> disabledNames) {
+        return new ActionSnapshot(version + 1, actionsByName, disabledNames);
+    }
+
+    /**
+     * Returns the version of this snapshot. It increases with every change to the repository.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of registered actions.
+     *
+     * @return the number of actions
+     */
+    public int size() {
+        return actions.size();
+    }
+
+    /**
+     * Returns the registered actions in registration order.
+     *
+     * @return an unmodifiable list of the action templates
+     */
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    /**
+     * Returns the names of the registered actions in registration order.
+     *
+     * @return an unmodifiable set of names
+     */
+    public Set<String> names() {
+        return actionsByName.keySet();
+    }
+
+    /**
+     * Returns the action registered under the given name.
+     *
+     * @param name the name of the action
+     * @return the action template, or {@code null} if none is registered under that name
+     */
+    public Action get(String name) {
+        return actionsByName.get(name);
+    }
+
+    /**
+     * Checks if an action is registered under the given name.
+     *
+     * @param name the name of the action
+     * @return true if an action with that name is registered, false otherwise
+     */
+    public boolean contains(String name) {
+        return actionsByName.containsKey(name);
+    }
+
+    /**
+     * Returns the registered actions of the given type in registration order.
+     *
+     * @param actionType the type of the actions
+     * @return an unmodifiable list of the action templates, empty if there are none
+     */
+    public List<Action> byType(ActionType actionType) {
+        return actionsByType.getOrDefault(actionType, List.of());
+    }
+
+    /**
+     * Checks if the action with the given name is enabled. Actions that are not registered count
+     * as enabled.
+     *
+     * @param name the name of the action
+     * @return true if the action is enabled or not registered, false otherwise
+     */
+    public boolean isEnabled(String name) {
+        return !disabledNames.contains(name);
+    }
+
+    Map<String, Action> actionsByName() {
+        return actionsByName;
+    }
+
+    Set<String> disabledNames() {
+        return disabledNames;
+    }
+}
@@ -2,30 +2,43 @@ package de.bsommerfeld.model.action.repository;
 
 import com.google.inject.Singleton;
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionType;
 import de.bsommerfeld.model.action.spi.ActionRepository;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Default implementation of the ActionRepository interface.
  * This class manages actions and their enabled/disabled state.
+ *
+ * <p>Actions are indexed by name and published as an immutable {@link ActionSnapshot}. Writers
+ * build the next snapshot under a lock and swap it in, readers only read the current snapshot and
+ * therefore never block and never see a half-applied change.
  */
 @Slf4j
 @Singleton
 public class DefaultActionRepository implements ActionRepository {
 
-    private final Map<Action, Boolean> actions = new LinkedHashMap<>();
+    private volatile ActionSnapshot snapshot = ActionSnapshot.EMPTY;
 
     /**
-     * Registers a new action in the repository by adding it to the internal map of actions.
+     * Registers a new action in the repository by adding it to the name index. An action already
+     * registered under the same name is replaced.
      *
      * @param action The action to be registered and enabled.
      */
     @Override
-    public void register(Action action) {
-        actions.put(action, true);
+    public synchronized void register(Action action) {
+        LinkedHashMap<String, Action> actionsByName = new LinkedHashMap<>(snapshot.actionsByName());
+        actionsByName.put(action.getName(), action);
+        Set<String> disabledNames = new HashSet<>(snapshot.disabledNames());
+        disabledNames.remove(action.getName());
+        snapshot = snapshot.next(actionsByName, disabledNames);
     }
 
     /**
@@ -36,7 +49,7 @@ public class DefaultActionRepository implements ActionRepository {
      */
     @Override
     public boolean hasActionWithName(String name) {
-        return actions.keySet().stream().anyMatch(action -> action.getName().equals(name));
+        return snapshot.contains(name);
     }
 
     /**
@@ -45,8 +58,14 @@ public class DefaultActionRepository implements ActionRepository {
      * @param action The action to be unregistered.
      */
     @Override
-    public void unregister(Action action) {
-        actions.remove(action);
+    public synchronized void unregister(Action action) {
+        if (!snapshot.contains(action.getName())) return;
+
+        LinkedHashMap<String, Action> actionsByName = new LinkedHashMap<>(snapshot.actionsByName());
+        actionsByName.remove(action.getName());
+        Set<String> disabledNames = new HashSet<>(snapshot.disabledNames());
+        disabledNames.remove(action.getName());
+        snapshot = snapshot.next(actionsByName, disabledNames);
     }
 
     /**
@@ -56,7 +75,7 @@ public class DefaultActionRepository implements ActionRepository {
      */
     @Override
     public void enable(Action action) {
-        actions.put(action, true);
+        setEnabled(action, true);
     }
 
     /**
@@ -66,18 +85,19 @@ public class DefaultActionRepository implements ActionRepository {
      */
     @Override
     public void disable(Action action) {
-        actions.put(action, false);
+        setEnabled(action, false);
     }
 
     /**
-     * Checks if the specified action is currently enabled.
+     * Checks if the specified action is currently enabled. Copies obtained through
+     * {@link #getByName(String)} share the state of the action they were copied from.
      *
      * @param action The action to check for its enabled state.
      * @return true if the action is enabled or if it is not found in the repository, false otherwise.
      */
     @Override
     public boolean isEnabled(Action action) {
-        return actions.getOrDefault(action, true);
+        return snapshot.isEnabled(action.getName());
     }
 
     /**
@@ -89,15 +109,15 @@ public class DefaultActionRepository implements ActionRepository {
      */
     @Override
     public Map<Action, Boolean> getActions() {
+        ActionSnapshot current = snapshot;
         Map<Action, Boolean> actionsCopy = new LinkedHashMap<>();
-        this.actions.forEach(
-            (action, enabled) -> {
-                try {
-                    actionsCopy.put(action.clone(), enabled);
-                } catch (CloneNotSupportedException e) {
-                    throw new RuntimeException("Failed to clone action", e);
-                }
-            });
+        for (Action action : current.getActions()) {
+            try {
+                actionsCopy.put(action.clone(), current.isEnabled(action.getName()));
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException("Failed to clone action", e);
+            }
+        }
         return actionsCopy;
     }
 
@@ -111,11 +131,10 @@ public class DefaultActionRepository implements ActionRepository {
      */
     @Override
     public Action getByName(String actionName) {
-        Action originalAction =
-            actions.keySet().stream()
-                .filter(action -> action.getName().equals(actionName))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("No action found with name: " + actionName));
+        Action originalAction = snapshot.get(actionName);
+        if (originalAction == null) {
+            throw new IllegalArgumentException("No action found with name: " + actionName);
+        }
 
         try {
             return originalAction.clone();
@@ -123,4 +142,36 @@ public class DefaultActionRepository implements ActionRepository {
             throw new RuntimeException("Failed to clone action: " + actionName, e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public ActionSnapshot snapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public Set<String> names() {
+        return snapshot.names();
+    }
+
+    @Override
+    public List<Action> byType(ActionType actionType) {
+        return snapshot.byType(actionType);
+    }
+
+    private synchronized void setEnabled(Action action, boolean enabled) {
+        if (!snapshot.contains(action.getName()) || snapshot.isEnabled(action.getName()) == enabled) return;
+
+        Set<String> disabledNames = new HashSet<>(snapshot.disabledNames());
+        if (enabled) {
+            disabledNames.remove(action.getName());
+        } else {
+            disabledNames.add(action.getName());
+        }
+        snapshot = snapshot.next(new LinkedHashMap<>(snapshot.actionsByName()), disabledNames);
+    }
+}
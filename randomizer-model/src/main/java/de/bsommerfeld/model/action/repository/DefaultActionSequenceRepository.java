@@ -2,33 +2,74 @@ package de.bsommerfeld.model.action.repository;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import de.bsommerfeld.model.action.config.ActionConfig;
 import de.bsommerfeld.model.action.sequence.ActionSequence;
 import de.bsommerfeld.model.action.spi.ActionSequenceRepository;
+import de.bsommerfeld.model.metrics.Counter;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import de.bsommerfeld.model.metrics.Timer;
 import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceLoadResult;
+import de.bsommerfeld.model.persistence.store.BinaryActionSequenceStore;
+import de.bsommerfeld.model.persistence.store.StoredSequence;
+import de.bsommerfeld.model.watcher.FileChangeKind;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Default implementation of the ActionSequenceRepository interface.
  * This class manages action sequences and provides caching functionality.
+ *
+ * <p>The cache is maintained per file. For every loaded sequence file the modification time and
+ * size are remembered, so a reload only parses files that actually changed, and a single changed
+ * file can be applied without touching the others.
+ *
+ * <p>Readers never lock. Writers change the cache under a lock and then publish an immutable
+ * {@link ActionSequenceSnapshot}, which readers pick up with a single volatile read, so the
+ * executor and the UI neither block on a reload nor copy the cache on every call.
  */
 @Slf4j
 @Singleton
 public class DefaultActionSequenceRepository implements ActionSequenceRepository {
 
-    private final Map<String, ActionSequence> actionSequencesMap = new HashMap<>();
+    private final Map<String, ActionSequence> actionSequencesMap = new LinkedHashMap<>();
+    private final Map<Path, LoadedFile> loadedFiles = new HashMap<>();
     private final ActionSequenceDao actionSequenceDao;
+    private final BinaryActionSequenceStore binaryStore;
+    private final ActionConfig actionConfig;
+    private final Counter cacheReloads;
+    private final Timer cacheReloadDuration;
     private boolean isCacheUpdated = false;
+    private volatile ActionSequenceSnapshot snapshot = ActionSequenceSnapshot.EMPTY;
 
     @Inject
-    public DefaultActionSequenceRepository(ActionSequenceDao actionSequenceDao) {
+    public DefaultActionSequenceRepository(
+            ActionSequenceDao actionSequenceDao,
+            BinaryActionSequenceStore binaryStore,
+            ActionConfig actionConfig,
+            MetricsRegistry metricsRegistry) {
         this.actionSequenceDao = actionSequenceDao;
+        this.binaryStore = binaryStore;
+        this.actionConfig = actionConfig;
+        this.cacheReloads = metricsRegistry.counter(
+                "sequence_cache_reloads_total", "Full and single file reloads of the sequence cache");
+        this.cacheReloadDuration = metricsRegistry.timer(
+                "sequence_cache_reload_seconds", "Time spent reloading the sequence cache");
+        metricsRegistry.gauge(
+                "cached_sequences", "Sequences in the cache", () -> snapshot.size());
     }
 
     /**
@@ -48,8 +89,12 @@ public class DefaultActionSequenceRepository implements ActionSequenceRepository
         }
 
         actionSequencesMap.put(actionSequence.getName(), actionSequence);
-        isCacheUpdated = false;
         actionSequenceDao.saveActionSequence(actionSequence);
+        // The file is written behind, its stamp is unknown until it is loaded again
+        loadedFiles.put(
+                normalize(actionSequenceDao.getActionSequenceFile(actionSequence.getName())),
+                new LoadedFile(actionSequence.getName(), null));
+        publish();
         log.info("ActionSequence '{}' saved.", actionSequence.getName());
     }
 
@@ -71,7 +116,7 @@ public class DefaultActionSequenceRepository implements ActionSequenceRepository
         }
 
         removeActionSequence(actionSequence.getName());
-        isCacheUpdated = false;
+        loadedFiles.remove(normalize(actionSequenceDao.getActionSequenceFile(actionSequence.getName())));
         actionSequenceDao.deleteActionSequence(actionSequence);
         log.info("ActionSequence '{}' deleted.", actionSequence.getName());
     }
@@ -94,6 +139,7 @@ public class DefaultActionSequenceRepository implements ActionSequenceRepository
         }
 
         actionSequencesMap.put(actionSequence.getName(), actionSequence);
+        publish();
         log.info("ActionSequence '{}' added.", actionSequence.getName());
     }
 
@@ -110,6 +156,7 @@ public class DefaultActionSequenceRepository implements ActionSequenceRepository
                     name);
             return;
         }
+        publish();
         log.info("ActionSequence '{}' removed.", name);
     }
 
@@ -120,12 +167,35 @@ public class DefaultActionSequenceRepository implements ActionSequenceRepository
     public synchronized void updateActionSequencesCache() {
         if (!isCacheUpdated) {
             updateCache();
+            publish();
             log.info("Cache updated.");
         } else {
             log.info("Cache is already up to date.");
         }
     }
 
+    /**
+     * Applies a change of a single sequence file to the cache. A deleted file removes its sequence,
+     * a created or modified file is parsed again, unless its modification time and size show that
+     * the cached version is still current.
+     *
+     * @param file the sequence file that changed
+     * @param kind the kind of change
+     */
+    @Override
+    public synchronized void reloadActionSequenceFile(Path file, FileChangeKind kind) {
+        long startNanos = System.nanoTime();
+        Path normalizedFile = normalize(file);
+        if (kind == FileChangeKind.DELETED || !Files.exists(normalizedFile)) {
+            forgetFile(normalizedFile);
+        } else {
+            refreshFile(normalizedFile);
+        }
+        publish();
+        cacheReloads.increment();
+        cacheReloadDuration.recordSince(startNanos);
+    }
+
     /**
      * Retrieves the action sequence associated with the given name.
      *
@@ -133,28 +203,176 @@ public class DefaultActionSequenceRepository implements ActionSequenceRepository
      * @return an Optional containing the ActionSequence if found, otherwise an empty Optional
      */
     @Override
-    public synchronized Optional<ActionSequence> getActionSequence(String name) {
-        return Optional.ofNullable(actionSequencesMap.get(name));
+    public Optional<ActionSequence> getActionSequence(String name) {
+        return Optional.ofNullable(snapshot.get(name));
     }
 
     /**
-     * Retrieves a list of action sequences from the internal map.
+     * Retrieves the cached action sequences from the current snapshot.
      *
-     * @return A list containing all action sequences from the map.
+     * @return an unmodifiable list of all cached action sequences
+     */
+    @Override
+    public List<ActionSequence> getActionSequences() {
+        return snapshot.getSequences();
+    }
+
+    /**
+     * Returns the current snapshot of the cached action sequences.
+     *
+     * @return the current snapshot, never {@code null}
+     */
+    @Override
+    public ActionSequenceSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Writes all saves that are still queued in the DAO to their files.
      */
     @Override
-    public synchronized List<ActionSequence> getActionSequences() {
-        return new ArrayList<>(actionSequencesMap.values());
+    public void flushPendingWrites() {
+        actionSequenceDao.flush();
     }
 
     /**
-     * Updates the action sequences cache by reloading data from the data access object.
+     * Updates the action sequences cache from the sequence folder. Unchanged files are skipped, the
+     * changed ones are loaded in parallel, and sequences whose file is gone are removed. If the
+     * binary store is enabled, changed files that still have a current copy in it are decoded from
+     * the store instead of being parsed, and the store is rewritten once it is out of date.
      */
     private synchronized void updateCache() {
-        actionSequencesMap.clear();
-        actionSequenceDao
-                .loadActionSequences()
-                .forEach(sequence -> actionSequencesMap.put(sequence.getName(), sequence));
+        long startNanos = System.nanoTime();
+        Set<Path> presentFiles = new HashSet<>();
+        List<Path> changedFiles = new ArrayList<>();
+        Map<Path, FileStamp> stamps = new HashMap<>();
+        for (Path file : actionSequenceDao.listActionSequenceFiles()) {
+            Path normalizedFile = normalize(file);
+            presentFiles.add(normalizedFile);
+            FileStamp stamp = changedStamp(normalizedFile);
+            if (stamp != null) {
+                changedFiles.add(normalizedFile);
+                stamps.put(normalizedFile, stamp);
+            }
+        }
+
+        boolean useBinaryStore = actionConfig.isBinarySequenceStore();
+        if (useBinaryStore) {
+            changedFiles.removeIf(file -> applyStoredFile(file, stamps.get(file)));
+        }
+
+        for (ActionSequenceLoadResult result : actionSequenceDao.loadActionSequences(changedFiles)) {
+            applyLoadedFile(result.file(), stamps.get(result.file()), result.actionSequence());
+        }
+
+        boolean filesRemoved = false;
+        for (Path file : new ArrayList<>(loadedFiles.keySet())) {
+            if (!presentFiles.contains(file)) {
+                forgetFile(file);
+                filesRemoved = true;
+            }
+        }
+
+        if (useBinaryStore && (!changedFiles.isEmpty() || filesRemoved)) {
+            writeBinaryStore();
+        }
         isCacheUpdated = true;
+        cacheReloads.increment();
+        cacheReloadDuration.recordSince(startNanos);
+    }
+
+    private boolean applyStoredFile(Path file, FileStamp stamp) {
+        Optional<ActionSequence> actionSequence =
+                binaryStore.readIfCurrent(file, stamp.lastModified(), stamp.size());
+        actionSequence.ifPresent(sequence -> applyLoadedFile(file, stamp, sequence));
+        return actionSequence.isPresent();
+    }
+
+    private void writeBinaryStore() {
+        List<StoredSequence> sequences = new ArrayList<>(loadedFiles.size());
+        loadedFiles.forEach((file, loadedFile) -> {
+            ActionSequence actionSequence = actionSequencesMap.get(loadedFile.sequenceName());
+            if (actionSequence != null && loadedFile.stamp() != null) {
+                sequences.add(new StoredSequence(
+                        file, loadedFile.stamp().lastModified(), loadedFile.stamp().size(), actionSequence));
+            }
+        });
+        binaryStore.write(sequences);
+    }
+
+    private void refreshFile(Path file) {
+        FileStamp stamp = changedStamp(file);
+        if (stamp != null) {
+            applyLoadedFile(file, stamp, actionSequenceDao.loadActionSequence(file));
+        }
+    }
+
+    /**
+     * Returns the current stamp of the file if it has to be loaded, or {@code null} if the cached
+     * version is current or the file is gone.
+     */
+    private FileStamp changedStamp(Path file) {
+        FileStamp stamp = FileStamp.of(file);
+        if (stamp == null) {
+            forgetFile(file);
+            return null;
+        }
+
+        LoadedFile loadedFile = loadedFiles.get(file);
+        if (loadedFile != null && stamp.equals(loadedFile.stamp())) {
+            log.debug("ActionSequence file {} is unchanged, skipping reload.", file);
+            return null;
+        }
+        return stamp;
+    }
+
+    private void applyLoadedFile(Path file, FileStamp stamp, ActionSequence actionSequence) {
+        LoadedFile loadedFile = loadedFiles.get(file);
+        if (actionSequence == null) {
+            // Keep the cached version, the file may still be in the middle of being written
+            log.warn("ActionSequence file {} could not be loaded, keeping the cached version.", file);
+            return;
+        }
+
+        if (loadedFile != null && !loadedFile.sequenceName().equals(actionSequence.getName())) {
+            actionSequencesMap.remove(loadedFile.sequenceName());
+        }
+        actionSequencesMap.put(actionSequence.getName(), actionSequence);
+        loadedFiles.put(file, new LoadedFile(actionSequence.getName(), stamp));
+        log.info("ActionSequence '{}' loaded from {}.", actionSequence.getName(), file.getFileName());
+    }
+
+    private void forgetFile(Path file) {
+        LoadedFile loadedFile = loadedFiles.remove(file);
+        if (loadedFile != null && actionSequencesMap.remove(loadedFile.sequenceName()) != null) {
+            log.info("ActionSequence '{}' removed, its file is gone.", loadedFile.sequenceName());
+        }
+    }
+
+    private void publish() {
+        snapshot = snapshot.next(new LinkedHashMap<>(actionSequencesMap));
+    }
+
+    private static Path normalize(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    /**
+     * The sequence a file was loaded into and the state of the file at that time. The stamp is {@code null} for a file
+     * that was saved but not loaded since.
+     */
+    private record LoadedFile(String sequenceName, FileStamp stamp) {}
+
+    /** Modification time and size of a file, used to tell whether it changed since it was loaded. */
+    private record FileStamp(long lastModified, long size) {
+
+        static FileStamp of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+            } catch (IOException e) {
+                return null;
+            }
+        }
     }
 }
\ No newline at end of file
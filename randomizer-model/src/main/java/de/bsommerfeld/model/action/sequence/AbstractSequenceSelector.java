@@ -0,0 +1,44 @@
+package de.bsommerfeld.model.action.sequence;
+
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import de.bsommerfeld.model.action.spi.SequenceSelector;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Base class for selectors that precompute a structure over the active sequences of a snapshot.
+ * The structure is rebuilt whenever a different snapshot is passed in, every other selection only
+ * draws an index from it.
+ */
+public abstract class AbstractSequenceSelector implements SequenceSelector {
+
+  private ActionSequenceSnapshot source;
+
+  @Override
+  public final synchronized ActionSequence select(ActionSequenceSnapshot snapshot) {
+    if (snapshot.activeCount() == 0) {
+      return null;
+    }
+    if (snapshot != source) {
+      rebuild(snapshot, source);
+      source = snapshot;
+    }
+    return snapshot.activeAt(nextIndex(ThreadLocalRandom.current()));
+  }
+
+  /**
+   * Rebuilds the selection structure for the active sequences of the given snapshot.
+   *
+   * @param snapshot the snapshot to select from from now on, with at least one active sequence
+   * @param previous the snapshot selected from so far, or {@code null} on the first selection
+   */
+  protected abstract void rebuild(ActionSequenceSnapshot snapshot, ActionSequenceSnapshot previous);
+
+  /**
+   * Draws the position of the next sequence among the active sequences.
+   *
+   * @param random the random generator to draw from
+   * @return a position between 0 (inclusive) and the number of active sequences (exclusive)
+   */
+  protected abstract int nextIndex(RandomGenerator random);
+}
@@ -0,0 +1,77 @@
+package de.bsommerfeld.model.action.sequence;
+
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.InterruptReason;
+
+/**
+ * Handed to the action handlers of an {@link
+ * de.bsommerfeld.model.action.spi.ActionSequenceDispatcher} when an action starts, finishes or is
+ * interrupted. The index tells repeated actions of a sequence apart, so a listener can find the
+ * entry of the action without comparing names.
+ *
+ * <p>Events for a finished or interrupted action also tell how the run went: the delay that was
+ * planned for it, how long it actually took and why it was interrupted.
+ *
+ * @param sequence the sequence that is dispatched, or {@code null} if the action runs outside one
+ * @param index the position of the action in {@link ActionSequence#getActions()}, or {@link
+ *     #NO_INDEX}
+ * @param action the action
+ * @param plannedDelay the delay in milliseconds that was chosen for the run, or -1 if there was
+ *     none or the run did not end yet
+ * @param elapsedNanos how long the run took in nanoseconds, or -1 if it did not end yet
+ * @param interruptReason why the run was interrupted, or {@code null} if it was not
+ */
+public record ActionDispatchEvent(
+    ActionSequence sequence,
+    int index,
+    Action action,
+    long plannedDelay,
+    long elapsedNanos,
+    InterruptReason interruptReason) {
+
+  /** The index of an action that has no position in a sequence. */
+  public static final int NO_INDEX = -1;
+
+  /**
+   * Creates the event of an action that is about to start.
+   *
+   * @param sequence the sequence that is dispatched, or {@code null}
+   * @param index the position of the action in the sequence, or {@link #NO_INDEX}
+   * @param action the action
+   */
+  public ActionDispatchEvent(ActionSequence sequence, int index, Action action) {
+    this(sequence, index, action, -1L, -1L, null);
+  }
+
+  /**
+   * Creates the event of the same action once its run ended.
+   *
+   * @param plannedDelay the delay in milliseconds that was chosen for the run, or -1
+   * @param elapsedNanos how long the run took in nanoseconds
+   * @param interruptReason why the run was interrupted, or {@code null} if it finished
+   * @return the new event
+   */
+  public ActionDispatchEvent ended(
+      long plannedDelay, long elapsedNanos, InterruptReason interruptReason) {
+    return new ActionDispatchEvent(
+        sequence, index, action, plannedDelay, elapsedNanos, interruptReason);
+  }
+
+  /**
+   * Checks whether the action has a position in its sequence.
+   *
+   * @return true if the index is valid, false otherwise
+   */
+  public boolean hasIndex() {
+    return index >= 0;
+  }
+
+  /**
+   * Checks whether the run of the action was interrupted.
+   *
+   * @return true if the run was interrupted, false otherwise
+   */
+  public boolean isInterrupted() {
+    return interruptReason != null;
+  }
+}
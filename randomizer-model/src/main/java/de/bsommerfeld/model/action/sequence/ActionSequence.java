@@ -7,16 +7,23 @@ import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
-import lombok.extern.slf4j.Slf4j;
 
 /**
  * The ActionSequence class represents a sequence of actions to be executed. It includes
- * functionalities to manage the actions, track the sequence's state, and provide additional context
- * about the sequence.
+ * functionalities to manage the actions and provide additional context about the sequence. The
+ * state of a run, such as an interruption, is tracked by the dispatcher, so a sequence can be
+ * dispatched from several places at once.
+ *
+ * <p>Each action belongs to a {@link Action#getTrack() track}. A sequence whose actions all share
+ * one track runs them one after another, a sequence with several tracks runs the tracks side by
+ * side, for example holding a key on one track while moving the mouse on another.
+ *
+ * <p>Tracks have no start offset of their own. A track that should start later begins with a
+ * {@link de.bsommerfeld.model.action.impl.PauseAction pause}, which is stored, edited and
+ * interrupted like every other action.
  */
 @Getter
 @Setter
-@Slf4j
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class ActionSequence {
 
@@ -41,22 +48,19 @@ public class ActionSequence {
    */
   boolean active = true;
 
-  /**
-   * Indicates whether the ActionSequence has been interrupted.
-   *
-   * <p>If true, the sequence execution should be stopped as soon as possible. -- GETTER -- Checks
-   * if this ActionSequence is interrupted.
-   *
-   * @return true if the sequence is interrupted, false otherwise
-   */
-  private volatile boolean interrupted = false;
-
   /**
    * Provides a textual description of the ActionSequence. This is intended to offer additional
    * context or details about the sequence of actions.
    */
   private String description = "No description provided";
 
+  /**
+   * The relative weight of the ActionSequence when the next sequence is chosen by weight. A
+   * sequence with weight 2 is chosen twice as often as one with weight 1, one with weight 0 only if
+   * no active sequence has a positive weight.
+   */
+  private double weight = 1.0;
+
   public ActionSequence(String name) {
     this.name = name;
   }
@@ -72,33 +76,6 @@ public class ActionSequence {
     this.actions.addAll(actions);
   }
 
-  /**
-   * Interrupts this ActionSequence and all its actions. This will stop the execution of the
-   * sequence as soon as possible.
-   */
-  public void interrupt() {
-    this.interrupted = true;
-    actions.forEach(Action::interrupt);
-    log.info("ActionSequence '{}' has been interrupted", name);
-  }
-
-  /**
-   * Interrupts this ActionSequence and all its actions immediately. This will immediately stop all
-   * actions in the sequence.
-   */
-  public void instantInterrupt() {
-    this.interrupted = true;
-    actions.forEach(Action::instantInterrupt);
-    log.info("ActionSequence '{}' has been immediately interrupted", name);
-  }
-
-  /** Resets the interrupted state of this ActionSequence and all its actions. */
-  public void resetInterrupted() {
-    this.interrupted = false;
-    actions.forEach(Action::normalize);
-    log.info("ActionSequence '{}' interrupted state has been reset", name);
-  }
-
   @Override
   public String toString() {
     String eventsString = actions.stream().map(Action::toString).collect(Collectors.joining(", "));
@@ -4,10 +4,19 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import de.bsommerfeld.model.ApplicationContext;
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionExecution;
+import de.bsommerfeld.model.action.InputBatch;
+import de.bsommerfeld.model.action.InterruptReason;
 import de.bsommerfeld.model.action.spi.ActionRepository;
 import de.bsommerfeld.model.action.spi.ActionSequenceDispatcher;
+import de.bsommerfeld.model.action.spi.Clock;
 import de.bsommerfeld.model.action.spi.FocusManager;
+import de.bsommerfeld.model.metrics.Counter;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import de.bsommerfeld.model.metrics.Timer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +24,20 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Default implementation of the ActionSequenceDispatcher interface. This class dispatches actions
  * and action sequences to registered handlers.
+ *
+ * <p>Every dispatched action runs with a new {@link ActionExecution} of its own, the actions of a
+ * sequence are never modified by a run. Executions are not reused: the executor and the focus
+ * listener may still hold one after its run ended, and interrupting it must not reach a later run.
+ *
+ * <p>The tracks of a sequence run side by side: the first on the dispatching thread, every further
+ * one on a virtual thread of its own. Each track runs its actions one after another and keeps its
+ * own interruption state, a failing action only stops its track. Interrupting the sequence, by
+ * {@link #discardAllRunningActions()} or a loss of focus, stops all of them and releases every key
+ * they hold. On a {@link Clock#isVirtual() virtual clock} the waits of the tracks would add up
+ * instead of overlapping, so sequences with several tracks are refused there.
+ *
+ * <p>The action handlers receive an {@link ActionDispatchEvent} carrying the position of the action
+ * in its sequence, so repeated actions can be told apart.
  */
 @Slf4j
 @Singleton
@@ -24,126 +47,212 @@ public class DefaultActionSequenceDispatcher implements ActionSequenceDispatcher
   private static final String SEQUENCE_DISPATCHED = "ActionSequence successfully dispatched: {}";
 
   private final List<Consumer<ActionSequence>> sequenceHandlers = new CopyOnWriteArrayList<>();
-  private final List<Consumer<Action>> actionHandlers = new CopyOnWriteArrayList<>();
-  private final List<Consumer<Action>> actionFinishHandlers = new CopyOnWriteArrayList<>();
+  private final List<Consumer<ActionDispatchEvent>> actionHandlers = new CopyOnWriteArrayList<>();
+  private final List<Consumer<ActionDispatchEvent>> actionFinishHandlers =
+      new CopyOnWriteArrayList<>();
+  private final List<Consumer<ActionDispatchEvent>> actionInterruptHandlers =
+      new CopyOnWriteArrayList<>();
   private final List<Consumer<ActionSequence>> actionSequenceFinishHandlers =
       new CopyOnWriteArrayList<>();
 
-  private final List<Action> runningActions = new CopyOnWriteArrayList<>();
+  private final List<ActionExecution> runningExecutions = new CopyOnWriteArrayList<>();
   private final ActionRepository actionRepository;
   private final FocusManager focusManager;
   private final ApplicationContext applicationContext;
+  private final Clock clock;
+  private final Counter sequencesDispatched;
+  private final Counter sequencesInterrupted;
+  private final Timer sequenceDuration;
+  private final Counter actionsDispatched;
+  private final Counter actionsInterrupted;
+  private final Counter redispatches;
   private volatile ActionSequence currentSequence = null;
+  private volatile boolean sequenceInterrupted = false;
 
   @Inject
   public DefaultActionSequenceDispatcher(
       ActionRepository actionRepository,
       FocusManager focusManager,
-      ApplicationContext applicationContext) {
+      ApplicationContext applicationContext,
+      Clock clock,
+      MetricsRegistry metricsRegistry) {
     this.actionRepository = actionRepository;
     this.focusManager = focusManager;
     this.applicationContext = applicationContext;
+    this.clock = clock;
+    this.sequencesDispatched =
+        metricsRegistry.counter("sequences_dispatched_total", "Sequences dispatched");
+    this.sequencesInterrupted =
+        metricsRegistry.counter(
+            "sequences_interrupted_total", "Sequences that were not fully dispatched");
+    this.sequenceDuration =
+        metricsRegistry.timer("sequence_dispatch_seconds", "Time spent dispatching a sequence");
+    this.actionsDispatched =
+        metricsRegistry.counter(
+            "actions_dispatched_total", "Actions started, redispatches included");
+    this.actionsInterrupted =
+        metricsRegistry.counter("actions_interrupted_total", "Actions interrupted or failed");
+    this.redispatches =
+        metricsRegistry.counter("action_redispatches_total", "Actions redispatched");
+    metricsRegistry.gauge(
+        "running_actions", "Actions running right now", runningExecutions::size);
+    registerFocusChangeListener();
+  }
+
+  private void registerFocusChangeListener() {
+    focusManager.registerFocusChangeListener(
+        focused -> {
+          if (focused || !applicationContext.isCheckForCS2Focus() || runningExecutions.isEmpty()) {
+            return;
+          }
+          log.info("Focus lost, interrupting {} running actions", runningExecutions.size());
+          runningExecutions.forEach(execution -> execution.interrupt(InterruptReason.FOCUS_LOST));
+        });
   }
 
   /**
    * Dispatches a single action to all registered handlers and logs its completion.
    *
-   * @param action the Action to be dispatched
+   * @param event the action to be dispatched and its position in the sequence
+   * @param track the track the action runs on
    */
-  private void dispatch(Action action) {
+  private void dispatch(ActionDispatchEvent event, TrackRun track) {
+    Action action = event.action();
     if (action == null) return;
     if (!actionRepository.isEnabled(action)) return;
 
-    // Check if the current sequence is interrupted
-    if (currentSequence != null && currentSequence.isInterrupted()) {
+    // Check if the track or the whole sequence is interrupted
+    if (isStopped(track)) {
       log.info("Skipping dispatch of action {} because sequence is interrupted", action);
       return;
     }
 
-    if (action.isExecuting()) {
-      log.warn("Action {} is already executing, skipping duplicate dispatch", action);
-      return;
-    }
-
+    ActionExecution execution = new ActionExecution(action, event.index());
+    long startNanos = clock.nanoTime();
+    boolean finished = false;
     try {
-      dispatchToHandlers(action, actionHandlers);
-      runningActions.add(action);
+      dispatchToHandlers(event, actionHandlers);
 
-      action.execute();
+      // The sequence may have been discarded while this track was getting here. The run is only
+      // registered after this check: it pressed nothing yet, so no key may be released for it.
+      if (isStopped(track)) {
+        return;
+      }
 
-      if (action.isInterrupted()) {
+      runningExecutions.add(execution);
+      startNanos = clock.nanoTime();
+      actionsDispatched.increment();
+      action.execute(execution);
+
+      if (execution.isInterrupted()) {
         log.info("Interrupted action processing for {}", action);
         return;
       }
 
-      finishDispatch(action);
+      finishDispatch(execution, event, execution.getDelay(), startNanos);
+      finished = true;
     } catch (Exception e) {
       log.error("Error dispatching action {}", action, e);
-      // Ensure action is removed from running actions even if an exception occurs
-      runningActions.remove(action);
-      // If this action is part of a sequence, mark the sequence as interrupted
-      if (currentSequence != null) {
-        currentSequence.interrupt();
-      }
+      execution.interrupt(InterruptReason.FAILED);
+      // Only the track of the failing action stops
+      track.interrupted = true;
       throw e;
+    } finally {
+      ActionDispatchEvent interrupted =
+          finished ? null : interruptedEvent(event, execution, execution.getDelay(), startNanos);
+      releaseExecution(execution);
+      if (interrupted != null) {
+        actionsInterrupted.increment();
+        dispatchToHandlers(interrupted, actionInterruptHandlers);
+      }
     }
   }
 
-  private void finishDispatch(Action action) {
-    runningActions.remove(action);
-    finishActionProcessing(action);
-    log.info(ACTION_DISPATCHED + " ({} ms)", action, action.getDelay());
+  private void finishDispatch(
+      ActionExecution execution, ActionDispatchEvent event, long plannedDelay, long startNanos) {
+    runningExecutions.remove(execution);
+    long elapsedNanos = clock.nanoTime() - startNanos;
+    dispatchToHandlers(event.ended(plannedDelay, elapsedNanos, null), actionFinishHandlers);
+    log.info(ACTION_DISPATCHED + " ({} ms)", execution.getAction(), execution.getDelay());
+  }
+
+  private ActionDispatchEvent interruptedEvent(
+      ActionDispatchEvent event, ActionExecution execution, long plannedDelay, long startNanos) {
+    InterruptReason reason = execution.getInterruptReason();
+    return event.ended(
+        plannedDelay,
+        clock.nanoTime() - startNanos,
+        // A run that was stopped before it started was not interrupted itself
+        reason != null ? reason : InterruptReason.DISCARDED);
+  }
+
+  /**
+   * Ends the run of an execution. An execution that is still registered as running was interrupted
+   * or failed after it started, so its key is released. Runs stopped before they started are never
+   * registered.
+   */
+  private void releaseExecution(ActionExecution execution) {
+    if (runningExecutions.remove(execution)) {
+      execution.getAction().instantInterrupt(execution);
+    }
+  }
+
+  private void interruptCurrentSequence() {
+    if (currentSequence != null) {
+      sequenceInterrupted = true;
+    }
   }
 
   /**
    * Redispatches an action with a specified delay.
    *
    * @param action the action to be redispatched
+   * @param sequenceIndex the position of the action in the current sequence, or {@link
+   *     ActionDispatchEvent#NO_INDEX}
    * @param remainingTime the delay in milliseconds before the action is processed
    */
   @Override
-  public void redispatch(Action action, long remainingTime) {
-    if (action.isExecuting()) {
-      log.warn("Action {} is already executing, skipping redispatch", action);
-      return;
-    }
-
+  public void redispatch(Action action, int sequenceIndex, long remainingTime) {
     // Check if the current sequence is interrupted
-    if (currentSequence != null && currentSequence.isInterrupted()) {
+    if (currentSequence != null && sequenceInterrupted) {
       log.info("Skipping redispatch of action {} because sequence is interrupted", action);
       return;
     }
 
-    // Pre-execution check: Don't execute if already interrupted
-    if (action.isInterrupted()) {
-      log.info("Action {} has been interrupted and will not be re-executed.", action);
-      return;
-    }
-
+    ActionDispatchEvent event = new ActionDispatchEvent(currentSequence, sequenceIndex, action);
+    ActionExecution execution = new ActionExecution(action, sequenceIndex);
+    long startNanos = clock.nanoTime();
+    boolean finished = false;
+    redispatches.increment();
+    actionsDispatched.increment();
     try {
-      runningActions.add(action);
-      action.executeWithDelay(remainingTime);
+      runningExecutions.add(execution);
+      action.executeWithDelay(execution, remainingTime);
 
       // Post-execution check: Don't finish if interrupted during execution
-      if (action.isInterrupted()) {
+      if (execution.isInterrupted()) {
         log.info("Interrupted action processing during redispatch");
         // If this action is part of a sequence, mark the sequence as interrupted
-        if (currentSequence != null) {
-          currentSequence.interrupt();
-        }
+        interruptCurrentSequence();
         return;
       }
 
-      finishDispatch(action);
+      finishDispatch(execution, event, remainingTime, startNanos);
+      finished = true;
     } catch (Exception e) {
       log.error("Error redispatching action {}", action, e);
-      // Ensure action is removed from running actions even if an exception occurs
-      runningActions.remove(action);
+      execution.interrupt(InterruptReason.FAILED);
       // If this action is part of a sequence, mark the sequence as interrupted
-      if (currentSequence != null) {
-        currentSequence.interrupt();
-      }
+      interruptCurrentSequence();
       throw e;
+    } finally {
+      ActionDispatchEvent interrupted =
+          finished ? null : interruptedEvent(event, execution, remainingTime, startNanos);
+      releaseExecution(execution);
+      if (interrupted != null) {
+        actionsInterrupted.increment();
+        dispatchToHandlers(interrupted, actionInterruptHandlers);
+      }
     }
   }
 
@@ -151,71 +260,164 @@ public class DefaultActionSequenceDispatcher implements ActionSequenceDispatcher
    * Dispatches an ActionSequence to registered handlers and processes each contained Action.
    *
    * @param actionSequence the ActionSequence to be dispatched
+   * @throws IllegalStateException if the sequence has several tracks and the clock is virtual
    */
   @Override
   public void dispatchSequence(ActionSequence actionSequence) {
     if (actionSequence == null) return;
     if (!actionSequence.isActive()) return;
 
+    List<TrackRun> tracks = createTrackRuns(actionSequence);
+    if (tracks.size() > 1 && clock.isVirtual()) {
+      throw new IllegalStateException(
+          "Sequence "
+              + actionSequence.getName()
+              + " has "
+              + tracks.size()
+              + " tracks, which cannot run side by side on virtual time");
+    }
+
     // Discard any currently running actions before starting a new sequence
     discardAllRunningActions();
 
-    // Reset any previous interrupted state
-    actionSequence.resetInterrupted();
-
-    // Set as current sequence
+    // Set as current sequence with a fresh interrupted state
+    sequenceInterrupted = false;
     currentSequence = actionSequence;
 
+    sequencesDispatched.increment();
+    long startNanos = System.nanoTime();
     dispatchToHandlers(actionSequence, sequenceHandlers);
 
     try {
-      for (Action action : actionSequence.getActions()) {
-        // Check for focus loss
-        if (applicationContext.isCheckForCS2Focus() && !focusManager.isApplicationWindowInFocus()) {
-          log.info("Interrupted sequence processing due to loss of focus");
-          actionSequence.interrupt();
-          break;
-        }
-
-        // Check if sequence was interrupted
-        if (actionSequence.isInterrupted()) {
-          log.info(
-              "Sequence {} was interrupted, stopping further action processing",
-              actionSequence.getName());
-          break;
-        }
-
-        // Skip already interrupted actions
-        if (action.isInterrupted()) {
-          log.info("Skipped action {} because it was interrupted before executing", action);
-          continue;
-        }
-
-        dispatch(action);
-
-        // Check if action execution caused sequence interruption
-        if (actionSequence.isInterrupted()) {
-          log.info(
-              "Sequence {} was interrupted during action execution, stopping further processing",
-              actionSequence.getName());
-          break;
+      if (tracks.size() <= 1) {
+        for (TrackRun track : tracks) {
+          runTrack(actionSequence, track);
         }
+      } else {
+        runTracks(actionSequence, tracks);
       }
 
-      // Only finish processing if the sequence wasn't interrupted
-      if (!actionSequence.isInterrupted()) {
+      // Only finish processing if neither the sequence nor one of its tracks was interrupted
+      boolean interrupted = sequenceInterrupted || tracks.stream().anyMatch(t -> t.interrupted);
+      if (!interrupted) {
         finishSequenceProcessing(actionSequence);
         log.info(SEQUENCE_DISPATCHED, actionSequence);
       } else {
+        sequencesInterrupted.increment();
         log.info(
             "Sequence {} was not fully dispatched due to interruption", actionSequence.getName());
       }
     } finally {
       // Clear current sequence reference
       discardAllRunningActions();
-      // Don't reset interrupted state here as it could cause double key presses
       currentSequence = null;
+      sequenceDuration.recordSince(startNanos);
+    }
+  }
+
+  /**
+   * Groups the actions of a sequence by their track, each one paired with its position in the
+   * sequence.
+   *
+   * @param actionSequence the sequence to dispatch
+   * @return the tracks in ascending track order
+   */
+  private static List<TrackRun> createTrackRuns(ActionSequence actionSequence) {
+    TreeMap<Integer, TrackRun> tracks = new TreeMap<>();
+    List<Action> actions = actionSequence.getActions();
+    for (int i = 0; i < actions.size(); i++) {
+      Action action = actions.get(i);
+      if (action == null) continue;
+      tracks
+          .computeIfAbsent(action.getTrack(), TrackRun::new)
+          .events
+          .add(new ActionDispatchEvent(actionSequence, i, action));
     }
+    return new ArrayList<>(tracks.values());
+  }
+
+  /**
+   * Runs the actions of a track one after another on the calling thread.
+   *
+   * @param actionSequence the sequence the track belongs to
+   * @param track the track to run
+   */
+  private void runTrack(ActionSequence actionSequence, TrackRun track) {
+    for (ActionDispatchEvent event : track.events) {
+      // Check for focus loss
+      if (applicationContext.isCheckForCS2Focus() && !focusManager.isApplicationWindowInFocus()) {
+        log.info("Interrupted sequence processing due to loss of focus");
+        sequenceInterrupted = true;
+        break;
+      }
+
+      // Check if the track or the sequence was interrupted
+      if (isStopped(track)) {
+        log.info(
+            "Sequence {} was interrupted, stopping further action processing on track {}",
+            actionSequence.getName(),
+            track.index);
+        break;
+      }
+
+      dispatch(event, track);
+
+      // Check if action execution caused an interruption
+      if (isStopped(track)) {
+        log.info(
+            "Sequence {} was interrupted during action execution, stopping track {}",
+            actionSequence.getName(),
+            track.index);
+        break;
+      }
+    }
+  }
+
+  /**
+   * Runs several tracks at the same time and waits until all of them are done. The first failure
+   * of a track is rethrown once every track has ended.
+   *
+   * @param actionSequence the sequence the tracks belong to
+   * @param tracks the tracks to run
+   */
+  private void runTracks(ActionSequence actionSequence, List<TrackRun> tracks) {
+    List<Thread> threads = new ArrayList<>(tracks.size() - 1);
+    for (TrackRun track : tracks.subList(1, tracks.size())) {
+      threads.add(
+          Thread.ofVirtual()
+              .name("sequence-track-" + track.index)
+              .start(() -> runTrackCapturingFailure(actionSequence, track)));
+    }
+    runTrackCapturingFailure(actionSequence, tracks.getFirst());
+
+    try {
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    } catch (InterruptedException e) {
+      // The executor is stopping, stop the other tracks right away and release what they hold
+      Thread.currentThread().interrupt();
+      discardAllRunningActions();
+      return;
+    }
+
+    for (TrackRun track : tracks) {
+      if (track.failure != null) {
+        throw track.failure;
+      }
+    }
+  }
+
+  private void runTrackCapturingFailure(ActionSequence actionSequence, TrackRun track) {
+    try {
+      runTrack(actionSequence, track);
+    } catch (RuntimeException e) {
+      track.failure = e;
+    }
+  }
+
+  private boolean isStopped(TrackRun track) {
+    return track.interrupted || (currentSequence != null && sequenceInterrupted);
   }
 
   /** Discards all running actions and interrupts the current sequence if one exists. */
@@ -224,36 +426,49 @@ public class DefaultActionSequenceDispatcher implements ActionSequenceDispatcher
     // First check if we have a current sequence and interrupt it
     if (currentSequence != null) {
       log.info("Interrupting current sequence: {}", currentSequence.getName());
-      currentSequence.instantInterrupt();
+      sequenceInterrupted = true;
     }
 
     // Then handle any individual running actions
-    if (runningActions.isEmpty()) {
+    if (runningExecutions.isEmpty()) {
       log.info("No individual running actions to discard");
       return;
     }
 
-    log.info("Discarding {} running actions", runningActions.size());
-    runningActions.forEach(Action::instantInterrupt);
-    runningActions.clear();
+    log.info("Discarding {} running actions", runningExecutions.size());
+    InputBatch releases = new InputBatch(runningExecutions.size());
+    for (ActionExecution execution : runningExecutions) {
+      // Whoever removes the execution releases its key, the dispatching thread then skips it
+      if (runningExecutions.remove(execution)) {
+        execution.getAction().instantInterrupt(execution, releases);
+      }
+    }
+    // Every held key goes up at once
+    Action.submit(releases);
     log.info("All running actions discarded");
   }
 
-  private void finishActionProcessing(Action action) {
-    actionFinishHandlers.forEach(handler -> safeAccept(handler, action));
+  /**
+   * Returns the executions of the actions that are running right now.
+   *
+   * @return a snapshot of the running executions
+   */
+  @Override
+  public List<ActionExecution> getRunningExecutions() {
+    return List.copyOf(runningExecutions);
   }
 
-  private void finishSequenceProcessing(ActionSequence actionSequence) {
-    // Make sure all actions are in a normalized state
-    actionSequence.getActions().forEach(Action::normalize);
-
-    // Make sure the sequence itself is not marked as interrupted
-    if (actionSequence.isInterrupted()) {
-      log.info(
-          "Resetting interrupted state for sequence {} before finishing", actionSequence.getName());
-      actionSequence.resetInterrupted();
-    }
+  /**
+   * Checks whether the sequence that is currently dispatched was interrupted.
+   *
+   * @return true if a sequence is being dispatched and was interrupted, false otherwise
+   */
+  @Override
+  public boolean isSequenceInterrupted() {
+    return currentSequence != null && sequenceInterrupted;
+  }
 
+  private void finishSequenceProcessing(ActionSequence actionSequence) {
     // Notify all handlers that the sequence is finished
     actionSequenceFinishHandlers.forEach(handler -> safeAccept(handler, actionSequence));
 
@@ -266,10 +481,21 @@ public class DefaultActionSequenceDispatcher implements ActionSequenceDispatcher
    * @param handler the Consumer to handle finished actions
    */
   @Override
-  public void registerActionFinishHandler(Consumer<Action> handler) {
+  public void registerActionFinishHandler(Consumer<ActionDispatchEvent> handler) {
     actionFinishHandlers.add(handler);
   }
 
+  /**
+   * Registers a handler to process any action that was started but did not finish, because it was
+   * interrupted or failed.
+   *
+   * @param handler the Consumer to handle interrupted actions
+   */
+  @Override
+  public void registerActionInterruptHandler(Consumer<ActionDispatchEvent> handler) {
+    actionInterruptHandlers.add(handler);
+  }
+
   /**
    * Registers a handler to process any finished action sequence.
    *
@@ -286,7 +512,7 @@ public class DefaultActionSequenceDispatcher implements ActionSequenceDispatcher
    * @param handler the Consumer to process Action events
    */
   @Override
-  public void registerActionHandler(Consumer<Action> handler) {
+  public void registerActionHandler(Consumer<ActionDispatchEvent> handler) {
     actionHandlers.add(handler);
   }
 
@@ -311,4 +537,17 @@ public class DefaultActionSequenceDispatcher implements ActionSequenceDispatcher
       log.error("Error while handling item: {}", item, e);
     }
   }
+
+  /** The state of one track while its sequence is dispatched. */
+  private static final class TrackRun {
+
+    private final int index;
+    private final List<ActionDispatchEvent> events = new ArrayList<>();
+    private volatile boolean interrupted;
+    private volatile RuntimeException failure;
+
+    private TrackRun(int index) {
+      this.index = index;
+    }
+  }
 }
@@ -1,59 +1,84 @@
 package de.bsommerfeld.model.action.sequence;
 
-import com.github.kwhat.jnativehook.GlobalScreen;
-import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
-import com.github.kwhat.jnativehook.keyboard.NativeKeyListener;
-import com.github.kwhat.jnativehook.mouse.NativeMouseEvent;
-import com.github.kwhat.jnativehook.mouse.NativeMouseListener;
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import de.bsommerfeld.model.ApplicationContext;
 import de.bsommerfeld.model.ApplicationState;
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionExecution;
+import de.bsommerfeld.model.action.InterruptReason;
+import de.bsommerfeld.model.action.NativeInputHook;
+import de.bsommerfeld.model.action.PressedKeyTable;
 import de.bsommerfeld.model.action.config.ActionConfig;
 import de.bsommerfeld.model.action.spi.ActionSequenceDispatcher;
 import de.bsommerfeld.model.action.spi.ActionSequenceExecutor;
 import de.bsommerfeld.model.action.spi.ActionSequenceRepository;
+import de.bsommerfeld.model.action.spi.Clock;
 import de.bsommerfeld.model.action.spi.FocusManager;
-import java.time.Instant;
-import java.util.List;
+import de.bsommerfeld.model.action.spi.SequenceSelector;
+import de.bsommerfeld.model.action.spi.Sleeper;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Default implementation of the ActionSequenceExecutor interface. This class executes action
  * sequences based on certain conditions and events.
+ *
+ * <p>Between two sequences the executor thread is parked until the next cycle is due. It does not
+ * poll: everything that can change what the executor should do, such as a change of the
+ * application state or focus, a released key or a stop, unparks it right away.
+ *
+ * <p>Interruptions by the user come from the {@link NativeInputHook}. It only reports a key
+ * released by the user if the {@link PressedKeyTable} says that we hold the same key, so neither
+ * our own input nor unrelated keys have to be matched against the running actions.
  */
 @Slf4j
+@Singleton
 public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
 
   private final ActionSequenceRepository actionSequenceRepository;
+  private final SequenceSelector sequenceSelector;
   private final ApplicationContext applicationContext;
   private final ActionSequenceDispatcher actionSequenceDispatcher;
   private final FocusManager focusManager;
   private final ActionConfig actionConfig;
+  private final Clock clock;
+  private final Sleeper sleeper;
+
+  private final Object applicationStateLock = new Object();
 
-  private long lastFocusCheckTime = 0;
   private volatile ActionSequence currentActionSequence;
   private volatile long lastCycle;
   private volatile int lastWaitTime;
   private volatile boolean hasReleasedAnyKey = false;
   private volatile boolean running = false;
-  private Thread executorThread;
+  private volatile Thread executorThread;
 
   @Inject
   public DefaultActionSequenceExecutor(
       ActionSequenceRepository actionSequenceRepository,
+      SequenceSelector sequenceSelector,
       ApplicationContext applicationContext,
       ActionSequenceDispatcher actionSequenceDispatcher,
       FocusManager focusManager,
-      ActionConfig actionConfig) {
+      NativeInputHook nativeInputHook,
+      ActionConfig actionConfig,
+      Clock clock,
+      Sleeper sleeper) {
     this.actionSequenceRepository = actionSequenceRepository;
+    this.sequenceSelector = sequenceSelector;
     this.applicationContext = applicationContext;
     this.actionSequenceDispatcher = actionSequenceDispatcher;
     this.focusManager = focusManager;
     this.actionConfig = actionConfig;
-    registerNativeHookListenerForEachKeyBind();
+    this.clock = clock;
+    this.sleeper = sleeper;
+    nativeInputHook.registerUserReleaseListener(this::processUserRelease);
     registerApplicationStateChangeListener();
+    registerFocusChangeListener();
+    applicationContext.registerCheckForCS2FocusChangeListener(_ -> applyApplicationState());
   }
 
   /**
@@ -98,13 +123,14 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
   @Override
   public void stop() {
     running = false;
-    if (executorThread != null) {
-      executorThread.interrupt();
+    Thread thread = executorThread;
+    if (thread != null) {
+      thread.interrupt();
       executorThread = null;
     }
 
     if (currentActionSequence != null) {
-      currentActionSequence.instantInterrupt();
+      actionSequenceDispatcher.discardAllRunningActions();
       log.warn(
           "Executor stopped. Action sequence '{}' and its actions have been interrupted.",
           currentActionSequence.getName());
@@ -115,7 +141,6 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
     hasReleasedAnyKey = false;
     lastWaitTime = 0;
     lastCycle = 0;
-    lastFocusCheckTime = 0;
   }
 
   private void registerApplicationStateChangeListener() {
@@ -126,127 +151,81 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
               return;
             }
 
-            // Use the new instantInterrupt method on the sequence
-            currentActionSequence.instantInterrupt();
+            // Release every key the sequence holds right away
+            actionSequenceDispatcher.discardAllRunningActions();
 
             log.warn(
                 "Application state change detected, interrupted action sequence: {}",
                 currentActionSequence.getName());
 
             currentActionSequence = null;
+          } else {
+            // Starting while CS2 is not in focus has to wait for it
+            applyApplicationState();
           }
+          wakeUp();
         });
   }
 
-  private void registerNativeHookListenerForEachKeyBind() {
-    log.info("Registering native key and mouse listener");
-
-    GlobalScreen.addNativeMouseListener(
-        new NativeMouseListener() {
-          @Override
-          public void nativeMouseReleased(NativeMouseEvent nativeEvent) {
-            processNativeEvent(null, nativeEvent.getButton(), null);
-          }
-        });
-
-    GlobalScreen.addNativeKeyListener(
-        new NativeKeyListener() {
-          @Override
-          public void nativeKeyReleased(NativeKeyEvent nativeEvent) {
-            String keyText = NativeKeyEvent.getKeyText(nativeEvent.getKeyCode());
-            /*
-             * We have to do this here, since getKeyText is localized
-             * and will always return the respective Key in the language
-             * the machine is localized in.
-             *
-             * For example in GER Strg is returned instead of CTRL
-             */
-            if (nativeEvent.getKeyCode() == NativeKeyEvent.VC_CONTROL) {
-              keyText = "CTRL";
-            } else if (nativeEvent.getKeyCode() == NativeKeyEvent.VC_ALT) {
-              keyText = "ALT";
-            } else if (nativeEvent.getKeyCode() == NativeKeyEvent.VC_SHIFT) {
-              keyText = "SHIFT";
-            }
-            processNativeEvent(keyText, null, nativeEvent);
+  private void registerFocusChangeListener() {
+    focusManager.registerFocusChangeListener(
+        _ -> {
+          if (running && applicationContext.isCheckForCS2Focus()) {
+            applyApplicationState();
           }
         });
   }
 
-  private void processNativeEvent(
-      String keyText, Integer mouseButton, NativeKeyEvent nativeKeyEvent) {
+  private void processUserRelease(int slot) {
     if (isActionSequenceInactive()) {
       return;
     }
 
-    Action currentAction = getCurrentExecutingAction();
-    if (currentAction != null) {
-      handleCurrentActionInterruption(keyText, mouseButton, nativeKeyEvent, currentAction);
+    // Several tracks may hold the key, the user lifted it under all of them
+    for (ActionExecution execution : actionSequenceDispatcher.getRunningExecutions()) {
+      if (isHolding(execution, slot)) {
+        interruptCurrentAction(execution, slot);
+      }
     }
-
-    // TODO: Provide a list of currently pressed keys (maintained by the input handler/robot)
-    //  to allow direct checking against actively held keys. This avoids relying on
-    //  filtering through the current running action's state, which can lead to false positives
-    //  due to race conditions (as discovered after extensive debugging).
   }
 
   private boolean isActionSequenceInactive() {
     return currentActionSequence == null || !currentActionSequence.isActive();
   }
 
-  private Action getCurrentExecutingAction() {
-    if (currentActionSequence == null) return null;
-    return currentActionSequence.getActions().stream()
-        .filter(action -> !action.isInterrupted())
-        .filter(Action::isExecuting)
-        // If we don't have this line of code we end up in a race condition, which will cause this
-        // Action to interrupt itself, since the executing state is faster than this shit here.
-        // So it's basically panicking for nothing, screaming "Oh.. Oh my button gets pressed
-        // already!!!", while pressing itself..
-        .filter(action -> !action.hasEnded())
-        .findFirst()
-        .orElse(null);
+  private static boolean isHolding(ActionExecution execution, int slot) {
+    return !execution.isInterrupted()
+        && execution.isExecuting()
+        && !execution.hasEnded()
+        && execution.getAction().getResolvedKey().keySlot() == slot;
   }
 
-  private void handleCurrentActionInterruption(
-      String keyText, Integer mouseButton, NativeKeyEvent nativeKeyEvent, Action currentAction) {
+  private void interruptCurrentAction(ActionExecution currentExecution, int slot) {
+    Action currentAction = currentExecution.getAction();
+    if (currentAction == null) return;
 
-    String actionKey = currentAction.getActionKey().getKey();
-    boolean isKeyBindMatched =
-        actionKey.equalsIgnoreCase(keyText)
-            || (mouseButton != null && actionKey.equals("MOUSE" + mouseButton));
+    hasReleasedAnyKey = true;
 
-    if (isKeyBindMatched) {
-      hasReleasedAnyKey = true;
+    // Interrupt the action
+    currentExecution.interrupt(InterruptReason.USER_INPUT);
+    wakeUp();
 
-      // Interrupt the action
-      currentAction.interrupt();
-
-      log.info(
-          "Interruption detected with {}: {}",
-          nativeKeyEvent != null ? "Key" : "Mousebutton",
-          actionKey);
-    }
+    log.info(
+        "Interruption detected with {}: {}",
+        PressedKeyTable.isMouseSlot(slot) ? "Mousebutton" : "Key",
+        currentAction.getActionKey().getKey());
   }
 
   /** The main execution loop for the executor. */
   @Override
   public void run() {
-    handleApplicationState();
+    applyApplicationState();
     while (running && !Thread.currentThread().isInterrupted()) {
       if (!hasReleasedAnyKey && !isWaitTimeExceeded()) {
-        if (applicationContext.isCheckForCS2Focus()) {
-          handleApplicationState();
-        }
-        try {
-          Thread.sleep(actionConfig.getInterruptCheckInterval());
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-          return;
-        }
+        awaitNextCycle();
         continue;
       }
-      if (isApplicationRunning() && !actionSequenceRepository.getActionSequences().isEmpty()) {
+      if (isApplicationRunning() && !actionSequenceRepository.snapshot().isEmpty()) {
         if (processCurrentActionSequence()) continue;
         chooseAndDispatchRandomSequence();
       }
@@ -255,7 +234,26 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
   }
 
   private boolean isWaitTimeExceeded() {
-    return Instant.now().toEpochMilli() - lastCycle >= lastWaitTime;
+    return clock.currentTimeMillis() - lastCycle >= lastWaitTime;
+  }
+
+  /**
+   * Parks the executor thread until the next cycle is due, or until it is woken up or interrupted
+   * earlier. The caller checks again why it woke up.
+   */
+  private void awaitNextCycle() {
+    int remainingWaitTime = calculateRemainingWaitTime();
+    if (remainingWaitTime > 0) {
+      sleeper.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(remainingWaitTime));
+    }
+  }
+
+  /** Unparks the executor thread, so it reconsiders what to do before the next cycle is due. */
+  private void wakeUp() {
+    Thread thread = executorThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
   }
 
   private boolean isApplicationRunning() {
@@ -272,7 +270,7 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
       }
 
       // Check if the sequence is interrupted
-      if (currentActionSequence.isInterrupted()) {
+      if (actionSequenceDispatcher.isSequenceInterrupted()) {
         log.info(
             "Sequence {} is interrupted, skipping further processing",
             currentActionSequence.getName());
@@ -280,37 +278,37 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
       }
 
       // Find any interrupted action
-      Action currentAction = findInterruptedAction();
+      ActionExecution interruptedExecution = findInterruptedExecution();
 
       // If we found an interrupted action with a delay, try to continue it
-      if (executeDelayedActionIfNeeded(currentAction)) {
+      if (executeDelayedActionIfNeeded(interruptedExecution)) {
         return true;
       }
 
       // Check if we need to wait before processing the next sequence
       int remainingWaitTime = calculateRemainingWaitTime();
       if (remainingWaitTime > 0) {
-        lastCycle = Instant.now().toEpochMilli();
+        lastCycle = clock.currentTimeMillis();
         return true;
       }
     }
     return false;
   }
 
-  private Action findInterruptedAction() {
+  private ActionExecution findInterruptedExecution() {
     if (currentActionSequence == null) return null;
 
-    Action found =
-        currentActionSequence.getActions().stream()
+    ActionExecution found =
+        actionSequenceDispatcher.getRunningExecutions().stream()
             .filter(
-                action -> {
-                  boolean interrupted = action.isInterrupted();
-                  boolean hasExpectedEnding = action.getExpectedEnding() != null;
-                  boolean executing = action.isExecuting();
+                execution -> {
+                  boolean interrupted = execution.isInterrupted();
+                  boolean hasExpectedEnding = execution.hasExpectedEnding();
+                  boolean executing = execution.isExecuting();
 
                   log.debug(
                       "DEBUGGING: Action {} - interrupted: {}, hasExpectedEnding: {}, executing: {}",
-                      action.getName(),
+                      execution.getAction(),
                       interrupted,
                       hasExpectedEnding,
                       executing);
@@ -321,48 +319,50 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
             .orElse(null);
 
     if (found != null) {
-      log.debug("DEBUGGING: Found interrupted action: {}", found.getName());
+      log.debug("DEBUGGING: Found interrupted action: {}", found.getAction());
     }
 
     return found;
   }
 
-  private boolean executeDelayedActionIfNeeded(Action currentAction) {
+  private boolean executeDelayedActionIfNeeded(ActionExecution interruptedExecution) {
+    if (interruptedExecution == null) return false;
+
+    // Read everything up front, the run may end while we decide
+    Action currentAction = interruptedExecution.getAction();
+    int sequenceIndex = interruptedExecution.getSequenceIndex();
+    boolean executing = interruptedExecution.isExecuting();
+    boolean hasExpectedEnding = interruptedExecution.hasExpectedEnding();
+    long expectedEnding = interruptedExecution.getExpectedEnding();
+
     if (currentAction == null || currentAction.getInterval().isEmpty()) return false;
 
     // Check if the sequence is interrupted
-    if (currentActionSequence != null && currentActionSequence.isInterrupted()) {
+    if (actionSequenceDispatcher.isSequenceInterrupted()) {
       log.info(
           "Sequence {} is interrupted, not redispatching action {}",
-          currentActionSequence.getName(),
+          currentActionSequence != null ? currentActionSequence.getName() : null,
           currentAction);
       return false;
     }
 
     // Don't redispatch if the action is already executing to prevent double key presses
-    if (currentAction.isExecuting()) {
+    if (executing) {
       log.info("Action {} is already executing, not redispatching", currentAction);
       return false;
     }
 
-    Instant now = Instant.now();
-    Instant delayedAt = currentAction.getExpectedEnding();
-
     // Only redispatch if the action has a valid expected ending time and remaining time is positive
-    if (delayedAt != null) {
-      long remainingTimeMs = delayedAt.toEpochMilli() - now.toEpochMilli();
+    if (hasExpectedEnding) {
+      long remainingTimeMs = expectedEnding - clock.currentTimeMillis();
       if (remainingTimeMs > 0) {
         log.debug("Continuing action {} for {} ms (redispatched)", currentAction, remainingTimeMs);
         try {
-          // Normalize the action before redispatching to ensure a clean state
-          currentAction.normalize();
-          actionSequenceDispatcher.redispatch(currentAction, remainingTimeMs);
+          // The redispatch runs with a fresh execution, so no state has to be reset here
+          actionSequenceDispatcher.redispatch(currentAction, sequenceIndex, remainingTimeMs);
           return true;
         } catch (Exception e) {
           log.error("Error redispatching action {}", currentAction, e);
-          if (currentActionSequence != null) {
-            currentActionSequence.interrupt();
-          }
           return false;
         }
       } else {
@@ -375,45 +375,27 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
   }
 
   private int calculateRemainingWaitTime() {
-    return Math.max(0, lastWaitTime - (int) (Instant.now().toEpochMilli() - lastCycle));
+    return Math.max(0, lastWaitTime - (int) (clock.currentTimeMillis() - lastCycle));
   }
 
   private synchronized void chooseAndDispatchRandomSequence() {
     // Make sure we don't have any running actions before starting a new sequence
     actionSequenceDispatcher.discardAllRunningActions();
 
-    // Update the cache to get the latest sequences
-    actionSequenceRepository.updateActionSequencesCache();
-
-    List<ActionSequence> sequences =
-        actionSequenceRepository.getActionSequences().stream()
-            .filter(ActionSequence::isActive)
-            .toList();
-
-    if (!sequences.isEmpty()) {
-      int randomIndex = ThreadLocalRandom.current().nextInt(0, sequences.size());
-      ActionSequence selectedSequence = sequences.get(randomIndex);
-
-      // Just to make sure everything is normalized inside this sequence
-      selectedSequence.resetInterrupted();
+    // The repository follows the sequence files itself, the selector only rebuilds on changes
+    ActionSequence selectedSequence = sequenceSelector.select(actionSequenceRepository.snapshot());
 
+    if (selectedSequence != null) {
       // Store reference before dispatching
       currentActionSequence = selectedSequence;
 
       try {
-        // Dispatch the sequence
+        // Dispatch the sequence, the dispatcher logs whether it completed or was interrupted
         actionSequenceDispatcher.dispatchSequence(selectedSequence);
-
-        // Check if the sequence was interrupted during dispatch
-        if (selectedSequence.isInterrupted()) {
-          log.info("Sequence {} was interrupted during dispatch", selectedSequence.getName());
-        } else {
-          log.info("Sequence {} was successfully dispatched", selectedSequence.getName());
-        }
       } catch (Exception e) {
         log.error("Error dispatching sequence {}", selectedSequence.getName(), e);
         if (currentActionSequence != null) {
-          currentActionSequence.instantInterrupt();
+          actionSequenceDispatcher.discardAllRunningActions();
           currentActionSequence = null;
         }
 
@@ -430,15 +412,22 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
     int waitTime =
         ThreadLocalRandom.current()
             .nextInt(actionConfig.getMinWaitTime(), actionConfig.getMaxWaitTime());
-    lastCycle = Instant.now().toEpochMilli();
+    lastCycle = clock.currentTimeMillis();
     lastWaitTime = waitTime;
   }
 
-  private void handleApplicationState() {
-    long currentTime = Instant.now().toEpochMilli();
-    if (currentTime - lastFocusCheckTime < actionConfig.getFocusCheckInterval()) return;
-    lastFocusCheckTime = currentTime;
+  /**
+   * Moves the application between RUNNING and AWAITING according to the cached focus state. Called
+   * when the executor starts, when the application is set to RUNNING, when the check for the focus
+   * of CS2 is switched and from the focus watcher whenever the focus changes.
+   */
+  private void applyApplicationState() {
+    synchronized (applicationStateLock) {
+      updateApplicationState();
+    }
+  }
 
+  private void updateApplicationState() {
     ApplicationState currentState = applicationContext.getApplicationState();
 
     // In case that the CS2 Focus was needed before but couldn't be found and then the option got
@@ -462,7 +451,7 @@ public class DefaultActionSequenceExecutor implements ActionSequenceExecutor {
         if (currentActionSequence != null) {
           log.info(
               "Focus lost, interrupting current sequence: {}", currentActionSequence.getName());
-          currentActionSequence.instantInterrupt();
+          actionSequenceDispatcher.discardAllRunningActions();
         }
 
         // Update application state
@@ -0,0 +1,50 @@
+package de.bsommerfeld.model.action.sequence;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import de.bsommerfeld.model.action.config.ActionConfig;
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import de.bsommerfeld.model.action.spi.SequenceSelector;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Selects sequences with the strategy configured in {@link ActionConfig}. A change of the
+ * configuration takes effect with the next selection.
+ */
+@Slf4j
+@Singleton
+public class DefaultSequenceSelector implements SequenceSelector {
+
+  private final ActionConfig actionConfig;
+
+  private SequenceSelector delegate;
+  private SequenceSelectionStrategy strategy;
+  private int noRepeatWindow;
+
+  @Inject
+  public DefaultSequenceSelector(ActionConfig actionConfig) {
+    this.actionConfig = actionConfig;
+  }
+
+  @Override
+  public synchronized ActionSequence select(ActionSequenceSnapshot snapshot) {
+    SequenceSelectionStrategy configuredStrategy = actionConfig.getSequenceSelectionStrategy();
+    int configuredWindow = actionConfig.getSequenceNoRepeatWindow();
+    if (delegate == null || strategy != configuredStrategy || noRepeatWindow != configuredWindow) {
+      delegate = createSelector(configuredStrategy, configuredWindow);
+      strategy = configuredStrategy;
+      noRepeatWindow = configuredWindow;
+      log.info("Selecting sequences with strategy {}", configuredStrategy);
+    }
+    return delegate.select(snapshot);
+  }
+
+  private static SequenceSelector createSelector(SequenceSelectionStrategy strategy, int window) {
+    return switch (strategy) {
+      case UNIFORM -> new UniformSequenceSelector();
+      case WEIGHTED -> new WeightedSequenceSelector();
+      case NO_REPEAT -> new NoRepeatSequenceSelector(Math.max(0, window));
+      case LEAST_RECENTLY_PLAYED -> new LeastRecentlyPlayedSequenceSelector();
+    };
+  }
+}
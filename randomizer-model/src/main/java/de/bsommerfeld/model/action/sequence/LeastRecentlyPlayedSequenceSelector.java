@@ -0,0 +1,60 @@
+package de.bsommerfeld.model.action.sequence;
+
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Always selects the active sequence that was played longest ago. The sequences are kept in a ring
+ * ordered by their last selection, so selecting takes the head and moves it to the tail. Sequences
+ * that were never played come first, in random order. When the repository changes, the order of
+ * the sequences that are still active is kept.
+ */
+public class LeastRecentlyPlayedSequenceSelector extends AbstractSequenceSelector {
+
+  private int[] ring;
+  private int head;
+
+  @Override
+  protected void rebuild(ActionSequenceSnapshot snapshot, ActionSequenceSnapshot previous) {
+    int count = snapshot.activeCount();
+    Map<String, Integer> positionByName = HashMap.newHashMap(count);
+    for (int i = 0; i < count; i++) {
+      positionByName.put(snapshot.activeAt(i).getName(), i);
+    }
+
+    List<Integer> played = new ArrayList<>();
+    if (previous != null) {
+      for (int i = 0; i < ring.length; i++) {
+        String name = previous.activeAt(ring[(head + i) % ring.length]).getName();
+        Integer position = positionByName.remove(name);
+        if (position != null) {
+          played.add(position);
+        }
+      }
+    }
+    List<Integer> neverPlayed = new ArrayList<>(positionByName.values());
+    Collections.shuffle(neverPlayed);
+
+    ring = new int[count];
+    int slot = 0;
+    for (int position : neverPlayed) {
+      ring[slot++] = position;
+    }
+    for (int position : played) {
+      ring[slot++] = position;
+    }
+    head = 0;
+  }
+
+  @Override
+  protected int nextIndex(RandomGenerator random) {
+    int chosen = ring[head];
+    head = (head + 1) % ring.length;
+    return chosen;
+  }
+}
@@ -0,0 +1,82 @@
+package de.bsommerfeld.model.action.sequence;
+
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import java.util.random.RandomGenerator;
+
+/**
+ * Selects uniformly among the active sequences that were not among the last {@code window}
+ * selections. With fewer sequences than that, the window shrinks so there is always one left.
+ *
+ * <p>The positions of the sequences are kept in one array split into an eligible part and a
+ * cooldown part. A selection swaps the chosen position into the cooldown part and the oldest
+ * position of the cooldown back out, both in constant time.
+ */
+public class NoRepeatSequenceSelector extends AbstractSequenceSelector {
+
+  private final int window;
+
+  private int[] pool;
+  private int[] slotOf;
+  private int[] cooldown;
+  private int effectiveWindow;
+  private int eligibleCount;
+  private int cooldownHead;
+  private int cooldownSize;
+
+  /**
+   * Creates a selector that does not repeat any of the last {@code window} selections.
+   *
+   * @param window the number of recent selections that are excluded, at least 0
+   */
+  public NoRepeatSequenceSelector(int window) {
+    if (window < 0) {
+      throw new IllegalArgumentException("window must not be negative: " + window);
+    }
+    this.window = window;
+  }
+
+  @Override
+  protected void rebuild(ActionSequenceSnapshot snapshot, ActionSequenceSnapshot previous) {
+    int count = snapshot.activeCount();
+    pool = new int[count];
+    slotOf = new int[count];
+    for (int i = 0; i < count; i++) {
+      pool[i] = i;
+      slotOf[i] = i;
+    }
+    effectiveWindow = Math.min(window, count - 1);
+    cooldown = new int[effectiveWindow + 1];
+    eligibleCount = count;
+    cooldownHead = 0;
+    cooldownSize = 0;
+  }
+
+  @Override
+  protected int nextIndex(RandomGenerator random) {
+    int chosen = pool[random.nextInt(eligibleCount)];
+    if (effectiveWindow == 0) {
+      return chosen;
+    }
+
+    swap(slotOf[chosen], --eligibleCount);
+    cooldown[(cooldownHead + cooldownSize) % cooldown.length] = chosen;
+    cooldownSize++;
+
+    if (cooldownSize > effectiveWindow) {
+      int released = cooldown[cooldownHead];
+      cooldownHead = (cooldownHead + 1) % cooldown.length;
+      cooldownSize--;
+      swap(slotOf[released], eligibleCount++);
+    }
+    return chosen;
+  }
+
+  private void swap(int slot, int otherSlot) {
+    int position = pool[slot];
+    int otherPosition = pool[otherSlot];
+    pool[slot] = otherPosition;
+    pool[otherSlot] = position;
+    slotOf[otherPosition] = slot;
+    slotOf[position] = otherSlot;
+  }
+}
@@ -0,0 +1,17 @@
+package de.bsommerfeld.model.action.sequence;
+
+/** The ways the {@link DefaultSequenceSelector} can choose the next sequence to dispatch. */
+public enum SequenceSelectionStrategy {
+
+  /** Every active sequence is equally likely. */
+  UNIFORM,
+
+  /** Active sequences are chosen in proportion to their weight. */
+  WEIGHTED,
+
+  /** Every active sequence is equally likely, except the most recently played ones. */
+  NO_REPEAT,
+
+  /** The active sequence that was played longest ago is chosen. */
+  LEAST_RECENTLY_PLAYED
+}
@@ -0,0 +1,20 @@
+package de.bsommerfeld.model.action.sequence;
+
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import java.util.random.RandomGenerator;
+
+/** Selects every active sequence with the same probability. */
+public class UniformSequenceSelector extends AbstractSequenceSelector {
+
+  private int activeCount;
+
+  @Override
+  protected void rebuild(ActionSequenceSnapshot snapshot, ActionSequenceSnapshot previous) {
+    activeCount = snapshot.activeCount();
+  }
+
+  @Override
+  protected int nextIndex(RandomGenerator random) {
+    return random.nextInt(activeCount);
+  }
+}
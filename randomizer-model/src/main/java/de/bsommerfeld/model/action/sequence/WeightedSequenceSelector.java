@@ -0,0 +1,83 @@
+package de.bsommerfeld.model.action.sequence;
+
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Selects the active sequences in proportion to their {@link ActionSequence#getWeight() weight},
+ * using Vose's alias method: building the tables takes linear time, every selection afterwards
+ * draws one column and one coin flip. If no sequence has a positive weight, all are selected with
+ * the same probability.
+ */
+public class WeightedSequenceSelector extends AbstractSequenceSelector {
+
+  private double[] probability;
+  private int[] alias;
+
+  @Override
+  protected void rebuild(ActionSequenceSnapshot snapshot, ActionSequenceSnapshot previous) {
+    int count = snapshot.activeCount();
+    probability = new double[count];
+    alias = new int[count];
+
+    double[] weights = new double[count];
+    double totalWeight = 0;
+    for (int i = 0; i < count; i++) {
+      double weight = snapshot.activeAt(i).getWeight();
+      weights[i] = Double.isFinite(weight) && weight > 0 ? weight : 0;
+      totalWeight += weights[i];
+    }
+
+    if (totalWeight <= 0) {
+      Arrays.fill(probability, 1.0);
+      Arrays.setAll(alias, i -> i);
+      return;
+    }
+
+    double[] scaled = new double[count];
+    int[] small = new int[count];
+    int[] large = new int[count];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < count; i++) {
+      scaled[i] = weights[i] * count / totalWeight;
+      if (scaled[i] < 1.0) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      probability[less] = scaled[less];
+      alias[less] = more;
+      scaled[more] = scaled[more] + scaled[less] - 1.0;
+      if (scaled[more] < 1.0) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+
+    // Whatever is left is 1 up to rounding errors
+    while (largeCount > 0) {
+      int column = large[--largeCount];
+      probability[column] = 1.0;
+      alias[column] = column;
+    }
+    while (smallCount > 0) {
+      int column = small[--smallCount];
+      probability[column] = 1.0;
+      alias[column] = column;
+    }
+  }
+
+  @Override
+  protected int nextIndex(RandomGenerator random) {
+    int column = random.nextInt(probability.length);
+    return random.nextDouble() < probability[column] ? column : alias[column];
+  }
+}
@@ -1,26 +1,57 @@
 package de.bsommerfeld.model.action.spi;
 
-import de.bsommerfeld.model.action.ActionType;
+import de.bsommerfeld.model.action.InputBatch;
+import de.bsommerfeld.model.action.ResolvedActionKey;
 
 /**
  * Interface for executing actions. This interface defines the contract for classes that can execute
  * actions like keyboard, mouse, or custom actions.
+ *
+ * <p>Implementations are the input backend of the engine. Besides single inputs they accept an
+ * {@link InputBatch}; a backend that can inject several inputs with one native call overrides
+ * {@link #execute(InputBatch)} to do so.
  */
 public interface ActionExecutor {
 
   /**
-   * Executes the start of an action with the specified key code and action type.
+   * Executes the start of an action with the specified key.
    *
-   * @param keyCode the code of the key to be pressed or the identifier for the action
-   * @param actionType the type of the action to be executed, represented by an {@link ActionType}
+   * @param key the resolved key to be pressed, carrying its key code and action type
    */
-  void executeActionStart(int keyCode, ActionType actionType);
+  void executeActionStart(ResolvedActionKey key);
 
   /**
-   * Executes the end of an action with the specified key code.
+   * Executes the end of an action with the specified key.
    *
-   * @param keyCode the code of the key to be released or action to be ended
-   * @param actionType the type of the action to be ended, represented by an {@link ActionType}
+   * @param key the resolved key to be released, carrying its key code and action type
    */
-  void executeActionEnd(int keyCode, ActionType actionType);
+  void executeActionEnd(ResolvedActionKey key);
+
+  /**
+   * Moves the mouse pointer to the given screen coordinates.
+   *
+   * @param x the x coordinate on the screen
+   * @param y the y coordinate on the screen
+   */
+  void moveMouse(int x, int y);
+
+  /**
+   * Executes all inputs of the batch in order. They must not be interleaved with other inputs
+   * executed through this executor, a backend that supports it injects them with a single native
+   * call. The batch must not be kept after this method returns.
+   *
+   * <p>The default implementation executes the inputs one after another through the single input
+   * methods.
+   *
+   * @param batch the inputs to execute
+   */
+  default void execute(InputBatch batch) {
+    for (int i = 0; i < batch.size(); i++) {
+      switch (batch.kindAt(i)) {
+        case PRESS -> executeActionStart(batch.keyAt(i));
+        case RELEASE -> executeActionEnd(batch.keyAt(i));
+        case MOVE -> moveMouse(batch.xAt(i), batch.yAt(i));
+      }
+    }
+  }
 }
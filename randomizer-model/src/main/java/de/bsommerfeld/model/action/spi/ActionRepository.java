@@ -1,8 +1,12 @@
 package de.bsommerfeld.model.action.spi;
 
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionType;
+import de.bsommerfeld.model.action.repository.ActionSnapshot;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Interface for repositories that manage actions.
@@ -70,4 +74,36 @@ public interface ActionRepository {
      * @throws IllegalArgumentException if no action with the specified name is found
      */
     Action getByName(String actionName);
-}
\ No newline at end of file
+
+    /**
+     * Returns the current immutable snapshot of the registered actions. The snapshot holds the
+     * registered templates themselves, so it can be iterated without cloning but its actions must
+     * not be modified.
+     *
+     * @return the current snapshot
+     */
+    ActionSnapshot snapshot();
+
+    /**
+     * Returns the number of registered actions.
+     *
+     * @return the number of actions
+     */
+    int size();
+
+    /**
+     * Returns the names of all registered actions in registration order.
+     *
+     * @return an unmodifiable set of names
+     */
+    Set<String> names();
+
+    /**
+     * Returns the registered actions of the given type. The returned actions are the templates and
+     * must not be modified.
+     *
+     * @param actionType the type of the actions
+     * @return an unmodifiable list of actions, empty if there are none
+     */
+    List<Action> byType(ActionType actionType);
+}
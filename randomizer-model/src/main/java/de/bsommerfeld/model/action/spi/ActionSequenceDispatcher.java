@@ -1,8 +1,11 @@
 package de.bsommerfeld.model.action.spi;
 
 import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionExecution;
+import de.bsommerfeld.model.action.sequence.ActionDispatchEvent;
 import de.bsommerfeld.model.action.sequence.ActionSequence;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -15,9 +18,11 @@ public interface ActionSequenceDispatcher {
      * Redispatches an action with a specified delay.
      *
      * @param action the action to be redispatched
+     * @param sequenceIndex the position of the action in the current sequence, or {@link
+     *     ActionDispatchEvent#NO_INDEX}
      * @param remainingTime the delay in milliseconds before the action is processed
      */
-    void redispatch(Action action, long remainingTime);
+    void redispatch(Action action, int sequenceIndex, long remainingTime);
 
     /**
      * Dispatches an ActionSequence to registered handlers and processes each contained Action.
@@ -31,12 +36,34 @@ public interface ActionSequenceDispatcher {
      */
     void discardAllRunningActions();
 
+    /**
+     * Returns the executions of the actions that are running right now.
+     *
+     * @return a snapshot of the running executions
+     */
+    List<ActionExecution> getRunningExecutions();
+
+    /**
+     * Checks whether the sequence that is currently dispatched was interrupted.
+     *
+     * @return true if a sequence is being dispatched and was interrupted, false otherwise
+     */
+    boolean isSequenceInterrupted();
+
     /**
      * Registers a handler to process any finished action.
      *
      * @param handler the Consumer to handle finished actions
      */
-    void registerActionFinishHandler(Consumer<Action> handler);
+    void registerActionFinishHandler(Consumer<ActionDispatchEvent> handler);
+
+    /**
+     * Registers a handler to process any action that was started but did not finish, because it
+     * was interrupted or failed.
+     *
+     * @param handler the Consumer to handle interrupted actions
+     */
+    void registerActionInterruptHandler(Consumer<ActionDispatchEvent> handler);
 
     /**
      * Registers a handler to process any finished action sequence.
@@ -50,7 +77,7 @@ public interface ActionSequenceDispatcher {
      *
      * @param handler the Consumer to process Action events
      */
-    void registerActionHandler(Consumer<Action> handler);
+    void registerActionHandler(Consumer<ActionDispatchEvent> handler);
 
     /**
      * Registers a generic handler for ActionSequence events.
@@ -1,7 +1,10 @@
 package de.bsommerfeld.model.action.spi;
 
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
 import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.watcher.FileChangeKind;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,6 +50,14 @@ public interface ActionSequenceRepository {
      */
     void updateActionSequencesCache();
 
+    /**
+     * Applies a change of a single sequence file to the cache, without reloading the other files.
+     *
+     * @param file the sequence file that changed
+     * @param kind the kind of change
+     */
+    void reloadActionSequenceFile(Path file, FileChangeKind kind);
+
     /**
      * Retrieves the action sequence associated with the given name.
      *
@@ -56,9 +67,23 @@ public interface ActionSequenceRepository {
     Optional<ActionSequence> getActionSequence(String name);
 
     /**
-     * Retrieves a list of action sequences from the internal map.
+     * Retrieves the cached action sequences.
      *
-     * @return A list containing all action sequences from the map.
+     * @return an unmodifiable list of all cached action sequences
      */
     List<ActionSequence> getActionSequences();
+
+    /**
+     * Returns an immutable snapshot of the cached action sequences, including the precomputed list
+     * of active sequences. Reading it never blocks and never copies.
+     *
+     * @return the current snapshot
+     */
+    ActionSequenceSnapshot snapshot();
+
+    /**
+     * Writes all saves that have not reached the disk yet. Saves are written behind, so this should be called before
+     * the application exits.
+     */
+    void flushPendingWrites();
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package de.bsommerfeld.model.action.spi;
+
+/**
+ * Source of time for the action engine. Every timing decision of actions and the sequence executor
+ * reads the time from a Clock, so the engine can be driven by virtual time instead of the wall
+ * clock.
+ */
+public interface Clock {
+
+  /**
+   * Returns the current value of a monotonic time source in nanoseconds. Only the difference
+   * between two values is meaningful, as with {@link System#nanoTime()}.
+   *
+   * @return the current monotonic time in nanoseconds
+   */
+  long nanoTime();
+
+  /**
+   * Returns the current time in milliseconds since the epoch, as with {@link
+   * System#currentTimeMillis()}.
+   *
+   * @return the current time in milliseconds
+   */
+  long currentTimeMillis();
+
+  /**
+   * Checks if this clock runs on virtual time, which only advances when the engine waits on it.
+   * Waits on several threads then add up instead of overlapping.
+   *
+   * @return true if the time is virtual, false if it follows the wall clock
+   */
+  default boolean isVirtual() {
+    return false;
+  }
+}
@@ -1,5 +1,7 @@
 package de.bsommerfeld.model.action.spi;
 
+import java.util.function.Consumer;
+
 /**
  * Interface for managing application focus.
  * This interface defines the contract for classes that check if the application window is in focus.
@@ -12,4 +14,15 @@ public interface FocusManager {
      * @return true if the application window is in focus, false otherwise
      */
     boolean isApplicationWindowInFocus();
-}
\ No newline at end of file
+
+    /**
+     * Registers a listener that is notified whenever the application window gains or loses focus.
+     *
+     * <p>Listeners are invoked on the thread that observes the focus change, so they should return
+     * quickly.
+     *
+     * @param listener the Consumer receiving {@code true} when focus was gained and {@code false}
+     *     when it was lost
+     */
+    void registerFocusChangeListener(Consumer<Boolean> listener);
+}
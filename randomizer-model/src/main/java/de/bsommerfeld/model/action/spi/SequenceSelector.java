@@ -0,0 +1,20 @@
+package de.bsommerfeld.model.action.spi;
+
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+
+/**
+ * Chooses the next sequence the executor dispatches. Implementations keep whatever structure they
+ * need to select in constant time and rebuild it only when they are handed a different snapshot,
+ * so a selection neither iterates the sequences nor allocates.
+ */
+public interface SequenceSelector {
+
+  /**
+   * Selects one of the active sequences of the given snapshot.
+   *
+   * @param snapshot the current snapshot of the sequence repository
+   * @return the selected sequence, or {@code null} if the snapshot has no active sequence
+   */
+  ActionSequence select(ActionSequenceSnapshot snapshot);
+}
@@ -0,0 +1,25 @@
+package de.bsommerfeld.model.action.spi;
+
+/**
+ * Lets the action engine wait. Paired with a {@link Clock} that observes the time passing, so a
+ * virtual implementation can advance its clock instead of blocking the thread.
+ */
+public interface Sleeper {
+
+  /**
+   * Blocks the calling thread for the given time.
+   *
+   * @param millis the time to sleep in milliseconds
+   * @throws InterruptedException if the thread is interrupted while sleeping
+   */
+  void sleep(long millis) throws InterruptedException;
+
+  /**
+   * Parks the calling thread for at most the given time. Unlike {@link #sleep(long)} the thread may
+   * return early, for example when it is unparked, so callers have to check their deadline again.
+   *
+   * @param blocker the object the thread is parked on, reported by diagnostics
+   * @param nanos the maximum time to park in nanoseconds
+   */
+  void parkNanos(Object blocker, long nanos);
+}
@@ -19,6 +19,9 @@
  *       persistence
  *   <li>{@link de.bsommerfeld.model.action.spi.FocusManager} - Handles application focus and window
  *       management
+ *   <li>{@link de.bsommerfeld.model.action.spi.Clock} and {@link
+ *       de.bsommerfeld.model.action.spi.Sleeper} - Provide the time the engine runs on, real or
+ *       virtual
  * </ul>
  *
  * <p>These interfaces follow the SPI pattern to enable loose coupling between the core domain logic
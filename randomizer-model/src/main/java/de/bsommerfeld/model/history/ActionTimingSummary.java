@@ -0,0 +1,27 @@
+package de.bsommerfeld.model.history;
+
+/**
+ * How the runs of one action went during the current session, as summarized by the {@link
+ * TelemetryRecorder}.
+ *
+ * <p>The drift is how much longer a run took than the delay planned for it. It only covers runs
+ * that finished, interrupted runs end early by design.
+ *
+ * @param actionName the name of the action
+ * @param runs how many runs finished
+ * @param interruptions how many runs were interrupted
+ * @param meanPlannedMillis the mean planned delay of the finished runs in milliseconds
+ * @param meanActualMillis the mean time the finished runs took in milliseconds
+ * @param medianDriftMicros the median drift in microseconds
+ * @param p99DriftMicros the 99th percentile of the drift in microseconds
+ * @param maxDriftMicros the largest drift in microseconds
+ */
+public record ActionTimingSummary(
+    String actionName,
+    long runs,
+    long interruptions,
+    double meanPlannedMillis,
+    double meanActualMillis,
+    long medianDriftMicros,
+    long p99DriftMicros,
+    long maxDriftMicros) {}
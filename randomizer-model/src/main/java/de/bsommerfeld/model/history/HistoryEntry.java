@@ -0,0 +1,25 @@
+package de.bsommerfeld.model.history;
+
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+
+/**
+ * A sequence that finished during the current session.
+ *
+ * @param sequenceName the name of the sequence
+ * @param actionCount the number of actions of the sequence
+ * @param finishedAt the time the sequence finished in epoch milliseconds
+ */
+public record HistoryEntry(String sequenceName, int actionCount, long finishedAt) {
+
+  /**
+   * Creates the entry of a finished sequence.
+   *
+   * @param actionSequence the sequence that finished
+   * @param finishedAt the time the sequence finished in epoch milliseconds
+   * @return the entry
+   */
+  public static HistoryEntry of(ActionSequence actionSequence, long finishedAt) {
+    return new HistoryEntry(
+        actionSequence.getName(), actionSequence.getActions().size(), finishedAt);
+  }
+}
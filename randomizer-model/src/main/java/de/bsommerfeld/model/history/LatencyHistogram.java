@@ -0,0 +1,123 @@
+package de.bsommerfeld.model.history;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative values with a bounded relative error, in the style of HdrHistogram.
+ *
+ * <p>Values below 128 are counted exactly. Above that every power of two is split into 64 buckets
+ * of equal width, so a value is reported with an error of less than 1/64 of itself. The buckets
+ * are allocated as larger values come in, a histogram of values up to a few seconds in
+ * microseconds needs less than 1000 of them.
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int EXACT_LIMIT = SUB_BUCKET_COUNT * 2;
+
+  private long[] counts = new long[EXACT_LIMIT];
+  private long totalCount;
+  private long min = Long.MAX_VALUE;
+  private long max;
+  private double sum;
+
+  /**
+   * Records a value, negative values are recorded as 0.
+   *
+   * @param value the value to record
+   */
+  public void record(long value) {
+    value = Math.max(0, value);
+    int index = indexOf(value);
+    if (index >= counts.length) {
+      counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length + counts.length / 2));
+    }
+    counts[index]++;
+    totalCount++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    sum += value;
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the number of values
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Returns the smallest recorded value.
+   *
+   * @return the smallest value, or 0 if nothing was recorded
+   */
+  public long getMin() {
+    return totalCount == 0 ? 0 : min;
+  }
+
+  /**
+   * Returns the largest recorded value.
+   *
+   * @return the largest value, or 0 if nothing was recorded
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Returns the mean of the recorded values.
+   *
+   * @return the mean, or 0 if nothing was recorded
+   */
+  public double getMean() {
+    return totalCount == 0 ? 0 : sum / totalCount;
+  }
+
+  /**
+   * Returns the value below or at which the given share of the recorded values lies. The result is
+   * the upper end of the bucket holding that value, but never more than the largest value.
+   *
+   * @param percentile the share in percent, between 0 and 100
+   * @return the value at the percentile, or 0 if nothing was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+
+    double share = Math.min(Math.max(percentile, 0), 100) / 100;
+    long rank = Math.max(1, (long) Math.ceil(share * totalCount));
+    long seen = 0;
+    for (int index = 0; index < counts.length; index++) {
+      seen += counts[index];
+      if (seen >= rank) {
+        return Math.min(highestValueOf(index), max);
+      }
+    }
+    return max;
+  }
+
+  private static int indexOf(long value) {
+    if (value < EXACT_LIMIT) {
+      return (int) value;
+    }
+    // Shift the value until it fits into the upper half of the sub buckets
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    return EXACT_LIMIT + (shift - 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  private static long highestValueOf(int index) {
+    if (index < EXACT_LIMIT) {
+      return index;
+    }
+    int shift = (index - EXACT_LIMIT) / SUB_BUCKET_COUNT + 1;
+    long subBucket = SUB_BUCKET_COUNT + (index - EXACT_LIMIT) % SUB_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
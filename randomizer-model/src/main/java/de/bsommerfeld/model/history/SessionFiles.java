@@ -0,0 +1,67 @@
+package de.bsommerfeld.model.history;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Names the files a log writes for every session. The name carries the start of the session, the
+ * files of the last few sessions are kept and older ones are deleted when a new session starts.
+ */
+@Slf4j
+final class SessionFiles {
+
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+  private static final int KEPT_SESSIONS = 5;
+
+  private SessionFiles() {}
+
+  /**
+   * Returns the file for a new session and deletes the files of older sessions.
+   *
+   * @param directory the directory holding the files, created if it does not exist
+   * @param prefix the start of the file names
+   * @param suffix the end of the file names
+   * @return the file of the new session, not created yet
+   * @throws IOException if the directory cannot be created or listed
+   */
+  static Path newSessionFile(Path directory, String prefix, String suffix) throws IOException {
+    Files.createDirectories(directory);
+    deleteOldSessions(directory, prefix, suffix);
+    return directory.resolve(prefix + LocalDateTime.now().format(FILE_TIMESTAMP) + suffix);
+  }
+
+  private static void deleteOldSessions(Path directory, String prefix, String suffix)
+      throws IOException {
+    List<Path> sessions;
+    try (Stream<Path> files = Files.list(directory)) {
+      sessions =
+          files
+              .filter(
+                  path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(prefix) && name.endsWith(suffix);
+                  })
+              // The timestamp in the name sorts the newest session first
+              .sorted(Comparator.comparing(Path::getFileName).reversed())
+              .toList();
+    }
+
+    // Keep room for the session that is about to start
+    int kept = Math.min(sessions.size(), KEPT_SESSIONS - 1);
+    for (Path session : sessions.subList(kept, sessions.size())) {
+      try {
+        Files.deleteIfExists(session);
+      } catch (IOException e) {
+        log.warn("Could not delete old session file {}", session, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package de.bsommerfeld.model.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import lombok.Getter;
+
+/**
+ * Append-only log of the sequences that finished during the current session, written to a file of
+ * its own for every session.
+ *
+ * <p>Only the file offsets of the entries are kept in memory, so the history shown in the UI can
+ * stay small while older entries are read back page by page when they are asked for. The logs of
+ * the last few sessions are kept, older ones are deleted when a new session starts.
+ *
+ * <p>If the file cannot be created, a {@link #disabled() disabled} log stands in for it, so the
+ * application starts with the history in memory only.
+ *
+ * <p>All methods are thread-safe.
+ */
+public final class SessionLog implements Closeable {
+
+  private static final String FILE_PREFIX = "session-";
+  private static final String FILE_SUFFIX = ".log";
+
+  /** The file of the log, or {@code null} if the log is disabled. */
+  @Getter private final Path file;
+
+  private final RandomAccessFile randomAccessFile;
+  private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(64);
+  private final DataOutputStream recordOutput = new DataOutputStream(recordBuffer);
+  private long[] offsets = new long[64];
+  private int size;
+  private long length;
+
+  private SessionLog(Path file) throws IOException {
+    this.file = file;
+    this.randomAccessFile = new RandomAccessFile(file.toFile(), "rw");
+    randomAccessFile.setLength(0);
+  }
+
+  private SessionLog() {
+    this.file = null;
+    this.randomAccessFile = null;
+  }
+
+  /**
+   * Starts the log of a new session in the given directory.
+   *
+   * @param directory the directory holding the session logs, created if it does not exist
+   * @return the log of the new session
+   * @throws IOException if the directory or the file cannot be created
+   */
+  public static SessionLog open(Path directory) throws IOException {
+    return new SessionLog(SessionFiles.newSessionFile(directory, FILE_PREFIX, FILE_SUFFIX));
+  }
+
+  /**
+   * Returns a log that keeps nothing, used when the log of the session cannot be opened.
+   *
+   * @return a disabled log
+   */
+  public static SessionLog disabled() {
+    return new SessionLog();
+  }
+
+  /**
+   * Checks if the log writes to a file.
+   *
+   * @return true if the log was opened, false if it is {@link #disabled() disabled}
+   */
+  public boolean isEnabled() {
+    return randomAccessFile != null;
+  }
+
+  /**
+   * Appends an entry to the end of the log.
+   *
+   * @param entry the entry to append
+   * @return the index of the entry in the log
+   * @throws IOException if the entry cannot be written or the log is disabled
+   */
+  public synchronized int append(HistoryEntry entry) throws IOException {
+    if (!isEnabled()) {
+      throw new IOException("Session log is disabled");
+    }
+
+    recordBuffer.reset();
+    recordOutput.writeLong(entry.finishedAt());
+    recordOutput.writeInt(entry.actionCount());
+    recordOutput.writeUTF(entry.sequenceName());
+
+    // Reads move the file pointer, so always write at the end
+    randomAccessFile.seek(length);
+    randomAccessFile.write(recordBuffer.toByteArray());
+
+    if (size == offsets.length) {
+      offsets = Arrays.copyOf(offsets, size * 2);
+    }
+    offsets[size] = length;
+    length += recordBuffer.size();
+    return size++;
+  }
+
+  /**
+   * Reads a range of entries back from the log.
+   *
+   * @param fromIndex the index of the first entry, inclusive
+   * @param toIndex the index after the last entry, exclusive
+   * @return the entries in the order they were appended
+   * @throws IOException if the entries cannot be read
+   * @throws IndexOutOfBoundsException if the range is out of bounds
+   */
+  public synchronized List<HistoryEntry> read(int fromIndex, int toIndex) throws IOException {
+    Objects.checkFromToIndex(fromIndex, toIndex, size);
+    if (fromIndex == toIndex) {
+      return List.of();
+    }
+
+    long start = offsets[fromIndex];
+    long end = toIndex < size ? offsets[toIndex] : length;
+    byte[] records = new byte[(int) (end - start)];
+    randomAccessFile.seek(start);
+    randomAccessFile.readFully(records);
+
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(records));
+    List<HistoryEntry> entries = new ArrayList<>(toIndex - fromIndex);
+    for (int i = fromIndex; i < toIndex; i++) {
+      long finishedAt = input.readLong();
+      int actionCount = input.readInt();
+      String sequenceName = input.readUTF();
+      entries.add(new HistoryEntry(sequenceName, actionCount, finishedAt));
+    }
+    return entries;
+  }
+
+  /**
+   * Returns the number of entries in the log.
+   *
+   * @return the number of entries
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (isEnabled()) {
+      randomAccessFile.close();
+    }
+  }
+}
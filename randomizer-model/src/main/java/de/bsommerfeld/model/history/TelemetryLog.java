@@ -0,0 +1,284 @@
+package de.bsommerfeld.model.history;
+
+import de.bsommerfeld.model.action.InterruptReason;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * Append-only binary log of the {@link TelemetryRecord telemetry} of one session, written through a
+ * memory-mapped file.
+ *
+ * <p>The file starts with a header of 16 bytes: a magic number, the format version, the record
+ * size and the number of bytes written after the header. Every record takes 32 bytes:
+ *
+ * <pre>
+ *  0  long  timestamp in epoch milliseconds
+ *  8  byte  kind, the ordinal of {@link TelemetryRecord.Kind} or 0x7F for a name
+ *  9  byte  interrupt reason, its ordinal + 1 or 0 for none
+ * 12  int   position of the action in its sequence
+ * 16  int   id of the name, or -1
+ * 20  int   planned delay in milliseconds, for names the length of the name in bytes
+ * 24  long  elapsed nanoseconds
+ * </pre>
+ *
+ * A name is written once, the first time it is used, as a record followed by its UTF-8 bytes padded
+ * to whole records. Its id is the number of names written before it.
+ *
+ * <p>Appending writes into the mapped file and then updates the length in the header, the
+ * operating system writes the pages back on its own. A log of a session that did not end cleanly
+ * can therefore still be {@link #read(Path) read} up to its last record. The file grows in steps
+ * of one MiB and is cut to its length when the log is closed.
+ *
+ * <p>If the file cannot be created, a {@link #disabled() disabled} log stands in for it, so the
+ * application starts without telemetry instead of not at all.
+ */
+public final class TelemetryLog implements Closeable {
+
+  private static final int MAGIC = 0x52544C47; // RTLG
+  private static final short VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int RECORD_SIZE = 32;
+  private static final byte NAME_KIND = 0x7F;
+  private static final long CHUNK_SIZE = 1L << 20;
+
+  private static final String FILE_PREFIX = "telemetry-";
+  private static final String FILE_SUFFIX = ".bin";
+
+  /** The file of the log, or {@code null} if the log is disabled. */
+  @Getter private final Path file;
+
+  private final FileChannel channel;
+  private final Arena arena;
+  private final ByteBuffer header;
+  private final Map<String, Integer> nameIds = new HashMap<>();
+  private ByteBuffer chunk;
+  private long chunkStart;
+  private long length;
+  private boolean closed;
+
+  private TelemetryLog(Path file) throws IOException {
+    this.file = file;
+    this.arena = Arena.ofShared();
+    this.channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    try {
+      this.header =
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE, arena).asByteBuffer();
+    } catch (IOException | RuntimeException e) {
+      arena.close();
+      channel.close();
+      throw e;
+    }
+    header.putInt(0, MAGIC);
+    header.putShort(4, VERSION);
+    header.putShort(6, (short) RECORD_SIZE);
+    header.putLong(8, 0L);
+  }
+
+  private TelemetryLog() {
+    this.file = null;
+    this.arena = null;
+    this.channel = null;
+    this.header = null;
+    this.closed = true;
+  }
+
+  /**
+   * Starts the log of a new session in the given directory.
+   *
+   * @param directory the directory holding the telemetry logs, created if it does not exist
+   * @return the log of the new session
+   * @throws IOException if the directory or the file cannot be created
+   */
+  public static TelemetryLog open(Path directory) throws IOException {
+    return new TelemetryLog(SessionFiles.newSessionFile(directory, FILE_PREFIX, FILE_SUFFIX));
+  }
+
+  /**
+   * Returns a log that writes nothing, used when the log of the session cannot be opened.
+   *
+   * @return a disabled log
+   */
+  public static TelemetryLog disabled() {
+    return new TelemetryLog();
+  }
+
+  /**
+   * Checks if the log writes to a file.
+   *
+   * @return true if the log was opened, false if it is {@link #disabled() disabled}
+   */
+  public boolean isEnabled() {
+    return channel != null;
+  }
+
+  /**
+   * Appends a record to the end of the log.
+   *
+   * @param record the record to append
+   * @throws IOException if the file cannot be extended or the log is closed or disabled
+   */
+  public synchronized void append(TelemetryRecord record) throws IOException {
+    if (!isEnabled()) {
+      throw new IOException("Telemetry log is disabled");
+    }
+    if (closed) {
+      throw new IOException("Telemetry log is closed: " + file);
+    }
+
+    int nameId = record.name() != null ? nameId(record.name()) : -1;
+    InterruptReason reason = record.interruptReason();
+
+    int offset = reserve(RECORD_SIZE);
+    chunk.putLong(offset, record.timestamp());
+    chunk.put(offset + 8, (byte) record.kind().ordinal());
+    chunk.put(offset + 9, (byte) (reason != null ? reason.ordinal() + 1 : 0));
+    chunk.putInt(offset + 12, record.sequenceIndex());
+    chunk.putInt(offset + 16, nameId);
+    chunk.putInt(offset + 20, (int) Math.min(Integer.MAX_VALUE, record.plannedDelay()));
+    chunk.putLong(offset + 24, record.elapsedNanos());
+    commit(RECORD_SIZE);
+  }
+
+  private int nameId(String name) throws IOException {
+    Integer id = nameIds.get(name);
+    if (id != null) {
+      return id;
+    }
+
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    int size = RECORD_SIZE + paddedLength(bytes.length);
+    int newId = nameIds.size();
+
+    int offset = reserve(size);
+    chunk.put(offset + 8, NAME_KIND);
+    chunk.putInt(offset + 16, newId);
+    chunk.putInt(offset + 20, bytes.length);
+    chunk.put(offset + RECORD_SIZE, bytes);
+    commit(size);
+
+    nameIds.put(name, newId);
+    return newId;
+  }
+
+  /**
+   * Makes room for the given number of bytes at the end of the log, mapping the next part of the
+   * file if the current one is full.
+   *
+   * @return the offset of the room in {@link #chunk}
+   */
+  private int reserve(int size) throws IOException {
+    long position = HEADER_SIZE + length;
+    if (chunk == null || position + size > chunkStart + chunk.capacity()) {
+      chunkStart = position;
+      chunk =
+          channel
+              .map(FileChannel.MapMode.READ_WRITE, chunkStart, Math.max(CHUNK_SIZE, size), arena)
+              .asByteBuffer();
+    }
+    return (int) (position - chunkStart);
+  }
+
+  private void commit(int size) {
+    length += size;
+    // Readers only trust what the header counts, so the length is published last
+    header.putLong(8, length);
+  }
+
+  /**
+   * Returns the number of bytes written after the header.
+   *
+   * @return the length of the log
+   */
+  public synchronized long length() {
+    return length;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) return;
+    closed = true;
+    try {
+      arena.close();
+      // Cut off the unused rest of the last mapped part
+      channel.truncate(HEADER_SIZE + length);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Reads all records of a telemetry log, for example the one of an earlier session.
+   *
+   * @param file the file of the log
+   * @return the records in the order they were appended
+   * @throws IOException if the file cannot be read or is not a telemetry log
+   */
+  public static List<TelemetryRecord> read(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        Arena readArena = Arena.ofConfined()) {
+      long size = channel.size();
+      if (size < HEADER_SIZE) {
+        throw new IOException("Not a telemetry log: " + file);
+      }
+
+      ByteBuffer buffer =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, size, readArena).asByteBuffer();
+      if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+        throw new IOException("Not a telemetry log of version " + VERSION + ": " + file);
+      }
+
+      long end = HEADER_SIZE + Math.min(buffer.getLong(8), size - HEADER_SIZE);
+      TelemetryRecord.Kind[] kinds = TelemetryRecord.Kind.values();
+      InterruptReason[] reasons = InterruptReason.values();
+      List<String> names = new ArrayList<>();
+      List<TelemetryRecord> records = new ArrayList<>();
+
+      int position = HEADER_SIZE;
+      while (position + RECORD_SIZE <= end) {
+        byte kind = buffer.get(position + 8);
+        if (kind == NAME_KIND) {
+          byte[] bytes = new byte[buffer.getInt(position + 20)];
+          buffer.get(position + RECORD_SIZE, bytes);
+          names.add(new String(bytes, StandardCharsets.UTF_8));
+          position += RECORD_SIZE + paddedLength(bytes.length);
+          continue;
+        }
+
+        int nameId = buffer.getInt(position + 16);
+        int reason = buffer.get(position + 9);
+        records.add(
+            new TelemetryRecord(
+                buffer.getLong(position),
+                kinds[kind],
+                nameId >= 0 ? names.get(nameId) : null,
+                buffer.getInt(position + 12),
+                buffer.getInt(position + 20),
+                buffer.getLong(position + 24),
+                reason > 0 ? reasons[reason - 1] : null));
+        position += RECORD_SIZE;
+      }
+      return records;
+    }
+  }
+
+  private static int paddedLength(int length) {
+    return (length + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+  }
+}
@@ -0,0 +1,34 @@
+package de.bsommerfeld.model.history;
+
+import de.bsommerfeld.model.action.InterruptReason;
+
+/**
+ * One entry of the {@link TelemetryLog}.
+ *
+ * @param timestamp the time the record was taken in epoch milliseconds
+ * @param kind what happened
+ * @param name the name of the action or sequence, or {@code null} for focus changes
+ * @param sequenceIndex the position of the action in its sequence, or -1
+ * @param plannedDelay the delay in milliseconds that was planned for the action, or -1
+ * @param elapsedNanos how long the action, the sequence or the loss of focus took in nanoseconds,
+ *     or -1
+ * @param interruptReason why the action was interrupted, or {@code null}
+ */
+public record TelemetryRecord(
+    long timestamp,
+    Kind kind,
+    String name,
+    int sequenceIndex,
+    long plannedDelay,
+    long elapsedNanos,
+    InterruptReason interruptReason) {
+
+  /** What a record describes. */
+  public enum Kind {
+    ACTION_FINISHED,
+    ACTION_INTERRUPTED,
+    SEQUENCE_FINISHED,
+    FOCUS_LOST,
+    FOCUS_GAINED
+  }
+}
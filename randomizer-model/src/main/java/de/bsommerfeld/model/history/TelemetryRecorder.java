@@ -0,0 +1,206 @@
+package de.bsommerfeld.model.history;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import de.bsommerfeld.model.action.sequence.ActionDispatchEvent;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.action.spi.ActionSequenceDispatcher;
+import de.bsommerfeld.model.action.spi.Clock;
+import de.bsommerfeld.model.action.spi.FocusManager;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the timing of every dispatched action into the {@link TelemetryLog} of the session and
+ * keeps a {@link LatencyHistogram} of the drift between planned and actual delay per action.
+ *
+ * <p>Besides finished and interrupted actions the log holds finished sequences and every loss and
+ * gain of focus of the application window, so a later look at the file can tell why actions were
+ * cut short.
+ *
+ * <p>Durations and timestamps are read from the {@link Clock} of the engine, so a run on virtual
+ * time is recorded in virtual time.
+ *
+ * <p>If the log is {@link TelemetryLog#disabled() disabled} or cannot be written, the recorder goes
+ * on with the summaries in memory only. A failed write is logged once.
+ */
+@Slf4j
+@Singleton
+public class TelemetryRecorder {
+
+  private final Map<String, ActionStats> actionStats = new ConcurrentHashMap<>();
+  private final AtomicLong focusLosses = new AtomicLong();
+  private final TelemetryLog telemetryLog;
+  private final Clock clock;
+  private volatile long sequenceStartNanos;
+  private volatile long focusLostNanos = -1;
+  private volatile boolean logWritable;
+
+  @Inject
+  public TelemetryRecorder(
+      ActionSequenceDispatcher dispatcher,
+      FocusManager focusManager,
+      TelemetryLog telemetryLog,
+      Clock clock) {
+    this.telemetryLog = telemetryLog;
+    this.clock = clock;
+    this.logWritable = telemetryLog.isEnabled();
+
+    dispatcher.registerSequenceHandler(_ -> sequenceStartNanos = clock.nanoTime());
+    dispatcher.registerActionFinishHandler(this::recordFinishedAction);
+    dispatcher.registerActionInterruptHandler(this::recordInterruptedAction);
+    dispatcher.registerSequenceFinishHandler(this::recordFinishedSequence);
+    focusManager.registerFocusChangeListener(this::recordFocusChange);
+  }
+
+  private void recordFinishedAction(ActionDispatchEvent event) {
+    statsOf(event).recordRun(event.plannedDelay(), event.elapsedNanos());
+    append(TelemetryRecord.Kind.ACTION_FINISHED, event);
+  }
+
+  private void recordInterruptedAction(ActionDispatchEvent event) {
+    statsOf(event).recordInterruption();
+    append(TelemetryRecord.Kind.ACTION_INTERRUPTED, event);
+  }
+
+  private ActionStats statsOf(ActionDispatchEvent event) {
+    return actionStats.computeIfAbsent(event.action().getName(), _ -> new ActionStats());
+  }
+
+  private void recordFinishedSequence(ActionSequence sequence) {
+    long elapsedNanos = clock.nanoTime() - sequenceStartNanos;
+    append(
+        new TelemetryRecord(
+            clock.currentTimeMillis(),
+            TelemetryRecord.Kind.SEQUENCE_FINISHED,
+            sequence.getName(),
+            ActionDispatchEvent.NO_INDEX,
+            -1,
+            elapsedNanos,
+            null));
+  }
+
+  private void recordFocusChange(boolean focused) {
+    long now = clock.nanoTime();
+    long elapsedNanos = -1;
+    if (focused) {
+      // Only a gain that ends a recorded loss has a duration
+      if (focusLostNanos >= 0) {
+        elapsedNanos = now - focusLostNanos;
+        focusLostNanos = -1;
+      }
+    } else {
+      focusLosses.incrementAndGet();
+      focusLostNanos = now;
+    }
+
+    append(
+        new TelemetryRecord(
+            clock.currentTimeMillis(),
+            focused ? TelemetryRecord.Kind.FOCUS_GAINED : TelemetryRecord.Kind.FOCUS_LOST,
+            null,
+            ActionDispatchEvent.NO_INDEX,
+            -1,
+            elapsedNanos,
+            null));
+  }
+
+  private void append(TelemetryRecord.Kind kind, ActionDispatchEvent event) {
+    append(
+        new TelemetryRecord(
+            clock.currentTimeMillis(),
+            kind,
+            event.action().getName(),
+            event.index(),
+            event.plannedDelay(),
+            event.elapsedNanos(),
+            event.interruptReason()));
+  }
+
+  private void append(TelemetryRecord record) {
+    if (!logWritable) return;
+    try {
+      telemetryLog.append(record);
+    } catch (IOException e) {
+      logWritable = false;
+      log.error("Could not write to telemetry log {}, recording stops", telemetryLog.getFile(), e);
+    }
+  }
+
+  /**
+   * Returns the timing of every action that ran during the session, ordered by name.
+   *
+   * @return a snapshot of the summaries
+   */
+  public List<ActionTimingSummary> getActionTimings() {
+    return actionStats.entrySet().stream()
+        .map(entry -> entry.getValue().summarize(entry.getKey()))
+        .sorted(Comparator.comparing(ActionTimingSummary::actionName))
+        .toList();
+  }
+
+  /**
+   * Returns how often the application window lost focus during the session.
+   *
+   * @return the number of focus losses
+   */
+  public long getFocusLossCount() {
+    return focusLosses.get();
+  }
+
+  /**
+   * Returns the file the telemetry of the session is written to.
+   *
+   * @return the file of the log, or {@code null} if the log is disabled
+   */
+  public Path getLogFile() {
+    return telemetryLog.getFile();
+  }
+
+  /** The runs of one action, updated by the tracks of a sequence concurrently. */
+  private static final class ActionStats {
+
+    private final LatencyHistogram driftMicros = new LatencyHistogram();
+    private long runs;
+    private long interruptions;
+    private long plannedMillisSum;
+    private long actualNanosSum;
+
+    synchronized void recordRun(long plannedDelay, long elapsedNanos) {
+      runs++;
+      actualNanosSum += elapsedNanos;
+      if (plannedDelay < 0) {
+        // Without a planned delay there is nothing to drift from
+        return;
+      }
+      plannedMillisSum += plannedDelay;
+      long plannedNanos = TimeUnit.MILLISECONDS.toNanos(plannedDelay);
+      // A run ending before its deadline is recorded as no drift
+      driftMicros.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos - plannedNanos));
+    }
+
+    synchronized void recordInterruption() {
+      interruptions++;
+    }
+
+    synchronized ActionTimingSummary summarize(String actionName) {
+      long plannedRuns = driftMicros.getTotalCount();
+      return new ActionTimingSummary(
+          actionName,
+          runs,
+          interruptions,
+          plannedRuns == 0 ? 0 : (double) plannedMillisSum / plannedRuns,
+          runs == 0 ? 0 : actualNanosSum / 1_000_000.0 / runs,
+          driftMicros.getValueAtPercentile(50),
+          driftMicros.getValueAtPercentile(99),
+          driftMicros.getMax());
+    }
+  }
+}
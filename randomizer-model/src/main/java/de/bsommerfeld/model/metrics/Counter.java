@@ -0,0 +1,52 @@
+package de.bsommerfeld.model.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * A value that only grows. Incrementing it is cheap even if many threads do so at once, so it can
+ * be used on hot paths such as the native hook listeners.
+ */
+public final class Counter implements Metric {
+
+  @Getter private final String name;
+  @Getter private final String help;
+  private final LongAdder value = new LongAdder();
+
+  Counter(String name, String help) {
+    this.name = name;
+    this.help = help;
+  }
+
+  /** Adds one to the counter. */
+  public void increment() {
+    value.increment();
+  }
+
+  /**
+   * Adds the given amount to the counter.
+   *
+   * @param amount the amount to add, must not be negative
+   */
+  public void add(long amount) {
+    if (amount < 0) {
+      throw new IllegalArgumentException("Counter " + name + " cannot decrease: " + amount);
+    }
+    value.add(amount);
+  }
+
+  /**
+   * Returns the current total of the counter.
+   *
+   * @return the total
+   */
+  public long get() {
+    return value.sum();
+  }
+
+  @Override
+  public MetricSample sample() {
+    long total = get();
+    return new MetricSample(name, MetricType.COUNTER, help, total, total, 0);
+  }
+}
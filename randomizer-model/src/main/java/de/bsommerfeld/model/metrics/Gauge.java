@@ -0,0 +1,35 @@
+package de.bsommerfeld.model.metrics;
+
+import java.util.function.DoubleSupplier;
+import lombok.Getter;
+
+/**
+ * A value that is read from its source whenever it is sampled, such as the size of a queue. The
+ * source is called on the thread that samples the registry and should return quickly.
+ */
+public final class Gauge implements Metric {
+
+  @Getter private final String name;
+  @Getter private final String help;
+  private final DoubleSupplier source;
+
+  Gauge(String name, String help, DoubleSupplier source) {
+    this.name = name;
+    this.help = help;
+    this.source = source;
+  }
+
+  /**
+   * Reads the current value of the gauge.
+   *
+   * @return the value
+   */
+  public double get() {
+    return source.getAsDouble();
+  }
+
+  @Override
+  public MetricSample sample() {
+    return new MetricSample(name, MetricType.GAUGE, help, get(), 0, 0);
+  }
+}
@@ -0,0 +1,26 @@
+package de.bsommerfeld.model.metrics;
+
+/** A named value kept by a {@link MetricsRegistry}. */
+public sealed interface Metric permits Counter, Gauge, Timer {
+
+  /**
+   * Returns the name of the metric, in the snake case used by Prometheus.
+   *
+   * @return the name
+   */
+  String getName();
+
+  /**
+   * Returns a short description of what the metric measures.
+   *
+   * @return the description
+   */
+  String getHelp();
+
+  /**
+   * Reads the current value of the metric.
+   *
+   * @return the sample
+   */
+  MetricSample sample();
+}
@@ -0,0 +1,24 @@
+package de.bsommerfeld.model.metrics;
+
+/**
+ * The value of a {@link Metric} at the time it was sampled.
+ *
+ * @param name the name of the metric
+ * @param type the kind of the metric
+ * @param help a short description of the metric
+ * @param value the total of a counter, the value of a gauge or the total seconds of a timer
+ * @param count the total of a counter or the number of timed operations, 0 for gauges
+ * @param max the longest operation of a timer in seconds, 0 for the other kinds
+ */
+public record MetricSample(
+    String name, MetricType type, String help, double value, long count, double max) {
+
+  /**
+   * Returns the mean duration of the operations of a timer.
+   *
+   * @return the mean in seconds, or 0 if the metric is no timer or nothing was timed
+   */
+  public double mean() {
+    return type == MetricType.TIMER && count > 0 ? value / count : 0;
+  }
+}
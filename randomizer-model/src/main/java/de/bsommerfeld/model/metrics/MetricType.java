@@ -0,0 +1,14 @@
+package de.bsommerfeld.model.metrics;
+
+/** The kinds of metrics a {@link MetricsRegistry} holds. */
+public enum MetricType {
+
+  /** A value that only grows, such as the number of dispatched sequences. */
+  COUNTER,
+
+  /** A value that is read when it is sampled, such as the number of running actions. */
+  GAUGE,
+
+  /** The number, total and longest duration of a recurring operation. */
+  TIMER
+}
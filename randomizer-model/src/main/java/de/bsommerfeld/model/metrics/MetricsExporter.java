@@ -0,0 +1,176 @@
+package de.bsommerfeld.model.metrics;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes a {@link MetricsRegistry#snapshot() snapshot} of the metrics as JSON or in the text
+ * format of Prometheus. Every name is prefixed with {@value #NAME_PREFIX}.
+ */
+public final class MetricsExporter {
+
+  static final String NAME_PREFIX = "randomizer_";
+
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  /** The formats a snapshot can be written in. */
+  public enum Format {
+    JSON("json"),
+    PROMETHEUS("prom");
+
+    private final String fileExtension;
+
+    Format(String fileExtension) {
+      this.fileExtension = fileExtension;
+    }
+  }
+
+  private MetricsExporter() {}
+
+  /**
+   * Writes the samples to a new file in the given directory, named after the current time.
+   *
+   * @param samples the samples to write
+   * @param format the format to write them in
+   * @param directory the directory for the file, created if it does not exist
+   * @return the written file
+   * @throws IOException if the directory or the file cannot be written
+   */
+  public static Path export(List<MetricSample> samples, Format format, Path directory)
+      throws IOException {
+    Files.createDirectories(directory);
+    Path file =
+        directory.resolve(
+            "metrics-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.fileExtension);
+    Files.writeString(file, format(samples, format), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  /**
+   * Formats the samples in the given format.
+   *
+   * @param samples the samples to format
+   * @param format the format
+   * @return the formatted samples
+   */
+  public static String format(List<MetricSample> samples, Format format) {
+    return switch (format) {
+      case JSON -> toJson(samples);
+      case PROMETHEUS -> toPrometheus(samples);
+    };
+  }
+
+  /**
+   * Formats the samples in the text format of Prometheus. Timers become a summary with a
+   * {@code _count} and a {@code _sum}, their longest operation a gauge of its own ending with
+   * {@code _max}.
+   *
+   * @param samples the samples to format
+   * @return the text, one line per value
+   */
+  public static String toPrometheus(List<MetricSample> samples) {
+    StringBuilder text = new StringBuilder();
+    for (MetricSample sample : samples) {
+      String name = NAME_PREFIX + sample.name();
+      switch (sample.type()) {
+        case COUNTER -> {
+          appendHeader(text, name, sample.help(), "counter");
+          appendValue(text, name, Long.toString(sample.count()));
+        }
+        case GAUGE -> {
+          appendHeader(text, name, sample.help(), "gauge");
+          appendValue(text, name, formatDouble(sample.value()));
+        }
+        case TIMER -> {
+          appendHeader(text, name, sample.help(), "summary");
+          appendValue(text, name + "_count", Long.toString(sample.count()));
+          appendValue(text, name + "_sum", formatDouble(sample.value()));
+          appendHeader(text, name + "_max", "Longest of: " + sample.help(), "gauge");
+          appendValue(text, name + "_max", formatDouble(sample.max()));
+        }
+      }
+    }
+    return text.toString();
+  }
+
+  private static void appendHeader(StringBuilder text, String name, String help, String type) {
+    String escapedHelp = help.replace("\\", "\\\\").replace("\n", "\\n");
+    text.append("# HELP ").append(name).append(' ').append(escapedHelp).append('\n');
+    text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void appendValue(StringBuilder text, String name, String value) {
+    text.append(name).append(' ').append(value).append('\n');
+  }
+
+  private static String formatDouble(double value) {
+    if (Double.isNaN(value)) return "NaN";
+    if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+    return Double.toString(value);
+  }
+
+  /**
+   * Formats the samples as a JSON object holding the time of the export and one object per
+   * metric.
+   *
+   * @param samples the samples to format
+   * @return the JSON text
+   */
+  public static String toJson(List<MetricSample> samples) {
+    StringWriter text = new StringWriter();
+    try {
+      writeJson(samples, text);
+    } catch (IOException e) {
+      // A StringWriter never fails
+      throw new IllegalStateException(e);
+    }
+    return text.toString();
+  }
+
+  private static void writeJson(List<MetricSample> samples, Writer out) throws IOException {
+    try (JsonWriter json = new JsonWriter(out)) {
+      json.setIndent("  ");
+      json.beginObject();
+      json.name("timestamp").value(Instant.now().toString());
+      json.name("metrics").beginArray();
+      for (MetricSample sample : samples) {
+        json.beginObject();
+        json.name("name").value(NAME_PREFIX + sample.name());
+        json.name("type").value(sample.type().name().toLowerCase(Locale.ROOT));
+        json.name("help").value(sample.help());
+        switch (sample.type()) {
+          case COUNTER -> json.name("value").value(sample.count());
+          case GAUGE -> writeDouble(json.name("value"), sample.value());
+          case TIMER -> {
+            json.name("count").value(sample.count());
+            writeDouble(json.name("sumSeconds"), sample.value());
+            writeDouble(json.name("maxSeconds"), sample.max());
+          }
+        }
+        json.endObject();
+      }
+      json.endArray();
+      json.endObject();
+    }
+  }
+
+  private static void writeDouble(JsonWriter json, double value) throws IOException {
+    // JSON has no NaN or infinity
+    if (Double.isFinite(value)) {
+      json.value(value);
+    } else {
+      json.nullValue();
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package de.bsommerfeld.model.metrics;
+
+import com.google.inject.Singleton;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Holds the metrics of the executor, the dispatcher and the components around them, so the engine
+ * can be observed without reading the log files.
+ *
+ * <p>Components register their metrics once, usually in their constructor, and keep the returned
+ * instance to update it. Registering a name a second time returns the metric that is already
+ * registered, registering it with a different kind fails. A {@link #snapshot()} reads all metrics
+ * ordered by name and can be written to a file by the {@link MetricsExporter}.
+ *
+ * <p>All methods are thread-safe.
+ */
+@Singleton
+public class MetricsRegistry {
+
+  private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+  /**
+   * Returns the counter with the given name, registering it if it does not exist yet.
+   *
+   * @param name the name of the counter, ending with {@code _total} by convention
+   * @param help a short description of what is counted
+   * @return the counter
+   * @throws IllegalArgumentException if a metric of another kind has the name
+   */
+  public Counter counter(String name, String help) {
+    return register(name, Counter.class, _ -> new Counter(name, help));
+  }
+
+  /**
+   * Returns the gauge with the given name, registering it with the given source if it does not
+   * exist yet.
+   *
+   * @param name the name of the gauge
+   * @param help a short description of the value
+   * @param source supplies the value whenever the gauge is sampled
+   * @return the gauge
+   * @throws IllegalArgumentException if a metric of another kind has the name
+   */
+  public Gauge gauge(String name, String help, DoubleSupplier source) {
+    return register(name, Gauge.class, _ -> new Gauge(name, help, source));
+  }
+
+  /**
+   * Returns a gauge telling how many times per second the given counter grew. The rate is taken
+   * over the time since it was last sampled and sampled at most once a second, so a panel that
+   * reads it every now and then sees the mean rate in between.
+   *
+   * @param name the name of the gauge, ending with {@code _per_second} by convention
+   * @param help a short description of the rate
+   * @param counter the counter to take the rate of
+   * @return the gauge
+   * @throws IllegalArgumentException if a metric of another kind has the name
+   */
+  public Gauge rate(String name, String help, Counter counter) {
+    return gauge(name, help, new RateSampler(counter));
+  }
+
+  /**
+   * Returns the timer with the given name, registering it if it does not exist yet.
+   *
+   * @param name the name of the timer, ending with {@code _seconds} by convention
+   * @param help a short description of the timed operation
+   * @return the timer
+   * @throws IllegalArgumentException if a metric of another kind has the name
+   */
+  public Timer timer(String name, String help) {
+    return register(name, Timer.class, _ -> new Timer(name, help));
+  }
+
+  private <T extends Metric> T register(
+      String name, Class<T> type, Function<String, Metric> factory) {
+    Metric metric = metrics.computeIfAbsent(name, factory);
+    if (!type.isInstance(metric)) {
+      throw new IllegalArgumentException(
+          "Metric " + name + " is already registered as " + metric.getClass().getSimpleName());
+    }
+    return type.cast(metric);
+  }
+
+  /**
+   * Reads the current value of every registered metric.
+   *
+   * @return the samples ordered by name
+   */
+  public List<MetricSample> snapshot() {
+    return metrics.values().stream().map(Metric::sample).toList();
+  }
+
+  /** Takes the rate of a counter between two samples. */
+  private static final class RateSampler implements DoubleSupplier {
+
+    private static final long MIN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Counter counter;
+    private long lastCount;
+    private long lastNanos;
+    private double rate;
+
+    RateSampler(Counter counter) {
+      this.counter = counter;
+      this.lastCount = counter.get();
+      this.lastNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized double getAsDouble() {
+      long now = System.nanoTime();
+      long elapsedNanos = now - lastNanos;
+      if (elapsedNanos >= MIN_INTERVAL_NANOS) {
+        long count = counter.get();
+        rate = (double) (count - lastCount) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        lastCount = count;
+        lastNanos = now;
+      }
+      return rate;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package de.bsommerfeld.model.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/** Counts a recurring operation and sums up how long it took. */
+public final class Timer implements Metric {
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Getter private final String name;
+  @Getter private final String help;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+  Timer(String name, String help) {
+    this.name = name;
+    this.help = help;
+  }
+
+  /**
+   * Records one operation that started at the given time.
+   *
+   * @param startNanos the {@link System#nanoTime()} at the start of the operation
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Records one operation.
+   *
+   * @param nanos how long the operation took in nanoseconds, negative values are recorded as 0
+   */
+  public void record(long nanos) {
+    nanos = Math.max(0, nanos);
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  @Override
+  public MetricSample sample() {
+    return new MetricSample(
+        name,
+        MetricType.TIMER,
+        help,
+        totalNanos.sum() / NANOS_PER_SECOND,
+        count.sum(),
+        maxNanos.get() / NANOS_PER_SECOND);
+  }
+}
@@ -1,22 +1,46 @@
 package de.bsommerfeld.model.persistence.dao;
 
+import com.google.gson.stream.JsonReader;
 import com.google.inject.Inject;
 import de.bsommerfeld.model.ApplicationContext;
 import de.bsommerfeld.model.action.sequence.ActionSequence;
 import de.bsommerfeld.model.persistence.JsonUtil;
+import de.bsommerfeld.model.persistence.de_serializer.ActionSequenceStreamReader;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class ActionSequenceDao {
 
+    /**
+     * How long a save waits for further saves before the file is written.
+     */
+    public static final long WRITE_BEHIND_DELAY_MS = 250;
+
     public static final File ACTION_SEQUENCE_FOLDER =
             new File(ApplicationContext.getAppdataFolder() + File.separator + "sequences");
 
@@ -28,30 +52,133 @@ public class ActionSequenceDao {
         }
     }
 
+    private final File actionSequenceFolder;
+
     @Inject
     JsonUtil jsonUtil;
 
+    @Inject
+    ActionSequenceStreamReader actionSequenceReader;
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("sequence-writer").factory());
+    private final Map<String, String> pendingWrites = new LinkedHashMap<>();
+    private final Map<Path, OwnChange> ownChanges = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    @Inject
+    public ActionSequenceDao() {
+        this(ACTION_SEQUENCE_FOLDER);
+    }
+
+    /**
+     * Creates a DAO for the sequence files in the given folder instead of the application's sequence folder.
+     *
+     * @param actionSequenceFolder the folder holding the sequence files
+     */
+    ActionSequenceDao(File actionSequenceFolder) {
+        this.actionSequenceFolder = actionSequenceFolder;
+    }
+
     /**
      * Saves the given ActionSequence to a file in the specified folder. The ActionSequence object is serialized to JSON
-     * format before being saved.
+     * format right away, the file itself is written behind: saves arriving within {@link #WRITE_BEHIND_DELAY_MS} are
+     * coalesced, so only the last state of every sequence reaches the disk. Use {@link #flush()} to write pending saves
+     * immediately.
      *
      * @param actionSequence the ActionSequence object to be saved. Must not be null.
      */
     public synchronized void saveActionSequence(ActionSequence actionSequence) {
         Objects.requireNonNull(actionSequence, "ActionSequence darf nicht null sein");
 
-        File file = new File(ACTION_SEQUENCE_FOLDER, actionSequence.getName() + ".sequence");
-        writeActionSequenceToFile(actionSequence, file);
+        // Serialize now, later edits to the sequence belong to a later save
+        pendingWrites.put(actionSequence.getName(), jsonUtil.serialize(actionSequence));
+        if (scheduledFlush == null) {
+            scheduledFlush = writer.schedule(this::flush, WRITE_BEHIND_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes all pending saves to their files.
+     */
+    public synchronized void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+
+        for (Map.Entry<String, String> pendingWrite : pendingWrites.entrySet()) {
+            writeActionSequenceToFile(pendingWrite.getKey(), pendingWrite.getValue());
+        }
+        pendingWrites.clear();
     }
 
-    private void writeActionSequenceToFile(ActionSequence actionSequence, File file) {
-        try (PrintWriter writer = new PrintWriter(file)) {
-            String json = jsonUtil.serialize(actionSequence);
-            writer.println(json);
-            writer.flush();
-            log.info("ActionSequence erfolgreich gespeichert: {}", actionSequence.getName());
+    /**
+     * Checks whether the current state of the given file was produced by this DAO, i.e. the file still has the
+     * modification time and size it had right after this DAO wrote it, or it is still gone after this DAO deleted it.
+     * Change events for such files carry nothing new and can be ignored.
+     *
+     * @param file the sequence file
+     * @return true if the last change of the file was made by this DAO
+     */
+    public synchronized boolean isOwnChange(Path file) {
+        Path normalizedFile = normalize(file);
+        OwnChange ownChange = ownChanges.get(normalizedFile);
+        if (ownChange == null) {
+            return false;
+        }
+        if (ownChange.deleted()) {
+            return !Files.exists(normalizedFile);
+        }
+        return ownChange.equals(OwnChange.of(normalizedFile));
+    }
+
+    /**
+     * Returns the file an ActionSequence with the given name is stored in.
+     *
+     * @param name the name of the ActionSequence
+     * @return the path of the sequence file, whether it exists or not
+     */
+    public Path getActionSequenceFile(String name) {
+        return new File(actionSequenceFolder, name + ".sequence").toPath();
+    }
+
+    /**
+     * Writes the sequence to a temporary file next to its target, syncs it to the disk and moves it over the target, so
+     * a crash leaves either the old or the new file, never a truncated one.
+     */
+    private void writeActionSequenceToFile(String name, String json) {
+        Path file = normalize(getActionSequenceFile(name));
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(
+                    tempFile,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap((json + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            moveIntoPlace(tempFile, file);
+            ownChanges.put(file, OwnChange.of(file));
+            log.info("ActionSequence erfolgreich gespeichert: {}", name);
         } catch (IOException e) {
-            log.error("Fehler beim Speichern der ActionSequence: {}", actionSequence.getName(), e);
+            log.error("Fehler beim Speichern der ActionSequence: {}", name, e);
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private void moveIntoPlace(Path tempFile, Path file) throws IOException {
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
@@ -66,7 +193,10 @@ public class ActionSequenceDao {
     public synchronized void deleteActionSequence(ActionSequence actionSequence) {
         Objects.requireNonNull(actionSequence, "ActionSequence darf nicht null sein");
 
-        File file = new File(ACTION_SEQUENCE_FOLDER, actionSequence.getName() + ".sequence");
+        // A pending save would bring the file back
+        pendingWrites.remove(actionSequence.getName());
+
+        File file = getActionSequenceFile(actionSequence.getName()).toFile();
         if (!file.exists()) {
             log.warn("ActionSequence-Datei existiert nicht: {}", file.getAbsolutePath());
             return;
@@ -74,6 +204,7 @@ public class ActionSequenceDao {
 
         try {
             Files.delete(file.toPath());
+            ownChanges.put(normalize(file.toPath()), OwnChange.DELETED);
             log.info("ActionSequence erfolgreich gelöscht: {}", actionSequence.getName());
         } catch (IOException e) {
             log.error("Fehler beim Löschen der ActionSequence: {}", actionSequence.getName(), e);
@@ -88,27 +219,19 @@ public class ActionSequenceDao {
      * during the load, an empty list will be returned.
      */
     public List<ActionSequence> loadActionSequences() {
-        List<ActionSequence> actionSequences = new ArrayList<>();
-        File[] actionSequenceFiles = ACTION_SEQUENCE_FOLDER.listFiles();
+        List<Path> actionSequenceFiles = listActionSequenceFiles();
 
-        if (areFilesEmpty(actionSequenceFiles)) {
+        if (actionSequenceFiles.isEmpty()) {
             log.warn(
                     "Keine ActionSequence-Dateien gefunden im Ordner: {}",
-                    ACTION_SEQUENCE_FOLDER.getAbsolutePath());
-            return actionSequences;
+                    actionSequenceFolder.getAbsolutePath());
+            return new ArrayList<>();
         }
 
-        for (File file : actionSequenceFiles) {
-            if (isSequenceFile(file)) {
-                ActionSequence actionSequence = null;
-                try {
-                    actionSequence = loadActionSequenceFromFile(file);
-                } catch (IOException ignore) {
-                }
-
-                if (actionSequence != null) {
-                    actionSequences.add(actionSequence);
-                }
+        List<ActionSequence> actionSequences = new ArrayList<>();
+        for (ActionSequenceLoadResult result : loadActionSequences(actionSequenceFiles)) {
+            if (result.isSuccess()) {
+                actionSequences.add(result.actionSequence());
             }
         }
 
@@ -116,6 +239,87 @@ public class ActionSequenceDao {
         return actionSequences;
     }
 
+    /**
+     * Loads the given sequence files in parallel. Every file is read on its own virtual thread, the
+     * parsing itself runs on the carrier threads, so a large library loads in time proportional to
+     * the number of cores rather than the number of files.
+     *
+     * @param files the sequence files to load
+     * @return one result per file, in the order of the given files, holding either the loaded
+     * sequence or the error that prevented loading it
+     */
+    public List<ActionSequenceLoadResult> loadActionSequences(List<Path> files) {
+        if (files.isEmpty()) {
+            return List.of();
+        }
+        if (files.size() == 1) {
+            return List.of(loadActionSequenceResult(files.getFirst()));
+        }
+
+        List<Future<ActionSequenceLoadResult>> futures = new ArrayList<>(files.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path file : files) {
+                futures.add(executor.submit(() -> loadActionSequenceResult(file)));
+            }
+        }
+
+        List<ActionSequenceLoadResult> results = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            results.add(resultOf(files.get(i), futures.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Lists all sequence files in the sequence folder without reading them.
+     *
+     * @return the paths of all sequence files, empty if there are none or the folder cannot be read
+     */
+    public List<Path> listActionSequenceFiles() {
+        List<Path> files = new ArrayList<>();
+        File[] actionSequenceFiles = actionSequenceFolder.listFiles();
+        if (areFilesEmpty(actionSequenceFiles)) {
+            return files;
+        }
+
+        for (File file : actionSequenceFiles) {
+            if (isSequenceFile(file)) {
+                files.add(file.toPath());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Loads a single action sequence from the given file.
+     *
+     * @param file the sequence file to load
+     * @return the loaded {@link ActionSequence}, or {@code null} if the file cannot be read or parsed
+     */
+    public ActionSequence loadActionSequence(Path file) {
+        return loadActionSequenceResult(file).actionSequence();
+    }
+
+    private ActionSequenceLoadResult loadActionSequenceResult(Path file) {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            return ActionSequenceLoadResult.success(file, actionSequenceReader.read(reader));
+        } catch (IOException | RuntimeException e) {
+            log.error("Fehler beim Laden der ActionSequence aus Datei: {}", file.toAbsolutePath(), e);
+            return ActionSequenceLoadResult.failure(file, e);
+        }
+    }
+
+    private ActionSequenceLoadResult resultOf(Path file, Future<ActionSequenceLoadResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ActionSequenceLoadResult.failure(file, e);
+        } catch (ExecutionException e) {
+            return ActionSequenceLoadResult.failure(file, e);
+        }
+    }
+
     private boolean areFilesEmpty(File[] files) {
         return files == null || files.length == 0;
     }
@@ -124,13 +328,22 @@ public class ActionSequenceDao {
         return file.getName().endsWith(".sequence");
     }
 
-    private ActionSequence loadActionSequenceFromFile(File file) throws IOException {
-        try {
-            String content = new String(Files.readAllBytes(file.toPath()));
-            return jsonUtil.deserializeActionSequence(content);
-        } catch (IOException e) {
-            log.error("Fehler beim Laden der ActionSequence aus Datei: {}", file.getAbsolutePath(), e);
-            return null;
+    private static Path normalize(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    /** The state a file was left in by the last write or delete of this DAO. */
+    private record OwnChange(boolean deleted, long lastModified, long size) {
+
+        static final OwnChange DELETED = new OwnChange(true, 0, 0);
+
+        static OwnChange of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new OwnChange(false, attributes.lastModifiedTime().toMillis(), attributes.size());
+            } catch (IOException e) {
+                return null;
+            }
         }
     }
 }
@@ -0,0 +1,33 @@
+package de.bsommerfeld.model.persistence.dao;
+
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+
+import java.nio.file.Path;
+
+/**
+ * The outcome of loading a single sequence file. Exactly one of {@code actionSequence} and
+ * {@code error} is set.
+ *
+ * @param file the file that was loaded
+ * @param actionSequence the loaded sequence, or {@code null} if loading failed
+ * @param error the reason loading failed, or {@code null} if it succeeded
+ */
+public record ActionSequenceLoadResult(Path file, ActionSequence actionSequence, Exception error) {
+
+    static ActionSequenceLoadResult success(Path file, ActionSequence actionSequence) {
+        return new ActionSequenceLoadResult(file, actionSequence, null);
+    }
+
+    static ActionSequenceLoadResult failure(Path file, Exception error) {
+        return new ActionSequenceLoadResult(file, null, error);
+    }
+
+    /**
+     * Checks whether the file was loaded successfully.
+     *
+     * @return true if a sequence was loaded, false if loading failed
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
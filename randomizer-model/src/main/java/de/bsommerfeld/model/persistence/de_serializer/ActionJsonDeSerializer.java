@@ -19,6 +19,7 @@ public class ActionJsonDeSerializer implements JsonSerializer<Action>, JsonDeser
 
   private static final String NAME_KEY = "name";
   private static final String INTERVAL_KEY = "interval";
+  private static final String TRACK_KEY = "track";
 
   private final ActionRepository actionRepository;
 
@@ -38,6 +39,10 @@ public class ActionJsonDeSerializer implements JsonSerializer<Action>, JsonDeser
     JsonObject jsonObject = new JsonObject();
     jsonObject.addProperty(NAME_KEY, action.getName());
     jsonObject.add(INTERVAL_KEY, context.serialize(action.getInterval()));
+    // Single track sequences keep their files as they were
+    if (action.getTrack() != 0) {
+      jsonObject.addProperty(TRACK_KEY, action.getTrack());
+    }
     return jsonObject;
   }
 
@@ -69,6 +74,9 @@ public class ActionJsonDeSerializer implements JsonSerializer<Action>, JsonDeser
       Action action = templateAction.clone();
       Interval interval = context.deserialize(jsonObject.get(INTERVAL_KEY), Interval.class);
       action.setInterval(interval);
+      if (jsonObject.has(TRACK_KEY)) {
+        action.setTrack(jsonObject.get(TRACK_KEY).getAsInt());
+      }
       return action;
     } catch (CloneNotSupportedException e) {
       throw new RuntimeException("Failed to clone action: " + actionName, e);
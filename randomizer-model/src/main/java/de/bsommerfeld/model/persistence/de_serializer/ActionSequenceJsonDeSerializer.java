@@ -24,6 +24,7 @@ public class ActionSequenceJsonDeSerializer
     private static final String DESCRIPTION_KEY = "description";
     private static final String ACTIVE_KEY = "active";
     private static final String ACTIONS_KEY = "actions";
+    private static final String WEIGHT_KEY = "weight";
 
     @Override
     public JsonElement serialize(
@@ -33,6 +34,7 @@ public class ActionSequenceJsonDeSerializer
         jsonObject.addProperty(NAME_KEY, actionSequence.getName());
         jsonObject.addProperty(DESCRIPTION_KEY, actionSequence.getDescription());
         jsonObject.addProperty(ACTIVE_KEY, actionSequence.isActive());
+        jsonObject.addProperty(WEIGHT_KEY, actionSequence.getWeight());
         jsonObject.add(ACTIONS_KEY, context.serialize(actionSequence.getActions()));
 
         return jsonObject;
@@ -50,10 +52,12 @@ public class ActionSequenceJsonDeSerializer
         String description = extractStringValue(jsonObject, DESCRIPTION_KEY, "");
         List<Action> actions = extractActions(jsonObject, context);
         boolean active = extractBooleanValue(jsonObject, ACTIVE_KEY);
+        double weight = extractDoubleValue(jsonObject, WEIGHT_KEY, 1.0);
 
         ActionSequence actionSequence = new ActionSequence(name);
         actionSequence.setDescription(description);
         actionSequence.setActive(active);
+        actionSequence.setWeight(weight);
         actionSequence.setActions(actions);
         return actionSequence;
     }
@@ -70,7 +74,8 @@ public class ActionSequenceJsonDeSerializer
         return NAME_KEY.equals(key)
                 || DESCRIPTION_KEY.equals(key)
                 || ACTIONS_KEY.equals(key)
-                || ACTIVE_KEY.equals(key);
+                || ACTIVE_KEY.equals(key)
+                || WEIGHT_KEY.equals(key);
     }
 
     private String extractStringValue(JsonObject jsonObject, String key, String defaultValue) {
@@ -87,6 +92,12 @@ public class ActionSequenceJsonDeSerializer
                 : Collections.emptyList();
     }
 
+    private double extractDoubleValue(JsonObject jsonObject, String key, double defaultValue) {
+        return jsonObject.has(key) && !jsonObject.get(key).isJsonNull()
+                ? jsonObject.get(key).getAsDouble()
+                : defaultValue;
+    }
+
     private boolean extractBooleanValue(JsonObject jsonObject, String key) {
         return jsonObject.has(key)
                 && !jsonObject.get(key).isJsonNull()
@@ -0,0 +1,162 @@
+package de.bsommerfeld.model.persistence.de_serializer;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.inject.Inject;
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.action.spi.ActionRepository;
+import de.bsommerfeld.model.action.value.Interval;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an {@link ActionSequence} token by token from a {@link JsonReader}. It understands the same
+ * format {@link ActionSequenceJsonDeSerializer} writes, but never builds an intermediate
+ * {@code String} or {@code JsonElement} tree, which keeps loading large sequence libraries cheap.
+ *
+ * <p>The reader holds no state between calls and can be used from several threads at once.
+ */
+@Slf4j
+public class ActionSequenceStreamReader {
+
+    private static final String NAME_KEY = "name";
+    private static final String DESCRIPTION_KEY = "description";
+    private static final String ACTIVE_KEY = "active";
+    private static final String ACTIONS_KEY = "actions";
+    private static final String WEIGHT_KEY = "weight";
+    private static final String INTERVAL_KEY = "interval";
+    private static final String TRACK_KEY = "track";
+    private static final String MIN_KEY = "min";
+    private static final String MAX_KEY = "max";
+
+    private final ActionRepository actionRepository;
+
+    @Inject
+    public ActionSequenceStreamReader(ActionRepository actionRepository) {
+        this.actionRepository = actionRepository;
+    }
+
+    /**
+     * Reads one action sequence object from the given reader.
+     *
+     * @param reader the reader positioned before the sequence object
+     * @return the read {@link ActionSequence}
+     * @throws IOException if the underlying input cannot be read
+     * @throws JsonParseException if the input is not a valid sequence
+     */
+    public ActionSequence read(JsonReader reader) throws IOException {
+        String name = "<INVALID>";
+        String description = "";
+        boolean active = false;
+        double weight = 1.0;
+        List<Action> actions = List.of();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+
+            switch (key) {
+                case NAME_KEY -> name = reader.nextString();
+                case DESCRIPTION_KEY -> description = reader.nextString();
+                case ACTIVE_KEY -> active = reader.nextBoolean();
+                case WEIGHT_KEY -> weight = reader.nextDouble();
+                case ACTIONS_KEY -> actions = readActions(reader);
+                default -> {
+                    log.warn("Unbekannter Key gefunden: {}", key);
+                    reader.skipValue();
+                }
+            }
+        }
+        reader.endObject();
+
+        ActionSequence actionSequence = new ActionSequence(name);
+        actionSequence.setDescription(description);
+        actionSequence.setActive(active);
+        actionSequence.setWeight(weight);
+        actionSequence.setActions(actions);
+        return actionSequence;
+    }
+
+    private List<Action> readActions(JsonReader reader) throws IOException {
+        List<Action> actions = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Action action = readAction(reader);
+            if (action != null) {
+                actions.add(action);
+            }
+        }
+        reader.endArray();
+        return actions;
+    }
+
+    private Action readAction(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        String actionName = null;
+        Interval interval = null;
+        int track = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (NAME_KEY.equals(key) && reader.peek() != JsonToken.NULL) {
+                actionName = reader.nextString();
+            } else if (INTERVAL_KEY.equals(key) && reader.peek() != JsonToken.NULL) {
+                interval = readInterval(reader);
+            } else if (TRACK_KEY.equals(key) && reader.peek() != JsonToken.NULL) {
+                track = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        try {
+            // getByName hands out a copy, so the template is never shared
+            Action action = actionRepository.getByName(actionName);
+            if (interval != null) {
+                action.setInterval(interval);
+            }
+            action.setTrack(track);
+            return action;
+        } catch (Exception exception) {
+            log.error(
+                    "Failed to deserialize Action: {}. Diese spezielle Aktion wird übersprungen.",
+                    actionName,
+                    exception);
+            return null;
+        }
+    }
+
+    private Interval readInterval(JsonReader reader) throws IOException {
+        int min = 0;
+        int max = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (MIN_KEY.equals(key)) {
+                min = reader.nextInt();
+            } else if (MAX_KEY.equals(key)) {
+                max = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return Interval.of(min, max);
+    }
+}
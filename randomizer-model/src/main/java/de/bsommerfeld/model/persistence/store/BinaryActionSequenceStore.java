@@ -0,0 +1,408 @@
+package de.bsommerfeld.model.persistence.store;
+
+import com.google.inject.Inject;
+import de.bsommerfeld.model.ApplicationContext;
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.action.spi.ActionRepository;
+import de.bsommerfeld.model.action.value.Interval;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceLoadResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static de.bsommerfeld.model.persistence.store.StoreFormat.HEADER_SIZE;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.MAGIC;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.VERSION;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.readString;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.readVarInt;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.readVarLong;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.unZigZag;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.writeLong;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.writeString;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.writeVarInt;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.writeVarLong;
+import static de.bsommerfeld.model.persistence.store.StoreFormat.zigZag;
+
+/**
+ * A packed, memory-mapped copy of the sequence library. All sequences live in a single file with an
+ * interned action name table and an index of record offsets (see {@link StoreFormat} for the
+ * layout), so the library can be listed from the index alone and a single sequence can be decoded
+ * without touching the others.
+ *
+ * <p>The JSON {@code .sequence} files stay the source of truth. Every index entry remembers the
+ * modification time and size of the file it was stored from, which tells whether the stored copy
+ * is still current. The store can be rebuilt from the JSON files with {@link #importJson()} and
+ * written back to them with {@link #exportJson()}.
+ */
+@Slf4j
+public class BinaryActionSequenceStore {
+
+    public static final File STORE_FILE = new File(ApplicationContext.getAppdataFolder(), "sequences.bin");
+
+    private final ActionRepository actionRepository;
+    private final ActionSequenceDao actionSequenceDao;
+    private final Path storeFile;
+
+    private Arena arena;
+    private ByteBuffer mapped;
+    private String[] actionNames;
+    private Map<String, StoreIndexEntry> entriesByFile = Map.of();
+
+    @Inject
+    public BinaryActionSequenceStore(ActionRepository actionRepository, ActionSequenceDao actionSequenceDao) {
+        this(actionRepository, actionSequenceDao, STORE_FILE.toPath());
+    }
+
+    /**
+     * Creates a store kept in the given file instead of the application's store file.
+     */
+    BinaryActionSequenceStore(ActionRepository actionRepository, ActionSequenceDao actionSequenceDao, Path storeFile) {
+        this.actionRepository = actionRepository;
+        this.actionSequenceDao = actionSequenceDao;
+        this.storeFile = storeFile;
+    }
+
+    /**
+     * Maps the store file and reads its index. Does nothing if the store is already open.
+     *
+     * @return true if the store is open, false if there is no valid store file
+     */
+    public synchronized boolean open() {
+        if (mapped != null) {
+            return true;
+        }
+        if (!Files.exists(storeFile)) {
+            return false;
+        }
+
+        Arena mappingArena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(storeFile, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), mappingArena);
+            ByteBuffer buffer = segment.asByteBuffer();
+            readIndex(buffer);
+            arena = mappingArena;
+            mapped = buffer;
+            log.info("Sequence store {} opened with {} sequences.", storeFile, entriesByFile.size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            mappingArena.close();
+            actionNames = null;
+            entriesByFile = Map.of();
+            log.warn("Sequence store {} could not be opened, the JSON files are used instead.", storeFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Unmaps the store file. The store is opened again on the next read.
+     */
+    public synchronized void close() {
+        if (arena != null) {
+            arena.close();
+        }
+        arena = null;
+        mapped = null;
+        actionNames = null;
+        entriesByFile = Map.of();
+    }
+
+    /**
+     * Returns the index of the store, in the order the sequences were written.
+     *
+     * @return the index entries, or an empty list if there is no valid store file
+     */
+    public synchronized List<StoreIndexEntry> entries() {
+        return open() ? List.copyOf(entriesByFile.values()) : List.of();
+    }
+
+    /**
+     * Decodes the sequence of the given index entry.
+     *
+     * @param entry an entry of this store's index
+     * @return the sequence, or an empty Optional if the store is gone or the record is damaged
+     */
+    public synchronized Optional<ActionSequence> read(StoreIndexEntry entry) {
+        if (!open()) {
+            return Optional.empty();
+        }
+
+        try {
+            ByteBuffer record = mapped.duplicate()
+                    .limit(entry.offset() + entry.length())
+                    .position(entry.offset());
+            return Optional.of(decodeSequence(record));
+        } catch (RuntimeException e) {
+            log.warn("Sequence '{}' could not be read from the sequence store.", entry.sequenceName(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Decodes the stored copy of the given JSON sequence file, if the file has not changed since it
+     * was stored.
+     *
+     * @param file the JSON sequence file
+     * @param lastModified the current modification time of the file, in milliseconds
+     * @param size the current size of the file
+     * @return the stored sequence, or an empty Optional if there is no current copy of the file
+     */
+    public synchronized Optional<ActionSequence> readIfCurrent(Path file, long lastModified, long size) {
+        if (!open()) {
+            return Optional.empty();
+        }
+
+        StoreIndexEntry entry = entriesByFile.get(file.getFileName().toString());
+        if (entry == null || !entry.matches(lastModified, size)) {
+            return Optional.empty();
+        }
+        return read(entry);
+    }
+
+    /**
+     * Replaces the store with the given sequences. The new store is written next to the old one and
+     * moved into place, so a reader never sees a half written file.
+     *
+     * @param sequences the sequences to store
+     * @return true if the store was written, false otherwise
+     */
+    public synchronized boolean write(Collection<StoredSequence> sequences) {
+        byte[] bytes = encode(sequences);
+        Path tempFile = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+
+        // A mapped file cannot be replaced on Windows
+        close();
+        try {
+            Files.write(tempFile, bytes);
+            moveIntoPlace(tempFile);
+            log.info("Sequence store written with {} sequences ({} bytes).", sequences.size(), bytes.length);
+            return true;
+        } catch (IOException e) {
+            log.error("Sequence store {} could not be written.", storeFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Rebuilds the store from the JSON sequence files in the sequence folder.
+     *
+     * @return the number of sequences written to the store
+     */
+    public int importJson() {
+        List<Path> files = actionSequenceDao.listActionSequenceFiles();
+
+        // Stat before loading, a file changing in between then only looks outdated
+        Map<Path, BasicFileAttributes> attributesByFile = new HashMap<>();
+        for (Path file : files) {
+            BasicFileAttributes attributes = attributesOf(file);
+            if (attributes != null) {
+                attributesByFile.put(file, attributes);
+            }
+        }
+
+        List<StoredSequence> sequences = new ArrayList<>();
+        for (ActionSequenceLoadResult result : actionSequenceDao.loadActionSequences(files)) {
+            BasicFileAttributes attributes = attributesByFile.get(result.file());
+            if (result.isSuccess() && attributes != null) {
+                sequences.add(new StoredSequence(
+                        result.file(),
+                        attributes.lastModifiedTime().toMillis(),
+                        attributes.size(),
+                        result.actionSequence()));
+            }
+        }
+        return write(sequences) ? sequences.size() : 0;
+    }
+
+    /**
+     * Writes every stored sequence back to its JSON sequence file.
+     *
+     * @return the number of sequences written
+     */
+    public int exportJson() {
+        int exported = 0;
+        for (StoreIndexEntry entry : entries()) {
+            Optional<ActionSequence> actionSequence = read(entry);
+            if (actionSequence.isPresent()) {
+                actionSequenceDao.saveActionSequence(actionSequence.get());
+                exported++;
+            }
+        }
+        actionSequenceDao.flush();
+        return exported;
+    }
+
+    private void readIndex(ByteBuffer buffer) {
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a sequence store");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported sequence store version " + version);
+        }
+        int nameTableOffset = Math.toIntExact(header.getLong());
+        int indexOffset = Math.toIntExact(header.getLong());
+        int sequenceCount = header.getInt();
+
+        ByteBuffer nameTable = buffer.duplicate().position(nameTableOffset);
+        String[] names = new String[readVarInt(nameTable)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = readString(nameTable);
+        }
+
+        ByteBuffer index = buffer.duplicate().position(indexOffset);
+        Map<String, StoreIndexEntry> entries = LinkedHashMap.newLinkedHashMap(sequenceCount);
+        for (int i = 0; i < sequenceCount; i++) {
+            String fileName = readString(index);
+            String sequenceName = readString(index);
+            long lastModified = index.getLong();
+            long size = readVarLong(index);
+            boolean active = index.get() != 0;
+            int offset = readVarInt(index);
+            int length = readVarInt(index);
+            entries.put(fileName, new StoreIndexEntry(fileName, sequenceName, lastModified, size, active, offset, length));
+        }
+
+        actionNames = names;
+        entriesByFile = entries;
+    }
+
+    private ActionSequence decodeSequence(ByteBuffer record) {
+        String name = readString(record);
+        String description = readString(record);
+        boolean active = record.get() != 0;
+        double weight = record.getDouble();
+        int actionCount = readVarInt(record);
+
+        List<Action> actions = new ArrayList<>(Math.min(actionCount, record.remaining()));
+        for (int i = 0; i < actionCount; i++) {
+            String actionName = actionNames[readVarInt(record)];
+            int min = unZigZag(readVarInt(record));
+            int max = unZigZag(readVarInt(record));
+            int track = readVarInt(record);
+            Action action = createAction(actionName, min, max, track);
+            if (action != null) {
+                actions.add(action);
+            }
+        }
+
+        ActionSequence actionSequence = new ActionSequence(name);
+        actionSequence.setDescription(description);
+        actionSequence.setActive(active);
+        actionSequence.setWeight(weight);
+        actionSequence.setActions(actions);
+        return actionSequence;
+    }
+
+    private Action createAction(String actionName, int min, int max, int track) {
+        try {
+            // getByName hands out a copy, so the template is never shared
+            Action action = actionRepository.getByName(actionName);
+            action.setInterval(Interval.of(min, max));
+            action.setTrack(track);
+            return action;
+        } catch (Exception exception) {
+            log.error(
+                    "Failed to deserialize Action: {}. Diese spezielle Aktion wird übersprungen.",
+                    actionName,
+                    exception);
+            return null;
+        }
+    }
+
+    private static byte[] encode(Collection<StoredSequence> sequences) {
+        Map<String, Integer> nameIds = new LinkedHashMap<>();
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+
+        for (StoredSequence sequence : sequences) {
+            ActionSequence actionSequence = sequence.actionSequence();
+            int offset = HEADER_SIZE + records.size();
+            encodeSequence(records, actionSequence, nameIds);
+
+            writeString(index, sequence.file().getFileName().toString());
+            writeString(index, actionSequence.getName());
+            writeLong(index, sequence.lastModified());
+            writeVarLong(index, sequence.size());
+            index.write(actionSequence.isActive() ? 1 : 0);
+            writeVarInt(index, offset);
+            writeVarInt(index, HEADER_SIZE + records.size() - offset);
+        }
+
+        ByteArrayOutputStream nameTable = new ByteArrayOutputStream();
+        writeVarInt(nameTable, nameIds.size());
+        for (String name : nameIds.keySet()) {
+            writeString(nameTable, name);
+        }
+
+        int nameTableOffset = HEADER_SIZE + records.size();
+        int indexOffset = nameTableOffset + nameTable.size();
+        ByteBuffer file = ByteBuffer.allocate(indexOffset + index.size());
+        file.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(nameTableOffset)
+                .putLong(indexOffset)
+                .putInt(sequences.size())
+                .putInt(0);
+        file.put(records.toByteArray());
+        file.put(nameTable.toByteArray());
+        file.put(index.toByteArray());
+        return file.array();
+    }
+
+    private static void encodeSequence(
+            ByteArrayOutputStream out, ActionSequence actionSequence, Map<String, Integer> nameIds) {
+        writeString(out, actionSequence.getName());
+        writeString(out, Objects.requireNonNullElse(actionSequence.getDescription(), ""));
+        out.write(actionSequence.isActive() ? 1 : 0);
+        writeLong(out, Double.doubleToLongBits(actionSequence.getWeight()));
+
+        List<Action> actions = actionSequence.getActions();
+        writeVarInt(out, actions.size());
+        for (Action action : actions) {
+            Interval interval = action.getInterval();
+            writeVarInt(out, nameIds.computeIfAbsent(action.getName(), _ -> nameIds.size()));
+            writeVarInt(out, zigZag(interval.getMin()));
+            writeVarInt(out, zigZag(interval.getMax()));
+            writeVarInt(out, action.getTrack());
+        }
+    }
+
+    private void moveIntoPlace(Path tempFile) throws IOException {
+        try {
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static BasicFileAttributes attributesOf(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
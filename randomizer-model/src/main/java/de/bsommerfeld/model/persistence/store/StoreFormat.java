@@ -0,0 +1,108 @@
+package de.bsommerfeld.model.persistence.store;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout constants and primitive encoders of the binary sequence store.
+ *
+ * <p>A store file consists of a fixed header, the sequence records, the action name table and the
+ * index:
+ *
+ * <pre>
+ * header      magic:int version:int nameTableOffset:long indexOffset:long sequenceCount:int reserved:int
+ * record      name:string description:string active:byte weight:double actionCount:varint
+ *             (nameId:varint min:zigzag max:zigzag track:varint)*
+ * name table  count:varint name:string*
+ * index       (fileName:string sequenceName:string lastModified:long size:varlong active:byte
+ *              offset:varint length:varint)*
+ * </pre>
+ *
+ * Strings are a varint byte length followed by UTF-8 bytes, fixed size numbers are big-endian.
+ */
+final class StoreFormat {
+
+    static final int MAGIC = 0x52535131; // "RSQ1"
+    static final int VERSION = 3;
+    static final int HEADER_SIZE = 32;
+
+    private StoreFormat() {
+    }
+
+    static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            if (shift > 28) {
+                throw new IllegalStateException("Malformed varint at " + buffer.position());
+            }
+            current = buffer.get();
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            if (shift > 63) {
+                throw new IllegalStateException("Malformed varlong at " + buffer.position());
+            }
+            current = buffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Malformed string length " + length + " at " + buffer.position());
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
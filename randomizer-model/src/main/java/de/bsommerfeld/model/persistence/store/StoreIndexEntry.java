@@ -0,0 +1,34 @@
+package de.bsommerfeld.model.persistence.store;
+
+/**
+ * One entry of the binary store's index. Reading the index alone is enough to list the library
+ * and to tell whether a sequence file changed since it was stored, without decoding any sequence.
+ *
+ * @param fileName the name of the JSON sequence file the sequence was stored from
+ * @param sequenceName the name of the sequence
+ * @param lastModified the modification time of the JSON file when it was stored, in milliseconds
+ * @param size the size of the JSON file when it was stored
+ * @param active whether the sequence is active
+ * @param offset the position of the sequence record in the store file
+ * @param length the length of the sequence record in bytes
+ */
+public record StoreIndexEntry(
+        String fileName,
+        String sequenceName,
+        long lastModified,
+        long size,
+        boolean active,
+        int offset,
+        int length) {
+
+    /**
+     * Checks whether the entry was stored from a file with the given modification time and size.
+     *
+     * @param lastModified the current modification time of the file, in milliseconds
+     * @param size the current size of the file
+     * @return true if the stored sequence is still current
+     */
+    public boolean matches(long lastModified, long size) {
+        return this.lastModified == lastModified && this.size == size;
+    }
+}
@@ -0,0 +1,17 @@
+package de.bsommerfeld.model.persistence.store;
+
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+
+import java.nio.file.Path;
+
+/**
+ * A sequence to be written to the binary store, together with the state of the JSON file it was
+ * loaded from.
+ *
+ * @param file the JSON sequence file
+ * @param lastModified the modification time of the file when the sequence was loaded, in milliseconds
+ * @param size the size of the file when the sequence was loaded
+ * @param actionSequence the sequence
+ */
+public record StoredSequence(Path file, long lastModified, long size, ActionSequence actionSequence) {
+}
@@ -0,0 +1,27 @@
+package de.bsommerfeld.model.watcher;
+
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+
+/**
+ * The kind of change the {@link FileSystemWatcher} observed on a file.
+ */
+public enum FileChangeKind {
+    CREATED,
+    MODIFIED,
+    DELETED;
+
+    /**
+     * Maps a watch event kind to the corresponding FileChangeKind.
+     *
+     * @param kind the kind reported by the {@link java.nio.file.WatchService}
+     * @return the matching FileChangeKind
+     * @throws IllegalArgumentException if the kind is not a create, modify or delete event
+     */
+    public static FileChangeKind of(WatchEvent.Kind<?> kind) {
+        if (kind == StandardWatchEventKinds.ENTRY_CREATE) return CREATED;
+        if (kind == StandardWatchEventKinds.ENTRY_MODIFY) return MODIFIED;
+        if (kind == StandardWatchEventKinds.ENTRY_DELETE) return DELETED;
+        throw new IllegalArgumentException("Unsupported watch event kind: " + kind.name());
+    }
+}
@@ -1,5 +1,7 @@
 package de.bsommerfeld.model.watcher;
 
+import de.bsommerfeld.model.metrics.Counter;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
 import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
 import lombok.extern.slf4j.Slf4j;
 
@@ -14,20 +16,70 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.function.Consumer;
-
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Watches the sequence folder and reports every created, modified or deleted {@code .sequence}
+ * file to the registered listeners, together with the kind of change.
+ *
+ * <p>Saving a file often produces a burst of events, and the file may still be incomplete at the
+ * first one. A change is therefore only reported once its file has been quiet for {@value
+ * #QUIET_PERIOD_MS} ms: every event restarts the wait, and only the kind of the last event is
+ * reported. The listeners are called on the watcher's own scheduler thread.
+ */
 @Slf4j
 public class FileSystemWatcher implements Runnable {
 
-    private static final long DEBOUNCE_TIME_MS = 50;
-
-    private final List<Consumer<Path>> fileChangeListeners = new CopyOnWriteArrayList<>();
-    private final Map<Path, Long> lastModifiedTimes = new ConcurrentHashMap<>();
+    static final long QUIET_PERIOD_MS = 200;
+
+    private final List<BiConsumer<Path, FileChangeKind>> fileChangeListeners = new CopyOnWriteArrayList<>();
+    private final List<Predicate<Path>> ignoreRules = new CopyOnWriteArrayList<>();
+    private final Map<Path, PendingChange> pendingChanges = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "file-watcher-debounce");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter fileEvents;
+    private final Counter ignoredFileEvents;
+
+    /**
+     * Creates a watcher that counts the changes it sees in the given registry.
+     *
+     * @param metricsRegistry the registry for the counters of reported and ignored changes
+     */
+    public FileSystemWatcher(MetricsRegistry metricsRegistry) {
+        this.fileEvents = metricsRegistry.counter(
+                "file_watcher_events_total", "Changes of sequence files reported by the file system");
+        this.ignoredFileEvents = metricsRegistry.counter(
+                "file_watcher_events_ignored_total", "Changes of sequence files that were ignored");
+    }
 
-    public void addFileChangeListener(Consumer<Path> fileChangeListener) {
+    /**
+     * Registers a listener that receives the absolute path of a changed sequence file and the kind
+     * of change.
+     *
+     * @param fileChangeListener the listener to register
+     */
+    public void addFileChangeListener(BiConsumer<Path, FileChangeKind> fileChangeListener) {
         fileChangeListeners.add(fileChangeListener);
     }
 
+    /**
+     * Registers a rule for changes that should not be reported, such as the application's own writes. A change is
+     * ignored if any rule matches its file.
+     *
+     * @param ignoreRule the rule, receiving the absolute path of the changed file
+     */
+    public void addIgnoreRule(Predicate<Path> ignoreRule) {
+        ignoreRules.add(ignoreRule);
+    }
+
     @Override
     public void run() {
         try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
@@ -55,7 +107,7 @@ public class FileSystemWatcher implements Runnable {
                     Path filename = ev.context();
 
                     if (filename.toString().endsWith(".sequence")) {
-                        processEvent(filename, kind);
+                        processEvent(clusterDirectory.resolve(filename), FileChangeKind.of(kind));
                     }
                 }
 
@@ -71,25 +123,73 @@ public class FileSystemWatcher implements Runnable {
         } catch (InterruptedException e) {
             log.warn("FileSystemWatcher was interrupted: ", e);
         } finally {
+            scheduler.shutdownNow();
             Thread.currentThread().interrupt();
         }
     }
 
-    private void processEvent(Path filename, WatchEvent.Kind<?> kind) {
-        synchronized (lastModifiedTimes) {
-            Long lastModifiedTime = lastModifiedTimes.getOrDefault(filename, 0L);
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - lastModifiedTime > DEBOUNCE_TIME_MS) {
-                lastModifiedTimes.put(filename, currentTime);
-                log.debug("Detected {} on file: {}", kind.name(), filename);
-                for (Consumer<Path> listener : fileChangeListeners) {
-                    try {
-                        listener.accept(filename);
-                    } catch (Exception e) {
-                        log.error("Error executing file change listener: ", e);
-                    }
-                }
+    /**
+     * Takes a change of the given file reported by the watch service and schedules it to be reported once the file has
+     * been quiet.
+     *
+     * @param file the absolute path of the changed file
+     * @param kind the kind of change
+     */
+    void processEvent(Path file, FileChangeKind kind) {
+        fileEvents.increment();
+        if (isIgnored(file)) {
+            ignoredFileEvents.increment();
+            log.debug("Ignoring {} on file: {}", kind.name(), file);
+            return;
+        }
+
+        // Restart the quiet period of the file, the pending change is replaced by this one
+        PendingChange change = new PendingChange(file, kind);
+        PendingChange previous = pendingChanges.put(file, change);
+        if (previous != null) {
+            previous.future.cancel(false);
+        }
+        change.future = scheduler.schedule(change, QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void notifyListeners(Path file, FileChangeKind kind) {
+        log.debug("Detected {} on file: {}", kind.name(), file);
+        for (BiConsumer<Path, FileChangeKind> listener : fileChangeListeners) {
+            try {
+                listener.accept(file, kind);
+            } catch (Exception e) {
+                log.error("Error executing file change listener: ", e);
+            }
+        }
+    }
+
+    private boolean isIgnored(Path file) {
+        for (Predicate<Path> ignoreRule : ignoreRules) {
+            if (ignoreRule.test(file)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The last change of a file that waits for the file to become quiet. */
+    private final class PendingChange implements Runnable {
+
+        private final Path file;
+        private final FileChangeKind kind;
+        private volatile ScheduledFuture<?> future;
+
+        private PendingChange(Path file, FileChangeKind kind) {
+            this.file = file;
+            this.kind = kind;
+        }
+
+        @Override
+        public void run() {
+            // A newer change of the file replaced this one, it reports instead
+            if (pendingChanges.remove(file, this)) {
+                notifyListeners(file, kind);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package de.bsommerfeld.model.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class NativeEventRingBufferTest {
+
+  @Test
+  void keepsOrderAcrossWrapAround() {
+    NativeEventRingBuffer buffer = new NativeEventRingBuffer(4);
+    List<Long> drained = new ArrayList<>();
+
+    // Three rounds of three events move the indices past the end of the array twice
+    long next = 0;
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 3; i++) {
+        assertTrue(buffer.offer(next++));
+      }
+      assertEquals(3, buffer.drain(drained::add));
+    }
+
+    assertEquals(9, drained.size());
+    for (int i = 0; i < drained.size(); i++) {
+      assertEquals(i, (long) drained.get(i));
+    }
+    assertEquals(0, buffer.drain(drained::add));
+  }
+
+  @Test
+  void dropsAndCountsEventsWhenFull() {
+    NativeEventRingBuffer buffer = new NativeEventRingBuffer(2);
+    assertTrue(buffer.offer(1));
+    assertTrue(buffer.offer(2));
+    assertFalse(buffer.offer(3));
+    assertFalse(buffer.offer(4));
+    assertEquals(2, buffer.getDroppedEvents());
+
+    List<Long> drained = new ArrayList<>();
+    buffer.drain(drained::add);
+    assertEquals(List.of(1L, 2L), drained);
+
+    // Draining makes room again, the dropped events stay lost
+    assertTrue(buffer.offer(5));
+    drained.clear();
+    buffer.drain(drained::add);
+    assertEquals(List.of(5L), drained);
+    assertEquals(2, buffer.getDroppedEvents());
+  }
+
+  @Test
+  void rejectsCapacityThatIsNoPowerOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new NativeEventRingBuffer(0));
+    assertThrows(IllegalArgumentException.class, () -> new NativeEventRingBuffer(3));
+  }
+
+  @Test
+  void encodesKindAndSlot() {
+    int[] slots = {
+      0,
+      1,
+      PressedKeyTable.keySlot(0xFFFF),
+      PressedKeyTable.mouseSlot(5),
+      PressedKeyTable.NO_SLOT,
+      Integer.MAX_VALUE,
+      Integer.MIN_VALUE,
+      0x80000001
+    };
+    for (int kind : new int[] {NativeEventRingBuffer.PRESSED, NativeEventRingBuffer.RELEASED}) {
+      for (int slot : slots) {
+        long event = NativeEventRingBuffer.encode(kind, slot);
+        assertEquals(kind, NativeEventRingBuffer.kind(event), "kind of slot " + slot);
+        assertEquals(slot, NativeEventRingBuffer.slot(event), "slot of kind " + kind);
+      }
+    }
+  }
+
+  @Test
+  void wakesParkedConsumerOnOffer() throws InterruptedException {
+    NativeEventRingBuffer buffer = new NativeEventRingBuffer(8);
+    AtomicLong received = new AtomicLong(-1);
+    Thread consumer =
+        new Thread(
+            () -> {
+              while (received.get() < 0) {
+                if (buffer.drain(received::set) == 0) {
+                  buffer.awaitEvents();
+                }
+              }
+            });
+    consumer.setDaemon(true);
+    consumer.start();
+
+    // Offer only once the consumer is parked on the empty buffer
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (consumer.getState() != Thread.State.WAITING) {
+      assertTrue(System.nanoTime() < deadline, "consumer did not park");
+      Thread.onSpinWait();
+    }
+    assertTrue(buffer.offer(42));
+
+    consumer.join(TimeUnit.SECONDS.toMillis(5));
+    assertFalse(consumer.isAlive(), "consumer was not woken up");
+    assertEquals(42, received.get());
+  }
+
+  @Test
+  void awaitReturnsRightAwayWithQueuedEvents() {
+    NativeEventRingBuffer buffer = new NativeEventRingBuffer(8);
+    buffer.offer(7);
+
+    // Would block forever if it parked despite the queued event
+    buffer.awaitEvents();
+    assertEquals(1, buffer.drain(_ -> {}));
+  }
+}
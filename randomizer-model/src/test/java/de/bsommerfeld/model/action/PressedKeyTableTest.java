@@ -0,0 +1,92 @@
+package de.bsommerfeld.model.action;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PressedKeyTableTest {
+
+  private static final int KEY_W = PressedKeyTable.keySlot(0x11);
+
+  private final PressedKeyTable table = new PressedKeyTable();
+
+  @Test
+  void countsNestedHoldsOfTwoHolders() {
+    assertTrue(table.injectPress(KEY_W), "the first holder presses the key");
+    assertFalse(table.injectPress(KEY_W), "the second holder finds the key already down");
+    assertTrue(table.isHeldByExecutor(KEY_W));
+
+    assertFalse(table.injectRelease(KEY_W), "the key stays down for the other holder");
+    assertTrue(table.isHeldByExecutor(KEY_W));
+
+    assertTrue(table.injectRelease(KEY_W), "the last holder releases the key");
+    assertFalse(table.isHeldByExecutor(KEY_W));
+  }
+
+  @Test
+  void releasesKeyWithoutHold() {
+    assertTrue(table.injectRelease(KEY_W));
+    assertFalse(table.isHeldByExecutor(KEY_W));
+    assertFalse(table.nativeReleased(KEY_W), "our release is consumed as our own");
+  }
+
+  @Test
+  void consumesInjectedPressAndRelease() {
+    assertTrue(table.injectPress(KEY_W));
+    assertFalse(table.nativePressed(KEY_W), "the injected press is not user input");
+    assertFalse(table.isPressedByUser(KEY_W));
+
+    assertTrue(table.injectRelease(KEY_W));
+    assertFalse(table.nativeReleased(KEY_W), "the injected release is not user input");
+    assertFalse(table.isPressedByUser(KEY_W));
+  }
+
+  @Test
+  void consumesOnlyOnePendingEvent() {
+    assertTrue(table.injectPress(KEY_W));
+    assertFalse(table.nativePressed(KEY_W));
+
+    // A second press without an injection of ours is the user's
+    assertTrue(table.nativePressed(KEY_W));
+    assertTrue(table.isPressedByUser(KEY_W));
+  }
+
+  @Test
+  void reportsUserReleaseOfHeldKeyOnce() {
+    assertTrue(table.injectPress(KEY_W));
+    assertFalse(table.nativePressed(KEY_W));
+
+    // The user presses and lifts the key while our action holds it
+    assertTrue(table.nativePressed(KEY_W));
+    assertTrue(table.nativeReleased(KEY_W), "the user release is reported");
+    assertTrue(table.isHeldByExecutor(KEY_W), "the release interrupts our hold");
+    assertFalse(table.isPressedByUser(KEY_W));
+
+    // The action ends and releases the key, which is not reported a second time
+    assertTrue(table.injectRelease(KEY_W));
+    assertFalse(table.nativeReleased(KEY_W));
+    assertFalse(table.isHeldByExecutor(KEY_W));
+  }
+
+  @Test
+  void keepsKeysAndMouseButtonsApart() {
+    int mouseSlot = PressedKeyTable.mouseSlot(1);
+    assertTrue(PressedKeyTable.isMouseSlot(mouseSlot));
+    assertFalse(PressedKeyTable.isMouseSlot(KEY_W));
+
+    assertTrue(table.injectPress(mouseSlot));
+    assertTrue(table.isHeldByExecutor(mouseSlot));
+    assertFalse(table.isHeldByExecutor(KEY_W));
+  }
+
+  @Test
+  void ignoresKeysWithoutSlot() {
+    assertTrue(table.injectPress(PressedKeyTable.NO_SLOT), "input without a slot is injected");
+    assertTrue(table.injectRelease(PressedKeyTable.NO_SLOT));
+    assertFalse(table.nativePressed(PressedKeyTable.NO_SLOT));
+    assertFalse(table.nativeReleased(PressedKeyTable.NO_SLOT));
+    assertFalse(table.isHeldByExecutor(PressedKeyTable.NO_SLOT));
+    assertFalse(table.isPressedByUser(PressedKeyTable.NO_SLOT));
+  }
+}
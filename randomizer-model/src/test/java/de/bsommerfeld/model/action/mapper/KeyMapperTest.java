@@ -0,0 +1,165 @@
+package de.bsommerfeld.model.action.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.ActionType;
+import de.bsommerfeld.model.action.PressedKeyTable;
+import de.bsommerfeld.model.action.ResolvedActionKey;
+import de.bsommerfeld.model.config.keybind.KeyBind;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the perfect hash table of the {@link KeyMapper} against a plain map of every key, the way
+ * the keys were resolved before the table existed.
+ */
+class KeyMapperTest {
+
+    private static final Map<String, ResolvedActionKey> BASELINE = new LinkedHashMap<>();
+
+    static {
+        keyboard("A", KeyEvent.VK_A, NativeKeyEvent.VC_A);
+        keyboard("B", KeyEvent.VK_B, NativeKeyEvent.VC_B);
+        keyboard("C", KeyEvent.VK_C, NativeKeyEvent.VC_C);
+        keyboard("D", KeyEvent.VK_D, NativeKeyEvent.VC_D);
+        keyboard("E", KeyEvent.VK_E, NativeKeyEvent.VC_E);
+        keyboard("F", KeyEvent.VK_F, NativeKeyEvent.VC_F);
+        keyboard("G", KeyEvent.VK_G, NativeKeyEvent.VC_G);
+        keyboard("H", KeyEvent.VK_H, NativeKeyEvent.VC_H);
+        keyboard("I", KeyEvent.VK_I, NativeKeyEvent.VC_I);
+        keyboard("J", KeyEvent.VK_J, NativeKeyEvent.VC_J);
+        keyboard("K", KeyEvent.VK_K, NativeKeyEvent.VC_K);
+        keyboard("L", KeyEvent.VK_L, NativeKeyEvent.VC_L);
+        keyboard("M", KeyEvent.VK_M, NativeKeyEvent.VC_M);
+        keyboard("N", KeyEvent.VK_N, NativeKeyEvent.VC_N);
+        keyboard("O", KeyEvent.VK_O, NativeKeyEvent.VC_O);
+        keyboard("P", KeyEvent.VK_P, NativeKeyEvent.VC_P);
+        keyboard("Q", KeyEvent.VK_Q, NativeKeyEvent.VC_Q);
+        keyboard("R", KeyEvent.VK_R, NativeKeyEvent.VC_R);
+        keyboard("S", KeyEvent.VK_S, NativeKeyEvent.VC_S);
+        keyboard("T", KeyEvent.VK_T, NativeKeyEvent.VC_T);
+        keyboard("U", KeyEvent.VK_U, NativeKeyEvent.VC_U);
+        keyboard("V", KeyEvent.VK_V, NativeKeyEvent.VC_V);
+        keyboard("W", KeyEvent.VK_W, NativeKeyEvent.VC_W);
+        keyboard("X", KeyEvent.VK_X, NativeKeyEvent.VC_X);
+        keyboard("Y", KeyEvent.VK_Y, NativeKeyEvent.VC_Y);
+        keyboard("Z", KeyEvent.VK_Z, NativeKeyEvent.VC_Z);
+
+        keyboard("0", KeyEvent.VK_0, NativeKeyEvent.VC_0);
+        keyboard("1", KeyEvent.VK_1, NativeKeyEvent.VC_1);
+        keyboard("2", KeyEvent.VK_2, NativeKeyEvent.VC_2);
+        keyboard("3", KeyEvent.VK_3, NativeKeyEvent.VC_3);
+        keyboard("4", KeyEvent.VK_4, NativeKeyEvent.VC_4);
+        keyboard("5", KeyEvent.VK_5, NativeKeyEvent.VC_5);
+        keyboard("6", KeyEvent.VK_6, NativeKeyEvent.VC_6);
+        keyboard("7", KeyEvent.VK_7, NativeKeyEvent.VC_7);
+        keyboard("8", KeyEvent.VK_8, NativeKeyEvent.VC_8);
+        keyboard("9", KeyEvent.VK_9, NativeKeyEvent.VC_9);
+
+        keyboard("F1", KeyEvent.VK_F1, NativeKeyEvent.VC_F1);
+        keyboard("F2", KeyEvent.VK_F2, NativeKeyEvent.VC_F2);
+        keyboard("F3", KeyEvent.VK_F3, NativeKeyEvent.VC_F3);
+        keyboard("F4", KeyEvent.VK_F4, NativeKeyEvent.VC_F4);
+        keyboard("F5", KeyEvent.VK_F5, NativeKeyEvent.VC_F5);
+        keyboard("F6", KeyEvent.VK_F6, NativeKeyEvent.VC_F6);
+        keyboard("F7", KeyEvent.VK_F7, NativeKeyEvent.VC_F7);
+        keyboard("F8", KeyEvent.VK_F8, NativeKeyEvent.VC_F8);
+        keyboard("F9", KeyEvent.VK_F9, NativeKeyEvent.VC_F9);
+        keyboard("F10", KeyEvent.VK_F10, NativeKeyEvent.VC_F10);
+        keyboard("F11", KeyEvent.VK_F11, NativeKeyEvent.VC_F11);
+        keyboard("F12", KeyEvent.VK_F12, NativeKeyEvent.VC_F12);
+
+        keyboard("CTRL", KeyEvent.VK_CONTROL, NativeKeyEvent.VC_CONTROL);
+        keyboard("SHIFT", KeyEvent.VK_SHIFT, NativeKeyEvent.VC_SHIFT);
+        keyboard("ALT", KeyEvent.VK_ALT, NativeKeyEvent.VC_ALT);
+        keyboard("ALTGR", KeyEvent.VK_ALT_GRAPH, NativeKeyEvent.VC_ALT);
+
+        keyboard("UP", KeyEvent.VK_UP, NativeKeyEvent.VC_UP);
+        keyboard("DOWN", KeyEvent.VK_DOWN, NativeKeyEvent.VC_DOWN);
+        keyboard("LEFT", KeyEvent.VK_LEFT, NativeKeyEvent.VC_LEFT);
+        keyboard("RIGHT", KeyEvent.VK_RIGHT, NativeKeyEvent.VC_RIGHT);
+        keyboard("PAGE_UP", KeyEvent.VK_PAGE_UP, NativeKeyEvent.VC_PAGE_UP);
+        keyboard("PAGE_DOWN", KeyEvent.VK_PAGE_DOWN, NativeKeyEvent.VC_PAGE_DOWN);
+        keyboard("HOME", KeyEvent.VK_HOME, NativeKeyEvent.VC_HOME);
+        keyboard("END", KeyEvent.VK_END, NativeKeyEvent.VC_END);
+        keyboard("INSERT", KeyEvent.VK_INSERT, NativeKeyEvent.VC_INSERT);
+        keyboard("DELETE", KeyEvent.VK_DELETE, NativeKeyEvent.VC_DELETE);
+
+        keyboard("ENTER", KeyEvent.VK_ENTER, NativeKeyEvent.VC_ENTER);
+        keyboard("ESCAPE", KeyEvent.VK_ESCAPE, NativeKeyEvent.VC_ESCAPE);
+        keyboard("TAB", KeyEvent.VK_TAB, NativeKeyEvent.VC_TAB);
+        keyboard("BACKSPACE", KeyEvent.VK_BACK_SPACE, NativeKeyEvent.VC_BACKSPACE);
+        keyboard("SPACE", KeyEvent.VK_SPACE, NativeKeyEvent.VC_SPACE);
+        keyboard("CAPSLOCK", KeyEvent.VK_CAPS_LOCK, NativeKeyEvent.VC_CAPS_LOCK);
+        keyboard("PRINTSCREEN", KeyEvent.VK_PRINTSCREEN, NativeKeyEvent.VC_PRINTSCREEN);
+        keyboard("SCROLL_LOCK", KeyEvent.VK_SCROLL_LOCK, NativeKeyEvent.VC_SCROLL_LOCK);
+        keyboard("PAUSE", KeyEvent.VK_PAUSE, NativeKeyEvent.VC_PAUSE);
+
+        for (int button = 1; button <= 5; button++) {
+            BASELINE.put("MOUSE" + button, new ResolvedActionKey(InputEvent.getMaskForButton(button),
+                    ActionType.MOUSE, PressedKeyTable.mouseSlot(button)));
+        }
+
+        BASELINE.put("MWHEELDOWN", new ResolvedActionKey(-1, ActionType.MOUSE_WHEEL, PressedKeyTable.NO_SLOT));
+        BASELINE.put("MWHEELUP", new ResolvedActionKey(1, ActionType.MOUSE_WHEEL, PressedKeyTable.NO_SLOT));
+    }
+
+    private final KeyMapper keyMapper = new KeyMapper();
+
+    @Test
+    void resolvesEveryMappedKeyInAnyCase() {
+        for (Map.Entry<String, ResolvedActionKey> mapping : BASELINE.entrySet()) {
+            String key = mapping.getKey();
+            ResolvedActionKey expected = mapping.getValue();
+            for (String spelling : new String[] {key, key.toLowerCase(Locale.ROOT), mixedCase(key)}) {
+                assertEquals(expected, keyMapper.resolve(spelling), spelling);
+                assertEquals(expected, keyMapper.resolve(ActionKey.of(spelling)), spelling);
+                assertEquals(expected.keyCode(), keyMapper.getKeyCodeForKey(spelling), spelling);
+            }
+        }
+    }
+
+    @Test
+    void resolvesUnmappedKeysLikeTheBaseline() {
+        assertUnmapped("UNKNOWN", ActionType.KEYBOARD);
+        assertUnmapped("F13", ActionType.KEYBOARD);
+        assertUnmapped("WW", ActionType.KEYBOARD);
+        assertUnmapped("A ", ActionType.KEYBOARD);
+        assertUnmapped("", ActionType.KEYBOARD);
+
+        // Unmapped mouse buttons and wheels keep the type their name suggests
+        assertUnmapped("MOUSE6", ActionType.MOUSE);
+        assertUnmapped("mouse_x", ActionType.MOUSE);
+        assertUnmapped("MWHEELLEFT", ActionType.MOUSE_WHEEL);
+        assertUnmapped("mWheelRight", ActionType.MOUSE_WHEEL);
+
+        assertUnmapped(KeyBind.EMPTY_KEY_BIND.getKey(), ActionType.CUSTOM);
+    }
+
+    private void assertUnmapped(String key, ActionType expectedType) {
+        ResolvedActionKey resolved = keyMapper.resolve(key);
+        assertEquals(-1, resolved.keyCode(), key);
+        assertEquals(expectedType, resolved.actionType(), key);
+        assertEquals(PressedKeyTable.NO_SLOT, resolved.keySlot(), key);
+        assertEquals(-1, keyMapper.getKeyCodeForKey(key), key);
+    }
+
+    private static void keyboard(String key, int keyCode, int nativeKeyCode) {
+        BASELINE.put(key, new ResolvedActionKey(keyCode, ActionType.KEYBOARD, PressedKeyTable.keySlot(nativeKeyCode)));
+    }
+
+    private static String mixedCase(String key) {
+        StringBuilder mixed = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            mixed.append(i % 2 == 0 ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return mixed.toString();
+    }
+}
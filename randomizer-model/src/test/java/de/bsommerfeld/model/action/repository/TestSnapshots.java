@@ -0,0 +1,35 @@
+package de.bsommerfeld.model.action.repository;
+
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import java.util.LinkedHashMap;
+
+/** Builds {@link ActionSequenceSnapshot snapshots} for tests without a repository. */
+public final class TestSnapshots {
+
+    private TestSnapshots() {}
+
+    /**
+     * Creates a snapshot of the given sequences, in the given order.
+     *
+     * @param previous the snapshot the new one follows
+     * @param sequences the sequences of the snapshot
+     * @return a snapshot with a higher version than the previous one
+     */
+    public static ActionSequenceSnapshot next(ActionSequenceSnapshot previous, ActionSequence... sequences) {
+        LinkedHashMap<String, ActionSequence> sequencesByName = new LinkedHashMap<>();
+        for (ActionSequence sequence : sequences) {
+            sequencesByName.put(sequence.getName(), sequence);
+        }
+        return previous.next(sequencesByName);
+    }
+
+    /**
+     * Creates a first snapshot of the given sequences, in the given order.
+     *
+     * @param sequences the sequences of the snapshot
+     * @return the snapshot
+     */
+    public static ActionSequenceSnapshot of(ActionSequence... sequences) {
+        return next(ActionSequenceSnapshot.EMPTY, sequences);
+    }
+}
@@ -0,0 +1,178 @@
+package de.bsommerfeld.model.action.sequence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.bsommerfeld.model.ApplicationContext;
+import de.bsommerfeld.model.ApplicationState;
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.InputBatch.InputKind;
+import de.bsommerfeld.model.action.NativeInputHook;
+import de.bsommerfeld.model.action.PressedKeyTable;
+import de.bsommerfeld.model.action.config.ActionConfig;
+import de.bsommerfeld.model.action.impl.BaseAction;
+import de.bsommerfeld.model.action.impl.PauseAction;
+import de.bsommerfeld.model.action.impl.RecordingActionExecutor;
+import de.bsommerfeld.model.action.impl.RecordingActionExecutor.RecordedInput;
+import de.bsommerfeld.model.action.impl.VirtualClock;
+import de.bsommerfeld.model.action.repository.DefaultActionRepository;
+import de.bsommerfeld.model.action.repository.DefaultActionSequenceRepository;
+import de.bsommerfeld.model.action.spi.FocusManager;
+import de.bsommerfeld.model.action.spi.SequenceSelector;
+import de.bsommerfeld.model.action.value.Interval;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
+import de.bsommerfeld.model.persistence.store.BinaryActionSequenceStore;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the executor headless on a {@link VirtualClock}, the {@link RecordingActionExecutor} shows
+ * when it would have pressed and released.
+ */
+class DefaultActionSequenceExecutorTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final VirtualClock clock = new VirtualClock(0);
+  private final RecordingActionExecutor recorder = new RecordingActionExecutor(clock);
+  private final ApplicationContext applicationContext = new ApplicationContext();
+  private final ActionConfig actionConfig = new ActionConfig();
+  private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+  private volatile boolean focused = true;
+  private final FocusManager focusManager =
+      new FocusManager() {
+        @Override
+        public boolean isApplicationWindowInFocus() {
+          return focused;
+        }
+
+        @Override
+        public void registerFocusChangeListener(Consumer<Boolean> listener) {}
+      };
+
+  private DefaultActionSequenceExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    applicationContext.setCheckForCS2Focus(false);
+    actionConfig.setMinWaitTime(1000);
+    actionConfig.setMaxWaitTime(1001);
+    Action.setDependencies(applicationContext, recorder, focusManager, actionConfig, clock, clock);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (executor != null) {
+      executor.stop();
+    }
+  }
+
+  @Test
+  void runsSequenceOnVirtualTime() throws InterruptedException {
+    BaseAction hold = new BaseAction("Hold W", ActionKey.of("W"));
+    hold.setInterval(Interval.of(200, 201));
+    PauseAction pause = new PauseAction();
+    pause.setInterval(Interval.of(300, 301));
+    BaseAction tap = new BaseAction("Tap E", ActionKey.of("E"));
+    tap.setInterval(Interval.of(0, 0));
+
+    ActionSequence sequence = new ActionSequence("Walk and use");
+    sequence.setActions(List.of(hold, pause, tap));
+
+    // The first cycle dispatches the sequence, the second one ends the test
+    AtomicInteger selections = new AtomicInteger();
+    AtomicLong secondCycleMillis = new AtomicLong();
+    CountDownLatch secondCycle = new CountDownLatch(1);
+    SequenceSelector selector =
+        _ -> {
+          if (selections.getAndIncrement() == 0) {
+            return sequence;
+          }
+          secondCycleMillis.compareAndSet(0, clock.currentTimeMillis());
+          secondCycle.countDown();
+          return null;
+        };
+
+    executor = newExecutor(selector, sequence);
+    applicationContext.setApplicationState(ApplicationState.RUNNING);
+    executor.start();
+
+    assertTrue(secondCycle.await(10, TimeUnit.SECONDS), "executor did not reach its next cycle");
+
+    List<RecordedInput> inputs = recorder.getRecordedInputs();
+    assertEquals(4, inputs.size());
+
+    RecordedInput pressW = inputs.get(0);
+    RecordedInput releaseW = inputs.get(1);
+    RecordedInput pressE = inputs.get(2);
+    RecordedInput releaseE = inputs.get(3);
+
+    assertEquals(InputKind.PRESS, pressW.kind());
+    assertEquals(InputKind.RELEASE, releaseW.kind());
+    assertEquals(pressW.keyCode(), releaseW.keyCode());
+    assertEquals(0, pressW.timestampNanos());
+    assertEquals(200 * MILLIS, releaseW.timestampNanos());
+
+    // The pause waits without input, the tap goes out as one batch
+    assertEquals(InputKind.PRESS, pressE.kind());
+    assertEquals(InputKind.RELEASE, releaseE.kind());
+    assertNotEquals(pressW.keyCode(), pressE.keyCode());
+    assertEquals(pressE.batch(), releaseE.batch());
+    assertEquals(500 * MILLIS, pressE.timestampNanos());
+    assertEquals(500 * MILLIS, releaseE.timestampNanos());
+
+    // The next cycle is due one wait time after the sequence ended
+    assertEquals(1500, secondCycleMillis.get());
+  }
+
+  @Test
+  void awaitsFocusWhenStartedWithoutIt() {
+    focused = false;
+    applicationContext.setCheckForCS2Focus(true);
+    executor = newExecutor(_ -> null, new ActionSequence("Unused"));
+
+    applicationContext.setApplicationState(ApplicationState.RUNNING);
+    assertEquals(ApplicationState.AWAITING, applicationContext.getApplicationState());
+
+    // Without the check there is nothing to wait for anymore
+    applicationContext.setCheckForCS2Focus(false);
+    assertEquals(ApplicationState.IDLING, applicationContext.getApplicationState());
+  }
+
+  private DefaultActionSequenceExecutor newExecutor(
+      SequenceSelector selector, ActionSequence sequence) {
+    DefaultActionRepository actionRepository = new DefaultActionRepository();
+    ActionSequenceDao actionSequenceDao = new ActionSequenceDao();
+    DefaultActionSequenceRepository actionSequenceRepository =
+        new DefaultActionSequenceRepository(
+            actionSequenceDao,
+            new BinaryActionSequenceStore(actionRepository, actionSequenceDao),
+            actionConfig,
+            metricsRegistry);
+    actionSequenceRepository.addActionSequence(sequence);
+
+    DefaultActionSequenceDispatcher dispatcher =
+        new DefaultActionSequenceDispatcher(
+            actionRepository, focusManager, applicationContext, clock, metricsRegistry);
+    return new DefaultActionSequenceExecutor(
+        actionSequenceRepository,
+        selector,
+        applicationContext,
+        dispatcher,
+        focusManager,
+        new NativeInputHook(new PressedKeyTable(), metricsRegistry),
+        actionConfig,
+        clock,
+        clock);
+  }
+}
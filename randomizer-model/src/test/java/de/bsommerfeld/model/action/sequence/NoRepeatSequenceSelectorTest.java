@@ -0,0 +1,148 @@
+package de.bsommerfeld.model.action.sequence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import de.bsommerfeld.model.action.repository.TestSnapshots;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class NoRepeatSequenceSelectorTest {
+
+  private static final int DRAWS = 10_000;
+
+  private final SplittableRandom random = new SplittableRandom(42);
+
+  @Test
+  void repeatsNoneOfTheLastSelections() {
+    NoRepeatSequenceSelector selector = new NoRepeatSequenceSelector(3);
+    selector.rebuild(snapshotOf(5), null);
+
+    List<Integer> drawn = draw(selector, DRAWS);
+    assertNoRepeatWithin(3, drawn);
+    assertAllDrawn(5, drawn);
+  }
+
+  @Test
+  void shrinksWindowWithFewerSequences() {
+    // Two sequences leave room for a window of one, so they alternate
+    NoRepeatSequenceSelector selector = new NoRepeatSequenceSelector(5);
+    selector.rebuild(snapshotOf(2), null);
+
+    List<Integer> drawn = draw(selector, DRAWS);
+    assertNoRepeatWithin(1, drawn);
+    assertAllDrawn(2, drawn);
+  }
+
+  @Test
+  void keepsSelectingTheOnlySequence() {
+    NoRepeatSequenceSelector selector = new NoRepeatSequenceSelector(5);
+    selector.rebuild(snapshotOf(1), null);
+
+    for (int index : draw(selector, 100)) {
+      assertEquals(0, index);
+    }
+  }
+
+  @Test
+  void allowsRepeatsWithoutWindow() {
+    NoRepeatSequenceSelector selector = new NoRepeatSequenceSelector(0);
+    selector.rebuild(snapshotOf(2), null);
+
+    List<Integer> drawn = draw(selector, DRAWS);
+    boolean repeated = false;
+    for (int i = 1; i < drawn.size(); i++) {
+      repeated |= drawn.get(i).equals(drawn.get(i - 1));
+    }
+    assertTrue(repeated);
+    assertAllDrawn(2, drawn);
+  }
+
+  @Test
+  void startsOverAfterSnapshotChange() {
+    NoRepeatSequenceSelector selector = new NoRepeatSequenceSelector(3);
+    ActionSequenceSnapshot first = snapshotOf(6);
+    selector.rebuild(first, null);
+    draw(selector, 100);
+
+    // Fewer sequences than before: the window shrinks with the new snapshot
+    ActionSequenceSnapshot smaller = TestSnapshots.next(first, sequences(3));
+    selector.rebuild(smaller, first);
+    List<Integer> drawn = draw(selector, DRAWS);
+    assertNoRepeatWithin(2, drawn);
+    assertAllDrawn(3, drawn);
+
+    // More sequences again: the full window applies
+    ActionSequenceSnapshot larger = TestSnapshots.next(smaller, sequences(8));
+    selector.rebuild(larger, smaller);
+    drawn = draw(selector, DRAWS);
+    assertNoRepeatWithin(3, drawn);
+    assertAllDrawn(8, drawn);
+  }
+
+  @Test
+  void selectsFromTheCurrentSnapshot() {
+    NoRepeatSequenceSelector selector = new NoRepeatSequenceSelector(1);
+    ActionSequenceSnapshot first = snapshotOf(4);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(first.getActiveSequences().contains(selector.select(first)));
+    }
+
+    ActionSequence[] replaced = {new ActionSequence("x"), new ActionSequence("y")};
+    ActionSequenceSnapshot second = TestSnapshots.next(first, replaced);
+    ActionSequence previous = null;
+    for (int i = 0; i < 10; i++) {
+      ActionSequence selected = selector.select(second);
+      assertTrue(selected == replaced[0] || selected == replaced[1]);
+      assertNotEquals(previous, selected);
+      previous = selected;
+    }
+  }
+
+  @Test
+  void rejectsNegativeWindow() {
+    assertThrows(IllegalArgumentException.class, () -> new NoRepeatSequenceSelector(-1));
+  }
+
+  private List<Integer> draw(NoRepeatSequenceSelector selector, int draws) {
+    List<Integer> drawn = new ArrayList<>(draws);
+    for (int i = 0; i < draws; i++) {
+      drawn.add(selector.nextIndex(random));
+    }
+    return drawn;
+  }
+
+  private static void assertNoRepeatWithin(int window, List<Integer> drawn) {
+    for (int i = 0; i < drawn.size(); i++) {
+      for (int j = Math.max(0, i - window); j < i; j++) {
+        assertNotEquals(drawn.get(j), drawn.get(i), "draw " + i + " repeats draw " + j);
+      }
+    }
+  }
+
+  private static void assertAllDrawn(int count, List<Integer> drawn) {
+    for (int index = 0; index < count; index++) {
+      assertTrue(drawn.contains(index), "sequence " + index + " was never selected");
+    }
+    for (int index : drawn) {
+      assertTrue(index >= 0 && index < count, "index " + index + " out of range");
+    }
+  }
+
+  private static ActionSequenceSnapshot snapshotOf(int count) {
+    return TestSnapshots.of(sequences(count));
+  }
+
+  private static ActionSequence[] sequences(int count) {
+    ActionSequence[] sequences = new ActionSequence[count];
+    for (int i = 0; i < count; i++) {
+      sequences[i] = new ActionSequence("sequence " + i);
+    }
+    return sequences;
+  }
+}
@@ -0,0 +1,117 @@
+package de.bsommerfeld.model.action.sequence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.bsommerfeld.model.action.repository.ActionSequenceSnapshot;
+import de.bsommerfeld.model.action.repository.TestSnapshots;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class WeightedSequenceSelectorTest {
+
+  private static final int DRAWS = 100_000;
+
+  private final WeightedSequenceSelector selector = new WeightedSequenceSelector();
+  private final SplittableRandom random = new SplittableRandom(42);
+
+  @Test
+  void selectsInProportionToWeight() {
+    ActionSequenceSnapshot snapshot =
+        TestSnapshots.of(weighted("a", 1), weighted("b", 2), weighted("c", 3), weighted("d", 0));
+    selector.rebuild(snapshot, null);
+
+    int[] counts = draw(snapshot.activeCount());
+    assertShare(1 / 6.0, counts[0]);
+    assertShare(2 / 6.0, counts[1]);
+    assertShare(3 / 6.0, counts[2]);
+    assertEquals(0, counts[3], "a sequence with weight 0 is never selected");
+  }
+
+  @Test
+  void treatsInvalidWeightsAsZero() {
+    ActionSequenceSnapshot snapshot =
+        TestSnapshots.of(
+            weighted("a", 1), weighted("b", -5), weighted("c", Double.NaN), weighted("d", 1));
+    selector.rebuild(snapshot, null);
+
+    int[] counts = draw(snapshot.activeCount());
+    assertShare(0.5, counts[0]);
+    assertEquals(0, counts[1]);
+    assertEquals(0, counts[2]);
+    assertShare(0.5, counts[3]);
+  }
+
+  @Test
+  void selectsUniformlyIfAllWeightsAreZero() {
+    ActionSequenceSnapshot snapshot =
+        TestSnapshots.of(weighted("a", 0), weighted("b", 0), weighted("c", 0));
+    selector.rebuild(snapshot, null);
+
+    for (int count : draw(snapshot.activeCount())) {
+      assertShare(1 / 3.0, count);
+    }
+  }
+
+  @Test
+  void selectsTheOnlySequence() {
+    ActionSequence only = weighted("only", 0.5);
+    ActionSequenceSnapshot snapshot = TestSnapshots.of(only);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(only, selector.select(snapshot));
+    }
+  }
+
+  @Test
+  void rebuildsAfterSnapshotChange() {
+    ActionSequence a = weighted("a", 1);
+    ActionSequence b = weighted("b", 1);
+    ActionSequenceSnapshot first = TestSnapshots.of(a, b);
+    for (int i = 0; i < 100; i++) {
+      ActionSequence selected = selector.select(first);
+      assertTrue(selected == a || selected == b);
+    }
+
+    // The new snapshot drops a and gives c all the weight of the remaining ones
+    ActionSequence c = weighted("c", 3);
+    ActionSequenceSnapshot second = TestSnapshots.next(first, b, c);
+    for (int i = 0; i < 100; i++) {
+      ActionSequence selected = selector.select(second);
+      assertTrue(selected == b || selected == c, "selected " + selected.getName());
+    }
+
+    selector.rebuild(second, first);
+    int[] counts = draw(second.activeCount());
+    assertShare(0.25, counts[0]);
+    assertShare(0.75, counts[1]);
+  }
+
+  @Test
+  void selectsNothingWithoutActiveSequences() {
+    ActionSequence inactive = weighted("inactive", 1);
+    inactive.setActive(false);
+
+    assertNull(selector.select(TestSnapshots.of(inactive)));
+    assertNull(selector.select(ActionSequenceSnapshot.EMPTY));
+  }
+
+  private int[] draw(int activeCount) {
+    int[] counts = new int[activeCount];
+    for (int i = 0; i < DRAWS; i++) {
+      counts[selector.nextIndex(random)]++;
+    }
+    return counts;
+  }
+
+  private static void assertShare(double expected, int count) {
+    assertEquals(expected, (double) count / DRAWS, 0.01);
+  }
+
+  private static ActionSequence weighted(String name, double weight) {
+    ActionSequence sequence = new ActionSequence(name);
+    sequence.setWeight(weight);
+    return sequence;
+  }
+}
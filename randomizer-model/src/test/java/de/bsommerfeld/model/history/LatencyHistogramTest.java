@@ -0,0 +1,83 @@
+package de.bsommerfeld.model.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void countsSmallValuesExactly() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int value = 1; value <= 100; value++) {
+      histogram.record(value);
+    }
+
+    assertEquals(1, histogram.getValueAtPercentile(0));
+    assertEquals(1, histogram.getValueAtPercentile(1));
+    assertEquals(50, histogram.getValueAtPercentile(50));
+    assertEquals(99, histogram.getValueAtPercentile(99));
+    assertEquals(100, histogram.getValueAtPercentile(100));
+    assertEquals(50.5, histogram.getMean(), 0.0);
+  }
+
+  @Test
+  void reportsUpperEndOfBucketAtEdges() {
+    // 127 is the last exact value, 128 and 129 share the first bucket of width 2
+    assertEquals(127, upperEndOfBucket(127));
+    assertEquals(129, upperEndOfBucket(128));
+    assertEquals(129, upperEndOfBucket(129));
+    assertEquals(131, upperEndOfBucket(130));
+
+    // A power of two starts a bucket, the value before it ends one
+    assertEquals(255, upperEndOfBucket(255));
+    assertEquals(259, upperEndOfBucket(256));
+    assertEquals(1023, upperEndOfBucket(1023));
+    assertEquals(1039, upperEndOfBucket(1024));
+    assertEquals(1039, upperEndOfBucket(1025));
+  }
+
+  @Test
+  void keepsRelativeErrorBelowOneSixtyFourth() {
+    for (int bit = 7; bit < 40; bit++) {
+      long power = 1L << bit;
+      for (long value : new long[] {power - 1, power, power + 1}) {
+        long upperEnd = upperEndOfBucket(value);
+        String message = "bucket of " + value + " ends at " + upperEnd;
+        assertTrue(upperEnd >= value, message);
+        assertTrue(upperEnd - value < Math.max(1, value / 64), message);
+      }
+      assertEquals(power + power / 64 - 1, upperEndOfBucket(power), "bucket of " + power);
+    }
+  }
+
+  @Test
+  void neverReportsMoreThanTheLargestValue() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(128);
+    assertEquals(128, histogram.getValueAtPercentile(50));
+    assertEquals(128, histogram.getValueAtPercentile(100));
+
+    histogram.record(-5);
+    assertEquals(0, histogram.getMin(), "negative values are recorded as 0");
+    assertEquals(0, histogram.getValueAtPercentile(50));
+  }
+
+  @Test
+  void reportsZeroWithoutValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getMean(), 0.0);
+  }
+
+  /** Records the value and a much larger one, the lower half then ends with the value's bucket. */
+  private static long upperEndOfBucket(long value) {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(value);
+    histogram.record(value * 4 + 1000);
+    return histogram.getValueAtPercentile(50);
+  }
+}
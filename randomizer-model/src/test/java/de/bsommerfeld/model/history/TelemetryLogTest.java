@@ -0,0 +1,99 @@
+package de.bsommerfeld.model.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.bsommerfeld.model.action.InterruptReason;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TelemetryLogTest {
+
+  private static final long ONE_MIB = 1L << 20;
+
+  @TempDir Path directory;
+
+  @Test
+  void readsRecordsAcrossChunkBoundaries() throws IOException {
+    List<TelemetryRecord> appended = new ArrayList<>();
+    try (TelemetryLog log = TelemetryLog.open(directory)) {
+      // Names of growing length shift the records against the chunk boundaries
+      for (int i = 0; log.length() < 2 * ONE_MIB + ONE_MIB / 2; i++) {
+        TelemetryRecord record = record(i);
+        log.append(record);
+        appended.add(record);
+      }
+
+      log.close();
+      assertEquals(32 + log.length(), Files.size(log.getFile()), "the file is cut to its length");
+      assertEquals(appended, TelemetryLog.read(log.getFile()));
+    }
+  }
+
+  @Test
+  void readsLogThatWasNotClosed() throws IOException {
+    List<TelemetryRecord> appended = new ArrayList<>();
+    try (TelemetryLog log = TelemetryLog.open(directory)) {
+      for (int i = 0; log.length() < ONE_MIB + ONE_MIB / 4; i++) {
+        TelemetryRecord record = record(i);
+        log.append(record);
+        appended.add(record);
+      }
+
+      // The mapped rest of the last chunk is still zero, only the counted bytes are records
+      assertTrue(Files.size(log.getFile()) > 32 + log.length());
+      assertEquals(appended, TelemetryLog.read(log.getFile()));
+    }
+  }
+
+  @Test
+  void readsEmptyLog() throws IOException {
+    TelemetryLog log = TelemetryLog.open(directory);
+    log.close();
+    assertEquals(List.of(), TelemetryLog.read(log.getFile()));
+  }
+
+  @Test
+  void rejectsOtherFiles() throws IOException {
+    Path shortFile = Files.write(directory.resolve("short.bin"), new byte[8]);
+    assertThrows(IOException.class, () -> TelemetryLog.read(shortFile));
+
+    Path otherFile = Files.write(directory.resolve("other.bin"), new byte[64]);
+    assertThrows(IOException.class, () -> TelemetryLog.read(otherFile));
+  }
+
+  @Test
+  void refusesAppendWhenClosedOrDisabled() throws IOException {
+    TelemetryLog log = TelemetryLog.open(directory);
+    log.close();
+    assertThrows(IOException.class, () -> log.append(record(0)));
+
+    TelemetryLog disabled = TelemetryLog.disabled();
+    assertFalse(disabled.isEnabled());
+    assertThrows(IOException.class, () -> disabled.append(record(0)));
+  }
+
+  private static TelemetryRecord record(int i) {
+    TelemetryRecord.Kind[] kinds = TelemetryRecord.Kind.values();
+    TelemetryRecord.Kind kind = kinds[i % kinds.length];
+    if (kind == TelemetryRecord.Kind.FOCUS_LOST || kind == TelemetryRecord.Kind.FOCUS_GAINED) {
+      return new TelemetryRecord(1_700_000_000_000L + i, kind, null, -1, -1, i * 1000L, null);
+    }
+
+    // Every 97th record brings a new name, up to a few records long and with multi-byte characters
+    String name = "Aktion Ü" + "x".repeat((i / 97) % 80) + " #" + i / 97;
+    InterruptReason reason =
+        kind == TelemetryRecord.Kind.ACTION_INTERRUPTED
+            ? InterruptReason.values()[i % InterruptReason.values().length]
+            : null;
+    return new TelemetryRecord(
+        1_700_000_000_000L + i, kind, name, i % 12, i % 500, i * 1000L, reason);
+  }
+}
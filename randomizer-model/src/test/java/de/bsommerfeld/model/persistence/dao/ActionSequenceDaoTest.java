@@ -0,0 +1,109 @@
+package de.bsommerfeld.model.persistence.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.impl.BaseAction;
+import de.bsommerfeld.model.action.repository.DefaultActionRepository;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ActionSequenceDaoTest {
+
+    @TempDir
+    Path folder;
+
+    private ActionSequenceDao actionSequenceDao;
+
+    @BeforeEach
+    void setUp() {
+        DefaultActionRepository actionRepository = new DefaultActionRepository();
+        actionRepository.register(new BaseAction("Jump", ActionKey.of("SPACE")));
+        actionSequenceDao = TestDaos.inFolder(folder, actionRepository);
+    }
+
+    @Test
+    void coalescesSavesOfSameSequence() throws IOException {
+        ActionSequence sequence = new ActionSequence("Sprung");
+        for (int weight = 1; weight <= 3; weight++) {
+            sequence.setWeight(weight);
+            actionSequenceDao.saveActionSequence(sequence);
+        }
+        actionSequenceDao.flush();
+
+        assertEquals(List.of(folder.resolve("Sprung.sequence")), listFolder());
+        assertEquals(3.0, actionSequenceDao.loadActionSequence(listFolder().getFirst()).getWeight(), 0.0);
+    }
+
+    @Test
+    void writesBehindWithoutFlush() throws IOException, InterruptedException {
+        ActionSequence sequence = new ActionSequence("Sprung");
+        sequence.setWeight(2.5);
+        actionSequenceDao.saveActionSequence(sequence);
+        Path file = actionSequenceDao.getActionSequenceFile("Sprung");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Files.exists(file)) {
+            assertTrue(System.nanoTime() < deadline, "the pending save was not written");
+            Thread.sleep(ActionSequenceDao.WRITE_BEHIND_DELAY_MS / 5);
+        }
+
+        // The flush is done under the DAO's lock, waiting for it means the write is complete
+        actionSequenceDao.flush();
+        assertEquals(List.of(file), listFolder());
+        assertEquals(2.5, actionSequenceDao.loadActionSequence(file).getWeight(), 0.0);
+    }
+
+    @Test
+    void tellsOwnChangesFromExternalEdits() throws IOException {
+        Path file = actionSequenceDao.getActionSequenceFile("Sprung");
+        assertFalse(actionSequenceDao.isOwnChange(file), "nothing was written yet");
+
+        ActionSequence sequence = new ActionSequence("Sprung");
+        actionSequenceDao.saveActionSequence(sequence);
+        actionSequenceDao.flush();
+        assertTrue(actionSequenceDao.isOwnChange(file));
+
+        String json = Files.readString(file, StandardCharsets.UTF_8);
+        Files.writeString(file, json.replace("No description provided", "Edited by hand"), StandardCharsets.UTF_8);
+        assertFalse(actionSequenceDao.isOwnChange(file));
+
+        // Our next write makes the file ours again
+        actionSequenceDao.saveActionSequence(sequence);
+        actionSequenceDao.flush();
+        assertTrue(actionSequenceDao.isOwnChange(file));
+    }
+
+    @Test
+    void tellsOwnDeletionFromExternalRecreation() throws IOException {
+        ActionSequence sequence = new ActionSequence("Sprung");
+        actionSequenceDao.saveActionSequence(sequence);
+        actionSequenceDao.flush();
+        Path file = actionSequenceDao.getActionSequenceFile("Sprung");
+        String json = Files.readString(file, StandardCharsets.UTF_8);
+
+        actionSequenceDao.deleteActionSequence(sequence);
+        assertFalse(Files.exists(file));
+        assertTrue(actionSequenceDao.isOwnChange(file));
+
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+        assertFalse(actionSequenceDao.isOwnChange(file));
+    }
+
+    private List<Path> listFolder() throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package de.bsommerfeld.model.persistence.dao;
+
+import de.bsommerfeld.model.action.spi.ActionRepository;
+import de.bsommerfeld.model.persistence.GsonProvider;
+import de.bsommerfeld.model.persistence.JsonUtil;
+import de.bsommerfeld.model.persistence.de_serializer.ActionJsonDeSerializer;
+import de.bsommerfeld.model.persistence.de_serializer.ActionSequenceJsonDeSerializer;
+import de.bsommerfeld.model.persistence.de_serializer.ActionSequenceStreamReader;
+import java.nio.file.Path;
+
+/** Wires {@link ActionSequenceDao DAOs} for tests without an injector. */
+public final class TestDaos {
+
+    private TestDaos() {}
+
+    /**
+     * Creates a DAO for the sequence files in the given folder.
+     *
+     * @param folder the folder holding the sequence files
+     * @param actionRepository the repository the actions of the sequences are looked up in
+     * @return a DAO reading and writing the sequence files in the folder
+     */
+    public static ActionSequenceDao inFolder(Path folder, ActionRepository actionRepository) {
+        ActionSequenceDao actionSequenceDao = new ActionSequenceDao(folder.toFile());
+        actionSequenceDao.jsonUtil = new JsonUtil(new GsonProvider(
+                new ActionJsonDeSerializer(actionRepository), new ActionSequenceJsonDeSerializer()).get());
+        actionSequenceDao.actionSequenceReader = new ActionSequenceStreamReader(actionRepository);
+        return actionSequenceDao;
+    }
+}
@@ -0,0 +1,200 @@
+package de.bsommerfeld.model.persistence.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.bsommerfeld.model.action.Action;
+import de.bsommerfeld.model.action.ActionKey;
+import de.bsommerfeld.model.action.config.ActionConfig;
+import de.bsommerfeld.model.action.impl.BaseAction;
+import de.bsommerfeld.model.action.repository.DefaultActionRepository;
+import de.bsommerfeld.model.action.repository.DefaultActionSequenceRepository;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.action.value.Interval;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
+import de.bsommerfeld.model.persistence.dao.TestDaos;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs the store against JSON sequence files in a temporary folder. The JSON files stay the source
+ * of truth, so every store that is outdated or damaged has to be rebuilt from them.
+ */
+class BinaryActionSequenceStoreTest {
+
+    private static final String UNICODE_NAME = "Sprung ✓ Ünïcødé ジャンプ";
+
+    @TempDir
+    Path folder;
+
+    private final DefaultActionRepository actionRepository = new DefaultActionRepository();
+    private Path storeFile;
+    private ActionSequenceDao actionSequenceDao;
+    private BinaryActionSequenceStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        actionRepository.register(new BaseAction("Jump", ActionKey.of("SPACE")));
+        actionRepository.register(new BaseAction("Vorwärts", ActionKey.of("W")));
+
+        storeFile = folder.resolve("sequences.bin");
+        actionSequenceDao = TestDaos.inFolder(Files.createDirectories(folder.resolve("sequences")), actionRepository);
+        store = new BinaryActionSequenceStore(actionRepository, actionSequenceDao, storeFile);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void roundTripsJsonThroughStore() throws IOException {
+        ActionSequence unicode = sequence(UNICODE_NAME, 2.5, action("Jump", 10, 250, 0), action("Vorwärts", 0, 0, 1));
+        unicode.setDescription("Springt und läuft — gleichzeitig");
+        unicode.setActive(false);
+        save(unicode);
+        save(sequence("Ohne Gewicht", 0.0, action("Jump", 0, 1, 0)));
+        Map<Path, String> json = readSequenceFiles();
+
+        assertEquals(2, store.importJson());
+        ActionSequence stored = store.read(entryOf(UNICODE_NAME)).orElseThrow();
+        assertEquals(UNICODE_NAME, stored.getName());
+        assertEquals("Springt und läuft — gleichzeitig", stored.getDescription());
+        assertFalse(stored.isActive());
+        assertEquals(2.5, stored.getWeight(), 0.0);
+        assertEquals(0.0, store.read(entryOf("Ohne Gewicht")).orElseThrow().getWeight(), 0.0);
+
+        // Exporting the store has to bring back the very same files
+        for (Path file : json.keySet()) {
+            Files.delete(file);
+        }
+        assertEquals(2, store.exportJson());
+        assertEquals(json, readSequenceFiles());
+    }
+
+    @Test
+    void rebuildsStoreOfOlderVersion() throws IOException {
+        save(sequence("Sprung", 1.5, action("Jump", 10, 250, 0)));
+        assertEquals(1, store.importJson());
+        store.close();
+
+        byte[] bytes = Files.readAllBytes(storeFile);
+        ByteBuffer.wrap(bytes).putInt(4, 1);
+        Files.write(storeFile, bytes);
+        assertFalse(store.open());
+        assertTrue(store.entries().isEmpty());
+
+        DefaultActionSequenceRepository repository = newRepository();
+        repository.updateActionSequencesCache();
+        assertEquals(1.5, repository.getActionSequence("Sprung").orElseThrow().getWeight(), 0.0);
+
+        // Loading the JSON files instead rewrote the store in the current version
+        assertEquals(StoreFormat.VERSION, ByteBuffer.wrap(Files.readAllBytes(storeFile)).getInt(4));
+        assertEquals(1, store.entries().size());
+        assertEquals("Sprung", store.entries().getFirst().sequenceName());
+    }
+
+    @Test
+    void rebuildsStaleEntry() throws IOException {
+        ActionSequence sequence = sequence("Sprung", 1.0, action("Jump", 10, 250, 0));
+        save(sequence);
+        assertEquals(1, store.importJson());
+        Path file = actionSequenceDao.getActionSequenceFile("Sprung");
+        BasicFileAttributes stored = Files.readAttributes(file, BasicFileAttributes.class);
+        long storedModified = stored.lastModifiedTime().toMillis();
+
+        assertTrue(store.readIfCurrent(file, storedModified, stored.size()).isPresent());
+        assertTrue(store.readIfCurrent(file, storedModified + 1, stored.size()).isEmpty());
+        assertTrue(store.readIfCurrent(file, storedModified, stored.size() + 1).isEmpty());
+
+        sequence.setWeight(3.25);
+        sequence.setDescription("Eine längere Beschreibung als vorher");
+        save(sequence);
+        BasicFileAttributes changed = Files.readAttributes(file, BasicFileAttributes.class);
+        long changedModified = changed.lastModifiedTime().toMillis();
+        assertTrue(store.readIfCurrent(file, changedModified, changed.size()).isEmpty());
+
+        DefaultActionSequenceRepository repository = newRepository();
+        repository.updateActionSequencesCache();
+        assertEquals(3.25, repository.getActionSequence("Sprung").orElseThrow().getWeight(), 0.0);
+        assertEquals(3.25, store.readIfCurrent(file, changedModified, changed.size()).orElseThrow().getWeight(), 0.0);
+    }
+
+    @Test
+    void rejectsTruncatedStore() throws IOException {
+        save(sequence("Sprung", 1.0, action("Jump", 10, 250, 0), action("Vorwärts", 5, 50, 1)));
+        assertEquals(1, store.importJson());
+        store.close();
+
+        byte[] bytes = Files.readAllBytes(storeFile);
+        Path file = actionSequenceDao.getActionSequenceFile("Sprung");
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        for (int length : new int[] {0, StoreFormat.HEADER_SIZE - 1, StoreFormat.HEADER_SIZE, bytes.length / 2,
+                bytes.length - 1}) {
+            Files.write(storeFile, Arrays.copyOf(bytes, length));
+            assertFalse(store.open(), "store cut to " + length + " bytes");
+            assertTrue(store.entries().isEmpty());
+            assertTrue(store.readIfCurrent(file, lastModified, attributes.size()).isEmpty());
+        }
+
+        DefaultActionSequenceRepository repository = newRepository();
+        repository.updateActionSequencesCache();
+        assertEquals(2, repository.getActionSequence("Sprung").orElseThrow().getActions().size());
+        assertTrue(store.open(), "the store is rebuilt from the JSON files");
+    }
+
+    private DefaultActionSequenceRepository newRepository() {
+        ActionConfig actionConfig = new ActionConfig();
+        actionConfig.setBinarySequenceStore(true);
+        return new DefaultActionSequenceRepository(actionSequenceDao, store, actionConfig, new MetricsRegistry());
+    }
+
+    private StoreIndexEntry entryOf(String sequenceName) {
+        return store.entries().stream()
+                .filter(entry -> entry.sequenceName().equals(sequenceName))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Map<Path, String> readSequenceFiles() throws IOException {
+        Map<Path, String> files = new LinkedHashMap<>();
+        for (Path file : actionSequenceDao.listActionSequenceFiles()) {
+            files.put(file, Files.readString(file, StandardCharsets.UTF_8));
+        }
+        return files;
+    }
+
+    private void save(ActionSequence sequence) {
+        actionSequenceDao.saveActionSequence(sequence);
+        actionSequenceDao.flush();
+    }
+
+    private Action action(String name, int min, int max, int track) {
+        Action action = actionRepository.getByName(name);
+        action.setInterval(Interval.of(min, max));
+        action.setTrack(track);
+        return action;
+    }
+
+    private static ActionSequence sequence(String name, double weight, Action... actions) {
+        ActionSequence sequence = new ActionSequence(name);
+        sequence.setWeight(weight);
+        sequence.setActions(List.of(actions));
+        return sequence;
+    }
+}
@@ -0,0 +1,124 @@
+package de.bsommerfeld.model.watcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.bsommerfeld.model.action.config.ActionConfig;
+import de.bsommerfeld.model.action.repository.DefaultActionRepository;
+import de.bsommerfeld.model.action.repository.DefaultActionSequenceRepository;
+import de.bsommerfeld.model.action.sequence.ActionSequence;
+import de.bsommerfeld.model.metrics.MetricsRegistry;
+import de.bsommerfeld.model.persistence.dao.ActionSequenceDao;
+import de.bsommerfeld.model.persistence.dao.TestDaos;
+import de.bsommerfeld.model.persistence.store.BinaryActionSequenceStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Feeds changes to the watcher the way its watch service would and applies the reported changes to
+ * a repository of the sequence files in a temporary folder.
+ */
+class FileSystemWatcherTest {
+
+    @TempDir
+    Path folder;
+
+    private final FileSystemWatcher fileSystemWatcher = new FileSystemWatcher(new MetricsRegistry());
+    private final List<FileChangeKind> reportedChanges = new CopyOnWriteArrayList<>();
+    private ActionSequenceDao actionSequenceDao;
+    private DefaultActionSequenceRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DefaultActionRepository actionRepository = new DefaultActionRepository();
+        actionSequenceDao = TestDaos.inFolder(folder, actionRepository);
+        repository = new DefaultActionSequenceRepository(
+                actionSequenceDao,
+                new BinaryActionSequenceStore(actionRepository, actionSequenceDao),
+                new ActionConfig(),
+                new MetricsRegistry());
+
+        fileSystemWatcher.addFileChangeListener((file, kind) -> {
+            repository.reloadActionSequenceFile(file, kind);
+            reportedChanges.add(kind);
+        });
+    }
+
+    @Test
+    void reloadsBurstOfChangesOnce() throws InterruptedException {
+        ActionSequence sequence = new ActionSequence("Sprung");
+        save(sequence);
+        repository.updateActionSequencesCache();
+        Path file = actionSequenceDao.getActionSequenceFile("Sprung").toAbsolutePath();
+
+        // An editor saving the file reports it several times within the quiet period, the longer
+        // weight makes the change visible even within the same millisecond
+        sequence.setWeight(12.5);
+        save(sequence);
+        fileSystemWatcher.processEvent(file, FileChangeKind.CREATED);
+        for (int i = 0; i < 5; i++) {
+            fileSystemWatcher.processEvent(file, FileChangeKind.MODIFIED);
+        }
+
+        awaitReportedChanges(1);
+        assertEquals(List.of(FileChangeKind.MODIFIED), reportedChanges);
+        assertEquals(12.5, repository.getActionSequence("Sprung").orElseThrow().getWeight(), 0.0);
+    }
+
+    @Test
+    void removesDeletedFileFromSnapshot() throws IOException, InterruptedException {
+        save(new ActionSequence("Sprung"));
+        save(new ActionSequence("Ducken"));
+        repository.updateActionSequencesCache();
+        assertEquals(2, repository.snapshot().size());
+
+        Path file = actionSequenceDao.getActionSequenceFile("Sprung").toAbsolutePath();
+        Files.delete(file);
+        fileSystemWatcher.processEvent(file, FileChangeKind.MODIFIED);
+        fileSystemWatcher.processEvent(file, FileChangeKind.DELETED);
+
+        awaitReportedChanges(1);
+        assertEquals(List.of(FileChangeKind.DELETED), reportedChanges);
+        assertFalse(repository.getActionSequence("Sprung").isPresent());
+        assertTrue(repository.getActionSequence("Ducken").isPresent());
+        assertEquals(1, repository.snapshot().size());
+    }
+
+    @Test
+    void skipsIgnoredChanges() throws InterruptedException {
+        Path file = folder.resolve("Sprung.sequence");
+        fileSystemWatcher.addIgnoreRule(file::equals);
+        fileSystemWatcher.processEvent(file, FileChangeKind.MODIFIED);
+        fileSystemWatcher.processEvent(folder.resolve("Ducken.sequence"), FileChangeKind.DELETED);
+
+        awaitReportedChanges(1);
+        assertEquals(List.of(FileChangeKind.DELETED), reportedChanges);
+    }
+
+    private void save(ActionSequence sequence) {
+        actionSequenceDao.saveActionSequence(sequence);
+        actionSequenceDao.flush();
+    }
+
+    /**
+     * Waits for the expected number of reported changes, and one more quiet period to be sure no
+     * further change follows.
+     */
+    private void awaitReportedChanges(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (reportedChanges.size() < expected) {
+            assertTrue(System.nanoTime() < deadline, "the change was not reported");
+            Thread.sleep(FileSystemWatcher.QUIET_PERIOD_MS / 10);
+        }
+        Thread.sleep(FileSystemWatcher.QUIET_PERIOD_MS * 2);
+        assertEquals(expected, reportedChanges.size());
+    }
+}